@@ -0,0 +1,287 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.bench;
+
+import org.easybatch.core.api.EventManager;
+import org.easybatch.core.api.Record;
+import org.easybatch.core.api.RecordFilter;
+import org.easybatch.core.api.RecordProcessor;
+import org.easybatch.core.api.RecordValidator;
+import org.easybatch.core.api.Report;
+import org.easybatch.core.api.ValidationError;
+import org.easybatch.core.api.event.batch.BatchProcessEventListener;
+import org.easybatch.core.api.event.step.*;
+import org.easybatch.core.impl.EngineBuilder;
+import org.easybatch.core.reader.ListRecordReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the per-record overhead of event dispatching: engines with one filter, one validator and one processor
+ * run either with their default event manager or with a set based event manager, the design used so far, in which
+ * every event iterates a set of listeners even when none is registered.
+ * <p/>
+ * Run with: java -jar easybatch-bench/target/benchmarks.jar EventDispatchBenchmark
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventDispatchBenchmark {
+
+    private static final int RECORDS = 1024;
+
+    /**
+     * Number of registered record processor listeners (other listener types have no registration).
+     */
+    @Param({"0", "1"})
+    private int listeners;
+
+    private List<String> payloads;
+
+    @Setup
+    public void setUp() {
+        payloads = new ArrayList<String>();
+        for (int i = 0; i < RECORDS; i++) {
+            payloads.add("foo,bar," + i);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public Report setBasedEventManager() {
+        return runEngine(new EngineBuilder().setEventManager(new SetBasedEventManager()));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public Report defaultEventManager() {
+        return runEngine(new EngineBuilder());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Report runEngine(final EngineBuilder engineBuilder) {
+        engineBuilder
+                .reader(new ListRecordReader<String>(payloads))
+                .filter(new RecordFilter() {
+                    public boolean filterRecord(Record record) {
+                        return false;
+                    }
+                })
+                .validator(new RecordValidator() {
+                    public Set<ValidationError> validateRecord(Object record) {
+                        return Collections.emptySet();
+                    }
+                })
+                .processor(new RecordProcessor() {
+                    public Object processRecord(Object record) {
+                        return record;
+                    }
+                })
+                .silentMode(true);
+        for (int i = 0; i < listeners; i++) {
+            engineBuilder.recordProcessorEventListener(new CountingListener());
+        }
+        return engineBuilder.build().call();
+    }
+
+    static class CountingListener implements RecordProcessorEventListener {
+
+        private long count;
+
+        public void beforeProcessingRecord(Object record) {
+            count++;
+        }
+
+        public void afterProcessingRecord(Object record, Object processingResult) {
+            count++;
+        }
+
+        public void onRecordProcessingException(Object record, Throwable throwable) {
+            count++;
+        }
+    }
+
+    /**
+     * Baseline event manager keeping listeners in sets. Only the events fired for each record are dispatched,
+     * the other events are not relevant to the per-record overhead.
+     */
+    private static class SetBasedEventManager implements EventManager {
+
+        private final Set<RecordReaderEventListener> recordReaderEventListeners = new LinkedHashSet<RecordReaderEventListener>();
+
+        private final Set<RecordFilterEventListener> recordFilterEventListeners = new LinkedHashSet<RecordFilterEventListener>();
+
+        private final Set<RecordMapperEventListener> recordMapperEventListeners = new LinkedHashSet<RecordMapperEventListener>();
+
+        private final Set<RecordValidatorEventListener> recordValidatorEventListeners = new LinkedHashSet<RecordValidatorEventListener>();
+
+        private final Set<RecordProcessorEventListener> recordProcessorEventListeners = new LinkedHashSet<RecordProcessorEventListener>();
+
+        public void addBatchProcessEventListener(BatchProcessEventListener batchProcessEventListener) {
+        }
+
+        public void addRecordReaderEventListener(RecordReaderEventListener recordReaderEventListener) {
+            recordReaderEventListeners.add(recordReaderEventListener);
+        }
+
+        public void addRecordFilterEventListener(RecordFilterEventListener recordFilterEventListener) {
+            recordFilterEventListeners.add(recordFilterEventListener);
+        }
+
+        public void addRecordMapperEventListener(RecordMapperEventListener recordMapperEventListener) {
+            recordMapperEventListeners.add(recordMapperEventListener);
+        }
+
+        public void addRecordValidatorEventListener(RecordValidatorEventListener recordValidatorEventListener) {
+            recordValidatorEventListeners.add(recordValidatorEventListener);
+        }
+
+        public void addRecordProcessorEventListener(RecordProcessorEventListener recordProcessorEventListener) {
+            recordProcessorEventListeners.add(recordProcessorEventListener);
+        }
+
+        public void addChunkProcessorEventListener(ChunkProcessorEventListener chunkProcessorEventListener) {
+        }
+
+        public void fireBeforeRecordRead() {
+            for (RecordReaderEventListener eventListener : recordReaderEventListeners) {
+                eventListener.beforeRecordRead();
+            }
+        }
+
+        public void fireAfterRecordRead(Record record) {
+            for (RecordReaderEventListener eventListener : recordReaderEventListeners) {
+                eventListener.afterRecordRead(record);
+            }
+        }
+
+        public void fireBeforeFilterRecord(Record record) {
+            for (RecordFilterEventListener eventListener : recordFilterEventListeners) {
+                eventListener.beforeFilterRecord(record);
+            }
+        }
+
+        public void fireAfterFilterRecord(Record record, boolean filterRecord) {
+            for (RecordFilterEventListener eventListener : recordFilterEventListeners) {
+                eventListener.afterFilterRecord(record, filterRecord);
+            }
+        }
+
+        public void fireBeforeMapRecord(Record record) {
+            for (RecordMapperEventListener eventListener : recordMapperEventListeners) {
+                eventListener.beforeMapRecord(record);
+            }
+        }
+
+        public void fireAfterMapRecord(Record record, Object mapResult) {
+            for (RecordMapperEventListener eventListener : recordMapperEventListeners) {
+                eventListener.afterMapRecord(record, mapResult);
+            }
+        }
+
+        public void fireBeforeValidateRecord(Object mappedRecord) {
+            for (RecordValidatorEventListener eventListener : recordValidatorEventListeners) {
+                eventListener.beforeValidateRecord(mappedRecord);
+            }
+        }
+
+        public void fireAfterValidateRecord(Object validatedRecord, Set<ValidationError> validationErrors) {
+            for (RecordValidatorEventListener eventListener : recordValidatorEventListeners) {
+                eventListener.afterValidateRecord(validatedRecord, validationErrors);
+            }
+        }
+
+        public void fireBeforeProcessingRecord(Object record) {
+            for (RecordProcessorEventListener eventListener : recordProcessorEventListeners) {
+                eventListener.beforeProcessingRecord(record);
+            }
+        }
+
+        public void fireAfterProcessingRecord(Object record, Object processResult) {
+            for (RecordProcessorEventListener eventListener : recordProcessorEventListeners) {
+                eventListener.afterProcessingRecord(record, processResult);
+            }
+        }
+
+        public void fireBeforeBatchStart() {
+        }
+
+        public void fireAfterBatchEnd() {
+        }
+
+        public void fireOnBatchException(Throwable throwable) {
+        }
+
+        public void fireBeforeReaderOpen() {
+        }
+
+        public void fireAfterReaderOpen() {
+        }
+
+        public void fireOnRecordReadException(Throwable throwable) {
+        }
+
+        public void fireBeforeRecordReaderClose() {
+        }
+
+        public void fireAfterRecordReaderClose() {
+        }
+
+        public void fireOnRecordProcessingException(Object record, Throwable throwable) {
+        }
+
+        public void fireBeforeProcessingChunk(List<Object> records) {
+        }
+
+        public void fireAfterProcessingChunk(List<Object> records) {
+        }
+
+        public void fireOnChunkProcessingException(List<Object> records, Throwable throwable) {
+        }
+    }
+
+}
@@ -0,0 +1,126 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.bench;
+
+import org.easybatch.core.api.Header;
+import org.easybatch.core.api.RecordFilter;
+import org.easybatch.core.filter.GrepFilter;
+import org.easybatch.core.filter.MultiGrepFilter;
+import org.easybatch.core.record.StringRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of log scrubbing filters: records containing one of the given patterns are filtered either by a chain
+ * of negated {@link GrepFilter}s (evaluated until one of them filters the record, as the engine filter chain does)
+ * or by a single negated {@link MultiGrepFilter}. One record out of ten contains a pattern.
+ * <p/>
+ * Run with: java -jar easybatch-bench/target/benchmarks.jar GrepFilterBenchmark
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GrepFilterBenchmark {
+
+    private static final int RECORDS = 1024;
+
+    @Param({"1", "8", "32"})
+    private int patterns;
+
+    private List<RecordFilter> grepFilters;
+
+    private RecordFilter multiGrepFilter;
+
+    private StringRecord[] records;
+
+    private int index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<String> keywords = new ArrayList<String>();
+        grepFilters = new ArrayList<RecordFilter>();
+        for (int i = 0; i < patterns; i++) {
+            String keyword = "secret" + i + "=";
+            keywords.add(keyword);
+            grepFilters.add(new GrepFilter(keyword, true));
+        }
+        multiGrepFilter = new MultiGrepFilter(keywords, true);
+        records = new StringRecord[RECORDS];
+        for (int i = 0; i < RECORDS; i++) {
+            StringBuilder line = new StringBuilder("2015-06-15 10:12:")
+                    .append(10 + random.nextInt(50))
+                    .append(" INFO [worker-").append(random.nextInt(8))
+                    .append("] org.easybatch.jobs.Job - processed order ").append(random.nextInt(100000))
+                    .append(" for customer ").append(random.nextInt(1000)).append(" in ").append(random.nextInt(500)).append("ms");
+            if (random.nextInt(10) == 0) {
+                line.append(" with ").append(keywords.get(random.nextInt(patterns))).append("foo");
+            }
+            records[i] = new StringRecord(new Header((long) i + 1, "benchmark", new Date()), line.toString());
+        }
+    }
+
+    @Benchmark
+    public boolean chainedGrepFilters() {
+        StringRecord record = nextRecord();
+        for (RecordFilter grepFilter : grepFilters) {
+            if (grepFilter.filterRecord(record)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Benchmark
+    public boolean multiGrepFilter() {
+        return multiGrepFilter.filterRecord(nextRecord());
+    }
+
+    private StringRecord nextRecord() {
+        index = (index + 1) & (RECORDS - 1);
+        return records[index];
+    }
+
+}
@@ -0,0 +1,102 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.core.api;
+
+import java.io.Serializable;
+
+/**
+ * A checkpoint records the progress of an execution: the number of the last record committed
+ * (all records up to and including it have been processed) and, when the reader supports it,
+ * the position of the reader right after this record.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public final class Checkpoint implements Serializable {
+
+    /**
+     * Position value used when the reader is not able to provide its position.
+     */
+    public static final long NO_POSITION = -1;
+
+    private final long recordNumber;
+
+    private final long position;
+
+    /**
+     * @param recordNumber the number of the last committed record
+     * @param position     the position of the reader right after the last committed record, or {@link #NO_POSITION}
+     */
+    public Checkpoint(final long recordNumber, final long position) {
+        this.recordNumber = recordNumber;
+        this.position = position;
+    }
+
+    /**
+     * Return the number of the last committed record.
+     */
+    public long getRecordNumber() {
+        return recordNumber;
+    }
+
+    /**
+     * Return the position of the reader right after the last committed record, or {@link #NO_POSITION}.
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    /**
+     * Return true if this checkpoint holds a reader position.
+     */
+    public boolean hasPosition() {
+        return position != NO_POSITION;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Checkpoint)) {
+            return false;
+        }
+        Checkpoint that = (Checkpoint) o;
+        return recordNumber == that.recordNumber && position == that.position;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (int) (recordNumber ^ (recordNumber >>> 32)) + (int) (position ^ (position >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("[");
+        sb.append("recordNumber=").append(recordNumber);
+        sb.append(", position=").append(position);
+        sb.append("]");
+        return sb.toString();
+    }
+}
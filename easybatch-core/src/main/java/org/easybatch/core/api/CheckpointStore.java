@@ -0,0 +1,61 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.core.api;
+
+/**
+ * Interface for checkpoint store.
+ * A checkpoint store persists the progress of an execution so that a failed execution
+ * can be restarted from the last committed record instead of the beginning of the data source.
+ * <p/>
+ * A checkpoint store is bound to a single job: two engines should not share the same store.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public interface CheckpointStore {
+
+    /**
+     * Load the last saved checkpoint.
+     *
+     * @return the last saved checkpoint or null if there is no checkpoint to restart from
+     * @throws Exception thrown if an exception occurs during checkpoint loading
+     */
+    Checkpoint load() throws Exception;
+
+    /**
+     * Save a checkpoint, replacing the previous one.
+     *
+     * @param checkpoint the checkpoint to save
+     * @throws Exception thrown if an exception occurs during checkpoint saving
+     */
+    void save(Checkpoint checkpoint) throws Exception;
+
+    /**
+     * Remove the saved checkpoint, if any. This is called when an execution finishes normally.
+     *
+     * @throws Exception thrown if an exception occurs during checkpoint removal
+     */
+    void clear() throws Exception;
+
+}
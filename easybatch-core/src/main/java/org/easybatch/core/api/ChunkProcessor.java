@@ -0,0 +1,53 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.core.api;
+
+import java.util.List;
+
+/**
+ * Interface for chunk processor.
+ * A chunk processor receives records by batches of a configured size, typically to write them
+ * to a data sink in a single round trip (a JDBC batch update, a JMS transaction, a buffered file write, etc).
+ * <p/>
+ * Records handed to a chunk processor have been filtered, mapped, validated and processed by the
+ * record processing pipeline. If this processor throws an exception, all records of the chunk are considered in error.
+ * <p/>
+ * Even when records are processed in parallel, chunks are handed to this processor by one thread at a time,
+ * so implementations do not need to be thread-safe.
+ *
+ * @param <I> The type of records in the chunk.
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public interface ChunkProcessor<I> {
+
+    /**
+     * Process a chunk of records.
+     *
+     * @param records the records of the chunk, in the order they were processed.
+     * @throws Exception thrown if an exception occurs during chunk processing
+     */
+    void processChunk(List<I> records) throws Exception;
+
+}
@@ -27,6 +27,7 @@ package org.easybatch.core.api;
 import org.easybatch.core.api.event.batch.BatchProcessEventListener;
 import org.easybatch.core.api.event.step.*;
 
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -84,6 +85,13 @@ public interface EventManager {
      */
     void addRecordProcessorEventListener(final RecordProcessorEventListener recordProcessorEventListener);
 
+    /**
+     * Add an event listener.
+     *
+     * @param chunkProcessorEventListener The listener to add.
+     */
+    void addChunkProcessorEventListener(final ChunkProcessorEventListener chunkProcessorEventListener);
+
     /**
      * Called before the whole batch starts.
      */
@@ -209,4 +217,26 @@ public interface EventManager {
      * @param throwable the exception occurred during record processing
      */
     void fireOnRecordProcessingException(final Object record, final Throwable throwable);
+
+    /**
+     * Called before a chunk of records gets processed.
+     *
+     * @param records The records of the chunk.
+     */
+    void fireBeforeProcessingChunk(final List<Object> records);
+
+    /**
+     * Called after a chunk of records has been successfully processed.
+     *
+     * @param records The records of the chunk.
+     */
+    void fireAfterProcessingChunk(final List<Object> records);
+
+    /**
+     * Called when an exception occurs during chunk processing
+     *
+     * @param records   the records of the chunk
+     * @param throwable the exception occurred during chunk processing
+     */
+    void fireOnChunkProcessingException(final List<Object> records, final Throwable throwable);
 }
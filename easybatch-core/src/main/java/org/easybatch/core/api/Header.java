@@ -4,23 +4,34 @@ import java.util.Date;
 
 /**
  * The record header contains metadata about the record.
+ * <p/>
+ * The record number and the creation time are held as primitives, and the creation {@link Date} is only created
+ * when requested, so that readers can create a header per record without producing more garbage than the header itself.
+ * Readers should compute their data source name once (when opened) and share it between all headers.
  *
  * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
  */
 public class Header {
 
+    private static final long UNDEFINED = Long.MIN_VALUE;
+
     /**
      * The physical record number in the data source (if defined).
      */
-    private Long number;
+    private final long number;
 
     /**
      * The data source name from which this record has been read.
      */
-    private String source;
+    private final String source;
+
+    /**
+     * The time (in milliseconds since the epoch) at which the record has been read (if defined).
+     */
+    private final long creationTime;
 
     /**
-     * The date at which the record has been read.
+     * The date at which the record has been read, created on first access.
      */
     private Date creationDate;
 
@@ -30,18 +41,45 @@ public class Header {
      * @param creationDate date at which the record has been read.
      */
     public Header(Long number, String source, Date creationDate) {
-        this.number = number;
+        this.number = number == null ? UNDEFINED : number;
         this.source = source;
+        this.creationTime = creationDate == null ? UNDEFINED : creationDate.getTime();
         this.creationDate = creationDate;
     }
 
+    /**
+     * @param number       physical record number in the data source.
+     * @param source       data source name from which this record has been read.
+     * @param creationTime time (in milliseconds since the epoch) at which the record has been read.
+     */
+    public Header(long number, String source, long creationTime) {
+        this.number = number;
+        this.source = source;
+        this.creationTime = creationTime;
+    }
+
     /**
      * Return the physical record number in the data source (if defined).
      */
     public Long getNumber() {
+        return hasNumber() ? number : null;
+    }
+
+    /**
+     * Return the physical record number in the data source without boxing it.
+     * The result is only meaningful if {@link #hasNumber()} returns true.
+     */
+    public long getRecordNumber() {
         return number;
     }
 
+    /**
+     * Return true if the physical record number in the data source is defined.
+     */
+    public boolean hasNumber() {
+        return number != UNDEFINED;
+    }
+
     /**
      * Return the data source name from which this record has been read.
      */
@@ -53,15 +91,26 @@ public class Header {
      * Return the date at which the record has been read.
      */
     public Date getCreationDate() {
+        if (creationDate == null && creationTime != UNDEFINED) {
+            creationDate = new Date(creationTime);
+        }
         return creationDate;
     }
 
+    /**
+     * Return the time (in milliseconds since the epoch) at which the record has been read, or {@link Long#MIN_VALUE}
+     * if it is not defined.
+     */
+    public long getCreationTime() {
+        return creationTime;
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("[");
-        sb.append("number=").append(number);
+        sb.append("number=").append(getNumber());
         sb.append(", source=\"").append(source).append('\"');
-        sb.append(", creationDate=\"").append(creationDate);
+        sb.append(", creationDate=\"").append(getCreationDate());
         sb.append("\"]");
         return sb.toString();
     }
@@ -0,0 +1,56 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.easybatch.core.api;
+
+/**
+ * Interface for record filters based only on record numbers.
+ * <p/>
+ * The engine pushes these filters down to the reader: records they filter are skipped without being read when the
+ * reader is a {@link SkippableRecordReader}, and reading stops as soon as they filter all remaining records.
+ * Skipped records are counted as filtered records. Filters are not pushed down when a custom
+ * {@link FilteredRecordHandler} or record filter listeners are registered, since they would not get skipped records,
+ * nor when the reader numbers records differently from their position (see {@link SkippableRecordReader}).
+ * <p/>
+ * Subclasses of the record number filters of the library are not pushed down, since they may override
+ * {@link #filterRecord(Record)} without overriding {@link #nextAcceptedRecordNumber(long)}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public interface RecordNumberFilter extends RecordFilter {
+
+    /**
+     * Returned by {@link #nextAcceptedRecordNumber(long)} when all remaining records are filtered.
+     */
+    long NO_MORE_RECORDS = -1;
+
+    /**
+     * Get the number of the first record, starting from a given number, that is not filtered.
+     *
+     * @param number the record number to start from
+     * @return the number of the first record not filtered, or {@link #NO_MORE_RECORDS} if all records are filtered
+     * from the given number on
+     */
+    long nextAcceptedRecordNumber(final long number);
+
+}
@@ -0,0 +1,69 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.easybatch.core.api;
+
+/**
+ * Exception handed to the {@link ErrorRecordHandler} when the processing of a record exceeds the record processing
+ * timeout of the engine.
+ * <p/>
+ * The stack trace of this exception is a snapshot of the stack of the thread processing the record
+ * when the timeout expired, showing where the processing was stuck.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class RecordProcessingTimeoutException extends Exception {
+
+    private final long timeout;
+
+    private final String threadName;
+
+    /**
+     * @param message    the exception message
+     * @param timeout    the record processing timeout in milliseconds
+     * @param thread     the thread processing the record
+     * @param stackTrace the stack trace of the thread when the timeout expired
+     */
+    public RecordProcessingTimeoutException(final String message, final long timeout,
+                                            final Thread thread, final StackTraceElement[] stackTrace) {
+        super(message);
+        this.timeout = timeout;
+        this.threadName = thread.getName();
+        setStackTrace(stackTrace);
+    }
+
+    /**
+     * @return the record processing timeout in milliseconds
+     */
+    public long getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * @return the name of the thread that was processing the record
+     */
+    public String getThreadName() {
+        return threadName;
+    }
+
+}
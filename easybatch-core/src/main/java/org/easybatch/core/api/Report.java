@@ -24,12 +24,32 @@
 
 package org.easybatch.core.api;
 
+import org.easybatch.core.util.AdaptiveConcurrencyLimiter;
+import org.easybatch.core.util.FilterStatistics;
+import org.easybatch.core.util.LatencyHistogram;
+import org.easybatch.core.util.RateLimiter;
+import org.easybatch.core.util.StripedCounter;
+
 import java.io.Serializable;
 import java.text.SimpleDateFormat;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 /**
  * Class holding batch reporting data.
+ * <p/>
+ * Record counters can be safely incremented by multiple worker threads: they are backed by {@link StripedCounter}s
+ * so that concurrent updates do not contend, and can be read at any time from another thread (by the JMX monitor
+ * for example). Use {@link #snapshot()} to get a consistent copy of the counters of a report being updated.
+ * <p/>
+ * The report also holds a {@link LatencyHistogram} for each {@link Step} of record processing, fed by the engine
+ * with the latencies of a sample of records.
  *
  * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
  */
@@ -37,53 +57,136 @@ public class Report implements Serializable {
 
     public static final String DATE_FORMAT = "yyyy-MM-dd hh:mm:ss";
 
-    private long startTime;
+    private volatile long startTime;
 
-    private long endTime;
+    private volatile long endTime;
 
-    private String dataSource;
+    private volatile String dataSource;
 
-    private Long totalRecords;
+    private volatile Long totalRecords;
 
     // needed only for jmx monitoring
-    private long currentRecordNumber;
+    private volatile long currentRecordNumber;
+
+    private final StripedCounter filteredRecords = new StripedCounter();
+
+    private final StripedCounter ignoredRecords = new StripedCounter();
+
+    private final StripedCounter rejectedRecords = new StripedCounter();
+
+    private final StripedCounter errorRecords = new StripedCounter();
+
+    private final StripedCounter successRecords = new StripedCounter();
+
+    private final StripedCounter retries = new StripedCounter();
 
-    private long filteredRecords;
+    private final StripedCounter slowRecords = new StripedCounter();
 
-    private long ignoredRecords;
+    // needed only for jmx monitoring of asynchronous processing
+    private final StripedCounter inFlightRecords = new StripedCounter();
 
-    private long rejectedRecords;
+    private final Map<Step, LatencyHistogram> latencies = new EnumMap<Step, LatencyHistogram>(Step.class);
 
-    private long errorRecords;
+    private volatile Object batchResult;
 
-    private long successRecords;
+    private volatile Status status;
 
-    private Object batchResult;
+    // needed only for jmx monitoring of staged pipelines
+    private transient volatile Map<String, ? extends Collection<?>> stageQueues = Collections.emptyMap();
 
-    private Status status;
+    // needed only for monitoring of rate limited engines
+    private transient volatile Map<String, RateLimiter> rateLimiters = Collections.emptyMap();
+
+    // needed only for monitoring of engines with adaptive concurrency
+    private transient volatile AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    private transient volatile List<FilterStatistics> filterStatistics = Collections.emptyList();
 
     public Report() {
         status = Status.INITIALIZING;
+        for (Step step : Step.values()) {
+            latencies.put(step, new LatencyHistogram());
+        }
     }
 
     public void incrementTotalFilteredRecords() {
-        filteredRecords++;
+        filteredRecords.increment();
+    }
+
+    public void incrementTotalFilteredRecords(final long count) {
+        filteredRecords.add(count);
     }
 
     public void incrementTotalIgnoredRecord() {
-        ignoredRecords++;
+        ignoredRecords.increment();
+    }
+
+    public void incrementTotalIgnoredRecord(final long count) {
+        ignoredRecords.add(count);
     }
 
     public void incrementTotalRejectedRecord() {
-        rejectedRecords++;
+        rejectedRecords.increment();
+    }
+
+    public void incrementTotalRejectedRecord(final long count) {
+        rejectedRecords.add(count);
     }
 
     public void incrementTotalErrorRecord() {
-        errorRecords++;
+        errorRecords.increment();
+    }
+
+    public void incrementTotalErrorRecord(final long count) {
+        errorRecords.add(count);
     }
 
     public void incrementTotalSuccessRecord() {
-        successRecords++;
+        successRecords.increment();
+    }
+
+    public void incrementTotalSuccessRecord(final long count) {
+        successRecords.add(count);
+    }
+
+    /**
+     * Count a new attempt to process a record after a record processor failed on it.
+     */
+    public void incrementTotalRetries() {
+        retries.increment();
+    }
+
+    public void incrementTotalRetries(final long count) {
+        retries.add(count);
+    }
+
+    /**
+     * Count a record whose processing exceeded the record processing timeout.
+     */
+    public void incrementTotalSlowRecords() {
+        slowRecords.increment();
+    }
+
+    public void incrementTotalSlowRecords(final long count) {
+        slowRecords.add(count);
+    }
+
+    public void incrementInFlightRecords() {
+        inFlightRecords.increment();
+    }
+
+    public void decrementInFlightRecords() {
+        inFlightRecords.decrement();
+    }
+
+    /**
+     * Record the latency of a step of record processing.
+     *
+     * @param step  the step
+     * @param nanos the latency in nanoseconds
+     */
+    public void recordLatency(final Step step, final long nanos) {
+        latencies.get(step).record(nanos);
     }
 
     public void setTotalRecords(final Long totalRecords) {
@@ -142,24 +245,166 @@ public class Report implements Serializable {
         this.status = status;
     }
 
+    /**
+     * Register the input queues of the stages of a staged pipeline, by stage name.
+     *
+     * @param stageQueues the stage queues
+     */
+    public void setStageQueues(final Map<String, ? extends Collection<?>> stageQueues) {
+        this.stageQueues = stageQueues;
+    }
+
+    /**
+     * Get the current number of records waiting in the input queue of each stage (empty if the engine is not staged).
+     *
+     * @return the queue depth of each stage, by stage name
+     */
+    public Map<String, Integer> getStageQueueDepths() {
+        Map<String, Integer> depths = new LinkedHashMap<String, Integer>();
+        if (stageQueues != null) {
+            for (Map.Entry<String, ? extends Collection<?>> stageQueue : stageQueues.entrySet()) {
+                depths.put(stageQueue.getKey(), stageQueue.getValue().size());
+            }
+        }
+        return depths;
+    }
+
+    /**
+     * Register the rate limiters of the engine (the engine rate limiter and the rate limiters of record processors),
+     * by name.
+     *
+     * @param rateLimiters the rate limiters
+     */
+    public void setRateLimiters(final Map<String, RateLimiter> rateLimiters) {
+        this.rateLimiters = rateLimiters;
+    }
+
+    /**
+     * Get the rate limiters of the engine (empty if the engine is not rate limited).
+     *
+     * @return the rate limiters, by name
+     */
+    public Map<String, RateLimiter> getRateLimiters() {
+        return rateLimiters == null ? Collections.<String, RateLimiter>emptyMap() : rateLimiters;
+    }
+
+    /**
+     * Register the adaptive concurrency limiter of the engine.
+     *
+     * @param concurrencyLimiter the concurrency limiter, null if concurrency is not adaptive
+     */
+    public void setConcurrencyLimiter(final AdaptiveConcurrencyLimiter concurrencyLimiter) {
+        this.concurrencyLimiter = concurrencyLimiter;
+    }
+
+    /**
+     * Get the adaptive concurrency limiter of the engine.
+     *
+     * @return the concurrency limiter, null if concurrency is not adaptive
+     */
+    public AdaptiveConcurrencyLimiter getConcurrencyLimiter() {
+        return concurrencyLimiter;
+    }
+
+    /**
+     * Register the statistics of record filters of an adaptive filter chain.
+     *
+     * @param filterStatistics the filter statistics, in registration order
+     */
+    public void setFilterStatistics(final List<FilterStatistics> filterStatistics) {
+        this.filterStatistics = filterStatistics;
+    }
+
+    /**
+     * Get the statistics of record filters (empty if the filter chain is not adaptive).
+     *
+     * @return the filter statistics, in registration order
+     */
+    public List<FilterStatistics> getFilterStatistics() {
+        return filterStatistics == null ? Collections.<FilterStatistics>emptyList() : filterStatistics;
+    }
+
     public long getFilteredRecordsCount() {
-        return filteredRecords;
+        return filteredRecords.sum();
     }
 
     public long getIgnoredRecordsCount() {
-        return ignoredRecords;
+        return ignoredRecords.sum();
     }
 
     public long getRejectedRecordsCount() {
-        return rejectedRecords;
+        return rejectedRecords.sum();
     }
 
     public long getErrorRecordsCount() {
-        return errorRecords;
+        return errorRecords.sum();
     }
 
     public long getSuccessRecordsCount() {
-        return successRecords;
+        return successRecords.sum();
+    }
+
+    /**
+     * Get the number of attempts to process records made after a record processor failed.
+     *
+     * @return the number of retries
+     */
+    public long getRetriesCount() {
+        return retries.sum();
+    }
+
+    /**
+     * Get the number of records whose processing exceeded the record processing timeout.
+     * These records are also counted as error records.
+     *
+     * @return the number of slow records
+     */
+    public long getSlowRecordsCount() {
+        return slowRecords.sum();
+    }
+
+    /**
+     * Get the number of records being processed asynchronously at the moment.
+     *
+     * @return the number of in-flight records
+     */
+    public long getInFlightRecordsCount() {
+        return inFlightRecords.sum();
+    }
+
+    /**
+     * Get the latency histogram of a step of record processing.
+     *
+     * @param step the step
+     * @return the latency histogram of the step
+     */
+    public LatencyHistogram getLatencyHistogram(final Step step) {
+        return latencies.get(step);
+    }
+
+    /**
+     * Get the latency histograms of the steps for which latencies have been recorded.
+     *
+     * @return the latency histogram of each sampled step, by step
+     */
+    public Map<Step, LatencyHistogram> getLatencyHistograms() {
+        Map<Step, LatencyHistogram> histograms = new EnumMap<Step, LatencyHistogram>(Step.class);
+        for (Map.Entry<Step, LatencyHistogram> latency : latencies.entrySet()) {
+            if (latency.getValue().getCount() > 0) {
+                histograms.put(latency.getKey(), latency.getValue());
+            }
+        }
+        return histograms;
+    }
+
+    /**
+     * Get a consistent copy of the counters of this report, which is cheap enough to be taken on every monitoring
+     * poll. Latency histograms and monitoring registrations are not copied: read them from the report itself.
+     *
+     * @return a snapshot of this report counters
+     */
+    public ReportSnapshot snapshot() {
+        return new ReportSnapshot(this);
     }
 
     /*
@@ -266,6 +511,51 @@ public class Report implements Serializable {
         return sb.toString();
     }
 
+    public String getFormattedLatencies() {
+        Map<Step, LatencyHistogram> histograms = getLatencyHistograms();
+        if (histograms.isEmpty()) {
+            return "N/A";
+        }
+        final StringBuilder sb = new StringBuilder();
+        for (Map.Entry<Step, LatencyHistogram> histogram : histograms.entrySet()) {
+            if (sb.length() > 0) {
+                sb.append("; ");
+            }
+            sb.append(histogram.getKey().name().toLowerCase(Locale.ENGLISH)).append(": ").append(histogram.getValue());
+        }
+        return sb.toString();
+    }
+
+    public String getFormattedRateLimits() {
+        Map<String, RateLimiter> limiters = getRateLimiters();
+        if (limiters.isEmpty()) {
+            return "N/A";
+        }
+        final StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, RateLimiter> limiter : limiters.entrySet()) {
+            if (sb.length() > 0) {
+                sb.append("; ");
+            }
+            sb.append(limiter.getKey()).append(": ").append(limiter.getValue());
+        }
+        return sb.toString();
+    }
+
+    public String getFormattedFilterStatistics() {
+        List<FilterStatistics> statistics = getFilterStatistics();
+        if (statistics.isEmpty()) {
+            return "N/A";
+        }
+        final StringBuilder sb = new StringBuilder();
+        for (FilterStatistics filterStatistics : statistics) {
+            if (sb.length() > 0) {
+                sb.append("; ");
+            }
+            sb.append(filterStatistics);
+        }
+        return sb.toString();
+    }
+
     // This is needed only for JMX
     public String getFormattedProgress() {
         if (totalRecords == null || totalRecords == 0) {
@@ -290,7 +580,23 @@ public class Report implements Serializable {
         sb.append("\n\tRejected records = ").append(getFormattedRejectedRecords());
         sb.append("\n\tError records = ").append(getFormattedErrorRecords());
         sb.append("\n\tSuccess records = ").append(getFormattedSuccessRecords());
+        if (getRetriesCount() > 0) {
+            sb.append("\n\tRetries = ").append(getRetriesCount());
+        }
+        if (getSlowRecordsCount() > 0) {
+            sb.append("\n\tSlow records = ").append(getSlowRecordsCount());
+        }
         sb.append("\n\tRecord processing time average = ").append(getFormattedAverageRecordProcessingTime());
+        sb.append("\n\tLatencies = ").append(getFormattedLatencies());
+        if (!getRateLimiters().isEmpty()) {
+            sb.append("\n\tRate limits = ").append(getFormattedRateLimits());
+        }
+        if (concurrencyLimiter != null) {
+            sb.append("\n\tConcurrency limit = ").append(concurrencyLimiter);
+        }
+        if (!getFilterStatistics().isEmpty()) {
+            sb.append("\n\tFilters = ").append(getFormattedFilterStatistics());
+        }
         if (batchResult != null) {
             sb.append("\n\tResult = ").append(batchResult);
         }
@@ -0,0 +1,154 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.core.api;
+
+import java.io.Serializable;
+
+/**
+ * An immutable copy of the counters of a {@link Report}, taken with {@link Report#snapshot()}.
+ * <p/>
+ * Counters are read before the current record number, so a snapshot never holds more handled records than read
+ * records, even while the report is being updated.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public final class ReportSnapshot implements Serializable {
+
+    private final long filteredRecords;
+
+    private final long ignoredRecords;
+
+    private final long rejectedRecords;
+
+    private final long errorRecords;
+
+    private final long successRecords;
+
+    private final long retries;
+
+    private final long slowRecords;
+
+    private final long inFlightRecords;
+
+    private final long currentRecordNumber;
+
+    private final Long totalRecords;
+
+    private final long startTime;
+
+    private final long endTime;
+
+    private final Status status;
+
+    ReportSnapshot(final Report report) {
+        filteredRecords = report.getFilteredRecordsCount();
+        ignoredRecords = report.getIgnoredRecordsCount();
+        rejectedRecords = report.getRejectedRecordsCount();
+        errorRecords = report.getErrorRecordsCount();
+        successRecords = report.getSuccessRecordsCount();
+        retries = report.getRetriesCount();
+        slowRecords = report.getSlowRecordsCount();
+        inFlightRecords = report.getInFlightRecordsCount();
+        currentRecordNumber = report.getCurrentRecordNumber();
+        totalRecords = report.getTotalRecords();
+        startTime = report.getStartTime();
+        endTime = report.getEndTime();
+        status = report.getStatus();
+    }
+
+    public long getFilteredRecordsCount() {
+        return filteredRecords;
+    }
+
+    public long getIgnoredRecordsCount() {
+        return ignoredRecords;
+    }
+
+    public long getRejectedRecordsCount() {
+        return rejectedRecords;
+    }
+
+    public long getErrorRecordsCount() {
+        return errorRecords;
+    }
+
+    public long getSuccessRecordsCount() {
+        return successRecords;
+    }
+
+    public long getRetriesCount() {
+        return retries;
+    }
+
+    public long getSlowRecordsCount() {
+        return slowRecords;
+    }
+
+    public long getInFlightRecordsCount() {
+        return inFlightRecords;
+    }
+
+    /**
+     * Return the number of records handled so far: filtered, ignored, rejected, in error or successfully processed.
+     */
+    public long getHandledRecordsCount() {
+        return filteredRecords + ignoredRecords + rejectedRecords + errorRecords + successRecords;
+    }
+
+    public long getCurrentRecordNumber() {
+        return currentRecordNumber;
+    }
+
+    public Long getTotalRecords() {
+        return totalRecords;
+    }
+
+    public long getStartTime() {
+        return startTime;
+    }
+
+    public long getEndTime() {
+        return endTime;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("[");
+        sb.append("status=").append(status);
+        sb.append(", currentRecordNumber=").append(currentRecordNumber);
+        sb.append(", totalRecords=").append(totalRecords == null ? "N/A" : totalRecords);
+        sb.append(", filteredRecords=").append(filteredRecords);
+        sb.append(", ignoredRecords=").append(ignoredRecords);
+        sb.append(", rejectedRecords=").append(rejectedRecords);
+        sb.append(", errorRecords=").append(errorRecords);
+        sb.append(", successRecords=").append(successRecords);
+        sb.append("]");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.core.api;
+
+/**
+ * Interface for record readers able to resume reading from a {@link Checkpoint}
+ * without re-reading the records before it.
+ * <p/>
+ * Readers that do not implement this interface are restarted by reading and skipping
+ * records up to the checkpointed record number.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public interface RestartableRecordReader extends RecordReader {
+
+    /**
+     * Get the position of the reader right after the last read record.
+     * The meaning of the position is specific to the reader (a byte offset, a row index, etc).
+     *
+     * @return the position of the reader
+     */
+    long getPosition();
+
+    /**
+     * Move the reader right after the checkpointed record. This is called after the reader has been opened.
+     * Records read afterwards are numbered starting from the checkpoint record number + 1.
+     *
+     * @param checkpoint the checkpoint to restart from, holding a position returned by {@link #getPosition()}
+     * @throws Exception thrown if an exception occurs during seeking
+     */
+    void seek(Checkpoint checkpoint) throws Exception;
+
+}
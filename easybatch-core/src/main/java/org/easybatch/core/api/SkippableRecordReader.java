@@ -0,0 +1,50 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.easybatch.core.api;
+
+/**
+ * Interface for record readers able to skip records without reading them (or at least without creating them).
+ * <p/>
+ * The engine uses this capability to skip records filtered by {@link RecordNumberFilter}s,
+ * and records before a checkpoint when the reader is not a {@link RestartableRecordReader}.
+ * <p/>
+ * The number of records to skip is computed from record numbers, so readers must number records contiguously from 1
+ * in the order of the data source (the header number of a record is its position). When the engine reads a record
+ * whose number does not match its position, it stops skipping records and filters them after reading them.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public interface SkippableRecordReader extends RecordReader {
+
+    /**
+     * Skip the next records. This is called after the reader has been opened, before checking if the reader has a
+     * next record. Records read afterwards are numbered as if skipped records had been read.
+     *
+     * @param count the number of records to skip
+     * @return the number of skipped records, lower than count if the end of the data source has been reached
+     * @throws Exception thrown if an exception occurs during skipping
+     */
+    long skip(long count) throws Exception;
+
+}
@@ -41,11 +41,21 @@ public enum Status {
      */
     RUNNING,
 
+    /**
+     * The execution has been paused: no records are read until it is resumed.
+     */
+    PAUSED,
+
     /**
      * The execution has been aborted (problem with reading data source).
      */
     ABORTED,
 
+    /**
+     * The execution has been stopped before the end of the data source.
+     */
+    STOPPED,
+
     /**
      * The engine has finished the job.
      */
@@ -0,0 +1,57 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.core.api.event.step;
+
+import java.util.List;
+
+/**
+ * Event interface collection for ChunkProcessor events.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public interface ChunkProcessorEventListener {
+
+    /**
+     * Called before the chunk gets processed.
+     *
+     * @param records The records of the chunk.
+     */
+    void beforeProcessingChunk(final List<Object> records);
+
+    /**
+     * Called after the chunk has been successfully processed.
+     *
+     * @param records The records of the chunk.
+     */
+    void afterProcessingChunk(final List<Object> records);
+
+    /**
+     * Called when an exception occurs during chunk processing
+     *
+     * @param records   the records of the chunk
+     * @param throwable the exception occurred during chunk processing
+     */
+    void onChunkProcessingException(final List<Object> records, final Throwable throwable);
+}
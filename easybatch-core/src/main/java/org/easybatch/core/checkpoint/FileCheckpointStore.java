@@ -0,0 +1,126 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.core.checkpoint;
+
+import org.easybatch.core.api.Checkpoint;
+import org.easybatch.core.api.CheckpointStore;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+import static java.lang.String.format;
+
+/**
+ * A {@link CheckpointStore} implementation that persists checkpoints in a properties file.
+ * <p/>
+ * Checkpoints are first written to a temporary file which is then renamed, so that a crash
+ * during saving does not leave a corrupted checkpoint behind.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class FileCheckpointStore implements CheckpointStore {
+
+    static final String RECORD_NUMBER = "recordNumber";
+
+    static final String POSITION = "position";
+
+    /**
+     * The checkpoint file.
+     */
+    private File file;
+
+    /**
+     * The temporary file to which checkpoints are written before being renamed to the checkpoint file.
+     */
+    private File temporaryFile;
+
+    /**
+     * Construct a file checkpoint store.
+     *
+     * @param file the checkpoint file
+     */
+    public FileCheckpointStore(final File file) {
+        this.file = file;
+        this.temporaryFile = new File(file.getPath() + ".tmp");
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Checkpoint load() throws Exception {
+        if (!file.exists()) {
+            return null;
+        }
+        Properties properties = new Properties();
+        InputStream inputStream = new FileInputStream(file);
+        try {
+            properties.load(inputStream);
+        } finally {
+            inputStream.close();
+        }
+        String recordNumber = properties.getProperty(RECORD_NUMBER);
+        if (recordNumber == null) {
+            throw new IOException(format("Invalid checkpoint file %s: no record number", file.getAbsolutePath()));
+        }
+        String position = properties.getProperty(POSITION, String.valueOf(Checkpoint.NO_POSITION));
+        return new Checkpoint(Long.parseLong(recordNumber.trim()), Long.parseLong(position.trim()));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void save(final Checkpoint checkpoint) throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty(RECORD_NUMBER, String.valueOf(checkpoint.getRecordNumber()));
+        properties.setProperty(POSITION, String.valueOf(checkpoint.getPosition()));
+        FileOutputStream outputStream = new FileOutputStream(temporaryFile);
+        try {
+            properties.store(outputStream, "easy batch checkpoint");
+            outputStream.getFD().sync();
+        } finally {
+            outputStream.close();
+        }
+        if (!temporaryFile.renameTo(file)) {
+            // renaming over an existing file fails on some platforms
+            if (!file.delete() || !temporaryFile.renameTo(file)) {
+                throw new IOException(format("Unable to write checkpoint file %s", file.getAbsolutePath()));
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void clear() throws Exception {
+        if (file.exists() && !file.delete()) {
+            throw new IOException(format("Unable to delete checkpoint file %s", file.getAbsolutePath()));
+        }
+    }
+
+}
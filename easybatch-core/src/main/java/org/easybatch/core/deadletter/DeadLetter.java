@@ -0,0 +1,147 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.easybatch.core.deadletter;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * A record which could not be processed (in error, rejected or ignored), as written by a {@link DeadLetterSink}.
+ * <p/>
+ * The payload of the record is kept as text: the payload itself if it is a String, its String representation else.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class DeadLetter {
+
+    /**
+     * The reason why a record has been dead lettered.
+     */
+    public enum Type {
+        /**
+         * The record could not be processed.
+         */
+        ERROR,
+        /**
+         * The record has been rejected by a validator.
+         */
+        REJECTED,
+        /**
+         * The record could not be mapped.
+         */
+        IGNORED
+    }
+
+    private final Type type;
+
+    private final long timestamp;
+
+    private final Long recordNumber;
+
+    private final String source;
+
+    private final long creationTime;
+
+    private final String payload;
+
+    private final String cause;
+
+    private final List<String> validationErrors;
+
+    /**
+     * @param type             the reason why the record has been dead lettered
+     * @param timestamp        the time (in milliseconds since the epoch) at which the record has been dead lettered
+     * @param recordNumber     the record number in its data source (if defined)
+     * @param source           the data source name of the record
+     * @param creationTime     the time (in milliseconds since the epoch) at which the record has been read
+     * @param payload          the payload of the record as text
+     * @param cause            the description of the exception which caused the record to be dead lettered (if any)
+     * @param validationErrors the messages of the validation errors of a rejected record
+     */
+    public DeadLetter(final Type type, final long timestamp, final Long recordNumber, final String source,
+                      final long creationTime, final String payload, final String cause,
+                      final List<String> validationErrors) {
+        this.type = type;
+        this.timestamp = timestamp;
+        this.recordNumber = recordNumber;
+        this.source = source;
+        this.creationTime = creationTime;
+        this.payload = payload;
+        this.cause = cause;
+        this.validationErrors = validationErrors == null ?
+                Collections.<String>emptyList() : Collections.unmodifiableList(validationErrors);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public Long getRecordNumber() {
+        return recordNumber;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public long getCreationTime() {
+        return creationTime;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public String getCause() {
+        return cause;
+    }
+
+    public List<String> getValidationErrors() {
+        return validationErrors;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("[");
+        sb.append("type=").append(type);
+        sb.append(", timestamp=\"").append(new Date(timestamp)).append('\"');
+        sb.append(", recordNumber=").append(recordNumber);
+        sb.append(", source=\"").append(source).append('\"');
+        sb.append(", payload=\"").append(payload).append('\"');
+        if (cause != null) {
+            sb.append(", cause=\"").append(cause).append('\"');
+        }
+        if (!validationErrors.isEmpty()) {
+            sb.append(", validationErrors=").append(validationErrors);
+        }
+        sb.append(']');
+        return sb.toString();
+    }
+
+}
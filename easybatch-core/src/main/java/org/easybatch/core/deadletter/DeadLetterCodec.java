@@ -0,0 +1,178 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.easybatch.core.deadletter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Binary format of dead letter files.
+ * <p/>
+ * A file starts with a magic number and a version, followed by entries. Each entry is made of the length of its body,
+ * the CRC32 checksum of its body and the body itself, so that an entry partially written before a crash is detected.
+ * Strings are written as their length in bytes (-1 for null) followed by their UTF-8 encoding.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+final class DeadLetterCodec {
+
+    static final int MAGIC = 0x4542444C; // "EBDL"
+
+    static final int VERSION = 1;
+
+    static final String FILE_EXTENSION = ".dl";
+
+    private static final long NO_NUMBER = Long.MIN_VALUE;
+
+    /**
+     * Entries larger than this size are considered corrupted.
+     */
+    private static final int MAX_ENTRY_SIZE = 256 * 1024 * 1024;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream(1024);
+
+    private final DataOutputStream bodyOutput = new DataOutputStream(body);
+
+    private final CRC32 crc = new CRC32();
+
+    static void writeFileHeader(final DataOutputStream output) throws IOException {
+        output.writeInt(MAGIC);
+        output.writeByte(VERSION);
+    }
+
+    static void readFileHeader(final DataInputStream input) throws IOException {
+        if (input.readInt() != MAGIC) {
+            throw new IOException("Not a dead letter file");
+        }
+        int version = input.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported dead letter file version " + version);
+        }
+    }
+
+    /**
+     * Write a dead letter entry.
+     *
+     * @param deadLetter the dead letter to write
+     * @param output     the output to write the entry to
+     * @return the size of the entry in bytes
+     * @throws IOException thrown if the entry cannot be written
+     */
+    int write(final DeadLetter deadLetter, final DataOutputStream output) throws IOException {
+        body.reset();
+        bodyOutput.writeByte(deadLetter.getType().ordinal());
+        bodyOutput.writeLong(deadLetter.getTimestamp());
+        bodyOutput.writeLong(deadLetter.getRecordNumber() == null ? NO_NUMBER : deadLetter.getRecordNumber());
+        writeString(deadLetter.getSource());
+        bodyOutput.writeLong(deadLetter.getCreationTime());
+        writeString(deadLetter.getPayload());
+        writeString(deadLetter.getCause());
+        List<String> validationErrors = deadLetter.getValidationErrors();
+        bodyOutput.writeInt(validationErrors.size());
+        for (String validationError : validationErrors) {
+            writeString(validationError);
+        }
+        bodyOutput.flush();
+        byte[] bytes = body.toByteArray();
+        crc.reset();
+        crc.update(bytes);
+        output.writeInt(bytes.length);
+        output.writeInt((int) crc.getValue());
+        output.write(bytes);
+        return 8 + bytes.length;
+    }
+
+    /**
+     * Read a dead letter entry.
+     *
+     * @param input the input to read the entry from
+     * @return the dead letter, or null if the end of the input is reached or the entry is incomplete or corrupted
+     * @throws IOException thrown if the input cannot be read
+     */
+    static DeadLetter read(final DataInputStream input) throws IOException {
+        byte[] bytes;
+        try {
+            int length = input.readInt();
+            int checksum = input.readInt();
+            if (length < 0 || length > MAX_ENTRY_SIZE) {
+                return null;
+            }
+            bytes = new byte[length];
+            input.readFully(bytes);
+            CRC32 crc = new CRC32();
+            crc.update(bytes);
+            if ((int) crc.getValue() != checksum) {
+                return null;
+            }
+        } catch (EOFException e) {
+            return null;
+        }
+        DataInputStream bodyInput = new DataInputStream(new ByteArrayInputStream(bytes));
+        DeadLetter.Type type = DeadLetter.Type.values()[bodyInput.readUnsignedByte()];
+        long timestamp = bodyInput.readLong();
+        long recordNumber = bodyInput.readLong();
+        String source = readString(bodyInput);
+        long creationTime = bodyInput.readLong();
+        String payload = readString(bodyInput);
+        String cause = readString(bodyInput);
+        int validationErrorsCount = bodyInput.readInt();
+        List<String> validationErrors = new ArrayList<String>(validationErrorsCount);
+        for (int i = 0; i < validationErrorsCount; i++) {
+            validationErrors.add(readString(bodyInput));
+        }
+        return new DeadLetter(type, timestamp, recordNumber == NO_NUMBER ? null : recordNumber, source,
+                creationTime, payload, cause, validationErrors);
+    }
+
+    private void writeString(final String string) throws IOException {
+        if (string == null) {
+            bodyOutput.writeInt(-1);
+            return;
+        }
+        byte[] bytes = string.getBytes(UTF_8);
+        bodyOutput.writeInt(bytes.length);
+        bodyOutput.write(bytes);
+    }
+
+    private static String readString(final DataInputStream input) throws IOException {
+        int length = input.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return new String(bytes, UTF_8);
+    }
+
+}
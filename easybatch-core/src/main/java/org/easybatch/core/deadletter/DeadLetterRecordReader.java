@@ -0,0 +1,218 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.easybatch.core.deadletter;
+
+import org.easybatch.core.api.Header;
+import org.easybatch.core.api.RecordReader;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileFilter;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A {@link RecordReader} that replays dead letters written by a {@link DeadLetterSink}, in the order they were written.
+ * <p/>
+ * An incomplete or corrupted entry (written by a sink that was interrupted before syncing it to disk, for example)
+ * ends the replay of the file it belongs to.
+ * <p/>
+ * This reader produces {@link DeadLetterRecord} instances.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class DeadLetterRecordReader implements RecordReader {
+
+    private static final Logger LOGGER = Logger.getLogger(DeadLetterRecordReader.class.getName());
+
+    /**
+     * The directory of dead letter files.
+     */
+    private File directory;
+
+    /**
+     * The prefix of dead letter file names.
+     */
+    private String prefix;
+
+    /**
+     * The dead letter files iterator.
+     */
+    private Iterator<File> files;
+
+    /**
+     * The dead letter file being read.
+     */
+    private File currentFile;
+
+    private DataInputStream input;
+
+    /**
+     * The next dead letter, read ahead to check if the reader has a next record.
+     */
+    private DeadLetter next;
+
+    /**
+     * The current record number.
+     */
+    private long currentRecordNumber;
+
+    /**
+     * Construct a {@link DeadLetterRecordReader} to replay dead letters written by a sink with the default prefix.
+     *
+     * @param directory the directory of dead letter files
+     */
+    public DeadLetterRecordReader(final File directory) {
+        this(directory, DeadLetterSink.DEFAULT_PREFIX);
+    }
+
+    /**
+     * Construct a {@link DeadLetterRecordReader}.
+     *
+     * @param directory the directory of dead letter files
+     * @param prefix    the prefix of dead letter file names
+     */
+    public DeadLetterRecordReader(final File directory, final String prefix) {
+        this.directory = directory;
+        this.prefix = prefix;
+    }
+
+    @Override
+    public void open() throws Exception {
+        if (!directory.isDirectory()) {
+            throw new IllegalArgumentException(MessageFormat.format(
+                    "{0} is not a directory.", directory.getAbsoluteFile()));
+        }
+        files = listFiles(directory, prefix).iterator();
+        currentRecordNumber = 0;
+        next = readNext();
+    }
+
+    @Override
+    public boolean hasNextRecord() {
+        return next != null;
+    }
+
+    @Override
+    public DeadLetterRecord readNextRecord() throws Exception {
+        Header header = new Header(++currentRecordNumber, currentFile.getAbsolutePath(), System.currentTimeMillis());
+        DeadLetterRecord record = new DeadLetterRecord(header, next);
+        next = readNext();
+        return record;
+    }
+
+    private DeadLetter readNext() throws IOException {
+        while (true) {
+            if (input == null) {
+                if (!files.hasNext()) {
+                    return null;
+                }
+                currentFile = files.next();
+                input = new DataInputStream(new BufferedInputStream(new FileInputStream(currentFile), 64 * 1024));
+                try {
+                    DeadLetterCodec.readFileHeader(input);
+                } catch (EOFException e) {
+                    LOGGER.log(Level.WARNING, "Skipping incomplete dead letter file {0}", currentFile);
+                    input.close();
+                    input = null;
+                    continue;
+                }
+            }
+            DeadLetter deadLetter = DeadLetterCodec.read(input);
+            if (deadLetter != null) {
+                return deadLetter;
+            }
+            if (input.read() != -1) {
+                LOGGER.log(Level.WARNING, "Skipping incomplete or corrupted dead letters at the end of {0}", currentFile);
+            }
+            input.close();
+            input = null;
+        }
+    }
+
+    /**
+     * Get the total record number in the data source.
+     *
+     * @return null, the number of dead letters is not known in advance
+     */
+    @Override
+    public Long getTotalRecords() {
+        return null;
+    }
+
+    @Override
+    public String getDataSourceName() {
+        return directory.getAbsolutePath();
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (input != null) {
+            input.close();
+            input = null;
+        }
+    }
+
+    /*
+     * Dead letter file names
+     */
+
+    static List<File> listFiles(final File directory, final String prefix) {
+        File[] files = directory.listFiles(new FileFilter() {
+            @Override
+            public boolean accept(File file) {
+                return file.isFile() && fileIndex(file, prefix) > 0;
+            }
+        });
+        if (files == null) {
+            return Collections.emptyList();
+        }
+        List<File> sortedFiles = new ArrayList<File>(Arrays.asList(files));
+        Collections.sort(sortedFiles);
+        return sortedFiles;
+    }
+
+    static int fileIndex(final File file, final String prefix) {
+        String name = file.getName();
+        if (!name.startsWith(prefix + "-") || !name.endsWith(DeadLetterCodec.FILE_EXTENSION)) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(name.substring(prefix.length() + 1, name.length() - DeadLetterCodec.FILE_EXTENSION.length()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+}
@@ -0,0 +1,455 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.easybatch.core.deadletter;
+
+import org.easybatch.core.api.ErrorRecordHandler;
+import org.easybatch.core.api.Header;
+import org.easybatch.core.api.IgnoredRecordHandler;
+import org.easybatch.core.api.Record;
+import org.easybatch.core.api.RejectedRecordHandler;
+import org.easybatch.core.api.ValidationError;
+import org.easybatch.core.api.event.batch.BatchProcessEventListener;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static java.lang.String.format;
+
+/**
+ * Sink appending error, rejected and ignored records to dead letter files in the background,
+ * so that writing bad records to disk does not slow down the engine.
+ * <p/>
+ * Register the handlers returned by {@link #errorRecordHandler()}, {@link #rejectedRecordHandler()} and
+ * {@link #ignoredRecordHandler()} in the engine. Handlers only capture the header, payload (as text), cause and
+ * validation errors of records and hand them to a bounded queue (blocking when it is full), which is drained by a
+ * dedicated thread. Dead letters are synced to disk in batches, at most every sync interval, and files are rotated when they reach the maximum file size.
+ * Dead letter files are named <code>prefix-000001.dl</code>, <code>prefix-000002.dl</code>, etc.
+ * <p/>
+ * Register this sink as a {@link BatchProcessEventListener} too, so that all dead letters are synced to disk
+ * when the batch ends. Dead letters can then be replayed with a {@link DeadLetterRecordReader}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class DeadLetterSink implements BatchProcessEventListener, Closeable {
+
+    private static final Logger LOGGER = Logger.getLogger(DeadLetterSink.class.getName());
+
+    public static final String DEFAULT_PREFIX = "dead-letters";
+
+    public static final long DEFAULT_MAX_FILE_SIZE = 64 * 1024 * 1024;
+
+    public static final long DEFAULT_SYNC_INTERVAL = 100;
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 10000;
+
+    private final File directory;
+
+    private final String prefix;
+
+    private long maxFileSize = DEFAULT_MAX_FILE_SIZE;
+
+    private long syncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_SYNC_INTERVAL);
+
+    private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+
+    private BlockingQueue<DeadLetter> queue;
+
+    private Thread writerThread;
+
+    private final AtomicLong enqueued = new AtomicLong();
+
+    /**
+     * Number of dead letters synced to disk (or lost because of a write failure), guarded by this sink.
+     */
+    private long completed;
+
+    private volatile boolean flushRequested;
+
+    private volatile boolean closed;
+
+    /**
+     * Create a dead letter sink writing files named <code>dead-letters-000001.dl</code>, etc in a directory.
+     *
+     * @param directory the directory of dead letter files
+     */
+    public DeadLetterSink(final File directory) {
+        this(directory, DEFAULT_PREFIX);
+    }
+
+    /**
+     * Create a dead letter sink.
+     *
+     * @param directory the directory of dead letter files
+     * @param prefix    the prefix of dead letter file names
+     */
+    public DeadLetterSink(final File directory, final String prefix) {
+        this.directory = directory;
+        this.prefix = prefix;
+    }
+
+    /*
+     * Handlers
+     */
+
+    /**
+     * @return an error record handler appending error records to this sink
+     */
+    public ErrorRecordHandler errorRecordHandler() {
+        return new ErrorRecordHandler() {
+            @Override
+            public void handle(final Record record, final Throwable e) {
+                append(DeadLetter.Type.ERROR, record, e, null);
+            }
+        };
+    }
+
+    /**
+     * @return a rejected record handler appending rejected records and their validation errors to this sink
+     */
+    public RejectedRecordHandler rejectedRecordHandler() {
+        return new RejectedRecordHandler() {
+            @Override
+            public void handle(final Record record, final Set<ValidationError> validationsErrors) {
+                List<String> messages = new ArrayList<String>(validationsErrors.size());
+                for (ValidationError validationError : validationsErrors) {
+                    messages.add(validationError.getMessage());
+                }
+                append(DeadLetter.Type.REJECTED, record, null, messages);
+            }
+        };
+    }
+
+    /**
+     * @return an ignored record handler appending ignored records to this sink
+     */
+    public IgnoredRecordHandler ignoredRecordHandler() {
+        return new IgnoredRecordHandler() {
+            @Override
+            public void handle(final Record record) {
+                append(DeadLetter.Type.IGNORED, record, null, null);
+            }
+
+            @Override
+            public void handle(final Record record, final Throwable e) {
+                append(DeadLetter.Type.IGNORED, record, e, null);
+            }
+        };
+    }
+
+    private void append(final DeadLetter.Type type, final Record record, final Throwable e, final List<String> validationErrors) {
+        Header header = record.getHeader();
+        Object payload = record.getPayload();
+        DeadLetter deadLetter = new DeadLetter(type, System.currentTimeMillis(),
+                header == null ? null : header.getNumber(),
+                header == null ? null : header.getSource(),
+                header == null ? Long.MIN_VALUE : header.getCreationTime(),
+                payload instanceof String ? (String) payload : String.valueOf(payload),
+                describe(e), validationErrors);
+        append(deadLetter);
+    }
+
+    /**
+     * Append a dead letter, waiting while the queue is full.
+     *
+     * @param deadLetter the dead letter to append
+     */
+    public void append(final DeadLetter deadLetter) {
+        if (closed) {
+            throw new IllegalStateException("Dead letter sink is closed");
+        }
+        start();
+        try {
+            queue.put(deadLetter);
+            enqueued.incrementAndGet();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.log(Level.WARNING, "Interrupted while appending dead letter {0}", deadLetter);
+        }
+    }
+
+    private static String describe(final Throwable throwable) {
+        if (throwable == null) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder(throwable.toString());
+        Throwable cause = throwable.getCause();
+        while (cause != null && cause != cause.getCause()) {
+            sb.append("\nCaused by: ").append(cause);
+            cause = cause.getCause();
+        }
+        return sb.toString();
+    }
+
+    /*
+     * Batch listener: sync dead letters when the batch ends
+     */
+
+    @Override
+    public void beforeBatchStart() {
+    }
+
+    @Override
+    public void afterBatchEnd() {
+        flush();
+    }
+
+    @Override
+    public void onException(final Throwable throwable) {
+    }
+
+    /**
+     * Wait until all dead letters appended so far are synced to disk.
+     */
+    public void flush() {
+        long target = enqueued.get();
+        synchronized (this) {
+            if (writerThread == null) {
+                return;
+            }
+            flushRequested = true;
+            writerThread.interrupt();
+            try {
+                while (completed < target && writerThread.isAlive()) {
+                    wait(100);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Sync pending dead letters to disk and stop the writer thread.
+     */
+    @Override
+    public void close() {
+        Thread thread;
+        synchronized (this) {
+            closed = true;
+            thread = writerThread;
+        }
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private synchronized void start() {
+        if (writerThread == null) {
+            queue = new ArrayBlockingQueue<DeadLetter>(queueCapacity);
+            writerThread = new Thread(new Writer(), "easybatch-dead-letters-" + prefix);
+            writerThread.setDaemon(true);
+            writerThread.start();
+        }
+    }
+
+    private synchronized void completed(final long count) {
+        completed += count;
+        notifyAll();
+    }
+
+    /*
+     * Setters
+     */
+
+    /**
+     * Set the size from which a dead letter file is rotated (64MB by default).
+     *
+     * @param maxFileSize the maximum size of a dead letter file in bytes
+     */
+    public void setMaxFileSize(final long maxFileSize) {
+        if (maxFileSize < 1) {
+            throw new IllegalArgumentException("Max file size must be at least 1 byte");
+        }
+        this.maxFileSize = maxFileSize;
+    }
+
+    /**
+     * Set the maximum time dead letters wait before being synced to disk (100ms by default).
+     * Dead letters appended within this interval are synced together.
+     *
+     * @param syncInterval the sync interval in milliseconds
+     */
+    public void setSyncInterval(final long syncInterval) {
+        if (syncInterval < 0) {
+            throw new IllegalArgumentException("Sync interval must not be negative");
+        }
+        this.syncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(syncInterval);
+    }
+
+    /**
+     * Set the capacity of the queue of dead letters waiting to be written (10000 by default).
+     * Handlers wait when the queue is full.
+     *
+     * @param queueCapacity the queue capacity
+     */
+    public void setQueueCapacity(final int queueCapacity) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("Queue capacity must be at least 1");
+        }
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Drains the queue to dead letter files.
+     */
+    private class Writer implements Runnable {
+
+        private final DeadLetterCodec codec = new DeadLetterCodec();
+
+        private final List<DeadLetter> batch = new ArrayList<DeadLetter>();
+
+        private FileOutputStream fileOutputStream;
+
+        private DataOutputStream output;
+
+        private File file;
+
+        private long fileSize;
+
+        private int fileIndex;
+
+        private long pending;
+
+        private long lastSyncTime = System.nanoTime();
+
+        @Override
+        public void run() {
+            while (true) {
+                long wait = pending == 0 ? syncIntervalNanos : syncIntervalNanos - (System.nanoTime() - lastSyncTime);
+                try {
+                    DeadLetter deadLetter = queue.poll(Math.max(wait, 1), TimeUnit.NANOSECONDS);
+                    if (deadLetter != null) {
+                        batch.add(deadLetter);
+                    }
+                } catch (InterruptedException e) {
+                    // woken up to flush or close
+                }
+                queue.drainTo(batch);
+                write();
+                boolean closing = closed && queue.isEmpty();
+                if (pending > 0 && (flushRequested || closing || System.nanoTime() - lastSyncTime >= syncIntervalNanos)) {
+                    sync();
+                }
+                if (flushRequested && queue.isEmpty()) {
+                    flushRequested = false;
+                }
+                if (closing) {
+                    closeFile();
+                    return;
+                }
+            }
+        }
+
+        private void write() {
+            for (DeadLetter deadLetter : batch) {
+                try {
+                    if (output == null) {
+                        openFile();
+                    }
+                    fileSize += codec.write(deadLetter, output);
+                    pending++;
+                    if (fileSize >= maxFileSize) {
+                        sync();
+                        closeFile();
+                    }
+                } catch (IOException e) {
+                    LOGGER.log(Level.SEVERE, format("Unable to write dead letter %s to %s", deadLetter, file), e);
+                    closeFile();
+                    completed(pending + 1);
+                    pending = 0;
+                }
+            }
+            batch.clear();
+        }
+
+        private void sync() {
+            try {
+                if (output != null) {
+                    output.flush();
+                    fileOutputStream.getFD().sync();
+                }
+            } catch (IOException e) {
+                LOGGER.log(Level.SEVERE, format("Unable to sync dead letter file %s", file), e);
+                closeFile();
+            }
+            lastSyncTime = System.nanoTime();
+            completed(pending);
+            pending = 0;
+        }
+
+        private void openFile() throws IOException {
+            if (fileIndex == 0) {
+                if (!directory.isDirectory() && !directory.mkdirs()) {
+                    throw new IOException(format("Unable to create dead letter directory %s", directory.getAbsolutePath()));
+                }
+                fileIndex = lastFileIndex();
+            }
+            file = new File(directory, format("%s-%06d%s", prefix, ++fileIndex, DeadLetterCodec.FILE_EXTENSION));
+            fileOutputStream = new FileOutputStream(file);
+            output = new DataOutputStream(new BufferedOutputStream(fileOutputStream, 64 * 1024));
+            DeadLetterCodec.writeFileHeader(output);
+            fileSize = output.size();
+            LOGGER.log(Level.INFO, "Writing dead letters to {0}", file.getAbsolutePath());
+        }
+
+        private int lastFileIndex() {
+            int lastIndex = 0;
+            for (File deadLetterFile : DeadLetterRecordReader.listFiles(directory, prefix)) {
+                lastIndex = Math.max(lastIndex, DeadLetterRecordReader.fileIndex(deadLetterFile, prefix));
+            }
+            return lastIndex;
+        }
+
+        private void closeFile() {
+            if (output != null) {
+                try {
+                    output.close();
+                } catch (IOException e) {
+                    LOGGER.log(Level.WARNING, format("Unable to close dead letter file %s", file), e);
+                }
+                output = null;
+                fileOutputStream = null;
+            }
+        }
+    }
+
+}
@@ -24,11 +24,13 @@
 
 package org.easybatch.core.filter;
 
+import org.easybatch.core.api.Header;
 import org.easybatch.core.api.Record;
 import org.easybatch.core.api.RecordFilter;
 
 /**
  * A filter that filters the header record (first record in the data source).
+ * Records without a number are not filtered.
  *
  * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
  */
@@ -36,7 +38,8 @@ public class HeaderRecordFilter implements RecordFilter {
 
     @Override
     public boolean filterRecord(Record record) {
-        return record.getHeader().getNumber() == 1;
+        Header header = record.getHeader();
+        return header.hasNumber() && header.getRecordNumber() == 1;
     }
 
 }
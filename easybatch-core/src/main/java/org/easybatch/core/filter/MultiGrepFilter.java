@@ -0,0 +1,299 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.core.filter;
+
+import org.easybatch.core.api.Record;
+import org.easybatch.core.api.RecordFilter;
+import org.easybatch.core.record.StringRecord;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.TreeSet;
+
+/**
+ * Grep filter looking for several patterns at once: it keeps records containing at least one of the given patterns
+ * instead of filtering them. The parameter negate can be set to true to inverse this behavior:
+ * this filter will filter records containing one of the given patterns.
+ * <p/>
+ * Patterns are compiled once into an Aho-Corasick automaton, so each record is scanned in a single pass whatever the
+ * number of patterns, where a chain of {@link GrepFilter}s scans each record once per pattern. For a few patterns,
+ * a chain of {@link GrepFilter}s is faster since {@link String#contains(CharSequence)} is highly optimized by the JVM.
+ * Search can be made case insensitive, and restricted to whole words (patterns preceded and followed by a character
+ * which is neither a letter, a digit nor an underscore, or by the start or end of the record).
+ * <p/>
+ * Should be used with {@link org.easybatch.core.record.StringRecord} type.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class MultiGrepFilter implements RecordFilter {
+
+    private static final int ASCII = 128;
+
+    private final boolean negate;
+
+    private final boolean ignoreCase;
+
+    private final boolean wholeWord;
+
+    /**
+     * Character classes of ASCII characters: the index of the character in the patterns alphabet, 0 if the character
+     * does not appear in patterns.
+     */
+    private final int[] asciiClasses = new int[ASCII];
+
+    /**
+     * Sorted non ASCII characters of the patterns alphabet, and their character classes.
+     */
+    private final char[] otherChars;
+
+    private final int[] otherClasses;
+
+    /**
+     * Number of character classes, including the class of characters not appearing in patterns.
+     */
+    private final int width;
+
+    /**
+     * Transitions of the automaton: the state reached from state s with a character of class c is at s * width + c.
+     * States are stored as the offset of their transitions (s * width), negated for states recognizing a pattern.
+     */
+    private final int[] transitions;
+
+    /**
+     * Lengths of the patterns recognized in each state (longest first), null if no pattern is recognized.
+     */
+    private final int[][] matches;
+
+    /**
+     * Create a filter keeping records containing at least one of the given patterns (search is case sensitive).
+     *
+     * @param patterns the patterns to look for
+     */
+    public MultiGrepFilter(final String... patterns) {
+        this(Arrays.asList(patterns), false);
+    }
+
+    /**
+     * Create a case sensitive filter on the given patterns.
+     *
+     * @param patterns the patterns to look for
+     * @param negate   true to filter records containing one of the patterns instead of keeping them
+     */
+    public MultiGrepFilter(final Collection<String> patterns, final boolean negate) {
+        this(patterns, negate, false, false);
+    }
+
+    /**
+     * Create a filter on the given patterns.
+     *
+     * @param patterns   the patterns to look for
+     * @param negate     true to filter records containing one of the patterns instead of keeping them
+     * @param ignoreCase true to ignore case when looking for patterns
+     * @param wholeWord  true to look for patterns as whole words only
+     */
+    public MultiGrepFilter(final Collection<String> patterns, final boolean negate, final boolean ignoreCase, final boolean wholeWord) {
+        if (patterns.isEmpty()) {
+            throw new IllegalArgumentException("At least one pattern must be specified");
+        }
+        this.negate = negate;
+        this.ignoreCase = ignoreCase;
+        this.wholeWord = wholeWord;
+
+        List<String> keywords = new ArrayList<String>();
+        TreeSet<Character> alphabet = new TreeSet<Character>();
+        for (String pattern : patterns) {
+            if (pattern == null || pattern.isEmpty()) {
+                throw new IllegalArgumentException("Patterns must not be null or empty");
+            }
+            String keyword = fold(pattern);
+            keywords.add(keyword);
+            for (int i = 0; i < keyword.length(); i++) {
+                alphabet.add(keyword.charAt(i));
+            }
+        }
+        char[] chars = new char[alphabet.size()];
+        int[] classes = new int[alphabet.size()];
+        int others = 0;
+        int characterClass = 0;
+        for (Character c : alphabet) {
+            characterClass++;
+            if (c < ASCII) {
+                asciiClasses[c] = characterClass;
+            } else {
+                chars[others] = c;
+                classes[others++] = characterClass;
+            }
+        }
+        if (ignoreCase) {
+            // upper case ASCII letters have the class of their lower case letter
+            for (char c = 0; c < ASCII; c++) {
+                char folded = fold(c);
+                if (folded < ASCII) {
+                    asciiClasses[c] = asciiClasses[folded];
+                }
+            }
+        }
+        otherChars = Arrays.copyOf(chars, others);
+        otherClasses = Arrays.copyOf(classes, others);
+        width = characterClass + 1;
+
+        // build the trie of patterns
+        List<int[]> states = new ArrayList<int[]>();
+        List<List<Integer>> outputs = new ArrayList<List<Integer>>();
+        addState(states, outputs);
+        for (String keyword : keywords) {
+            int state = 0;
+            for (int i = 0; i < keyword.length(); i++) {
+                int c = classOf(keyword.charAt(i));
+                if (states.get(state)[c] == 0) {
+                    states.get(state)[c] = states.size();
+                    addState(states, outputs);
+                }
+                state = states.get(state)[c];
+            }
+            outputs.get(state).add(keyword.length());
+        }
+
+        // turn the trie into an automaton, following failure links breadth first
+        int[] failures = new int[states.size()];
+        Queue<Integer> queue = new LinkedList<Integer>();
+        for (int c = 0; c < width; c++) {
+            if (states.get(0)[c] != 0) {
+                queue.add(states.get(0)[c]);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.remove();
+            outputs.get(state).addAll(outputs.get(failures[state]));
+            for (int c = 0; c < width; c++) {
+                int next = states.get(state)[c];
+                if (next != 0) {
+                    failures[next] = states.get(failures[state])[c];
+                    queue.add(next);
+                } else {
+                    states.get(state)[c] = states.get(failures[state])[c];
+                }
+            }
+        }
+
+        transitions = new int[states.size() * width];
+        matches = new int[states.size()][];
+        for (int state = 0; state < states.size(); state++) {
+            for (int c = 0; c < width; c++) {
+                int next = states.get(state)[c];
+                transitions[state * width + c] = outputs.get(next).isEmpty() ? next * width : -next * width;
+            }
+            List<Integer> lengths = outputs.get(state);
+            if (!lengths.isEmpty()) {
+                matches[state] = new int[lengths.size()];
+                for (int i = 0; i < lengths.size(); i++) {
+                    matches[state][i] = lengths.get(i);
+                }
+            }
+        }
+    }
+
+    private void addState(final List<int[]> states, final List<List<Integer>> outputs) {
+        states.add(new int[width]);
+        outputs.add(new ArrayList<Integer>());
+    }
+
+    @Override
+    public boolean filterRecord(final Record record) {
+        StringRecord stringRecord = (StringRecord) record;
+        boolean found = contains(stringRecord.getPayload());
+        return negate == found;
+    }
+
+    private boolean contains(final String payload) {
+        int state = 0;
+        for (int i = 0; i < payload.length(); i++) {
+            char c = payload.charAt(i);
+            state = transitions[state + (c < ASCII ? asciiClasses[c] : classOf(c))];
+            if (state < 0) {
+                state = -state;
+                if (!wholeWord || isWholeWord(payload, i + 1, matches[state / width])) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check if one of the patterns recognized at a given position is a whole word.
+     */
+    private boolean isWholeWord(final String payload, final int end, final int[] lengths) {
+        if (end < payload.length() && isWordCharacter(payload.charAt(end))) {
+            return false;
+        }
+        for (int length : lengths) {
+            int start = end - length;
+            if (start == 0 || !isWordCharacter(payload.charAt(start - 1))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isWordCharacter(final char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    private int classOf(final char c) {
+        if (c < ASCII) {
+            return asciiClasses[c];
+        }
+        char folded = fold(c);
+        if (folded < ASCII) {
+            return asciiClasses[folded];
+        }
+        int index = Arrays.binarySearch(otherChars, folded);
+        return index < 0 ? 0 : otherClasses[index];
+    }
+
+    private String fold(final String pattern) {
+        if (!ignoreCase) {
+            return pattern;
+        }
+        char[] chars = pattern.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = fold(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Fold the case of a character the same way as {@link String#equalsIgnoreCase(String)}.
+     */
+    private char fold(final char c) {
+        return ignoreCase ? Character.toLowerCase(Character.toUpperCase(c)) : c;
+    }
+
+}
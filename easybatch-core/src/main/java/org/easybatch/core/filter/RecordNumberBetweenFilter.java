@@ -24,16 +24,18 @@
 
 package org.easybatch.core.filter;
 
+import org.easybatch.core.api.Header;
 import org.easybatch.core.api.Record;
-import org.easybatch.core.api.RecordFilter;
+import org.easybatch.core.api.RecordNumberFilter;
 
 /**
  * A {@link org.easybatch.core.api.RecordFilter} that filters records
  * if their number is inside (inclusive) a given range.
+ * Records without a number are not filtered.
  *
  * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
  */
-public class RecordNumberBetweenFilter implements RecordFilter {
+public class RecordNumberBetweenFilter implements RecordNumberFilter {
 
     /**
      * Record number range lower bound.
@@ -58,7 +60,18 @@ public class RecordNumberBetweenFilter implements RecordFilter {
      * {@inheritDoc}
      */
     public boolean filterRecord(final Record record) {
-        return record.getHeader().getNumber() >= lowerBound && record.getHeader().getNumber() <= higherBound;
+        Header header = record.getHeader();
+        return header.hasNumber() && header.getRecordNumber() >= lowerBound && header.getRecordNumber() <= higherBound;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long nextAcceptedRecordNumber(final long number) {
+        if (number < lowerBound || number > higherBound) {
+            return number;
+        }
+        return higherBound == Long.MAX_VALUE ? NO_MORE_RECORDS : higherBound + 1;
     }
 
 }
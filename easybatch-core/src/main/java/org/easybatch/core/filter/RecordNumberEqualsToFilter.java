@@ -24,6 +24,7 @@
 
 package org.easybatch.core.filter;
 
+import org.easybatch.core.api.Header;
 import org.easybatch.core.api.Record;
 import org.easybatch.core.api.RecordFilter;
 
@@ -31,6 +32,7 @@ import org.easybatch.core.api.RecordFilter;
  * A {@link org.easybatch.core.api.RecordFilter} that filters flat file records based on their number.<br/>
  * The parameter negate can be set to true to inverse this behavior :
  * this filter will filter records which number is not equal to any of the given numbers.
+ * Records without a number are not filtered.
  *
  * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
  */
@@ -66,8 +68,12 @@ public class RecordNumberEqualsToFilter implements RecordFilter {
      * {@inheritDoc}
      */
     public boolean filterRecord(final Record record) {
+        Header header = record.getHeader();
+        if (!header.hasNumber()) {
+            return false;
+        }
         for (long number : numbers) {
-            if (record.getHeader().getNumber() == number) {
+            if (header.getRecordNumber() == number) {
                 return !negate;
             }
         }
@@ -24,16 +24,18 @@
 
 package org.easybatch.core.filter;
 
+import org.easybatch.core.api.Header;
 import org.easybatch.core.api.Record;
-import org.easybatch.core.api.RecordFilter;
+import org.easybatch.core.api.RecordNumberFilter;
 
 /**
  * A {@link org.easybatch.core.api.RecordFilter} that filters flat file records
  * if their number is lower than a given number.
+ * Records without a number are not filtered.
  *
  * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
  */
-public class RecordNumberLowerThanFilter implements RecordFilter {
+public class RecordNumberLowerThanFilter implements RecordNumberFilter {
 
     /**
      * Record number under which records will be filtered.
@@ -51,7 +53,15 @@ public class RecordNumberLowerThanFilter implements RecordFilter {
      * {@inheritDoc}
      */
     public boolean filterRecord(final Record record) {
-        return record.getHeader().getNumber() < number;
+        Header header = record.getHeader();
+        return header.hasNumber() && header.getRecordNumber() < number;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long nextAcceptedRecordNumber(final long number) {
+        return Math.max(number, this.number);
     }
 
 }
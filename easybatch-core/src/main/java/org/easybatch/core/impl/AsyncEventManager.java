@@ -0,0 +1,531 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.core.impl;
+
+import org.easybatch.core.api.EventManager;
+import org.easybatch.core.api.EventOverflowPolicy;
+import org.easybatch.core.api.Record;
+import org.easybatch.core.api.ValidationError;
+import org.easybatch.core.api.event.batch.BatchProcessEventListener;
+import org.easybatch.core.api.event.step.*;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * An {@link EventManager} that delivers events to listeners asynchronously: events are published to a bounded queue
+ * drained by a dedicated thread, which fires them in order on the delegate event manager.
+ * <p/>
+ * When the queue is full, events are handled according to an {@link EventOverflowPolicy}. The queue is flushed
+ * when the batch ends: {@link #fireAfterBatchEnd()} returns once all events have been delivered.
+ * <p/>
+ * Events are delivered after the engine has moved on, so listeners should not rely on the state of mutable records
+ * (like the result set of a JDBC record) at delivery time.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+class AsyncEventManager implements EventManager {
+
+    private static final Logger LOGGER = Logger.getLogger(AsyncEventManager.class.getName());
+
+    /**
+     * With {@link EventOverflowPolicy#SAMPLE}, one out of this number of overflowing events is delivered.
+     */
+    static final int DEFAULT_SAMPLING_RATE = 10;
+
+    private final EventManager delegate;
+
+    /**
+     * The delegate, if it is able to tell which listener types have registrations, so that events without
+     * listeners are not published at all.
+     */
+    private final LocalEventManager localEventManager;
+
+    private final BlockingQueue<Runnable> queue;
+
+    private final EventOverflowPolicy overflowPolicy;
+
+    private final int samplingRate;
+
+    private final AtomicLong overflowingEvents = new AtomicLong();
+
+    private final AtomicLong droppedEvents = new AtomicLong();
+
+    private volatile boolean started;
+
+    /**
+     * Publishers hold the read lock while publishing, so that the dispatcher is only told to stop once no publisher
+     * can still see it as started: an event is never queued behind the end of events marker.
+     */
+    private final ReadWriteLock startStopLock = new ReentrantReadWriteLock();
+
+    AsyncEventManager(final EventManager delegate, final int queueCapacity, final EventOverflowPolicy overflowPolicy) {
+        this(delegate, queueCapacity, overflowPolicy, DEFAULT_SAMPLING_RATE);
+    }
+
+    AsyncEventManager(final EventManager delegate, final int queueCapacity, final EventOverflowPolicy overflowPolicy, final int samplingRate) {
+        this.delegate = delegate;
+        this.localEventManager = delegate instanceof LocalEventManager ? (LocalEventManager) delegate : null;
+        this.queue = new ArrayBlockingQueue<Runnable>(queueCapacity);
+        this.overflowPolicy = overflowPolicy;
+        this.samplingRate = samplingRate;
+    }
+
+    /*
+     * Listeners are registered on the delegate
+     */
+
+    @Override
+    public void addBatchProcessEventListener(final BatchProcessEventListener batchProcessEventListener) {
+        delegate.addBatchProcessEventListener(batchProcessEventListener);
+    }
+
+    @Override
+    public void addRecordReaderEventListener(final RecordReaderEventListener recordReaderEventListener) {
+        delegate.addRecordReaderEventListener(recordReaderEventListener);
+    }
+
+    @Override
+    public void addRecordFilterEventListener(final RecordFilterEventListener recordFilterEventListener) {
+        delegate.addRecordFilterEventListener(recordFilterEventListener);
+    }
+
+    @Override
+    public void addRecordMapperEventListener(final RecordMapperEventListener recordMapperEventListener) {
+        delegate.addRecordMapperEventListener(recordMapperEventListener);
+    }
+
+    @Override
+    public void addRecordValidatorEventListener(final RecordValidatorEventListener recordValidatorEventListener) {
+        delegate.addRecordValidatorEventListener(recordValidatorEventListener);
+    }
+
+    @Override
+    public void addRecordProcessorEventListener(final RecordProcessorEventListener recordProcessorEventListener) {
+        delegate.addRecordProcessorEventListener(recordProcessorEventListener);
+    }
+
+    @Override
+    public void addChunkProcessorEventListener(final ChunkProcessorEventListener chunkProcessorEventListener) {
+        delegate.addChunkProcessorEventListener(chunkProcessorEventListener);
+    }
+
+    /*
+     * Events are published to the queue
+     */
+
+    @Override
+    public void fireBeforeBatchStart() {
+        if (hasBatchProcessEventListeners()) {
+            publish(new Runnable() {
+                public void run() {
+                    delegate.fireBeforeBatchStart();
+                }
+            });
+        }
+    }
+
+    @Override
+    public void fireAfterBatchEnd() {
+        if (hasBatchProcessEventListeners()) {
+            publish(new Runnable() {
+                public void run() {
+                    delegate.fireAfterBatchEnd();
+                }
+            }, EventOverflowPolicy.BLOCK);
+        }
+        flush();
+    }
+
+    @Override
+    public void fireOnBatchException(final Throwable throwable) {
+        if (hasBatchProcessEventListeners()) {
+            publish(new Runnable() {
+                public void run() {
+                    delegate.fireOnBatchException(throwable);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void fireBeforeReaderOpen() {
+        if (hasRecordReaderEventListeners()) {
+            publish(new Runnable() {
+                public void run() {
+                    delegate.fireBeforeReaderOpen();
+                }
+            });
+        }
+    }
+
+    @Override
+    public void fireAfterReaderOpen() {
+        if (hasRecordReaderEventListeners()) {
+            publish(new Runnable() {
+                public void run() {
+                    delegate.fireAfterReaderOpen();
+                }
+            });
+        }
+    }
+
+    @Override
+    public void fireBeforeRecordRead() {
+        if (hasRecordReaderEventListeners()) {
+            publish(new Runnable() {
+                public void run() {
+                    delegate.fireBeforeRecordRead();
+                }
+            });
+        }
+    }
+
+    @Override
+    public void fireAfterRecordRead(final Record record) {
+        if (hasRecordReaderEventListeners()) {
+            publish(new Runnable() {
+                public void run() {
+                    delegate.fireAfterRecordRead(record);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void fireOnRecordReadException(final Throwable throwable) {
+        if (hasRecordReaderEventListeners()) {
+            publish(new Runnable() {
+                public void run() {
+                    delegate.fireOnRecordReadException(throwable);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void fireBeforeRecordReaderClose() {
+        if (hasRecordReaderEventListeners()) {
+            publish(new Runnable() {
+                public void run() {
+                    delegate.fireBeforeRecordReaderClose();
+                }
+            });
+        }
+    }
+
+    @Override
+    public void fireAfterRecordReaderClose() {
+        if (hasRecordReaderEventListeners()) {
+            publish(new Runnable() {
+                public void run() {
+                    delegate.fireAfterRecordReaderClose();
+                }
+            });
+        }
+    }
+
+    @Override
+    public void fireBeforeFilterRecord(final Record record) {
+        if (hasRecordFilterEventListeners()) {
+            publish(new Runnable() {
+                public void run() {
+                    delegate.fireBeforeFilterRecord(record);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void fireAfterFilterRecord(final Record record, final boolean filterRecord) {
+        if (hasRecordFilterEventListeners()) {
+            publish(new Runnable() {
+                public void run() {
+                    delegate.fireAfterFilterRecord(record, filterRecord);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void fireBeforeMapRecord(final Record record) {
+        if (hasRecordMapperEventListeners()) {
+            publish(new Runnable() {
+                public void run() {
+                    delegate.fireBeforeMapRecord(record);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void fireAfterMapRecord(final Record record, final Object mapResult) {
+        if (hasRecordMapperEventListeners()) {
+            publish(new Runnable() {
+                public void run() {
+                    delegate.fireAfterMapRecord(record, mapResult);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void fireBeforeValidateRecord(final Object mappedRecord) {
+        if (hasRecordValidatorEventListeners()) {
+            publish(new Runnable() {
+                public void run() {
+                    delegate.fireBeforeValidateRecord(mappedRecord);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void fireAfterValidateRecord(final Object validatedRecord, final Set<ValidationError> validationErrors) {
+        if (hasRecordValidatorEventListeners()) {
+            publish(new Runnable() {
+                public void run() {
+                    delegate.fireAfterValidateRecord(validatedRecord, validationErrors);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void fireBeforeProcessingRecord(final Object record) {
+        if (hasRecordProcessorEventListeners()) {
+            publish(new Runnable() {
+                public void run() {
+                    delegate.fireBeforeProcessingRecord(record);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void fireAfterProcessingRecord(final Object record, final Object processResult) {
+        if (hasRecordProcessorEventListeners()) {
+            publish(new Runnable() {
+                public void run() {
+                    delegate.fireAfterProcessingRecord(record, processResult);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void fireOnRecordProcessingException(final Object record, final Throwable throwable) {
+        if (hasRecordProcessorEventListeners()) {
+            publish(new Runnable() {
+                public void run() {
+                    delegate.fireOnRecordProcessingException(record, throwable);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void fireBeforeProcessingChunk(final List<Object> records) {
+        if (hasChunkProcessorEventListeners()) {
+            publish(new Runnable() {
+                public void run() {
+                    delegate.fireBeforeProcessingChunk(records);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void fireAfterProcessingChunk(final List<Object> records) {
+        if (hasChunkProcessorEventListeners()) {
+            publish(new Runnable() {
+                public void run() {
+                    delegate.fireAfterProcessingChunk(records);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void fireOnChunkProcessingException(final List<Object> records, final Throwable throwable) {
+        if (hasChunkProcessorEventListeners()) {
+            publish(new Runnable() {
+                public void run() {
+                    delegate.fireOnChunkProcessingException(records, throwable);
+                }
+            });
+        }
+    }
+
+    long getDroppedEvents() {
+        return droppedEvents.get();
+    }
+
+    private void publish(final Runnable event) {
+        publish(event, overflowPolicy);
+    }
+
+    private void publish(final Runnable event, final EventOverflowPolicy policy) {
+        startStopLock.readLock().lock();
+        try {
+            ensureStarted();
+            if (queue.offer(event)) {
+                return;
+            }
+            long overflowing = overflowingEvents.incrementAndGet();
+            if (policy == EventOverflowPolicy.BLOCK || (policy == EventOverflowPolicy.SAMPLE && overflowing % samplingRate == 0)) {
+                try {
+                    queue.put(event);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    droppedEvents.incrementAndGet();
+                }
+            } else {
+                droppedEvents.incrementAndGet();
+            }
+        } finally {
+            startStopLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Wait for all published events to be delivered and stop the dispatcher thread.
+     * Events published meanwhile wait for this method to return and start a new dispatcher.
+     */
+    private synchronized void flush() {
+        if (!started) {
+            return;
+        }
+        // the dispatcher is still running, so publishers blocked on a full queue complete and release the read lock
+        startStopLock.writeLock().lock();
+        try {
+            started = false;
+        } finally {
+            startStopLock.writeLock().unlock();
+        }
+        final CountDownLatch flushed = new CountDownLatch(1);
+        try {
+            queue.put(new EndOfEvents(flushed));
+            flushed.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.warning("Interrupted while waiting for events to be delivered");
+        }
+        long dropped = droppedEvents.getAndSet(0);
+        overflowingEvents.set(0);
+        if (dropped > 0) {
+            LOGGER.log(Level.WARNING, "{0} event(s) have been dropped because listeners could not keep up", dropped);
+        }
+    }
+
+    private void ensureStarted() {
+        if (!started) {
+            synchronized (this) {
+                if (!started) {
+                    Thread dispatcher = new Thread(new Dispatcher(), "easybatch-event-dispatcher");
+                    dispatcher.setDaemon(true);
+                    dispatcher.start();
+                    started = true;
+                }
+            }
+        }
+    }
+
+    private boolean hasBatchProcessEventListeners() {
+        return localEventManager == null || localEventManager.hasBatchProcessEventListeners();
+    }
+
+    private boolean hasRecordReaderEventListeners() {
+        return localEventManager == null || localEventManager.hasRecordReaderEventListeners();
+    }
+
+    boolean hasRecordFilterEventListeners() {
+        return localEventManager == null || localEventManager.hasRecordFilterEventListeners();
+    }
+
+    private boolean hasRecordMapperEventListeners() {
+        return localEventManager == null || localEventManager.hasRecordMapperEventListeners();
+    }
+
+    private boolean hasRecordValidatorEventListeners() {
+        return localEventManager == null || localEventManager.hasRecordValidatorEventListeners();
+    }
+
+    private boolean hasRecordProcessorEventListeners() {
+        return localEventManager == null || localEventManager.hasRecordProcessorEventListeners();
+    }
+
+    private boolean hasChunkProcessorEventListeners() {
+        return localEventManager == null || localEventManager.hasChunkProcessorEventListeners();
+    }
+
+    /**
+     * Marker event stopping the dispatcher once all previous events have been delivered.
+     */
+    private static class EndOfEvents implements Runnable {
+
+        private final CountDownLatch flushed;
+
+        EndOfEvents(final CountDownLatch flushed) {
+            this.flushed = flushed;
+        }
+
+        public void run() {
+            flushed.countDown();
+        }
+    }
+
+    private class Dispatcher implements Runnable {
+
+        public void run() {
+            while (true) {
+                Runnable event;
+                try {
+                    event = queue.take();
+                } catch (InterruptedException e) {
+                    LOGGER.log(Level.WARNING, "Event dispatcher interrupted, {0} event(s) will not be delivered", queue.size());
+                    return;
+                }
+                try {
+                    event.run();
+                } catch (RuntimeException e) {
+                    LOGGER.log(Level.WARNING, "An exception occurred in an event listener", e);
+                }
+                if (event instanceof EndOfEvents) {
+                    return;
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,244 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.core.impl;
+
+import org.easybatch.core.api.Record;
+import org.easybatch.core.api.Report;
+import org.easybatch.core.util.AdaptiveConcurrencyLimiter;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A record executor for I/O bound record processors.
+ * <p/>
+ * Records are filtered, mapped and validated by the reading thread, then the processing pipeline of each record
+ * runs on its own thread. The number of records being processed at the same time is bounded by a concurrency limit.
+ * <p/>
+ * When the JVM supports virtual threads (Java 21+), each record is processed on a new virtual thread, so that
+ * thousands of blocked records do not need thousands of platform threads. Otherwise, records are processed
+ * by an elastic pool of platform threads with a small stack, reclaimed when idle.
+ * <p/>
+ * With an {@link AdaptiveConcurrencyLimiter}, the concurrency limit varies between the limiter bounds according to the
+ * latency of record processors.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+class AsyncRecordExecutor implements RecordExecutor {
+
+    private static final Logger LOGGER = Logger.getLogger(AsyncRecordExecutor.class.getName());
+
+    /**
+     * Stack size of platform threads when virtual threads are not available.
+     */
+    private static final long PLATFORM_THREAD_STACK_SIZE = 256 * 1024;
+
+    private final Engine engine;
+
+    private final Report report;
+
+    private final int maxConcurrency;
+
+    private final Semaphore inFlightRecords;
+
+    private final Executor executor;
+
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    AsyncRecordExecutor(final Engine engine, final int maxConcurrency) {
+        this(engine, maxConcurrency, null);
+    }
+
+    AsyncRecordExecutor(final Engine engine, final int maxConcurrency, final AdaptiveConcurrencyLimiter concurrencyLimiter) {
+        this.engine = engine;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.report = engine.getReport();
+        this.maxConcurrency = maxConcurrency;
+        this.inFlightRecords = new Semaphore(maxConcurrency);
+        this.executor = createExecutor(engine.getName() + "-async");
+    }
+
+    @Override
+    public void execute(final Record record) throws InterruptedException {
+        final Object typedRecord = engine.filterAndMapRecord(record);
+        if (typedRecord == null || !engine.validateMappedRecord(record, typedRecord)) {
+            return;
+        }
+        acquire();
+        report.incrementInFlightRecords();
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    long latency = -1;
+                    boolean processingError = false;
+                    try {
+                        if (!engine.isAborted()) {
+                            long startTime = System.nanoTime();
+                            processingError = engine.getProcessingPipeline().process(record, typedRecord);
+                            latency = System.nanoTime() - startTime;
+                            engine.recordProcessed(record, processingError);
+                        }
+                    } catch (Throwable throwable) {
+                        engine.abort("An unexpected exception occurred while processing record " + record.getHeader(), throwable);
+                    } finally {
+                        report.decrementInFlightRecords();
+                        release(latency, processingError);
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            report.decrementInFlightRecords();
+            release(-1, false);
+            throw e;
+        }
+    }
+
+    private void acquire() throws InterruptedException {
+        if (concurrencyLimiter == null) {
+            inFlightRecords.acquire();
+            return;
+        }
+        concurrencyLimiter.acquire();
+        try {
+            inFlightRecords.acquire();
+        } catch (InterruptedException e) {
+            concurrencyLimiter.release();
+            throw e;
+        }
+    }
+
+    private void release(final long latency, final boolean processingError) {
+        inFlightRecords.release();
+        if (concurrencyLimiter != null) {
+            concurrencyLimiter.release(latency, processingError);
+        }
+    }
+
+    @Override
+    public void shutdownAndAwaitTermination() {
+        boolean interrupted = false;
+        // wait for records in flight, each of them holds a permit until its processing is complete
+        boolean drained = false;
+        while (!drained) {
+            try {
+                inFlightRecords.acquire(maxConcurrency);
+                inFlightRecords.release(maxConcurrency);
+                drained = true;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (executor instanceof ExecutorService) {
+            ExecutorService executorService = (ExecutorService) executor;
+            executorService.shutdown();
+            while (!executorService.isTerminated()) {
+                try {
+                    executorService.awaitTermination(1, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Executor createExecutor(final String namePrefix) {
+        ThreadFactory virtualThreadFactory = virtualThreadFactory(namePrefix);
+        if (virtualThreadFactory != null) {
+            LOGGER.log(Level.INFO, "Processing records on virtual threads");
+            // virtual threads are cheap to create and must not be pooled
+            return new ThreadPerTaskExecutor(virtualThreadFactory);
+        }
+        LOGGER.log(Level.INFO, "Virtual threads are not supported by this JVM, processing records on platform threads");
+        // concurrency is bounded by the in-flight records semaphore, the pool itself is unbounded
+        return Executors.newCachedThreadPool(new PlatformThreadFactory(namePrefix));
+    }
+
+    /**
+     * Lookup a virtual thread factory ({@code Thread.ofVirtual().name(prefix, 1).factory()}) by reflection
+     * since the framework is compiled for older JVMs.
+     *
+     * @param namePrefix the thread name prefix
+     * @return a virtual thread factory or null if virtual threads are not supported
+     */
+    private static ThreadFactory virtualThreadFactory(final String namePrefix) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Method name = builderClass.getMethod("name", String.class, long.class);
+            builder = name.invoke(builder, namePrefix + "-", 1L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Executor starting a new thread for each task.
+     */
+    private static class ThreadPerTaskExecutor implements Executor {
+
+        private final ThreadFactory threadFactory;
+
+        ThreadPerTaskExecutor(final ThreadFactory threadFactory) {
+            this.threadFactory = threadFactory;
+        }
+
+        @Override
+        public void execute(final Runnable task) {
+            threadFactory.newThread(task).start();
+        }
+    }
+
+    private static class PlatformThreadFactory implements ThreadFactory {
+
+        private final String namePrefix;
+
+        private final AtomicInteger threadNumber = new AtomicInteger();
+
+        PlatformThreadFactory(final String namePrefix) {
+            this.namePrefix = namePrefix;
+        }
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            Thread thread = new Thread(null, runnable, namePrefix + "-" + threadNumber.incrementAndGet(), PLATFORM_THREAD_STACK_SIZE);
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+}
@@ -0,0 +1,134 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.core.impl;
+
+import org.easybatch.core.api.Checkpoint;
+import org.easybatch.core.api.CheckpointStore;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Track records from reading to completion to compute the last committed record: the record up to which
+ * all records have been completed, whatever the order in which record executors complete them.
+ * <p/>
+ * The committed checkpoint is periodically saved to the {@link CheckpointStore}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+class CheckpointTracker {
+
+    private static final Logger LOGGER = Logger.getLogger(CheckpointTracker.class.getName());
+
+    private final CheckpointStore checkpointStore;
+
+    private final int interval;
+
+    private final boolean strictMode;
+
+    /**
+     * Positions (right after the record) of records read but not committed yet, by record number.
+     */
+    private final TreeMap<Long, Long> pendingRecords = new TreeMap<Long, Long>();
+
+    /**
+     * Numbers of pending records which have been completed out of order.
+     */
+    private final Set<Long> completedRecords = new HashSet<Long>();
+
+    private Checkpoint committed;
+
+    private long uncommittedSinceLastSave;
+
+    CheckpointTracker(final CheckpointStore checkpointStore, final int interval, final boolean strictMode, final Checkpoint restartCheckpoint) {
+        this.checkpointStore = checkpointStore;
+        this.interval = interval;
+        this.strictMode = strictMode;
+        this.committed = restartCheckpoint;
+    }
+
+    synchronized void recordRead(final Long recordNumber, final long position) {
+        if (recordNumber != null) {
+            pendingRecords.put(recordNumber, position);
+        }
+    }
+
+    /**
+     * Mark a record as completed.
+     *
+     * @param recordNumber the record number
+     * @param failed       true if the record has been filtered out as invalid or could not be processed.
+     *                     In strict mode, such a record is never committed so that it is processed again on restart.
+     */
+    synchronized void recordCompleted(final Long recordNumber, final boolean failed) {
+        if (recordNumber == null || (failed && strictMode) || !pendingRecords.containsKey(recordNumber)) {
+            return;
+        }
+        completedRecords.add(recordNumber);
+        while (!pendingRecords.isEmpty() && completedRecords.remove(pendingRecords.firstKey())) {
+            Map.Entry<Long, Long> entry = pendingRecords.pollFirstEntry();
+            committed = new Checkpoint(entry.getKey(), entry.getValue());
+            uncommittedSinceLastSave++;
+        }
+        if (uncommittedSinceLastSave >= interval) {
+            save();
+        }
+    }
+
+    synchronized Checkpoint getCommittedCheckpoint() {
+        return committed;
+    }
+
+    /**
+     * Save the committed checkpoint, if any.
+     */
+    synchronized void save() {
+        if (committed == null) {
+            return;
+        }
+        try {
+            checkpointStore.save(committed);
+            uncommittedSinceLastSave = 0;
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Unable to save checkpoint " + committed, e);
+        }
+    }
+
+    /**
+     * Clear the checkpoint store once all records have been processed.
+     */
+    synchronized void clear() {
+        try {
+            checkpointStore.clear();
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Unable to clear checkpoint store", e);
+        }
+    }
+
+}
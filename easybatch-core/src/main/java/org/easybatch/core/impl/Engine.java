@@ -27,9 +27,15 @@ package org.easybatch.core.impl;
 import org.easybatch.core.api.*;
 import org.easybatch.core.api.event.batch.BatchProcessEventListener;
 import org.easybatch.core.api.event.step.*;
+import org.easybatch.core.util.AdaptiveConcurrencyLimiter;
+import org.easybatch.core.util.RateLimiter;
+import org.easybatch.core.util.RetryPolicy;
 import org.easybatch.core.util.Utils;
 
+import javax.management.ObjectName;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.logging.Level;
@@ -74,6 +80,49 @@ public final class Engine implements Callable<Report> {
 
     private boolean jmxEnabled;
 
+    private int parallelism = 1;
+
+    private int stageBufferSize;
+
+    private int reorderWindow;
+
+    private int maxConcurrency;
+
+    private int minConcurrency;
+
+    private CheckpointStore checkpointStore;
+
+    private int checkpointInterval = Utils.DEFAULT_CHECKPOINT_INTERVAL;
+
+    private CheckpointTracker checkpointTracker;
+
+    private LatencySampler latencySampler;
+
+    private RateLimiter rateLimiter;
+
+    private long recordTimeout;
+
+    private ProcessingWatchdog watchdog;
+
+    private ObjectName monitorName;
+
+    private volatile boolean aborted;
+
+    private volatile boolean stopped;
+
+    private boolean pushDownRecordNumberFilters;
+
+    /**
+     * The number of the next record the reader will return, when record number filters are pushed down.
+     */
+    private long nextRecordNumber;
+
+    private long skippedRecordsNumber;
+
+    private volatile boolean paused;
+
+    private final Object pauseLock = new Object();
+
     Engine(final String name,
            final RecordReader recordReader,
            final List<RecordFilter> filters,
@@ -96,10 +145,21 @@ public final class Engine implements Callable<Report> {
         this.filterChain = new FilterChain(filters, eventManager);
         this.validationPipeline = new ValidationPipeline(validators, eventManager);
         this.processingPipeline = new ProcessingPipeline(processors, errorRecordHandler, report, eventManager);
+        this.latencySampler = new LatencySampler(report, Utils.DEFAULT_LATENCY_SAMPLING_RATE);
+        this.processingPipeline.setLatencySampler(latencySampler);
     }
 
     @Override
     public Report call() {
+        try {
+            return execute();
+        } finally {
+            // reset at the end of the execution, so that a stop requested before or while starting is not lost
+            stopped = false;
+        }
+    }
+
+    private Report execute() {
 
         initializeEngine();
 
@@ -112,107 +172,562 @@ public final class Engine implements Callable<Report> {
         setupMonitoring();
 
         try {
+            long lastRecordToSkip;
+            try {
+                lastRecordToSkip = restoreCheckpoint();
+            } catch (Exception e) {
+                eventManager.fireOnBatchException(e);
+                LOGGER.log(Level.SEVERE, "An exception occurred while restoring checkpoint, aborting execution.", e);
+                reportAbortedStatus();
+                return report;
+            }
             long processedRecordsNumber = 0;
-            while (recordReader.hasNextRecord()) {
-                /*
-                 * read next record
-                 */
-                Record currentRecord;
-                try {
-                    currentRecord = readRecord();
-                    if (currentRecord == null) {
-                        LOGGER.log(Level.SEVERE, "The record reader returned null for next record, aborting execution.");
+            long readRecordsNumber = 0;
+            RecordExecutor recordExecutor = createRecordExecutor();
+            try {
+                while (!aborted && awaitResumption() && skipFilteredRecords() && recordReader.hasNextRecord()) {
+                    /*
+                     * read next record
+                     */
+                    Record currentRecord;
+                    try {
+                        readRecordsNumber++;
+                        currentRecord = readRecord();
+                        if (currentRecord == null) {
+                            LOGGER.log(Level.SEVERE, "The record reader returned null for next record, aborting execution.");
+                            reportAbortedStatus();
+                            return report;
+                        }
+                        if (pushDownRecordNumberFilters && currentRecord.getHeader().hasNumber()) {
+                            trackRecordNumber(currentRecord.getHeader().getRecordNumber());
+                        }
+                        if (lastRecordToSkip > 0 && isBeforeCheckpoint(currentRecord, lastRecordToSkip)) {
+                            continue;
+                        }
+                        processedRecordsNumber++;
+                        Header header = currentRecord.getHeader();
+                        report.setCurrentRecordNumber(header.hasNumber() ? header.getRecordNumber() : readRecordsNumber);
+                        trackRecordRead(currentRecord);
+                    } catch (Exception e) {
+                        eventManager.fireOnBatchException(e);
+                        eventManager.fireOnRecordReadException(e);
+                        LOGGER.log(Level.SEVERE, "An exception occurred during reading next data source record, aborting execution.", e);
                         reportAbortedStatus();
                         return report;
                     }
-                    processedRecordsNumber++;
-                    report.setCurrentRecordNumber(currentRecord.getHeader().getNumber());
-                } catch (Exception e) {
-                    eventManager.fireOnBatchException(e);
-                    eventManager.fireOnRecordReadException(e);
-                    LOGGER.log(Level.SEVERE, "An exception occurred during reading next data source record, aborting execution.", e);
-                    reportAbortedStatus();
-                    return report;
-                }
 
-                /*
-                 * apply filter chain
-                 */
-                boolean filtered = filterChain.filterRecord(currentRecord);
-                if (filtered) {
-                    report.incrementTotalFilteredRecords();
-                    filteredRecordHandler.handle(currentRecord);
-                    continue;
+                    executeRecord(recordExecutor, currentRecord);
                 }
+            } finally {
+                recordExecutor.shutdownAndAwaitTermination();
+                stopWatchdog();
+            }
 
-                /*
-                 * map record to domain object
-                 */
-                Object typedRecord;
-                try {
-                    typedRecord = mapRecord(currentRecord);
-                    if (typedRecord == null) {
-                        report.incrementTotalIgnoredRecord();
-                        ignoredRecordHandler.handle(currentRecord);
-                        continue;
-                    }
-                } catch (Exception e) {
-                    report.incrementTotalIgnoredRecord();
-                    ignoredRecordHandler.handle(currentRecord, e);
-                    eventManager.fireOnBatchException(e);
-                    if (strictMode) {
-                        reportAbortDueToStrictMode();
-                        break;
-                    }
-                    continue;
-                }
+            processLastChunk();
 
-                /*
-                 * apply validation pipeline
-                 */
-                Set<ValidationError> validationsErrors = validateRecord(typedRecord);
-                if (!validationsErrors.isEmpty()) {
-                    report.incrementTotalRejectedRecord();
-                    rejectedRecordHandler.handle(currentRecord, validationsErrors);
-                    if (strictMode) {
-                        reportAbortDueToStrictMode();
-                        break;
-                    }
-                    continue;
-                }
+            tearDownEngine(processedRecordsNumber + skippedRecordsNumber);
+
+        } catch (RuntimeException e) {
+            reportUnexpectedException(e);
+            throw e;
+        } catch (Error e) {
+            reportUnexpectedException(e);
+            throw e;
+        } finally {
+            // an early return (read error, etc) leaves the current chunk unprocessed: do not carry it over to the next call
+            discardLastChunk();
+            commitCheckpoint();
+            closeRecordReader();
+            eventManager.fireAfterBatchEnd();
+            tearDownMonitoring();
+        }
+        return report;
+
+    }
+
+    /**
+     * Stop the execution gracefully: no more records are read, records being processed (and the current chunk)
+     * are completed, the reader is closed and the report status is set to {@link Status#STOPPED}.
+     * <p/>
+     * If a checkpoint store is registered, the checkpoint of the last committed record is saved, so that the next
+     * execution resumes after it.
+     * <p/>
+     * If the engine is not running yet, the next execution stops before reading any record.
+     */
+    public void stop() {
+        LOGGER.info("Stopping execution");
+        synchronized (pauseLock) {
+            stopped = true;
+            pauseLock.notifyAll();
+        }
+    }
+
+    /**
+     * Pause the execution: records being processed are completed, but no more records are read until the execution
+     * is resumed or stopped. The report status is set to {@link Status#PAUSED} once the engine is paused.
+     */
+    public void pause() {
+        LOGGER.info("Pausing execution");
+        paused = true;
+    }
+
+    /**
+     * Resume a paused execution.
+     */
+    public void resume() {
+        synchronized (pauseLock) {
+            paused = false;
+            pauseLock.notifyAll();
+        }
+    }
+
+    /**
+     * Get the report of the current (or last) execution, updated while the engine is running.
+     *
+     * @return the execution report
+     */
+    public Report getReport() {
+        return report;
+    }
 
-                /*
-                 * apply processing pipeline
-                 */
-                boolean processingError = processingPipeline.process(currentRecord, typedRecord);
-                if (processingError) {
-                    if (strictMode) {
-                        reportAbortDueToStrictMode();
-                        break;
+    /**
+     * Wait while the execution is paused.
+     *
+     * @return true if the execution should go on, false if it has been stopped
+     */
+    private boolean awaitResumption() {
+        if (paused) {
+            synchronized (pauseLock) {
+                if (paused && !stopped) {
+                    report.setStatus(Status.PAUSED);
+                    LOGGER.log(Level.INFO, "Execution paused after record {0}", report.getCurrentRecordNumber());
+                    try {
+                        while (paused && !stopped) {
+                            pauseLock.wait();
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        abort("Interrupted while paused", e);
+                        return false;
                     }
-                } else {
-                    report.incrementTotalSuccessRecord();
+                    report.setStatus(Status.RUNNING);
+                    LOGGER.info("Execution resumed");
                 }
             }
+        }
+        return !stopped;
+    }
 
-            tearDownEngine(processedRecordsNumber);
+    /**
+     * Restore the last checkpoint, if any: seek restartable readers to the checkpoint position and make skippable
+     * readers skip records before the checkpoint, other records before the checkpoint will be skipped while reading.
+     *
+     * @return the number of the last record to skip, 0 if no record should be skipped
+     * @throws Exception thrown if the checkpoint cannot be loaded or the reader cannot seek to it
+     */
+    private long restoreCheckpoint() throws Exception {
+        checkpointTracker = null;
+        processingPipeline.setCheckpointTracker(null);
+        if (checkpointStore == null) {
+            return 0;
+        }
+        Checkpoint checkpoint = checkpointStore.load();
+        checkpointTracker = new CheckpointTracker(checkpointStore, checkpointInterval, strictMode, checkpoint);
+        processingPipeline.setCheckpointTracker(checkpointTracker);
+        if (checkpoint == null) {
+            return 0;
+        }
+        if (checkpoint.hasPosition() && recordReader instanceof RestartableRecordReader) {
+            LOGGER.log(Level.INFO, "Restarting after record {0} (position {1})",
+                    new Object[]{checkpoint.getRecordNumber(), checkpoint.getPosition()});
+            ((RestartableRecordReader) recordReader).seek(checkpoint);
+            nextRecordNumber = checkpoint.getRecordNumber() + 1;
+            return 0;
+        }
+        if (recordReader instanceof SkippableRecordReader) {
+            LOGGER.log(Level.INFO, "Restarting after record {0}, skipping previous records without reading them", checkpoint.getRecordNumber());
+            nextRecordNumber += ((SkippableRecordReader) recordReader).skip(checkpoint.getRecordNumber());
+            return 0;
+        }
+        LOGGER.log(Level.INFO, "Restarting after record {0}, skipping previous records", checkpoint.getRecordNumber());
+        return checkpoint.getRecordNumber();
+    }
 
-        } finally {
-            closeRecordReader();
-            eventManager.fireAfterBatchEnd();
+    /**
+     * Track the number of the next record to read. Skipping filtered records requires record numbers to match
+     * the position of records in the data source, so filters are no longer pushed down if they do not.
+     */
+    private void trackRecordNumber(final long recordNumber) {
+        if (recordNumber != nextRecordNumber) {
+            LOGGER.log(Level.WARNING, "Record {0} was read where record {1} was expected, record number filters will not skip records",
+                    new Object[]{recordNumber, nextRecordNumber});
+            pushDownRecordNumberFilters = false;
+            return;
         }
-        return report;
+        nextRecordNumber = recordNumber + 1;
+    }
+
+    /**
+     * Push record number filters down to the reader: skip records they filter if the reader can skip records,
+     * and stop reading once they filter all remaining records.
+     *
+     * @return true if the next record should be read, false if reading should stop
+     */
+    private boolean skipFilteredRecords() {
+        if (!pushDownRecordNumberFilters) {
+            return true;
+        }
+        long next = filterChain.nextAcceptedRecordNumber(nextRecordNumber);
+        if (next == RecordNumberFilter.NO_MORE_RECORDS) {
+            LOGGER.log(Level.INFO, "Records after record {0} are filtered, stopping reading", nextRecordNumber - 1);
+            return false;
+        }
+        if (next > nextRecordNumber && recordReader instanceof SkippableRecordReader) {
+            try {
+                long skipped = ((SkippableRecordReader) recordReader).skip(next - nextRecordNumber);
+                nextRecordNumber += skipped;
+                skippedRecordsNumber += skipped;
+                report.incrementTotalFilteredRecords(skipped);
+            } catch (Exception e) {
+                eventManager.fireOnBatchException(e);
+                eventManager.fireOnRecordReadException(e);
+                LOGGER.log(Level.SEVERE, "An exception occurred while skipping filtered records, aborting execution.", e);
+                reportAbortedStatus();
+                aborted = true;
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isBeforeCheckpoint(final Record currentRecord, final long lastRecordToSkip) {
+        Header header = currentRecord.getHeader();
+        return header.hasNumber() && header.getRecordNumber() <= lastRecordToSkip;
+    }
+
+    private void trackRecordRead(final Record currentRecord) {
+        if (checkpointTracker != null) {
+            long position = recordReader instanceof RestartableRecordReader ?
+                    ((RestartableRecordReader) recordReader).getPosition() : Checkpoint.NO_POSITION;
+            checkpointTracker.recordRead(currentRecord.getHeader().getNumber(), position);
+        }
+    }
+
+    private void recordCompleted(final Record currentRecord, final boolean failed) {
+        if (checkpointTracker != null) {
+            checkpointTracker.recordCompleted(currentRecord.getHeader().getNumber(), failed);
+        }
+    }
+
+    /**
+     * Save the last committed checkpoint if the execution has been aborted or stopped, so that it can be restarted,
+     * or clear it if all records have been processed.
+     */
+    private void commitCheckpoint() {
+        if (checkpointTracker == null) {
+            return;
+        }
+        // only a completed execution clears the checkpoint: any other outcome must be resumable
+        if (Status.FINISHED.equals(report.getStatus())) {
+            checkpointTracker.clear();
+        } else {
+            checkpointTracker.save();
+        }
+    }
+
+    private void warnIfRetriesBlockThreads(final String executionMode) {
+        if (processingPipeline.hasRetryPolicies()) {
+            LOGGER.log(Level.WARNING, "Records waiting to be retried hold their thread in {0}", executionMode);
+        }
+    }
+
+    private RecordExecutor createRecordExecutor() {
+        AdaptiveConcurrencyLimiter concurrencyLimiter = createConcurrencyLimiter();
+        report.setConcurrencyLimiter(concurrencyLimiter);
+        startWatchdog();
+        if (maxConcurrency > 0) {
+            warnIfRetriesBlockThreads("asynchronous execution");
+            return new AsyncRecordExecutor(this, maxConcurrency, concurrencyLimiter);
+        }
+        if (stageBufferSize > 0) {
+            if (parallelism > 1) {
+                LOGGER.warning("Staged pipeline execution cannot be combined with parallelism, ignoring parallelism");
+            }
+            warnIfRetriesBlockThreads("staged pipeline execution");
+            return new StagedRecordExecutor(this, stageBufferSize);
+        }
+        if (parallelism > 1 && reorderWindow > 0) {
+            warnIfRetriesBlockThreads("ordered parallel execution");
+            return new OrderedWorkerPool(this, parallelism, reorderWindow);
+        }
+        if (parallelism > 1 || watchdog != null) {
+            // with a record timeout, even sequential processing runs on a worker which can be replaced if stuck,
+            // but records are handed to it one at a time so that the reader never runs ahead of the processing
+            WorkerPool workerPool = new WorkerPool(this, parallelism, concurrencyLimiter, parallelism == 1);
+            if (watchdog != null) {
+                watchdog.setWorkerPool(workerPool);
+            }
+            return workerPool;
+        }
+        return new RecordExecutor() {
+            @Override
+            public void execute(Record record) {
+                processRecord(record);
+            }
+
+            @Override
+            public void shutdownAndAwaitTermination() {
+            }
+        };
+    }
+
+    /**
+     * Create the adaptive concurrency limiter of the execution, if enabled and supported by the execution mode
+     * (parallel or asynchronous processing without ordering).
+     */
+    private AdaptiveConcurrencyLimiter createConcurrencyLimiter() {
+        if (minConcurrency == 0) {
+            return null;
+        }
+        int concurrency = maxConcurrency > 0 ? maxConcurrency : parallelism;
+        if ((maxConcurrency == 0 && (stageBufferSize > 0 || reorderWindow > 0)) || concurrency == 1) {
+            LOGGER.warning("Adaptive concurrency is only supported with parallel or asynchronous processing without ordering, ignoring it");
+            return null;
+        }
+        int minLimit = Math.min(minConcurrency, concurrency);
+        LOGGER.log(Level.INFO, "Adaptive concurrency between {0} and {1}", new Object[]{minLimit, concurrency});
+        return new AdaptiveConcurrencyLimiter(minLimit, concurrency);
+    }
+
+    /**
+     * Start the watchdog enforcing the record processing timeout, if enabled and supported by the execution mode
+     * (sequential or parallel processing without ordering).
+     */
+    private void startWatchdog() {
+        watchdog = null;
+        if (recordTimeout > 0) {
+            if (maxConcurrency > 0 || stageBufferSize > 0 || (parallelism > 1 && reorderWindow > 0)) {
+                LOGGER.warning("Record timeout is only supported with sequential or parallel processing without ordering, ignoring it");
+            } else {
+                LOGGER.log(Level.INFO, "Record timeout: {0} ms", recordTimeout);
+                watchdog = new ProcessingWatchdog(name, recordTimeout, processingPipeline);
+                watchdog.start();
+            }
+        }
+        processingPipeline.setWatchdog(watchdog);
+    }
+
+    private void stopWatchdog() {
+        if (watchdog != null) {
+            watchdog.stop();
+        }
+    }
+
+    private void executeRecord(final RecordExecutor recordExecutor, final Record currentRecord) {
+        try {
+            if (rateLimiter != null) {
+                rateLimiter.acquire();
+            }
+            recordExecutor.execute(currentRecord);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abort("Interrupted while dispatching records", e);
+        }
+    }
+
+    /**
+     * Abort the execution due to an unexpected error.
+     *
+     * @param message   the reason of the abort
+     * @param throwable the error
+     */
+    void abort(final String message, final Throwable throwable) {
+        LOGGER.log(Level.SEVERE, message + ", aborting execution.", throwable);
+        eventManager.fireOnBatchException(throwable);
+        report.setStatus(Status.ABORTED);
+        aborted = true;
+    }
+
+    /*
+     * Record processing steps, shared by all record executors
+     */
+
+    /**
+     * Apply the filter chain, the mapper, the validation pipeline and the processing pipeline to a record.
+     *
+     * @param currentRecord the record to process
+     */
+    void processRecord(final Record currentRecord) {
+        Object typedRecord = filterAndMapRecord(currentRecord);
+        if (typedRecord != null && validateMappedRecord(currentRecord, typedRecord)) {
+            recordProcessed(currentRecord, processingPipeline.process(currentRecord, typedRecord));
+        }
+    }
+
+    /**
+     * Apply the filter chain and the mapper to a record.
+     *
+     * @param currentRecord the record to filter and map
+     * @return the mapped record or null if the record has been filtered or ignored
+     */
+    Object filterAndMapRecord(final Record currentRecord) {
+        boolean sampled = latencySampler.isSampled(currentRecord);
+        /*
+         * apply filter chain
+         */
+        long startTime = sampled ? System.nanoTime() : 0;
+        boolean filtered = filterChain.filterRecord(currentRecord);
+        if (sampled) {
+            latencySampler.recordLatency(Step.FILTER, startTime);
+        }
+        if (filtered) {
+            report.incrementTotalFilteredRecords();
+            filteredRecordHandler.handle(currentRecord);
+            recordCompleted(currentRecord, false);
+            return null;
+        }
+
+        /*
+         * map record to domain object
+         */
+        Object typedRecord;
+        try {
+            startTime = sampled ? System.nanoTime() : 0;
+            typedRecord = mapRecord(currentRecord);
+            if (sampled) {
+                latencySampler.recordLatency(Step.MAP, startTime);
+            }
+            if (typedRecord == null) {
+                report.incrementTotalIgnoredRecord();
+                ignoredRecordHandler.handle(currentRecord);
+                recordCompleted(currentRecord, true);
+            }
+        } catch (Exception e) {
+            report.incrementTotalIgnoredRecord();
+            ignoredRecordHandler.handle(currentRecord, e);
+            eventManager.fireOnBatchException(e);
+            recordCompleted(currentRecord, true);
+            abortIfStrictMode();
+            return null;
+        }
+        return typedRecord;
+    }
+
+    /**
+     * Apply the validation pipeline to a mapped record.
+     *
+     * @param currentRecord the raw record
+     * @param typedRecord   the mapped record
+     * @return true if the record is valid, false if it has been rejected
+     */
+    boolean validateMappedRecord(final Record currentRecord, final Object typedRecord) {
+        boolean sampled = latencySampler.isSampled(currentRecord);
+        long startTime = sampled ? System.nanoTime() : 0;
+        Set<ValidationError> validationsErrors = validateRecord(typedRecord);
+        if (sampled) {
+            latencySampler.recordLatency(Step.VALIDATE, startTime);
+        }
+        if (!validationsErrors.isEmpty()) {
+            report.incrementTotalRejectedRecord();
+            rejectedRecordHandler.handle(currentRecord, validationsErrors);
+            recordCompleted(currentRecord, true);
+            abortIfStrictMode();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Report the outcome of the processing pipeline for a record.
+     *
+     * @param currentRecord   the processed record
+     * @param processingError true if the record could not be processed
+     */
+    void recordProcessed(final Record currentRecord, final boolean processingError) {
+        if (processingError) {
+            recordCompleted(currentRecord, true);
+            abortIfStrictMode();
+        } else if (!processingPipeline.isChunkModeEnabled()) {
+            report.incrementTotalSuccessRecord();
+            recordCompleted(currentRecord, false);
+        }
+    }
+
+    boolean isAborted() {
+        return aborted;
+    }
+
+    ProcessingPipeline getProcessingPipeline() {
+        return processingPipeline;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    private void processLastChunk() {
+        if (aborted) {
+            discardLastChunk();
+        } else if (processingPipeline.flushChunk()) {
+            abortIfStrictMode();
+        }
+    }
+
+    private void discardLastChunk() {
+        int discarded = processingPipeline.discardChunk();
+        if (discarded > 0) {
+            LOGGER.log(Level.WARNING, "Execution aborted: {0} record(s) of the last chunk have not been processed", discarded);
+        }
+    }
 
+    private void abortIfStrictMode() {
+        if (strictMode) {
+            reportAbortDueToStrictMode();
+            aborted = true;
+        }
     }
 
     private void initializeEngine() {
         if (silentMode) {
             Utils.muteLoggers();
         }
+        aborted = false;
+        nextRecordNumber = 1;
+        skippedRecordsNumber = 0;
+        pushDownRecordNumberFilters = filterChain.hasRecordNumberFilters()
+                && filteredRecordHandler instanceof NoOpFilteredRecordHandler
+                && !hasRecordFilterEventListeners();
         eventManager.fireBeforeBatchStart();
         LOGGER.info("Initializing easy batch engine");
         report.setStartTime(System.currentTimeMillis()); //System.nanoTime() does not allow to have start time (see Javadoc)
         LOGGER.log(Level.INFO, "Strict mode: {0}", strictMode);
+        LOGGER.log(Level.INFO, "Parallelism: {0}", parallelism);
+        registerRateLimiters();
+        report.setFilterStatistics(filterChain.resetStatistics());
+    }
+
+    /**
+     * Tell if record filter listeners are registered: they would not be notified of records skipped by record number
+     * filters pushed down to the reader. Listeners of custom event managers are unknown, so they are assumed to exist.
+     */
+    private boolean hasRecordFilterEventListeners() {
+        if (eventManager instanceof LocalEventManager) {
+            return ((LocalEventManager) eventManager).hasRecordFilterEventListeners();
+        }
+        if (eventManager instanceof AsyncEventManager) {
+            return ((AsyncEventManager) eventManager).hasRecordFilterEventListeners();
+        }
+        return true;
+    }
+
+    private void registerRateLimiters() {
+        Map<String, RateLimiter> rateLimiters = new LinkedHashMap<String, RateLimiter>();
+        if (rateLimiter != null) {
+            LOGGER.log(Level.INFO, "Rate limit: {0} records per second", rateLimiter.getRate());
+            rateLimiters.put("engine", rateLimiter);
+        }
+        rateLimiters.putAll(processingPipeline.getRateLimiters());
+        report.setRateLimiters(rateLimiters);
     }
 
     private boolean initializeRecordReader() {
@@ -242,7 +757,7 @@ public final class Engine implements Callable<Report> {
     private void setupMonitoring() {
         if (jmxEnabled) {
             LOGGER.log(Level.INFO, "Registering JMX MBean");
-            Utils.registerJmxMBean(report, this);
+            monitorName = Utils.registerJmxMBean(report, this);
             LOGGER.log(Level.INFO, "Calculating the total number of records");
             Long totalRecords = recordReader.getTotalRecords();
             report.setTotalRecords(totalRecords);
@@ -252,6 +767,24 @@ public final class Engine implements Callable<Report> {
         LOGGER.info("easy batch engine is running");
     }
 
+    private void tearDownMonitoring() {
+        if (monitorName != null) {
+            LOGGER.log(Level.INFO, "Unregistering JMX MBean");
+            Utils.unregisterJmxMBean(monitorName);
+            monitorName = null;
+        }
+    }
+
+    /**
+     * Report an unexpected exception escaping the execution as an abort, so that the checkpoint is saved
+     * and listeners know the execution did not finish.
+     */
+    private void reportUnexpectedException(final Throwable throwable) {
+        LOGGER.log(Level.SEVERE, "An unexpected exception occurred, aborting execution.", throwable);
+        eventManager.fireOnBatchException(throwable);
+        reportAbortedStatus();
+    }
+
     private void reportAbortedStatus() {
         report.setStatus(Status.ABORTED);
         report.setEndTime(System.currentTimeMillis());
@@ -263,9 +796,16 @@ public final class Engine implements Callable<Report> {
     }
 
     private Record readRecord() throws Exception {
+        // the record number is only known once the record is read, so the clock is read before each read when
+        // sampling is enabled, and the latency is kept if the record is sampled, like for the other steps
+        boolean timed = latencySampler.isEnabled();
+        long startTime = timed ? System.nanoTime() : 0;
         eventManager.fireBeforeRecordRead();
         Record currentRecord = recordReader.readNextRecord();
         eventManager.fireAfterRecordRead(currentRecord);
+        if (timed && currentRecord != null && latencySampler.isSampled(currentRecord)) {
+            latencySampler.recordLatency(Step.READ, startTime);
+        }
         return currentRecord;
     }
 
@@ -286,7 +826,13 @@ public final class Engine implements Callable<Report> {
         report.setTotalRecords(processedRecordsNumber);
         report.setEndTime(System.currentTimeMillis());
         if (!report.getStatus().equals(Status.ABORTED)) {
-            report.setStatus(Status.FINISHED);
+            report.setStatus(stopped ? Status.STOPPED : Status.FINISHED);
+        }
+        if (stopped) {
+            LOGGER.log(Level.INFO, "Execution stopped after record {0}", report.getCurrentRecordNumber());
+            if (checkpointStore == null) {
+                LOGGER.warning("No checkpoint store registered: the next execution will not resume after the last processed record");
+            }
         }
 
         // The batch result (if any) is held by the last processor in the pipeline (which should be of type ComputationalRecordProcessor)
@@ -334,6 +880,14 @@ public final class Engine implements Callable<Report> {
         processingPipeline.addProcessor(recordProcessor);
     }
 
+    void addRecordProcessor(final RecordProcessor recordProcessor, final RateLimiter rateLimiter) {
+        processingPipeline.addProcessor(recordProcessor, rateLimiter);
+    }
+
+    void addRecordProcessor(final RecordProcessor recordProcessor, final RetryPolicy retryPolicy) {
+        processingPipeline.addProcessor(recordProcessor, retryPolicy);
+    }
+
     void setFilteredRecordHandler(final FilteredRecordHandler filteredRecordHandler) {
         this.filteredRecordHandler = filteredRecordHandler;
     }
@@ -350,8 +904,23 @@ public final class Engine implements Callable<Report> {
         processingPipeline.setErrorRecordHandler(errorRecordHandler);
     }
 
+    void setChunkProcessor(final ChunkProcessor chunkProcessor) {
+        processingPipeline.setChunkProcessor(chunkProcessor);
+    }
+
+    void setChunkSize(final int chunkSize) {
+        processingPipeline.setChunkSize(chunkSize);
+    }
+
     void setEventManager(EventManager eventManager) {
         this.eventManager = eventManager;
+        filterChain.setEventManager(eventManager);
+        validationPipeline.setEventManager(eventManager);
+        processingPipeline.setEventManager(eventManager);
+    }
+
+    EventManager getEventManager() {
+        return eventManager;
     }
 
     public void addBatchProcessEventListener(final BatchProcessEventListener batchProcessEventListener) {
@@ -378,6 +947,10 @@ public final class Engine implements Callable<Report> {
         eventManager.addRecordProcessorEventListener(recordProcessorEventListener);
     }
 
+    public void addChunkProcessorEventListener(final ChunkProcessorEventListener chunkProcessorEventListener) {
+        eventManager.addChunkProcessorEventListener(chunkProcessorEventListener);
+    }
+
     void setStrictMode(final boolean strictMode) {
         this.strictMode = strictMode;
     }
@@ -394,6 +967,50 @@ public final class Engine implements Callable<Report> {
         jmxEnabled = jmx;
     }
 
+    void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    void setStageBufferSize(int stageBufferSize) {
+        this.stageBufferSize = stageBufferSize;
+    }
+
+    void setReorderWindow(int reorderWindow) {
+        this.reorderWindow = reorderWindow;
+    }
+
+    void setMaxConcurrency(int maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    void setMinConcurrency(int minConcurrency) {
+        this.minConcurrency = minConcurrency;
+    }
+
+    void setCheckpointStore(CheckpointStore checkpointStore) {
+        this.checkpointStore = checkpointStore;
+    }
+
+    void setCheckpointInterval(int checkpointInterval) {
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    void setRateLimiter(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    void setRecordTimeout(long recordTimeout) {
+        this.recordTimeout = recordTimeout;
+    }
+
+    void setLatencySamplingRate(int latencySamplingRate) {
+        latencySampler.setSamplingRate(latencySamplingRate);
+    }
+
+    void setAdaptiveFilterSamplingRate(final int samplingRate) {
+        filterChain.setAdaptive(samplingRate);
+    }
+
     @Override
     public String toString() {
         return name;
@@ -27,10 +27,13 @@ package org.easybatch.core.impl;
 import org.easybatch.core.api.*;
 import org.easybatch.core.api.event.batch.BatchProcessEventListener;
 import org.easybatch.core.api.event.step.*;
+import org.easybatch.core.util.RateLimiter;
+import org.easybatch.core.util.RetryPolicy;
 import org.easybatch.core.util.Utils;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Easy batch engine instance builder.
@@ -148,6 +151,73 @@ public final class EngineBuilder {
         return this;
     }
 
+    /**
+     * Register a record processor invoked at most at the rate of a rate limiter, to avoid overloading the system
+     * it writes to. The rate limiter may be shared with other processors or engines writing to the same system.
+     * <p/>
+     * The rate is enforced whatever the number of threads invoking the processor (see {@link #parallelism(int)}):
+     * threads wait for their turn before invoking the processor.
+     *
+     * @param recordProcessor the record processor to register
+     * @param rateLimiter     the rate limiter of the processor
+     * @return the engine builder
+     */
+    public EngineBuilder processor(final RecordProcessor recordProcessor, final RateLimiter rateLimiter) {
+        if (rateLimiter == null) {
+            throw new IllegalArgumentException("Rate limiter must not be null");
+        }
+        engine.addRecordProcessor(recordProcessor, rateLimiter);
+        return this;
+    }
+
+    /**
+     * Register a record processor retried according to a retry policy when it fails on a record, to recover from
+     * transient failures (deadlocks, timeouts, etc) instead of reporting the record in error.
+     * <p/>
+     * The record is reported in error once the processor failed the maximum number of attempts or with an exception
+     * which is not retryable. The number of retries is reported in the {@link org.easybatch.core.api.Report}.
+     * In parallel mode (see {@link #parallelism(int)}), records waiting to be retried do not hold a worker thread,
+     * but keep their slot of the adaptive concurrency limit, if any. This does not apply to ordered parallel,
+     * staged and asynchronous execution modes, where the retried record holds its thread during the backoff.
+     *
+     * @param recordProcessor the record processor to register
+     * @param retryPolicy     the retry policy of the processor
+     * @return the engine builder
+     */
+    public EngineBuilder processor(final RecordProcessor recordProcessor, final RetryPolicy retryPolicy) {
+        if (retryPolicy == null) {
+            throw new IllegalArgumentException("Retry policy must not be null");
+        }
+        engine.addRecordProcessor(recordProcessor, retryPolicy);
+        return this;
+    }
+
+    /**
+     * Register a chunk processor. Records successfully processed by the processing pipeline will be
+     * handed to this processor by chunks of {@link #chunkSize(int)} records, one chunk at a time.
+     *
+     * @param chunkProcessor the chunk processor to register
+     * @return the engine builder
+     */
+    public EngineBuilder chunkProcessor(final ChunkProcessor chunkProcessor) {
+        engine.setChunkProcessor(chunkProcessor);
+        return this;
+    }
+
+    /**
+     * Set the number of records in a chunk (100 by default). Only used when a chunk processor is registered.
+     *
+     * @param chunkSize the number of records in a chunk
+     * @return the engine builder
+     */
+    public EngineBuilder chunkSize(final int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be at least 1");
+        }
+        engine.setChunkSize(chunkSize);
+        return this;
+    }
+
     /**
      * Register a filtered record handler.
      *
@@ -216,6 +286,8 @@ public final class EngineBuilder {
 
     /**
      * Activate JMX monitoring.
+     * The engine is registered in the {@link org.easybatch.core.jmx.EngineRegistry} under a unique name
+     * while it is running.
      *
      * @param jmx true to enable jmx monitoring
      * @return the engine builder
@@ -225,6 +297,268 @@ public final class EngineBuilder {
         return this;
     }
 
+    /**
+     * Set the number of worker threads used to filter, map, validate and process records.
+     * <p/>
+     * When greater than 1, records are read by the calling thread and dispatched to a pool of workers.
+     * Filters, mapper, validators, processors, record handlers and event listeners are then
+     * invoked concurrently and should be thread-safe. Records are not guaranteed to be processed in order.
+     *
+     * @param parallelism the number of worker threads (1 by default, meaning records are processed by the calling thread)
+     * @return the engine builder
+     */
+    public EngineBuilder parallelism(final int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        engine.setParallelism(parallelism);
+        return this;
+    }
+
+    /**
+     * Process records asynchronously, for I/O bound record processors (calling remote services, databases, etc).
+     * <p/>
+     * Records are filtered, mapped and validated by the reading thread, then the processing pipeline of each record
+     * runs on its own thread (a virtual thread when the JVM supports them). At most maxConcurrency records are processed
+     * at the same time. Record processors, the error record handler and processor event listeners should be thread-safe.
+     * <p/>
+     * This mode takes precedence over {@link #parallelism(int)} and {@link #stagedPipeline(int)}.
+     *
+     * @param maxConcurrency the maximum number of records processed at the same time
+     * @return the engine builder
+     */
+    public EngineBuilder asyncProcessing(final int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Max concurrency must be at least 1");
+        }
+        engine.setMaxConcurrency(maxConcurrency);
+        return this;
+    }
+
+    /**
+     * Adapt the number of records processed at the same time to the latency of record processors, for engines writing
+     * to shared services: a fixed concurrency is either too low (services are idle) or too high (their latency explodes).
+     * <p/>
+     * The concurrency limit starts at minConcurrency and grows up to the parallelism (see {@link #parallelism(int)})
+     * or the max concurrency (see {@link #asyncProcessing(int)}) as long as the processing latency stays stable.
+     * It shrinks when the latency increases or records cannot be processed. The limit and its decisions are exposed
+     * through JMX. Adaptive concurrency is ignored in staged and ordered executions.
+     *
+     * @param minConcurrency the minimum (and initial) number of records processed at the same time
+     * @return the engine builder
+     */
+    public EngineBuilder adaptiveConcurrency(final int minConcurrency) {
+        if (minConcurrency < 1) {
+            throw new IllegalArgumentException("Minimum concurrency must be at least 1");
+        }
+        engine.setMinConcurrency(minConcurrency);
+        return this;
+    }
+
+    /**
+     * Save the progress of the execution to a checkpoint store every {@link Utils#DEFAULT_CHECKPOINT_INTERVAL} records.
+     *
+     * @param checkpointStore the checkpoint store to use
+     * @return the engine builder
+     * @see #checkpointStore(CheckpointStore, int)
+     */
+    public EngineBuilder checkpointStore(final CheckpointStore checkpointStore) {
+        return checkpointStore(checkpointStore, Utils.DEFAULT_CHECKPOINT_INTERVAL);
+    }
+
+    /**
+     * Save the progress of the execution to a checkpoint store, so that an aborted execution restarts after the last
+     * committed record instead of the beginning of the data source.
+     * <p/>
+     * A record is committed once it and all records read before it have been filtered, rejected or processed
+     * (in chunk mode, once its chunk has been processed). In strict mode, a record in error is never committed.
+     * The checkpoint is saved every checkpointInterval committed records and when the execution is aborted.
+     * It is cleared when the execution finishes normally.
+     * <p/>
+     * On restart, readers implementing {@link RestartableRecordReader} seek right after the checkpointed record,
+     * other readers read and skip records up to it.
+     *
+     * @param checkpointStore    the checkpoint store to use
+     * @param checkpointInterval the number of committed records between two checkpoints
+     * @return the engine builder
+     */
+    public EngineBuilder checkpointStore(final CheckpointStore checkpointStore, final int checkpointInterval) {
+        if (checkpointStore == null) {
+            throw new IllegalArgumentException("Checkpoint store must not be null");
+        }
+        if (checkpointInterval < 1) {
+            throw new IllegalArgumentException("Checkpoint interval must be at least 1");
+        }
+        engine.setCheckpointStore(checkpointStore);
+        engine.setCheckpointInterval(checkpointInterval);
+        return this;
+    }
+
+    /**
+     * Limit the number of records handled per second, to avoid overloading downstream systems.
+     *
+     * @param recordsPerSecond the maximum number of records handled per second
+     * @return the engine builder
+     * @see #rateLimiter(RateLimiter)
+     */
+    public EngineBuilder rateLimit(final double recordsPerSecond) {
+        return rateLimiter(new RateLimiter(recordsPerSecond));
+    }
+
+    /**
+     * Limit the number of records handled per second, allowing bursts of records after the engine has been idle
+     * (while waiting for slow records for example).
+     *
+     * @param recordsPerSecond the maximum number of records handled per second
+     * @param burst            the maximum number of records handled without waiting after an idle period
+     * @return the engine builder
+     * @see #rateLimiter(RateLimiter)
+     */
+    public EngineBuilder rateLimit(final double recordsPerSecond, final int burst) {
+        return rateLimiter(new RateLimiter(recordsPerSecond, burst));
+    }
+
+    /**
+     * Limit the number of records handled per second with a rate limiter, which may be shared with other engines.
+     * <p/>
+     * Records are throttled by the reading thread before being dispatched, so the rate is enforced whatever
+     * the execution mode (parallel, staged or asynchronous). The current rate of the engine and of rate limited
+     * processors (see {@link #processor(RecordProcessor, RateLimiter)}) is reported in the
+     * {@link org.easybatch.core.api.Report} and exposed through JMX.
+     *
+     * @param rateLimiter the rate limiter of the engine
+     * @return the engine builder
+     */
+    public EngineBuilder rateLimiter(final RateLimiter rateLimiter) {
+        if (rateLimiter == null) {
+            throw new IllegalArgumentException("Rate limiter must not be null");
+        }
+        engine.setRateLimiter(rateLimiter);
+        return this;
+    }
+
+    /**
+     * Measure the latency of each processing step (read, filter, map, validate and process) for one record
+     * out of samplingRate (100 by default). Latency percentiles are reported in the {@link org.easybatch.core.api.Report}
+     * and exposed through JMX.
+     *
+     * @param samplingRate the number of records per sampled record, 0 to disable latency measurement
+     * @return the engine builder
+     */
+    public EngineBuilder latencySampling(final int samplingRate) {
+        if (samplingRate < 0) {
+            throw new IllegalArgumentException("Latency sampling rate must be positive, or 0 to disable sampling");
+        }
+        engine.setLatencySamplingRate(samplingRate);
+        return this;
+    }
+
+    /**
+     * Reorder the filter chain at runtime so that filters with the lowest cost per rejected record are evaluated
+     * first. All filters are evaluated for one record out of samplingRate to measure their cost and rejection rate.
+     * The statistics and current position of each filter are reported in the {@link org.easybatch.core.api.Report}.
+     * <p/>
+     * Since a record is filtered as soon as a filter filters it, the outcome does not depend on the order of filters,
+     * provided that filters have no side effects.
+     *
+     * @param samplingRate the number of records per sampled record
+     * @return the engine builder
+     */
+    public EngineBuilder adaptiveFilterOrdering(final int samplingRate) {
+        if (samplingRate < 1) {
+            throw new IllegalArgumentException("Filter sampling rate must be at least 1");
+        }
+        engine.setAdaptiveFilterSamplingRate(samplingRate);
+        return this;
+    }
+
+    /**
+     * Set a time budget for the processing of each record by the record processors. A record exceeding it is handed
+     * to the error record handler with a {@link org.easybatch.core.api.RecordProcessingTimeoutException}
+     * (holding a snapshot of the stack of the processing thread) and counted as a slow record in the report.
+     * The processing thread is interrupted and replaced by a new worker, so that other records keep being processed.
+     * <p/>
+     * Records are processed by a worker thread even when parallelism is 1, in which case the worker is handed one record
+     * at a time and the next record is read once the previous one is complete or has timed out. This is not supported
+     * with asynchronous processing, staged pipelines and ordered parallel processing.
+     * <p/>
+     * A timed out record may still be used by its stuck thread while the next records are processed, so a record
+     * timeout must not be combined with readers reusing records (flyweight mode, see
+     * {@link org.easybatch.core.record.MutableStringRecord}).
+     *
+     * @param timeout the time budget of a record
+     * @param unit    the time unit of the timeout
+     * @return the engine builder
+     */
+    public EngineBuilder recordTimeout(final long timeout, final TimeUnit unit) {
+        if (unit.toMillis(timeout) < 1) {
+            throw new IllegalArgumentException("Record timeout must be at least 1 millisecond");
+        }
+        engine.setRecordTimeout(unit.toMillis(timeout));
+        return this;
+    }
+
+    /**
+     * Deliver events to listeners asynchronously, for listeners too slow to be called on the engine threads
+     * (writing to a remote audit log for example).
+     * <p/>
+     * Events are published to a bounded queue drained by a dedicated thread, which calls listeners in the order events
+     * were fired. When the queue is full, events are handled according to the overflow policy. The queue is flushed
+     * when the batch ends, before the engine returns its report. Listeners should not rely on the state of mutable
+     * records (like the result set of a JDBC record) since they are called after the engine has moved on.
+     *
+     * @param queueCapacity  the capacity of the event queue
+     * @param overflowPolicy the policy to apply when the event queue is full
+     * @return the engine builder
+     */
+    public EngineBuilder asyncEventDelivery(final int queueCapacity, final EventOverflowPolicy overflowPolicy) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("Event queue capacity must be at least 1");
+        }
+        if (overflowPolicy == null) {
+            throw new IllegalArgumentException("Event overflow policy must not be null");
+        }
+        engine.setEventManager(new AsyncEventManager(engine.getEventManager(), queueCapacity, overflowPolicy));
+        return this;
+    }
+
+    /**
+     * When records are processed in parallel (see {@link #parallelism(int)}), hand them to the last record processor
+     * in the order they were read from the data source. Other processing steps still run concurrently.
+     * <p/>
+     * At most reorderWindow records can be in flight: if the oldest record is slow, the reader waits for it
+     * instead of buffering more records.
+     *
+     * @param reorderWindow the maximum number of records in flight
+     * @return the engine builder
+     */
+    public EngineBuilder preserveOrder(final int reorderWindow) {
+        if (reorderWindow < 1) {
+            throw new IllegalArgumentException("Reorder window must be at least 1");
+        }
+        engine.setReorderWindow(reorderWindow);
+        return this;
+    }
+
+    /**
+     * Run each processing step in its own thread: filter + map, validate, then one thread per record processor.
+     * Steps are connected with bounded buffers so that reading, mapping and processing overlap.
+     * <p/>
+     * Records are processed in order. A component is never invoked concurrently with itself,
+     * but components of different steps (and event listeners and record handlers) are invoked from different threads.
+     * This mode cannot be combined with {@link #parallelism(int)}.
+     *
+     * @param bufferSize the capacity of the buffer in front of each step
+     * @return the engine builder
+     */
+    public EngineBuilder stagedPipeline(final int bufferSize) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Stage buffer size must be at least 1");
+        }
+        engine.setStageBufferSize(bufferSize);
+        return this;
+    }
+
     /**
      * Register a batch process event listener.
      * See {@link org.easybatch.core.api.event.batch.BatchProcessEventListener} for available callback methods.
@@ -303,6 +637,19 @@ public final class EngineBuilder {
         return this;
     }
 
+    /**
+     * Register a chunk processor event listener.
+     * See {@link org.easybatch.core.api.event.step.ChunkProcessorEventListener} for available callback methods.
+     *
+     * @param eventListener The event listener to add.
+     * @return the engine builder
+     */
+    public EngineBuilder chunkProcessorEventListener(final ChunkProcessorEventListener eventListener) {
+        assert eventListener != null;
+        engine.addChunkProcessorEventListener(eventListener);
+        return this;
+    }
+
     /**
      * Register a custom event manager.
      *
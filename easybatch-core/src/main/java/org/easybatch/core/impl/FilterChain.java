@@ -1,22 +1,70 @@
 package org.easybatch.core.impl;
 
 import org.easybatch.core.api.EventManager;
+import org.easybatch.core.api.Header;
 import org.easybatch.core.api.Record;
 import org.easybatch.core.api.RecordFilter;
+import org.easybatch.core.api.RecordNumberFilter;
+import org.easybatch.core.filter.RecordNumberBetweenFilter;
+import org.easybatch.core.filter.RecordNumberGreaterThanFilter;
+import org.easybatch.core.filter.RecordNumberLowerThanFilter;
+import org.easybatch.core.util.FilterStatistics;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 
 /**
  * The list of filters to apply for each record.
+ * <p/>
+ * A record is filtered as soon as a filter of the chain filters it, so the order of filters does not change the
+ * outcome (as long as filters have no side effects), only the number of filters evaluated. In adaptive mode,
+ * all filters are evaluated for one record out of samplingRate to measure their cost and rejection rate,
+ * and the chain is regularly reordered so that filters with the lowest cost per rejected record are evaluated first.
  *
  * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
  */
 class FilterChain {
 
+    /**
+     * The number of sampled records between two reorderings of the chain in adaptive mode.
+     */
+    static final int REORDERING_INTERVAL = 16;
+
+    /**
+     * Record number filters of the library, pushed down to the reader only if they are not subclassed.
+     */
+    private static final Class<?>[] LIBRARY_RECORD_NUMBER_FILTERS = {
+            RecordNumberBetweenFilter.class, RecordNumberGreaterThanFilter.class, RecordNumberLowerThanFilter.class
+    };
+
     private List<RecordFilter> filters;
 
     private EventManager eventManager;
 
+    /**
+     * The number of records per sampled record in adaptive mode, 0 if the chain is not adaptive.
+     */
+    private int samplingRate;
+
+    /**
+     * The filters in evaluation order in adaptive mode, null otherwise.
+     */
+    private volatile RecordFilter[] orderedFilters;
+
+    /**
+     * The filters of the adaptive chain in registration order, and their statistics.
+     */
+    private RecordFilter[] registeredFilters;
+
+    private List<FilterStatistics> statistics = Collections.emptyList();
+
+    private final Object reorderingLock = new Object();
+
+    private long samples;
+
     FilterChain(List<RecordFilter> filters, EventManager eventManager) {
         this.filters = filters;
         this.eventManager = eventManager;
@@ -26,16 +74,176 @@ class FilterChain {
         filters.add(recordFilter);
     }
 
+    void setEventManager(final EventManager eventManager) {
+        this.eventManager = eventManager;
+    }
+
+    void setAdaptive(final int samplingRate) {
+        this.samplingRate = samplingRate;
+    }
+
+    /**
+     * Reset the evaluation order and the statistics of the filters of an adaptive chain.
+     * No-op filters are left out since they never filter records.
+     *
+     * @return the statistics of the filters, in registration order (empty if the chain is not adaptive)
+     */
+    List<FilterStatistics> resetStatistics() {
+        if (samplingRate == 0) {
+            orderedFilters = null;
+            statistics = Collections.emptyList();
+            return statistics;
+        }
+        List<RecordFilter> adaptiveFilters = new ArrayList<RecordFilter>();
+        List<FilterStatistics> filterStatistics = new ArrayList<FilterStatistics>();
+        for (RecordFilter recordFilter : filters) {
+            if (!(recordFilter instanceof NoOpRecordFilter)) {
+                adaptiveFilters.add(recordFilter);
+                filterStatistics.add(new FilterStatistics(getName(recordFilter), adaptiveFilters.size()));
+            }
+        }
+        synchronized (reorderingLock) {
+            samples = 0;
+            statistics = filterStatistics;
+            registeredFilters = adaptiveFilters.toArray(new RecordFilter[adaptiveFilters.size()]);
+            orderedFilters = registeredFilters.clone();
+        }
+        return Collections.unmodifiableList(filterStatistics);
+    }
+
+    private static String getName(final RecordFilter recordFilter) {
+        String name = recordFilter.getClass().getSimpleName();
+        return name.isEmpty() ? recordFilter.getClass().getName() : name;
+    }
+
     public boolean filterRecord(final Record currentRecord) {
         eventManager.fireBeforeFilterRecord(currentRecord);
         boolean filtered = false;
-        for (RecordFilter recordFilter : filters) {
-            if (recordFilter.filterRecord(currentRecord)) {
-                filtered = true;
-                break;
+        RecordFilter[] adaptiveFilters = orderedFilters;
+        if (adaptiveFilters == null) {
+            for (RecordFilter recordFilter : filters) {
+                if (recordFilter.filterRecord(currentRecord)) {
+                    filtered = true;
+                    break;
+                }
+            }
+        } else if (isSampled(currentRecord)) {
+            filtered = sampleFilters(currentRecord);
+        } else {
+            for (RecordFilter recordFilter : adaptiveFilters) {
+                if (recordFilter.filterRecord(currentRecord)) {
+                    filtered = true;
+                    break;
+                }
             }
         }
         eventManager.fireAfterFilterRecord(currentRecord, filtered);
         return filtered;
     }
+
+    private boolean isSampled(final Record record) {
+        Header header = record.getHeader();
+        return header.hasNumber() && header.getRecordNumber() % samplingRate == 0;
+    }
+
+    /**
+     * Evaluate all filters (in registration order) for a sampled record, and reorder the chain
+     * every {@link #REORDERING_INTERVAL} samples.
+     */
+    private boolean sampleFilters(final Record currentRecord) {
+        List<FilterStatistics> filterStatistics;
+        RecordFilter[] adaptiveFilters;
+        synchronized (reorderingLock) {
+            filterStatistics = statistics;
+            adaptiveFilters = registeredFilters;
+        }
+        boolean filtered = false;
+        for (int i = 0; i < adaptiveFilters.length; i++) {
+            long startTime = System.nanoTime();
+            boolean rejected = adaptiveFilters[i].filterRecord(currentRecord);
+            filterStatistics.get(i).record(System.nanoTime() - startTime, rejected);
+            filtered |= rejected;
+        }
+        synchronized (reorderingLock) {
+            if (filterStatistics == statistics && ++samples % REORDERING_INTERVAL == 0) {
+                reorder(adaptiveFilters, filterStatistics);
+            }
+        }
+        return filtered;
+    }
+
+    private void reorder(final RecordFilter[] adaptiveFilters, final List<FilterStatistics> filterStatistics) {
+        Integer[] order = new Integer[adaptiveFilters.length];
+        final double[] ranks = new double[adaptiveFilters.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+            ranks[i] = filterStatistics.get(i).getRank();
+        }
+        // stable sort: filters with the same rank (those which never rejected a record) keep their registration order
+        Arrays.sort(order, new Comparator<Integer>() {
+            public int compare(final Integer i1, final Integer i2) {
+                return Double.compare(ranks[i1], ranks[i2]);
+            }
+        });
+        RecordFilter[] reorderedFilters = new RecordFilter[order.length];
+        for (int position = 0; position < order.length; position++) {
+            reorderedFilters[position] = adaptiveFilters[order[position]];
+            filterStatistics.get(order[position]).setPosition(position + 1);
+        }
+        orderedFilters = reorderedFilters;
+    }
+
+    boolean hasRecordNumberFilters() {
+        for (RecordFilter recordFilter : filters) {
+            if (canPushDown(recordFilter)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Tell if a filter can be pushed down to the reader. Subclasses of the library record number filters are not,
+     * since they may override {@link RecordFilter#filterRecord(org.easybatch.core.api.Record)} without overriding
+     * {@link RecordNumberFilter#nextAcceptedRecordNumber(long)} and would skip records they accept.
+     */
+    private static boolean canPushDown(final RecordFilter recordFilter) {
+        if (!(recordFilter instanceof RecordNumberFilter)) {
+            return false;
+        }
+        for (Class<?> libraryFilter : LIBRARY_RECORD_NUMBER_FILTERS) {
+            if (libraryFilter.isInstance(recordFilter)) {
+                return recordFilter.getClass() == libraryFilter;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get the number of the first record, starting from a given number, that is not filtered by any
+     * {@link RecordNumberFilter} of the chain (other filters are not taken into account).
+     *
+     * @param number the record number to start from
+     * @return the number of the first record not filtered, or {@link RecordNumberFilter#NO_MORE_RECORDS}
+     */
+    long nextAcceptedRecordNumber(final long number) {
+        long next = number;
+        boolean moved = true;
+        while (moved) {
+            moved = false;
+            for (RecordFilter recordFilter : filters) {
+                if (canPushDown(recordFilter)) {
+                    long accepted = ((RecordNumberFilter) recordFilter).nextAcceptedRecordNumber(next);
+                    if (accepted == RecordNumberFilter.NO_MORE_RECORDS) {
+                        return RecordNumberFilter.NO_MORE_RECORDS;
+                    }
+                    if (accepted > next) {
+                        next = accepted;
+                        moved = true;
+                    }
+                }
+            }
+        }
+        return next;
+    }
 }
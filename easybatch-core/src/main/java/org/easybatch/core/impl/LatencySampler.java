@@ -0,0 +1,74 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.easybatch.core.impl;
+
+import org.easybatch.core.api.Header;
+import org.easybatch.core.api.Record;
+import org.easybatch.core.api.Report;
+import org.easybatch.core.api.Step;
+
+/**
+ * Record the latency of processing steps for a sample of records: one record out of samplingRate,
+ * chosen by record number so that all steps of a sampled record are measured.
+ * Other records only pay for a modulo, not for reading the clock, except for the read step: the record number
+ * is only known once the record is read.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+class LatencySampler {
+
+    private final Report report;
+
+    private int samplingRate;
+
+    LatencySampler(final Report report, final int samplingRate) {
+        this.report = report;
+        this.samplingRate = samplingRate;
+    }
+
+    boolean isEnabled() {
+        return samplingRate > 0;
+    }
+
+    boolean isSampled(final long recordNumber) {
+        return samplingRate > 0 && recordNumber % samplingRate == 0;
+    }
+
+    boolean isSampled(final Record record) {
+        if (samplingRate == 0) {
+            return false;
+        }
+        Header header = record.getHeader();
+        return header.hasNumber() && isSampled(header.getRecordNumber());
+    }
+
+    void recordLatency(final Step step, final long startNanos) {
+        report.recordLatency(step, System.nanoTime() - startNanos);
+    }
+
+    void setSamplingRate(final int samplingRate) {
+        this.samplingRate = samplingRate;
+    }
+
+}
@@ -30,51 +30,61 @@ import org.easybatch.core.api.ValidationError;
 import org.easybatch.core.api.event.batch.BatchProcessEventListener;
 import org.easybatch.core.api.event.step.*;
 
-import java.util.LinkedHashSet;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Set;
 
 /**
  * Local implementation of {@link EventManager}.
+ * <p/>
+ * Listeners are held in arrays copied on registration (which happens when the engine is built), so that firing an event
+ * does not allocate an iterator and boils down to an empty loop when no listener of its type is registered.
  *
  * @author Mario Mueller (mario@xenji.com)
  */
 class LocalEventManager implements EventManager {
 
-    private Set<BatchProcessEventListener> batchProcessEventListeners = new LinkedHashSet<BatchProcessEventListener>();
-    private Set<RecordReaderEventListener> recordReaderEventListeners = new LinkedHashSet<RecordReaderEventListener>();
-    private Set<RecordFilterEventListener> recordFilterEventListeners = new LinkedHashSet<RecordFilterEventListener>();
-    private Set<RecordMapperEventListener> recordMapperEventListeners = new LinkedHashSet<RecordMapperEventListener>();
-    private Set<RecordValidatorEventListener> recordValidatorEventListeners = new LinkedHashSet<RecordValidatorEventListener>();
-    private Set<RecordProcessorEventListener> recordProcessorEventListeners = new LinkedHashSet<RecordProcessorEventListener>();
+    private BatchProcessEventListener[] batchProcessEventListeners = new BatchProcessEventListener[0];
+    private RecordReaderEventListener[] recordReaderEventListeners = new RecordReaderEventListener[0];
+    private RecordFilterEventListener[] recordFilterEventListeners = new RecordFilterEventListener[0];
+    private RecordMapperEventListener[] recordMapperEventListeners = new RecordMapperEventListener[0];
+    private RecordValidatorEventListener[] recordValidatorEventListeners = new RecordValidatorEventListener[0];
+    private RecordProcessorEventListener[] recordProcessorEventListeners = new RecordProcessorEventListener[0];
+    private ChunkProcessorEventListener[] chunkProcessorEventListeners = new ChunkProcessorEventListener[0];
 
     @Override
     public void addBatchProcessEventListener(BatchProcessEventListener batchProcessEventListener) {
-        batchProcessEventListeners.add(batchProcessEventListener);
+        batchProcessEventListeners = add(batchProcessEventListeners, batchProcessEventListener);
     }
 
     @Override
     public void addRecordReaderEventListener(RecordReaderEventListener recordReaderEventListener) {
-        recordReaderEventListeners.add(recordReaderEventListener);
+        recordReaderEventListeners = add(recordReaderEventListeners, recordReaderEventListener);
     }
 
     @Override
     public void addRecordFilterEventListener(RecordFilterEventListener recordFilterEventListener) {
-        recordFilterEventListeners.add(recordFilterEventListener);
+        recordFilterEventListeners = add(recordFilterEventListeners, recordFilterEventListener);
     }
 
     @Override
     public void addRecordMapperEventListener(RecordMapperEventListener recordMapperEventListener) {
-        recordMapperEventListeners.add(recordMapperEventListener);
+        recordMapperEventListeners = add(recordMapperEventListeners, recordMapperEventListener);
     }
 
     @Override
     public void addRecordValidatorEventListener(RecordValidatorEventListener recordValidatorEventListener) {
-        recordValidatorEventListeners.add(recordValidatorEventListener);
+        recordValidatorEventListeners = add(recordValidatorEventListeners, recordValidatorEventListener);
     }
 
     @Override
     public void addRecordProcessorEventListener(RecordProcessorEventListener recordProcessorEventListener) {
-        recordProcessorEventListeners.add(recordProcessorEventListener);
+        recordProcessorEventListeners = add(recordProcessorEventListeners, recordProcessorEventListener);
+    }
+
+    @Override
+    public void addChunkProcessorEventListener(ChunkProcessorEventListener chunkProcessorEventListener) {
+        chunkProcessorEventListeners = add(chunkProcessorEventListeners, chunkProcessorEventListener);
     }
 
     @Override
@@ -208,4 +218,64 @@ class LocalEventManager implements EventManager {
             eventListener.onRecordProcessingException(record, throwable);
         }
     }
+
+    @Override
+    public void fireBeforeProcessingChunk(final List<Object> records) {
+        for (ChunkProcessorEventListener eventListener : chunkProcessorEventListeners) {
+            eventListener.beforeProcessingChunk(records);
+        }
+    }
+
+    @Override
+    public void fireAfterProcessingChunk(final List<Object> records) {
+        for (ChunkProcessorEventListener eventListener : chunkProcessorEventListeners) {
+            eventListener.afterProcessingChunk(records);
+        }
+    }
+
+    @Override
+    public void fireOnChunkProcessingException(final List<Object> records, final Throwable throwable) {
+        for (ChunkProcessorEventListener eventListener : chunkProcessorEventListeners) {
+            eventListener.onChunkProcessingException(records, throwable);
+        }
+    }
+
+    boolean hasBatchProcessEventListeners() {
+        return batchProcessEventListeners.length > 0;
+    }
+
+    boolean hasRecordReaderEventListeners() {
+        return recordReaderEventListeners.length > 0;
+    }
+
+    boolean hasRecordFilterEventListeners() {
+        return recordFilterEventListeners.length > 0;
+    }
+
+    boolean hasRecordMapperEventListeners() {
+        return recordMapperEventListeners.length > 0;
+    }
+
+    boolean hasRecordValidatorEventListeners() {
+        return recordValidatorEventListeners.length > 0;
+    }
+
+    boolean hasRecordProcessorEventListeners() {
+        return recordProcessorEventListeners.length > 0;
+    }
+
+    boolean hasChunkProcessorEventListeners() {
+        return chunkProcessorEventListeners.length > 0;
+    }
+
+    private static <T> T[] add(final T[] listeners, final T listener) {
+        for (T registeredListener : listeners) {
+            if (registeredListener.equals(listener)) {
+                return listeners;
+            }
+        }
+        T[] newListeners = Arrays.copyOf(listeners, listeners.length + 1);
+        newListeners[listeners.length] = listener;
+        return newListeners;
+    }
 }
@@ -0,0 +1,180 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.core.impl;
+
+import org.easybatch.core.api.Record;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A record executor that processes records concurrently in a {@link WorkerPool} but hands them
+ * to the last record processor in the order they were read.
+ * <p/>
+ * Workers apply the filter chain, the mapper, the validation pipeline and all processors but the last one.
+ * Each record then waits in a reorder window until all previously read records are done, and is passed
+ * to the last processor by a single thread at a time.
+ * <p/>
+ * The reorder window is bounded: when it is full (typically because one record is slow), the reader blocks
+ * until the oldest record completes, which caps memory usage.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+class OrderedWorkerPool implements RecordExecutor {
+
+    /**
+     * Marker for records that have been completed by workers with nothing to pass to the last processor
+     * (filtered, ignored, rejected, in error or skipped because the execution was aborted).
+     */
+    private static final StagedRecord SKIPPED = new StagedRecord(null);
+
+    private final Engine engine;
+
+    private final WorkerPool workerPool;
+
+    private final ProcessingPipeline processingPipeline;
+
+    private final int lastProcessor;
+
+    private final StagedRecord[] window;
+
+    private final Semaphore windowPermits;
+
+    private final Lock releaseLock = new ReentrantLock();
+
+    private long nextSequence;
+
+    private long nextSequenceToRelease;
+
+    OrderedWorkerPool(final Engine engine, final int workers, final int reorderWindow) {
+        this.engine = engine;
+        this.workerPool = new WorkerPool(engine, workers);
+        this.processingPipeline = engine.getProcessingPipeline();
+        this.lastProcessor = processingPipeline.size() - 1;
+        this.window = new StagedRecord[reorderWindow];
+        this.windowPermits = new Semaphore(reorderWindow);
+    }
+
+    @Override
+    public void execute(final Record record) throws InterruptedException {
+        windowPermits.acquire();
+        final long sequence = nextSequence++;
+        try {
+            workerPool.submit(new Runnable() {
+                @Override
+                public void run() {
+                    StagedRecord stagedRecord = SKIPPED;
+                    try {
+                        if (!engine.isAborted()) {
+                            stagedRecord = processAllButLastStage(record);
+                        }
+                    } catch (Throwable throwable) {
+                        engine.abort("An unexpected exception occurred while processing record " + record.getHeader(), throwable);
+                    } finally {
+                        complete(sequence, stagedRecord);
+                    }
+                }
+            });
+        } catch (InterruptedException e) {
+            complete(sequence, SKIPPED);
+            throw e;
+        }
+    }
+
+    private StagedRecord processAllButLastStage(final Record record) {
+        Object typedRecord = engine.filterAndMapRecord(record);
+        if (typedRecord == null || !engine.validateMappedRecord(record, typedRecord)) {
+            return SKIPPED;
+        }
+        StagedRecord stagedRecord = new StagedRecord(record);
+        stagedRecord.typedRecord = typedRecord;
+        for (int i = 0; i < lastProcessor; i++) {
+            if (processingPipeline.processStage(i, stagedRecord)) {
+                engine.recordProcessed(record, true);
+                return SKIPPED;
+            }
+        }
+        return stagedRecord;
+    }
+
+    private void complete(final long sequence, final StagedRecord stagedRecord) {
+        synchronized (window) {
+            window[slot(sequence)] = stagedRecord;
+        }
+        // only one thread releases records at a time; if another thread holds the lock, it will release this record
+        while (isNextRecordReady() && releaseLock.tryLock()) {
+            try {
+                StagedRecord next = pollNextRecord();
+                while (next != null) {
+                    releaseRecord(next);
+                    windowPermits.release();
+                    next = pollNextRecord();
+                }
+            } finally {
+                releaseLock.unlock();
+            }
+        }
+    }
+
+    private void releaseRecord(final StagedRecord stagedRecord) {
+        if (stagedRecord == SKIPPED || engine.isAborted()) {
+            return;
+        }
+        try {
+            engine.recordProcessed(stagedRecord.record, processingPipeline.processStage(lastProcessor, stagedRecord));
+        } catch (Throwable throwable) {
+            engine.abort("An unexpected exception occurred while processing record " + stagedRecord.record.getHeader(), throwable);
+        }
+    }
+
+    private boolean isNextRecordReady() {
+        synchronized (window) {
+            return window[slot(nextSequenceToRelease)] != null;
+        }
+    }
+
+    private StagedRecord pollNextRecord() {
+        synchronized (window) {
+            int slot = slot(nextSequenceToRelease);
+            StagedRecord next = window[slot];
+            if (next != null) {
+                window[slot] = null;
+                nextSequenceToRelease++;
+            }
+            return next;
+        }
+    }
+
+    private int slot(final long sequence) {
+        return (int) (sequence % window.length);
+    }
+
+    @Override
+    public void shutdownAndAwaitTermination() {
+        workerPool.shutdownAndAwaitTermination();
+    }
+
+}
@@ -1,11 +1,23 @@
 package org.easybatch.core.impl;
 
 import org.easybatch.core.api.*;
+import org.easybatch.core.util.RateLimiter;
+import org.easybatch.core.util.RetryPolicy;
+import org.easybatch.core.util.Utils;
 
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * The processing pipeline is the set of stages to process a record.
+ * <p/>
+ * When a {@link ChunkProcessor} is registered, records successfully processed by all stages are buffered
+ * and handed to the chunk processor once the chunk is full. Those records are reported as successful (or in error)
+ * by the pipeline itself when the chunk is processed.
  *
  * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
  */
@@ -19,38 +31,352 @@ final class ProcessingPipeline {
 
     private EventManager eventManager;
 
+    private ChunkProcessor chunkProcessor;
+
+    private int chunkSize = Utils.DEFAULT_CHUNK_SIZE;
+
+    private CheckpointTracker checkpointTracker;
+
+    private LatencySampler latencySampler;
+
+    private ProcessingWatchdog watchdog;
+
+    private final Map<RecordProcessor, RateLimiter> rateLimiters = new IdentityHashMap<RecordProcessor, RateLimiter>();
+
+    private final Map<RecordProcessor, RetryPolicy> retryPolicies = new IdentityHashMap<RecordProcessor, RetryPolicy>();
+
+    private final List<Record> chunkRecords = new ArrayList<Record>();
+
+    private final List<Object> chunk = new ArrayList<Object>();
+
+    /*
+     * Chunks are swapped under the chunk lock but processed outside of it, so that workers can keep filling
+     * the next chunk. This lock makes sure the chunk processor is never called by two threads at the same time.
+     */
+    private final Object chunkProcessingLock = new Object();
+
     ProcessingPipeline(List<RecordProcessor> processors, ErrorRecordHandler errorRecordHandler, Report report, EventManager eventManager) {
         this.processors = processors;
         this.errorRecordHandler = errorRecordHandler;
         this.report = report;
         this.eventManager = eventManager;
+        this.latencySampler = new LatencySampler(report, 0);
     }
 
     @SuppressWarnings({"unchecked"})
     public boolean process(Record currentRecord, Object typedRecord) {
 
+        boolean sampled = latencySampler.isSampled(currentRecord);
+        long startTime = sampled ? System.nanoTime() : 0;
         boolean processingError = false;
         Object processingResult = null;
-        eventManager.fireBeforeProcessingRecord(typedRecord);
-        for (RecordProcessor recordProcessor : processors) {
-            try {
-                typedRecord = recordProcessor.processRecord(typedRecord);
-                if (recordProcessor instanceof ComputationalRecordProcessor) {
-                    processingResult = ((ComputationalRecordProcessor) recordProcessor).getComputationResult();
+        ProcessingWatchdog.Watch watch = watch(currentRecord, typedRecord);
+        try {
+            eventManager.fireBeforeProcessingRecord(typedRecord);
+            for (RecordProcessor recordProcessor : processors) {
+                try {
+                    typedRecord = invoke(recordProcessor, typedRecord);
+                    if (recordProcessor instanceof ComputationalRecordProcessor) {
+                        processingResult = ((ComputationalRecordProcessor) recordProcessor).getComputationResult();
+                    }
+                } catch (Exception e) {
+                    processingError = true;
+                    if (watch == null || !watch.isTimedOut()) {
+                        handleProcessingError(currentRecord, typedRecord, e);
+                    }
+                    break;
                 }
-            } catch (Exception e) {
+                if (watch != null && watch.isTimedOut()) {
+                    break;
+                }
+            }
+        } finally {
+            if (watch != null && watchdog.release(watch)) {
                 processingError = true;
-                report.incrementTotalErrorRecord();
-                errorRecordHandler.handle(currentRecord, e);
-                eventManager.fireOnBatchException(e);
-                eventManager.fireOnRecordProcessingException(typedRecord, e);
-                break;
             }
         }
         eventManager.fireAfterProcessingRecord(typedRecord, processingResult);
+        if (sampled) {
+            latencySampler.recordLatency(Step.PROCESS, startTime);
+        }
+        if (!processingError && isChunkModeEnabled()) {
+            processingError = addToChunk(currentRecord, typedRecord);
+        }
         return processingError;
     }
 
+    /**
+     * Apply a single processor of the pipeline to a record. This is used when each processor runs in its own stage.
+     * The latency of sampled records is the time spent in all stages, excluding the time spent waiting between stages.
+     *
+     * @param index        the index of the processor in the pipeline
+     * @param stagedRecord the record flowing through the pipeline, updated with the processor's output
+     * @return true if the record could not be processed, false else
+     */
+    @SuppressWarnings({"unchecked"})
+    public boolean processStage(final int index, final StagedRecord stagedRecord) {
+        RecordProcessor recordProcessor = processors.get(index);
+        boolean sampled = latencySampler.isSampled(stagedRecord.record);
+        long startTime = sampled ? System.nanoTime() : 0;
+        if (index == 0) {
+            eventManager.fireBeforeProcessingRecord(stagedRecord.typedRecord);
+        }
+        try {
+            stagedRecord.typedRecord = invoke(recordProcessor, stagedRecord.typedRecord);
+            if (recordProcessor instanceof ComputationalRecordProcessor) {
+                stagedRecord.processingResult = ((ComputationalRecordProcessor) recordProcessor).getComputationResult();
+            }
+        } catch (Exception e) {
+            handleProcessingError(stagedRecord.record, stagedRecord.typedRecord, e);
+            eventManager.fireAfterProcessingRecord(stagedRecord.typedRecord, stagedRecord.processingResult);
+            if (sampled) {
+                report.recordLatency(Step.PROCESS, stagedRecord.processingTime + System.nanoTime() - startTime);
+            }
+            return true;
+        }
+        if (index == processors.size() - 1) {
+            eventManager.fireAfterProcessingRecord(stagedRecord.typedRecord, stagedRecord.processingResult);
+            if (sampled) {
+                report.recordLatency(Step.PROCESS, stagedRecord.processingTime + System.nanoTime() - startTime);
+            }
+            if (isChunkModeEnabled()) {
+                return addToChunk(stagedRecord.record, stagedRecord.typedRecord);
+            }
+        }
+        if (sampled) {
+            stagedRecord.processingTime += System.nanoTime() - startTime;
+        }
+        return false;
+    }
+
+    /**
+     * Apply the processors of the pipeline to a record, starting at {@link StagedRecord#nextProcessor}, without waiting
+     * before retries: when a processor fails and should be retried, the record is left on this processor and the
+     * method returns the time to wait before calling it again. This is used by parallel workers so that records
+     * waiting to be retried do not hold a worker.
+     *
+     * @param stagedRecord the record to process, updated with the processors output and the processing outcome
+     * @return the time to wait in nanoseconds before resuming the record, or -1 if the record processing is complete
+     * ({@link StagedRecord#processingError} tells whether it succeeded)
+     */
+    @SuppressWarnings({"unchecked"})
+    public long processOrDefer(final StagedRecord stagedRecord) {
+        boolean sampled = latencySampler.isSampled(stagedRecord.record);
+        long startTime = sampled ? System.nanoTime() : 0;
+        if (stagedRecord.nextProcessor == 0 && stagedRecord.failedAttempts == 0) {
+            eventManager.fireBeforeProcessingRecord(stagedRecord.typedRecord);
+        }
+        ProcessingWatchdog.Watch watch = watch(stagedRecord.record, stagedRecord.typedRecord);
+        try {
+            for (int i = stagedRecord.nextProcessor; i < processors.size(); i++) {
+                RecordProcessor recordProcessor = processors.get(i);
+                try {
+                    throttle(recordProcessor);
+                    stagedRecord.typedRecord = recordProcessor.processRecord(stagedRecord.typedRecord);
+                    if (recordProcessor instanceof ComputationalRecordProcessor) {
+                        stagedRecord.processingResult = ((ComputationalRecordProcessor) recordProcessor).getComputationResult();
+                    }
+                    stagedRecord.failedAttempts = 0;
+                } catch (Exception e) {
+                    if (watch != null && watch.isTimedOut()) {
+                        break;
+                    }
+                    RetryPolicy retryPolicy = getRetryPolicy(recordProcessor);
+                    if (retryPolicy != null && retryPolicy.shouldRetry(e, stagedRecord.failedAttempts + 1)) {
+                        stagedRecord.nextProcessor = i;
+                        stagedRecord.failedAttempts++;
+                        report.incrementTotalRetries();
+                        if (sampled) {
+                            stagedRecord.processingTime += System.nanoTime() - startTime;
+                        }
+                        return retryPolicy.getBackoff(stagedRecord.failedAttempts);
+                    }
+                    handleProcessingError(stagedRecord.record, stagedRecord.typedRecord, e);
+                    stagedRecord.processingError = true;
+                    break;
+                }
+                if (watch != null && watch.isTimedOut()) {
+                    break;
+                }
+            }
+        } finally {
+            if (watch != null && watchdog.release(watch)) {
+                stagedRecord.processingError = true;
+            }
+        }
+        eventManager.fireAfterProcessingRecord(stagedRecord.typedRecord, stagedRecord.processingResult);
+        if (sampled) {
+            report.recordLatency(Step.PROCESS, stagedRecord.processingTime + System.nanoTime() - startTime);
+        }
+        if (!stagedRecord.processingError && isChunkModeEnabled()) {
+            stagedRecord.processingError = addToChunk(stagedRecord.record, stagedRecord.typedRecord);
+        }
+        return -1;
+    }
+
+    /**
+     * Invoke a processor on a record, waiting and retrying according to the retry policy of the processor, if any.
+     */
+    @SuppressWarnings({"unchecked"})
+    private Object invoke(final RecordProcessor recordProcessor, final Object typedRecord) throws Exception {
+        RetryPolicy retryPolicy = getRetryPolicy(recordProcessor);
+        int attempt = 1;
+        while (true) {
+            throttle(recordProcessor);
+            try {
+                return recordProcessor.processRecord(typedRecord);
+            } catch (Exception e) {
+                if (retryPolicy == null || !retryPolicy.shouldRetry(e, attempt)) {
+                    throw e;
+                }
+                report.incrementTotalRetries();
+                TimeUnit.NANOSECONDS.sleep(retryPolicy.getBackoff(attempt));
+                attempt++;
+            }
+        }
+    }
+
+    private RetryPolicy getRetryPolicy(final RecordProcessor recordProcessor) {
+        return retryPolicies.isEmpty() ? null : retryPolicies.get(recordProcessor);
+    }
+
+    private void throttle(final RecordProcessor recordProcessor) throws InterruptedException {
+        if (!rateLimiters.isEmpty()) {
+            RateLimiter rateLimiter = rateLimiters.get(recordProcessor);
+            if (rateLimiter != null) {
+                rateLimiter.acquire();
+            }
+        }
+    }
+
+    private ProcessingWatchdog.Watch watch(final Record record, final Object typedRecord) {
+        return watchdog == null ? null : watchdog.watch(record, typedRecord);
+    }
+
+    /**
+     * Report a record whose processing exceeded the time budget (called by the watchdog).
+     */
+    void recordTimedOut(final Record record, final Object typedRecord, final RecordProcessingTimeoutException e) {
+        report.incrementTotalSlowRecords();
+        handleProcessingError(record, typedRecord, e);
+    }
+
+    private void handleProcessingError(final Record currentRecord, final Object typedRecord, final Exception e) {
+        if (e instanceof InterruptedException) {
+            Thread.currentThread().interrupt();
+        }
+        report.incrementTotalErrorRecord();
+        errorRecordHandler.handle(currentRecord, e);
+        eventManager.fireOnBatchException(e);
+        eventManager.fireOnRecordProcessingException(typedRecord, e);
+    }
+
+    /**
+     * Process the records remaining in the current chunk, if any.
+     *
+     * @return true if the chunk processing failed, false else
+     */
+    public boolean flushChunk() {
+        if (!isChunkModeEnabled()) {
+            return false;
+        }
+        List<Record> records;
+        List<Object> items;
+        synchronized (chunk) {
+            if (chunk.isEmpty()) {
+                return false;
+            }
+            records = new ArrayList<Record>(chunkRecords);
+            items = new ArrayList<Object>(chunk);
+            chunkRecords.clear();
+            chunk.clear();
+        }
+        return processChunk(records, items, null);
+    }
+
+    /**
+     * Discard the records remaining in the current chunk without processing them.
+     *
+     * @return the number of discarded records
+     */
+    public int discardChunk() {
+        synchronized (chunk) {
+            int size = chunk.size();
+            chunkRecords.clear();
+            chunk.clear();
+            return size;
+        }
+    }
+
+    private boolean addToChunk(final Record currentRecord, final Object typedRecord) {
+        List<Record> records;
+        List<Object> items;
+        synchronized (chunk) {
+            chunkRecords.add(currentRecord);
+            chunk.add(typedRecord);
+            if (chunk.size() < chunkSize) {
+                return false;
+            }
+            records = new ArrayList<Record>(chunkRecords);
+            items = new ArrayList<Object>(chunk);
+            chunkRecords.clear();
+            chunk.clear();
+        }
+        return processChunk(records, items, currentRecord);
+    }
+
+    /**
+     * Process a chunk and report its records.
+     *
+     * @param records          the records of the chunk
+     * @param items            the typed records handed to the chunk processor
+     * @param triggeringRecord the record that filled the chunk, or null when flushing. When the chunk fails, this
+     *                         record is reported as completed by the engine, so it is not reported here again
+     * @return true if the chunk processing failed, false else
+     */
+    @SuppressWarnings({"unchecked"})
+    private boolean processChunk(final List<Record> records, final List<Object> items, final Record triggeringRecord) {
+        synchronized (chunkProcessingLock) {
+            eventManager.fireBeforeProcessingChunk(items);
+            try {
+                chunkProcessor.processChunk(items);
+            } catch (Exception e) {
+                for (Record record : records) {
+                    report.incrementTotalErrorRecord();
+                    errorRecordHandler.handle(record, e);
+                }
+                eventManager.fireOnBatchException(e);
+                eventManager.fireOnChunkProcessingException(items, e);
+                chunkCompleted(records, true, triggeringRecord);
+                return true;
+            }
+            for (int i = 0; i < records.size(); i++) {
+                report.incrementTotalSuccessRecord();
+            }
+            chunkCompleted(records, false, null);
+            eventManager.fireAfterProcessingChunk(items);
+            return false;
+        }
+    }
+
+    private void chunkCompleted(final List<Record> records, final boolean failed, final Record excludedRecord) {
+        if (checkpointTracker != null) {
+            for (Record record : records) {
+                if (record != excludedRecord) {
+                    checkpointTracker.recordCompleted(record.getHeader().getNumber(), failed);
+                }
+            }
+        }
+    }
+
+    public boolean isChunkModeEnabled() {
+        return chunkProcessor != null;
+    }
+
+    public int size() {
+        return processors.size();
+    }
+
     public RecordProcessor getLastProcessor() {
         return processors.get(processors.size() - 1);
     }
@@ -59,8 +385,67 @@ final class ProcessingPipeline {
         processors.add(recordProcessor);
     }
 
+    void addProcessor(RecordProcessor recordProcessor, RateLimiter rateLimiter) {
+        processors.add(recordProcessor);
+        rateLimiters.put(recordProcessor, rateLimiter);
+    }
+
+    void addProcessor(RecordProcessor recordProcessor, RetryPolicy retryPolicy) {
+        processors.add(recordProcessor);
+        retryPolicies.put(recordProcessor, retryPolicy);
+    }
+
+    boolean hasRetryPolicies() {
+        return !retryPolicies.isEmpty();
+    }
+
+    /**
+     * Get the rate limiters of record processors, in the order of the pipeline.
+     *
+     * @return the rate limiters, by processor name
+     */
+    Map<String, RateLimiter> getRateLimiters() {
+        Map<String, RateLimiter> namedRateLimiters = new LinkedHashMap<String, RateLimiter>();
+        for (int i = 0; i < processors.size(); i++) {
+            RecordProcessor recordProcessor = processors.get(i);
+            RateLimiter rateLimiter = rateLimiters.get(recordProcessor);
+            if (rateLimiter != null) {
+                String name = recordProcessor.getClass().getSimpleName();
+                if (name.isEmpty() || namedRateLimiters.containsKey("processor " + name)) {
+                    name = recordProcessor.getClass().getName() + " #" + i;
+                }
+                namedRateLimiters.put("processor " + name, rateLimiter);
+            }
+        }
+        return namedRateLimiters;
+    }
+
     void setErrorRecordHandler(ErrorRecordHandler errorRecordHandler) {
         this.errorRecordHandler = errorRecordHandler;
     }
 
+    void setChunkProcessor(ChunkProcessor chunkProcessor) {
+        this.chunkProcessor = chunkProcessor;
+    }
+
+    void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    void setEventManager(EventManager eventManager) {
+        this.eventManager = eventManager;
+    }
+
+    void setCheckpointTracker(CheckpointTracker checkpointTracker) {
+        this.checkpointTracker = checkpointTracker;
+    }
+
+    void setLatencySampler(LatencySampler latencySampler) {
+        this.latencySampler = latencySampler;
+    }
+
+    void setWatchdog(ProcessingWatchdog watchdog) {
+        this.watchdog = watchdog;
+    }
+
 }
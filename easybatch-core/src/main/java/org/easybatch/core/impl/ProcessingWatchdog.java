@@ -0,0 +1,210 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.easybatch.core.impl;
+
+import org.easybatch.core.api.Record;
+import org.easybatch.core.api.RecordProcessingTimeoutException;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static java.lang.String.format;
+
+/**
+ * Watchdog enforcing a time budget on the processing of each record.
+ * <p/>
+ * Threads register the records they process, and a dedicated thread periodically checks them. When a record exceeds
+ * the budget, it is handed to the error record handler with a {@link RecordProcessingTimeoutException} holding
+ * a snapshot of the stack of the processing thread, and the thread is interrupted. If the thread is a worker of a
+ * {@link WorkerPool}, another worker is started so that other records keep being processed while it is stuck.
+ * Whatever the processing thread does with the record afterwards is ignored.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+final class ProcessingWatchdog {
+
+    private static final Logger LOGGER = Logger.getLogger(ProcessingWatchdog.class.getName());
+
+    private final String name;
+
+    private final long timeout;
+
+    private final ProcessingPipeline processingPipeline;
+
+    private final Map<Watch, Boolean> watches = new ConcurrentHashMap<Watch, Boolean>();
+
+    private ScheduledExecutorService scheduler;
+
+    private volatile WorkerPool workerPool;
+
+    /**
+     * @param name               the name of the engine, used to name the watchdog thread
+     * @param timeout            the time budget of a record in milliseconds
+     * @param processingPipeline the pipeline to which timed out records are reported
+     */
+    ProcessingWatchdog(final String name, final long timeout, final ProcessingPipeline processingPipeline) {
+        this.name = name;
+        this.timeout = timeout;
+        this.processingPipeline = processingPipeline;
+    }
+
+    void start() {
+        long period = Math.max(TimeUnit.MILLISECONDS.toNanos(timeout) / 4, TimeUnit.MILLISECONDS.toNanos(1));
+        scheduler = Executors.newSingleThreadScheduledExecutor(new WorkerPool.WorkerThreadFactory(name + "-watchdog"));
+        scheduler.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                check(System.nanoTime());
+            }
+        }, period, period, TimeUnit.NANOSECONDS);
+    }
+
+    void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Set the pool whose stuck workers should be replaced.
+     */
+    void setWorkerPool(final WorkerPool workerPool) {
+        this.workerPool = workerPool;
+    }
+
+    /**
+     * Start watching the processing of a record by the current thread.
+     *
+     * @param record      the record
+     * @param typedRecord the mapped record
+     * @return the watch to release when the processing is complete
+     */
+    Watch watch(final Record record, final Object typedRecord) {
+        Watch watch = new Watch(record, typedRecord, Thread.currentThread(), System.nanoTime());
+        watches.put(watch, Boolean.TRUE);
+        return watch;
+    }
+
+    /**
+     * Stop watching the processing of a record.
+     *
+     * @param watch the watch of the record
+     * @return true if the record has timed out (it has already been reported as an error), false else
+     */
+    boolean release(final Watch watch) {
+        watches.remove(watch);
+        synchronized (watch) {
+            if (!watch.timedOut) {
+                watch.released = true;
+                return false;
+            }
+        }
+        // clear the interruption sent by the watchdog, the thread goes on with other records
+        Thread.interrupted();
+        WorkerPool pool = workerPool;
+        if (pool != null) {
+            pool.workerReleased();
+        }
+        return true;
+    }
+
+    /**
+     * Report records that have exceeded their time budget.
+     *
+     * @param now the current time in nanoseconds
+     */
+    void check(final long now) {
+        long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeout);
+        for (Watch watch : watches.keySet()) {
+            if (now - watch.startTime > timeoutNanos) {
+                timeout(watch);
+            }
+        }
+    }
+
+    private void timeout(final Watch watch) {
+        // the record is reported before its worker is replaced, and before the processing thread can release it
+        synchronized (watch) {
+            if (watch.released || watch.timedOut) {
+                return;
+            }
+            watch.timedOut = true;
+            watches.remove(watch);
+            StackTraceElement[] stackTrace = watch.thread.getStackTrace();
+            watch.thread.interrupt();
+            String message = format("Processing of record %s exceeded the timeout of %d ms in thread %s",
+                    watch.record.getHeader(), timeout, watch.thread.getName());
+            LOGGER.log(Level.WARNING, message);
+            processingPipeline.recordTimedOut(watch.record, watch.typedRecord,
+                    new RecordProcessingTimeoutException(message, timeout, watch.thread, stackTrace));
+            WorkerPool pool = workerPool;
+            if (pool != null) {
+                pool.workerStuck();
+            }
+        }
+    }
+
+    int getWatchedRecords() {
+        return watches.size();
+    }
+
+    /**
+     * The processing of a record by a thread.
+     */
+    static final class Watch {
+
+        private final Record record;
+
+        private final Object typedRecord;
+
+        private final Thread thread;
+
+        private final long startTime;
+
+        /**
+         * Guarded by this watch.
+         */
+        private boolean timedOut;
+
+        private boolean released;
+
+        Watch(final Record record, final Object typedRecord, final Thread thread, final long startTime) {
+            this.record = record;
+            this.typedRecord = typedRecord;
+            this.thread = thread;
+            this.startTime = startTime;
+        }
+
+        synchronized boolean isTimedOut() {
+            return timedOut;
+        }
+    }
+
+}
@@ -0,0 +1,77 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.core.impl;
+
+import org.easybatch.core.api.Record;
+
+/**
+ * Holder of a record flowing through the stages of a {@link StagedRecordExecutor}, or waiting for a processor
+ * to be retried in a {@link WorkerPool}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+class StagedRecord {
+
+    /**
+     * Marker flowing through stages to signal that no more records will come.
+     */
+    static final StagedRecord END_OF_STREAM = new StagedRecord(null);
+
+    final Record record;
+
+    Object typedRecord;
+
+    Object processingResult;
+
+    /**
+     * Time spent in the processing stages so far, in nanoseconds (only measured for sampled records).
+     */
+    long processingTime;
+
+    /**
+     * Time spent in processors over all attempts when the record is processed with deferred retries, in nanoseconds.
+     */
+    long attemptsTime;
+
+    /**
+     * Index of the next processor to apply when the record is processed with deferred retries.
+     */
+    int nextProcessor;
+
+    /**
+     * Number of failed attempts of the next processor.
+     */
+    int failedAttempts;
+
+    /**
+     * True if the record could not be processed.
+     */
+    boolean processingError;
+
+    StagedRecord(final Record record) {
+        this.record = record;
+    }
+
+}
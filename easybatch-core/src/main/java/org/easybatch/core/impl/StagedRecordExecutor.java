@@ -0,0 +1,199 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.core.impl;
+
+import org.easybatch.core.api.Record;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * A record executor that runs each processing step in its own thread:
+ * <ul>
+ * <li>filter + map</li>
+ * <li>validate</li>
+ * <li>one stage per record processor</li>
+ * </ul>
+ * Stages are connected with bounded, preallocated buffers ({@link ArrayBlockingQueue} is backed by a circular array),
+ * so that reading, mapping and processing overlap while a slow stage only blocks its upstream stages
+ * when its input buffer is full.
+ * <p/>
+ * Each stage is single threaded, so records are processed in order and components of a given stage are never
+ * invoked concurrently. Components of different stages run concurrently though.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+class StagedRecordExecutor implements RecordExecutor {
+
+    private final Engine engine;
+
+    private final List<BlockingQueue<StagedRecord>> buffers = new ArrayList<BlockingQueue<StagedRecord>>();
+
+    private final List<Thread> threads = new ArrayList<Thread>();
+
+    StagedRecordExecutor(final Engine engine, final int bufferSize) {
+        this.engine = engine;
+        final ProcessingPipeline processingPipeline = engine.getProcessingPipeline();
+        List<Stage> stages = new ArrayList<Stage>();
+        stages.add(new Stage("filter-map") {
+            @Override
+            boolean process(final StagedRecord stagedRecord) {
+                stagedRecord.typedRecord = engine.filterAndMapRecord(stagedRecord.record);
+                return stagedRecord.typedRecord != null;
+            }
+        });
+        stages.add(new Stage("validate") {
+            @Override
+            boolean process(final StagedRecord stagedRecord) {
+                return engine.validateMappedRecord(stagedRecord.record, stagedRecord.typedRecord);
+            }
+        });
+        final int lastProcessor = processingPipeline.size() - 1;
+        for (int i = 0; i <= lastProcessor; i++) {
+            final int index = i;
+            stages.add(new Stage("processor-" + (i + 1)) {
+                @Override
+                boolean process(final StagedRecord stagedRecord) {
+                    boolean processingError = processingPipeline.processStage(index, stagedRecord);
+                    if (processingError || index == lastProcessor) {
+                        engine.recordProcessed(stagedRecord.record, processingError);
+                        return false;
+                    }
+                    return true;
+                }
+            });
+        }
+
+        Map<String, BlockingQueue<StagedRecord>> stageQueues = new LinkedHashMap<String, BlockingQueue<StagedRecord>>();
+        for (Stage stage : stages) {
+            BlockingQueue<StagedRecord> buffer = new ArrayBlockingQueue<StagedRecord>(bufferSize);
+            buffers.add(buffer);
+            stageQueues.put(stage.name, buffer);
+        }
+        engine.getReport().setStageQueues(stageQueues);
+
+        for (int i = 0; i < stages.size(); i++) {
+            Stage stage = stages.get(i);
+            stage.input = buffers.get(i);
+            stage.output = i < stages.size() - 1 ? buffers.get(i + 1) : null;
+            Thread thread = new Thread(stage, engine.getName() + "-" + stage.name);
+            thread.setDaemon(true);
+            threads.add(thread);
+            thread.start();
+        }
+    }
+
+    @Override
+    public void execute(final Record record) throws InterruptedException {
+        buffers.get(0).put(new StagedRecord(record));
+    }
+
+    @Override
+    public void shutdownAndAwaitTermination() {
+        boolean interrupted = false;
+        boolean endOfStreamSent = false;
+        while (!endOfStreamSent) {
+            try {
+                buffers.get(0).put(StagedRecord.END_OF_STREAM);
+                endOfStreamSent = true;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        for (Thread thread : threads) {
+            boolean terminated = false;
+            while (!terminated) {
+                try {
+                    thread.join();
+                    terminated = true;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private abstract class Stage implements Runnable {
+
+        private final String name;
+
+        private BlockingQueue<StagedRecord> input;
+
+        private BlockingQueue<StagedRecord> output;
+
+        Stage(final String name) {
+            this.name = name;
+        }
+
+        /**
+         * Process a record in this stage.
+         *
+         * @param stagedRecord the record to process
+         * @return true if the record should be passed to the next stage, false else
+         */
+        abstract boolean process(final StagedRecord stagedRecord);
+
+        @Override
+        public void run() {
+            try {
+                StagedRecord stagedRecord = input.take();
+                while (stagedRecord != StagedRecord.END_OF_STREAM) {
+                    // once aborted, records are drained without being processed so that upstream stages never block
+                    if (!engine.isAborted() && processSafely(stagedRecord) && output != null) {
+                        output.put(stagedRecord);
+                    }
+                    stagedRecord = input.take();
+                }
+                if (output != null) {
+                    output.put(StagedRecord.END_OF_STREAM);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                engine.abort("Stage " + name + " has been interrupted", e);
+            }
+        }
+
+        /**
+         * Process a record, aborting the execution on unexpected failures (including errors) so that the stage
+         * thread survives and keeps draining its input: upstream stages would block forever otherwise.
+         */
+        private boolean processSafely(final StagedRecord stagedRecord) {
+            try {
+                return process(stagedRecord);
+            } catch (Throwable throwable) {
+                engine.abort("An unexpected error occurred in stage " + name, throwable);
+                return false;
+            }
+        }
+    }
+
+}
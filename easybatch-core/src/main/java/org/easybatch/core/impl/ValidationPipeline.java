@@ -52,6 +52,10 @@ class ValidationPipeline {
         validators.add(recordValidator);
     }
 
+    void setEventManager(final EventManager eventManager) {
+        this.eventManager = eventManager;
+    }
+
     public Set<ValidationError> validateRecord(final Object record) {
         eventManager.fireBeforeValidateRecord(record);
         Set<ValidationError> errors = new HashSet<ValidationError>();
@@ -0,0 +1,438 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.core.impl;
+
+import org.easybatch.core.api.Record;
+import org.easybatch.core.util.AdaptiveConcurrencyLimiter;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A fixed size pool of worker threads to which the engine dispatches records in parallel mode.
+ * <p/>
+ * The number of records submitted but not yet processed is bounded, so that a fast reader
+ * blocks instead of buffering the whole data source in memory.
+ * <p/>
+ * With an {@link AdaptiveConcurrencyLimiter}, the number of records processed at the same time is further limited
+ * according to the latency of record processors.
+ * <p/>
+ * Records failing in a processor with a retry policy do not hold a worker while waiting to be retried: they are
+ * scheduled to be resumed on the pool after the backoff, so that other records keep being processed. Such records
+ * keep their concurrency limit permit until they are complete.
+ * <p/>
+ * Workers stuck on a record that exceeded the record processing timeout are replaced by new workers, and are not
+ * waited for when the pool is shut down.
+ * <p/>
+ * In hand-off mode (sequential processing with a record processing timeout), records are handed to the pool one
+ * at a time: the engine thread waits until the record is complete or has timed out before reading the next one.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+class WorkerPool implements RecordExecutor {
+
+    private static final Logger LOGGER = Logger.getLogger(WorkerPool.class.getName());
+
+    /**
+     * The maximum number of pending records per worker.
+     */
+    static final int PENDING_RECORDS_PER_WORKER = 16;
+
+    private Engine engine;
+
+    private ThreadPoolExecutor executorService;
+
+    private Semaphore pendingRecords;
+
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    private int maxPendingRecords;
+
+    private ScheduledExecutorService retryScheduler;
+
+    /**
+     * Released when the record handed off to the pool is complete or has timed out, null if not in hand-off mode.
+     */
+    private Semaphore handOff;
+
+    /**
+     * Completion flag of the record handed off to the pool, so that it is released only once.
+     */
+    private volatile AtomicBoolean handedOffRecord;
+
+    /**
+     * Number of workers stuck on a timed out record, guarded by this pool.
+     */
+    private int stuckWorkers;
+
+    WorkerPool(final Engine engine, final int workers) {
+        this(engine, workers, null);
+    }
+
+    WorkerPool(final Engine engine, final int workers, final AdaptiveConcurrencyLimiter concurrencyLimiter) {
+        this(engine, workers, concurrencyLimiter, false);
+    }
+
+    WorkerPool(final Engine engine, final int workers, final AdaptiveConcurrencyLimiter concurrencyLimiter,
+               final boolean handOff) {
+        this.engine = engine;
+        this.handOff = handOff ? new Semaphore(0) : null;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.executorService = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<Runnable>(), new WorkerThreadFactory(engine.getName() + "-worker"));
+        this.maxPendingRecords = workers * PENDING_RECORDS_PER_WORKER;
+        this.pendingRecords = new Semaphore(maxPendingRecords);
+    }
+
+    @Override
+    public void execute(final Record record) throws InterruptedException {
+        if (handOff != null) {
+            executeAndWait(record);
+            return;
+        }
+        if (engine.getProcessingPipeline().hasRetryPolicies()) {
+            executeWithDeferredRetries(record);
+            return;
+        }
+        if (concurrencyLimiter != null) {
+            executeWithLimit(record);
+            return;
+        }
+        submit(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    if (!engine.isAborted()) {
+                        engine.processRecord(record);
+                    }
+                } catch (Throwable throwable) {
+                    abort(record, throwable);
+                }
+            }
+        });
+    }
+
+    /**
+     * Abort the execution on an unexpected failure while processing a record in a worker, which would otherwise
+     * be lost in the uncaught exception handler of the worker thread.
+     */
+    private void abort(final Record record, final Throwable throwable) {
+        engine.abort("An unexpected exception occurred while processing record " + record.getHeader(), throwable);
+    }
+
+    private void executeAndWait(final Record record) throws InterruptedException {
+        final AtomicBoolean complete = new AtomicBoolean();
+        handedOffRecord = complete;
+        submit(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    if (!engine.isAborted()) {
+                        engine.processRecord(record);
+                    }
+                } catch (Throwable throwable) {
+                    abort(record, throwable);
+                } finally {
+                    releaseHandedOffRecord(complete);
+                }
+            }
+        });
+        handOff.acquire();
+    }
+
+    private void releaseHandedOffRecord(final AtomicBoolean complete) {
+        if (complete.compareAndSet(false, true)) {
+            handOff.release();
+        }
+    }
+
+    private void executeWithLimit(final Record record) throws InterruptedException {
+        concurrencyLimiter.acquire();
+        try {
+            submit(new Runnable() {
+                @Override
+                public void run() {
+                    long latency = -1;
+                    boolean processingError = false;
+                    try {
+                        if (!engine.isAborted()) {
+                            Object typedRecord = engine.filterAndMapRecord(record);
+                            if (typedRecord != null && engine.validateMappedRecord(record, typedRecord)) {
+                                long startTime = System.nanoTime();
+                                processingError = engine.getProcessingPipeline().process(record, typedRecord);
+                                latency = System.nanoTime() - startTime;
+                                engine.recordProcessed(record, processingError);
+                            }
+                        }
+                    } catch (Throwable throwable) {
+                        abort(record, throwable);
+                    } finally {
+                        concurrencyLimiter.release(latency, processingError);
+                    }
+                }
+            });
+        } catch (InterruptedException e) {
+            concurrencyLimiter.release();
+            throw e;
+        } catch (RuntimeException e) {
+            concurrencyLimiter.release();
+            throw e;
+        }
+    }
+
+    private void executeWithDeferredRetries(final Record record) throws InterruptedException {
+        if (retryScheduler == null) {
+            retryScheduler = Executors.newSingleThreadScheduledExecutor(new WorkerThreadFactory(engine.getName() + "-retry"));
+        }
+        if (concurrencyLimiter != null) {
+            concurrencyLimiter.acquire();
+        }
+        try {
+            pendingRecords.acquire();
+        } catch (InterruptedException e) {
+            releaseConcurrencyLimit(null);
+            throw e;
+        }
+        try {
+            executorService.execute(new Runnable() {
+                @Override
+                public void run() {
+                    StagedRecord stagedRecord = null;
+                    try {
+                        if (!engine.isAborted()) {
+                            Object typedRecord = engine.filterAndMapRecord(record);
+                            if (typedRecord != null && engine.validateMappedRecord(record, typedRecord)) {
+                                stagedRecord = new StagedRecord(record);
+                                stagedRecord.typedRecord = typedRecord;
+                            }
+                        }
+                    } catch (Throwable throwable) {
+                        abort(record, throwable);
+                    } finally {
+                        if (stagedRecord == null) {
+                            complete(null);
+                        }
+                    }
+                    if (stagedRecord != null) {
+                        resume(stagedRecord);
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            complete(null);
+            throw e;
+        }
+    }
+
+    /**
+     * Process a record until it is complete or has to wait before a retry, in which case it is scheduled to be resumed.
+     * The pending record permit and the concurrency limit permit are held until the record is complete, so that
+     * the concurrency limiter is given the latency of all attempts, excluding the time spent waiting between them.
+     */
+    private void resume(final StagedRecord stagedRecord) {
+        boolean complete = true;
+        boolean processed = false;
+        try {
+            if (engine.isAborted()) {
+                return;
+            }
+            long startTime = System.nanoTime();
+            long backoff = engine.getProcessingPipeline().processOrDefer(stagedRecord);
+            stagedRecord.attemptsTime += System.nanoTime() - startTime;
+            if (backoff >= 0) {
+                retryScheduler.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        resubmit(stagedRecord);
+                    }
+                }, backoff, TimeUnit.NANOSECONDS);
+                complete = false;
+            } else {
+                processed = true;
+                engine.recordProcessed(stagedRecord.record, stagedRecord.processingError);
+            }
+        } catch (Throwable throwable) {
+            abort(stagedRecord.record, throwable);
+        } finally {
+            if (complete) {
+                complete(processed ? stagedRecord : null);
+            }
+        }
+    }
+
+    /**
+     * Release the permits held by a record processed with deferred retries.
+     *
+     * @param stagedRecord the processed record, or null if the record was not processed
+     */
+    private void complete(final StagedRecord stagedRecord) {
+        pendingRecords.release();
+        releaseConcurrencyLimit(stagedRecord);
+    }
+
+    private void releaseConcurrencyLimit(final StagedRecord stagedRecord) {
+        if (concurrencyLimiter == null) {
+            return;
+        }
+        if (stagedRecord == null) {
+            concurrencyLimiter.release();
+        } else {
+            concurrencyLimiter.release(stagedRecord.attemptsTime, stagedRecord.processingError);
+        }
+    }
+
+    private void resubmit(final StagedRecord stagedRecord) {
+        try {
+            executorService.execute(new Runnable() {
+                @Override
+                public void run() {
+                    resume(stagedRecord);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            complete(null);
+        }
+    }
+
+    /**
+     * Submit a task to the pool, blocking while the pending records limit is reached.
+     *
+     * @param task the task to submit
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     */
+    void submit(final Runnable task) throws InterruptedException {
+        pendingRecords.acquire();
+        try {
+            executorService.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        task.run();
+                    } finally {
+                        pendingRecords.release();
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            pendingRecords.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Start a new worker to replace a worker stuck on a timed out record.
+     */
+    synchronized void workerStuck() {
+        stuckWorkers++;
+        executorService.setMaximumPoolSize(executorService.getMaximumPoolSize() + 1);
+        executorService.setCorePoolSize(executorService.getCorePoolSize() + 1);
+        AtomicBoolean complete = handedOffRecord;
+        if (complete != null) {
+            // the timed out record has been reported, the engine can go on with the next record
+            releaseHandedOffRecord(complete);
+        }
+    }
+
+    /**
+     * Retire the extra worker once a stuck worker is done with its timed out record.
+     */
+    synchronized void workerReleased() {
+        stuckWorkers--;
+        executorService.setCorePoolSize(executorService.getCorePoolSize() - 1);
+        executorService.setMaximumPoolSize(executorService.getMaximumPoolSize() - 1);
+    }
+
+    private synchronized int getStuckWorkers() {
+        return stuckWorkers;
+    }
+
+    @Override
+    public void shutdownAndAwaitTermination() {
+        boolean interrupted = false;
+        // wait for pending records (including records waiting to be retried) but those held by stuck workers
+        while (true) {
+            int permits = maxPendingRecords - getStuckWorkers();
+            try {
+                if (pendingRecords.tryAcquire(permits, 100, TimeUnit.MILLISECONDS)) {
+                    pendingRecords.release(permits);
+                    break;
+                }
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (retryScheduler != null) {
+            retryScheduler.shutdown();
+        }
+        executorService.shutdown();
+        int stuck = getStuckWorkers();
+        if (stuck > 0) {
+            LOGGER.log(Level.WARNING, "{0} worker(s) still stuck on timed out records, not waiting for them", stuck);
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            return;
+        }
+        while (!executorService.isTerminated()) {
+            try {
+                executorService.awaitTermination(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static class WorkerThreadFactory implements ThreadFactory {
+
+        private final String namePrefix;
+
+        private final AtomicInteger threadNumber = new AtomicInteger();
+
+        WorkerThreadFactory(final String namePrefix) {
+            this.namePrefix = namePrefix;
+        }
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            Thread thread = new Thread(runnable, namePrefix + "-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+}
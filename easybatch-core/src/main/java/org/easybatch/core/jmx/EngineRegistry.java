@@ -0,0 +1,208 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.easybatch.core.jmx;
+
+import org.easybatch.core.api.Report;
+import org.easybatch.core.impl.Engine;
+import org.easybatch.core.util.Utils;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Registry of the engines monitored through JMX in the JVM.
+ * <p/>
+ * Each engine is registered under a unique name: <code>org.easybatch.core.jmx:name=&lt;engine name&gt;</code>
+ * for the first engine with a given name, and <code>org.easybatch.core.jmx:name=&lt;engine name&gt;,instance=&lt;n&gt;</code>
+ * for other engines running with the same name at the same time (partitions of a same job for example).
+ * Engines are unregistered when their execution completes.
+ * <p/>
+ * The registry is itself exposed as an MBean ({@link Utils#JMX_REGISTRY_MBEAN_NAME}) summing the throughput and rates
+ * of running engines.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public final class EngineRegistry implements EngineRegistryMBean {
+
+    private static final Logger LOGGER = Logger.getLogger(EngineRegistry.class.getName());
+
+    private static final EngineRegistry INSTANCE = new EngineRegistry();
+
+    private final Map<ObjectName, Monitor> monitors = new ConcurrentHashMap<ObjectName, Monitor>();
+
+    private final MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
+
+    private boolean registered;
+
+    private EngineRegistry() {
+    }
+
+    public static EngineRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Register a JMX MBean monitoring the execution of an engine under a unique name.
+     *
+     * @param report the report of the engine
+     * @param engine the engine, controlled through the MBean
+     * @return the name under which the engine has been registered
+     * @throws JMException thrown if the MBean cannot be registered
+     */
+    public synchronized ObjectName register(final Report report, final Engine engine) throws JMException {
+        registerSelf();
+        Monitor monitor = new Monitor(report, engine);
+        String engineName = engine.toString();
+        ObjectName name = new ObjectName(Utils.JMX_MBEAN_NAME + engineName);
+        int instance = 1;
+        while (true) {
+            try {
+                mbs.registerMBean(monitor, name);
+                break;
+            } catch (InstanceAlreadyExistsException e) {
+                name = new ObjectName(Utils.JMX_MBEAN_NAME + engineName + ",instance=" + ++instance);
+            }
+        }
+        monitors.put(name, monitor);
+        return name;
+    }
+
+    /**
+     * Unregister the JMX MBean of an engine.
+     *
+     * @param name the name under which the engine has been registered
+     */
+    public void unregister(final ObjectName name) {
+        Monitor monitor = monitors.remove(name);
+        if (monitor == null) {
+            return;
+        }
+        monitor.close();
+        try {
+            mbs.unregisterMBean(name);
+        } catch (JMException e) {
+            LOGGER.log(Level.WARNING, "Unable to unregister Easy Batch JMX MBean " + name, e);
+        }
+    }
+
+    private void registerSelf() throws JMException {
+        if (!registered) {
+            ObjectName name = new ObjectName(Utils.JMX_REGISTRY_MBEAN_NAME);
+            if (!mbs.isRegistered(name)) {
+                mbs.registerMBean(this, name);
+            }
+            registered = true;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int getRunningEngines() {
+        return monitors.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public String getEngineNames() {
+        List<String> names = new ArrayList<String>();
+        for (ObjectName name : monitors.keySet()) {
+            names.add(name.getCanonicalName());
+        }
+        return names.toString();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long getHandledRecords() {
+        long handledRecords = 0;
+        for (Monitor monitor : monitors.values()) {
+            handledRecords += monitor.getThroughputMeter().getCount(ThroughputMeter.COMPLETED);
+        }
+        return handledRecords;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public double getThroughputLastSecond() {
+        return sumRates(ThroughputMeter.COMPLETED, 1);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public double getThroughputLast10Seconds() {
+        return sumRates(ThroughputMeter.COMPLETED, 10);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public double getThroughputLastMinute() {
+        return sumRates(ThroughputMeter.COMPLETED, 60);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public double getSuccessRate() {
+        return sumRates(ThroughputMeter.SUCCESS, 1);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public double getErrorRate() {
+        return sumRates(ThroughputMeter.ERROR, 1);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public double getRejectedRate() {
+        return sumRates(ThroughputMeter.REJECTED, 1);
+    }
+
+    private double sumRates(final int counter, final int windowSeconds) {
+        long now = System.nanoTime();
+        double rate = 0;
+        for (Monitor monitor : monitors.values()) {
+            rate += monitor.getThroughputMeter().getRate(counter, windowSeconds, now);
+        }
+        return rate;
+    }
+
+}
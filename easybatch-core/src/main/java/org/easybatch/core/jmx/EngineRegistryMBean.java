@@ -0,0 +1,96 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.easybatch.core.jmx;
+
+/**
+ * JMX MBean interface to expose aggregate monitoring attributes of all engines running in the JVM.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public interface EngineRegistryMBean {
+
+    /**
+     * Get the number of running engines registered for JMX monitoring.
+     *
+     * @return the number of running engines
+     */
+    int getRunningEngines();
+
+    /**
+     * Get the names under which running engines are registered.
+     *
+     * @return the JMX names of running engines
+     */
+    String getEngineNames();
+
+    /**
+     * Get the number of records handled so far by running engines.
+     *
+     * @return the number of records handled by running engines
+     */
+    long getHandledRecords();
+
+    /**
+     * Get the throughput of all running engines over the last second.
+     *
+     * @return the total throughput over the last second in records per second
+     */
+    double getThroughputLastSecond();
+
+    /**
+     * Get the throughput of all running engines over the last 10 seconds.
+     *
+     * @return the total throughput over the last 10 seconds in records per second
+     */
+    double getThroughputLast10Seconds();
+
+    /**
+     * Get the throughput of all running engines over the last minute.
+     *
+     * @return the total throughput over the last minute in records per second
+     */
+    double getThroughputLastMinute();
+
+    /**
+     * Get the success rate of all running engines over the last second.
+     *
+     * @return the total success rate in records per second
+     */
+    double getSuccessRate();
+
+    /**
+     * Get the error rate of all running engines over the last second.
+     *
+     * @return the total error rate in records per second
+     */
+    double getErrorRate();
+
+    /**
+     * Get the rejection rate of all running engines over the last second.
+     *
+     * @return the total rejection rate in records per second
+     */
+    double getRejectedRate();
+
+}
@@ -25,6 +25,10 @@
 package org.easybatch.core.jmx;
 
 import org.easybatch.core.api.Report;
+import org.easybatch.core.impl.Engine;
+import org.easybatch.core.util.AdaptiveConcurrencyLimiter;
+
+import java.util.Map;
 
 /**
  * JMX MBean implementation of {@link MonitorMBean}.
@@ -38,8 +42,41 @@ public class Monitor implements MonitorMBean {
      */
     private Report report;
 
+    /**
+     * The engine controlled through JMX operations.
+     */
+    private Engine engine;
+
+    /**
+     * The meter computing throughput and rates from the report counters.
+     */
+    private ThroughputMeter throughputMeter;
+
+    /**
+     * Create a monitor exposing the report of an engine, without throughput, estimations nor engine operations.
+     *
+     * @param report the batch report
+     * @deprecated use {@link #Monitor(Report, Engine)}
+     */
+    @Deprecated
     public Monitor(final Report report) {
+        this(report, null);
+    }
+
+    /**
+     * Create a monitor exposing the report of an engine and controlling it.
+     *
+     * @param report the batch report
+     * @param engine the engine to control, or null if the monitor only exposes the report (throughput and
+     *               estimations are then not available)
+     */
+    public Monitor(final Report report, final Engine engine) {
         this.report = report;
+        this.engine = engine;
+        if (engine != null) {
+            this.throughputMeter = new ThroughputMeter(report);
+            this.throughputMeter.start();
+        }
     }
 
     @Override
@@ -97,6 +134,20 @@ public class Monitor implements MonitorMBean {
         return report.getFormattedSuccessRecords();
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public long getRetries() {
+        return report.getRetriesCount();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long getSlowRecords() {
+        return report.getSlowRecordsCount();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -123,4 +174,146 @@ public class Monitor implements MonitorMBean {
         return report.getStatus().toString();
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public String getStageQueueDepths() {
+        Map<String, Integer> stageQueueDepths = report.getStageQueueDepths();
+        return stageQueueDepths.isEmpty() ? "N/A" : stageQueueDepths.toString();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long getInFlightRecords() {
+        return report.getInFlightRecordsCount();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public String getLatencies() {
+        return report.getFormattedLatencies();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public String getRateLimits() {
+        return report.getFormattedRateLimits();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int getConcurrencyLimit() {
+        AdaptiveConcurrencyLimiter concurrencyLimiter = report.getConcurrencyLimiter();
+        return concurrencyLimiter == null ? 0 : concurrencyLimiter.getLimit();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public String getConcurrencyLimiter() {
+        AdaptiveConcurrencyLimiter concurrencyLimiter = report.getConcurrencyLimiter();
+        return concurrencyLimiter == null ? "N/A" : concurrencyLimiter.toString();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public double getThroughputLastSecond() {
+        return throughputMeter == null ? 0 : throughputMeter.getRate(ThroughputMeter.COMPLETED, 1, System.nanoTime());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public double getThroughputLast10Seconds() {
+        return throughputMeter == null ? 0 : throughputMeter.getRate(ThroughputMeter.COMPLETED, 10, System.nanoTime());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public double getThroughputLastMinute() {
+        return throughputMeter == null ? 0 : throughputMeter.getRate(ThroughputMeter.COMPLETED, 60, System.nanoTime());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public double getSuccessRate() {
+        return throughputMeter == null ? 0 : throughputMeter.getRate(ThroughputMeter.SUCCESS, 1, System.nanoTime());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public double getErrorRate() {
+        return throughputMeter == null ? 0 : throughputMeter.getRate(ThroughputMeter.ERROR, 1, System.nanoTime());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public double getRejectedRate() {
+        return throughputMeter == null ? 0 : throughputMeter.getRate(ThroughputMeter.REJECTED, 1, System.nanoTime());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public String getEstimatedTimeRemaining() {
+        return throughputMeter == null ? "N/A" : throughputMeter.getFormattedEstimatedTimeRemaining();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public String getEstimatedEndTime() {
+        return throughputMeter == null ? "N/A" : throughputMeter.getFormattedEstimatedEndTime();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void stop() {
+        getEngine().stop();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void pause() {
+        getEngine().pause();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void resume() {
+        getEngine().resume();
+    }
+
+    private Engine getEngine() {
+        if (engine == null) {
+            throw new UnsupportedOperationException("This monitor is not attached to an engine");
+        }
+        return engine;
+    }
+
+    ThroughputMeter getThroughputMeter() {
+        return throughputMeter;
+    }
+
+    /**
+     * Stop sampling report counters.
+     */
+    void close() {
+        if (throughputMeter != null) {
+            throughputMeter.stop();
+        }
+    }
+
 }
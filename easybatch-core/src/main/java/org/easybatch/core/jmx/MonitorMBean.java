@@ -87,6 +87,20 @@ public interface MonitorMBean {
      */
     String getSuccessRecords();
 
+    /**
+     * Get the number of attempts to process records made after a record processor failed.
+     *
+     * @return the number of retries
+     */
+    long getRetries();
+
+    /**
+     * Get the number of records whose processing exceeded the record processing timeout.
+     *
+     * @return the number of slow records
+     */
+    long getSlowRecords();
+
     /**
      * Get batch execution start time.
      *
@@ -115,4 +129,120 @@ public interface MonitorMBean {
      */
     String getStatus();
 
+    /**
+     * Get the number of records waiting in the input queue of each stage, when the engine runs as a staged pipeline.
+     *
+     * @return the queue depth of each stage
+     */
+    String getStageQueueDepths();
+
+    /**
+     * Get the number of records being processed asynchronously at the moment.
+     *
+     * @return the number of in-flight records
+     */
+    long getInFlightRecords();
+
+    /**
+     * Get the latency percentiles (p50, p99, p999 and max) of each processing step, measured on a sample of records.
+     *
+     * @return the latency percentiles of each processing step
+     */
+    String getLatencies();
+
+    /**
+     * Get the current and configured rates of the engine rate limiter and of the rate limiters of record processors,
+     * and the time spent waiting for them.
+     *
+     * @return the rate limits of the engine
+     */
+    String getRateLimits();
+
+    /**
+     * Get the current limit on the number of records processed at the same time, when concurrency is adaptive.
+     *
+     * @return the current concurrency limit, or 0 if concurrency is not adaptive
+     */
+    int getConcurrencyLimit();
+
+    /**
+     * Get the state of the adaptive concurrency limiter: current, minimum and maximum limits, records in flight,
+     * number of increases and decreases of the limit and the last decision with its reason.
+     *
+     * @return the state of the adaptive concurrency limiter, or N/A if concurrency is not adaptive
+     */
+    String getConcurrencyLimiter();
+
+    /**
+     * Get the number of records handled (whatever their outcome) per second over the last second.
+     *
+     * @return the throughput over the last second in records per second
+     */
+    double getThroughputLastSecond();
+
+    /**
+     * Get the number of records handled (whatever their outcome) per second over the last 10 seconds.
+     *
+     * @return the throughput over the last 10 seconds in records per second
+     */
+    double getThroughputLast10Seconds();
+
+    /**
+     * Get the number of records handled (whatever their outcome) per second over the last minute.
+     *
+     * @return the throughput over the last minute in records per second
+     */
+    double getThroughputLastMinute();
+
+    /**
+     * Get the number of records successfully processed per second over the last second.
+     *
+     * @return the success rate in records per second
+     */
+    double getSuccessRate();
+
+    /**
+     * Get the number of records in error per second over the last second.
+     *
+     * @return the error rate in records per second
+     */
+    double getErrorRate();
+
+    /**
+     * Get the number of records rejected per second over the last second.
+     *
+     * @return the rejection rate in records per second
+     */
+    double getRejectedRate();
+
+    /**
+     * Get the estimated time remaining to handle all records, based on the recent throughput.
+     *
+     * @return the estimated time remaining, or N/A if the total number of records is unknown or no record is handled
+     */
+    String getEstimatedTimeRemaining();
+
+    /**
+     * Get the estimated end time of the execution, based on the recent throughput.
+     *
+     * @return the estimated end time, or N/A if the total number of records is unknown or no record is handled
+     */
+    String getEstimatedEndTime();
+
+    /**
+     * Stop the execution gracefully: records being processed are completed, the reader is closed
+     * and the checkpoint (if any) is saved so that the next execution resumes after the last processed record.
+     */
+    void stop();
+
+    /**
+     * Pause the execution: no more records are read until the execution is resumed.
+     */
+    void pause();
+
+    /**
+     * Resume a paused execution.
+     */
+    void resume();
+
 }
@@ -0,0 +1,218 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.easybatch.core.jmx;
+
+import org.easybatch.core.api.Report;
+import org.easybatch.core.api.Status;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compute live throughput, rates and estimated time of completion from the record counters of a {@link Report}.
+ * <p/>
+ * Counters are sampled once per second by a daemon thread shared by all meters, and the last minute of samples
+ * is kept to compute rates over a sliding window. Record processing is not affected: engine threads only
+ * update the report counters as usual. Sampling stops once the execution is finished, aborted or stopped.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+class ThroughputMeter {
+
+    static final int COMPLETED = 0;
+
+    static final int SUCCESS = 1;
+
+    static final int ERROR = 2;
+
+    static final int REJECTED = 3;
+
+    private static final long SAMPLING_PERIOD = TimeUnit.SECONDS.toNanos(1);
+
+    private static final int HISTORY = 61;
+
+    private final Report report;
+
+    private final long[] sampleTimes = new long[HISTORY];
+
+    private final long[][] sampleCounts = new long[HISTORY][];
+
+    private int samples;
+
+    private volatile ScheduledFuture<?> sampling;
+
+    ThroughputMeter(final Report report) {
+        this.report = report;
+    }
+
+    /**
+     * Take a first sample and sample counters every second until the execution ends.
+     */
+    void start() {
+        sample(System.nanoTime());
+        sampling = Sampler.SCHEDULER.scheduleAtFixedRate(new Runnable() {
+            public void run() {
+                sample(System.nanoTime());
+                Status status = report.getStatus();
+                if (Status.FINISHED.equals(status) || Status.ABORTED.equals(status) || Status.STOPPED.equals(status)) {
+                    stop();
+                }
+            }
+        }, SAMPLING_PERIOD, SAMPLING_PERIOD, TimeUnit.NANOSECONDS);
+    }
+
+    void stop() {
+        ScheduledFuture<?> future = sampling;
+        if (future != null) {
+            future.cancel(false);
+        }
+    }
+
+    synchronized void sample(final long now) {
+        int index = samples % HISTORY;
+        sampleTimes[index] = now;
+        sampleCounts[index] = counts();
+        samples++;
+    }
+
+    /**
+     * Get the rate of a counter over a sliding window ending now.
+     *
+     * @param counter       the counter (one of {@link #COMPLETED}, {@link #SUCCESS}, {@link #ERROR} or {@link #REJECTED})
+     * @param windowSeconds the window size in seconds, at most 60
+     * @param now           the current time in nanoseconds
+     * @return the rate of the counter in records per second, 0 if it cannot be computed yet
+     */
+    synchronized double getRate(final int counter, final int windowSeconds, final long now) {
+        if (samples == 0) {
+            return 0;
+        }
+        // the newest sample at least one window old, or the oldest sample if the history is shorter than the window
+        long windowStart = now - windowSeconds * SAMPLING_PERIOD;
+        int oldest = Math.max(0, samples - HISTORY);
+        int reference = oldest;
+        for (int i = samples - 1; i >= oldest; i--) {
+            if (sampleTimes[i % HISTORY] <= windowStart) {
+                reference = i;
+                break;
+            }
+        }
+        long elapsed = now - sampleTimes[reference % HISTORY];
+        if (elapsed <= 0) {
+            return 0;
+        }
+        long delta = counts()[counter] - sampleCounts[reference % HISTORY][counter];
+        return (double) delta * SAMPLING_PERIOD / elapsed;
+    }
+
+    /**
+     * Get the current value of a counter.
+     *
+     * @param counter the counter (one of {@link #COMPLETED}, {@link #SUCCESS}, {@link #ERROR} or {@link #REJECTED})
+     * @return the current value of the counter
+     */
+    long getCount(final int counter) {
+        return counts()[counter];
+    }
+
+    /**
+     * Estimate the remaining time to process all records, based on the throughput of the last 10 seconds
+     * (or of the last minute if no record has been processed in the last 10 seconds).
+     *
+     * @param now the current time in nanoseconds
+     * @return the estimated remaining time in seconds, or -1 if it cannot be estimated
+     */
+    long getEstimatedTimeRemaining(final long now) {
+        Long totalRecords = report.getTotalRecords();
+        if (totalRecords == null) {
+            return -1;
+        }
+        long remaining = totalRecords - counts()[COMPLETED];
+        if (remaining <= 0) {
+            return 0;
+        }
+        double rate = getRate(COMPLETED, 10, now);
+        if (rate <= 0) {
+            rate = getRate(COMPLETED, 60, now);
+        }
+        if (rate <= 0) {
+            return -1;
+        }
+        return (long) Math.ceil(remaining / rate);
+    }
+
+    String getFormattedEstimatedTimeRemaining() {
+        long seconds = getEstimatedTimeRemaining(System.nanoTime());
+        if (seconds < 0) {
+            return "N/A";
+        }
+        StringBuilder sb = new StringBuilder();
+        if (seconds >= 3600) {
+            sb.append(seconds / 3600).append("h ");
+        }
+        if (seconds >= 60) {
+            sb.append((seconds % 3600) / 60).append("m ");
+        }
+        sb.append(seconds % 60).append("s");
+        return sb.toString();
+    }
+
+    String getFormattedEstimatedEndTime() {
+        long seconds = getEstimatedTimeRemaining(System.nanoTime());
+        if (seconds < 0) {
+            return "N/A";
+        }
+        long endTime = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(seconds);
+        return new SimpleDateFormat(Report.DATE_FORMAT).format(new Date(endTime));
+    }
+
+    private long[] counts() {
+        long success = report.getSuccessRecordsCount();
+        long error = report.getErrorRecordsCount();
+        long rejected = report.getRejectedRecordsCount();
+        long completed = success + error + rejected + report.getFilteredRecordsCount() + report.getIgnoredRecordsCount();
+        return new long[]{completed, success, error, rejected};
+    }
+
+    /**
+     * Holder of the sampling thread, started when the first meter is created.
+     */
+    private static class Sampler {
+
+        static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "easybatch-throughput-sampler");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+
+    }
+
+}
@@ -0,0 +1,75 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.core.partitioner;
+
+import org.easybatch.core.api.Partitioner;
+import org.easybatch.core.api.RecordReader;
+import org.easybatch.core.reader.ListRecordReader;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link Partitioner} that splits a {@link List} into contiguous sub lists of (almost) equal sizes,
+ * each one read by a {@link ListRecordReader}.
+ * <p/>
+ * Sub lists are views of the original list, which should not be modified while partitions are processed.
+ *
+ * @param <T> the type of objects contained in the list
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class ListPartitioner<T> implements Partitioner {
+
+    /**
+     * The data source.
+     */
+    private List<T> dataSource;
+
+    /**
+     * Constructs a {@link ListPartitioner}.
+     *
+     * @param dataSource The list data source
+     */
+    public ListPartitioner(final List<T> dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public List<RecordReader> partition(final int partitions) {
+        if (partitions < 1) {
+            throw new IllegalArgumentException("The number of partitions must be at least 1");
+        }
+        List<RecordReader> recordReaders = new ArrayList<RecordReader>();
+        int size = dataSource.size();
+        int count = Math.min(partitions, Math.max(size, 1));
+        for (int i = 0; i < count; i++) {
+            int fromIndex = (int) ((long) size * i / count);
+            int toIndex = (int) ((long) size * (i + 1) / count);
+            recordReaders.add(new ListRecordReader<T>(dataSource.subList(fromIndex, toIndex)));
+        }
+        return recordReaders;
+    }
+
+}
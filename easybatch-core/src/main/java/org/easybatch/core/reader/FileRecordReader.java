@@ -31,7 +31,6 @@ import org.easybatch.core.record.FileRecord;
 import java.io.File;
 import java.text.MessageFormat;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
 
@@ -66,6 +65,11 @@ public class FileRecordReader implements RecordReader {
      */
     private long currentRecordNumber;
 
+    /**
+     * The data source name, computed once when the reader is opened.
+     */
+    private String dataSourceName;
+
     /**
      * Construct a {@link FileRecordReader} to read files (non recursively) from a given directory.
      *
@@ -107,6 +111,7 @@ public class FileRecordReader implements RecordReader {
         }
         this.iterator = files.listIterator();
         currentRecordNumber = 0;
+        dataSourceName = getDataSourceName();
     }
 
     /**
@@ -127,7 +132,7 @@ public class FileRecordReader implements RecordReader {
      */
     @Override
     public FileRecord readNextRecord() throws Exception {
-        Header header = new Header(++currentRecordNumber, getDataSourceName(), new Date());
+        Header header = new Header(++currentRecordNumber, dataSourceName, System.currentTimeMillis());
         return new FileRecord(header, iterator.next());
     }
 
@@ -26,11 +26,11 @@ package org.easybatch.core.reader;
 
 import org.easybatch.core.api.Header;
 import org.easybatch.core.api.RecordReader;
+import org.easybatch.core.api.SkippableRecordReader;
 import org.easybatch.core.record.GenericRecord;
 
-import java.util.Date;
-import java.util.Iterator;
 import java.util.List;
+import java.util.ListIterator;
 
 /**
  * A convenient {@link org.easybatch.core.api.RecordReader} that reads data from a {@link java.util.List} of objects.
@@ -41,7 +41,7 @@ import java.util.List;
  * @param <T> the type of objects contained in the list
  * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
  */
-public class ListRecordReader<T> implements RecordReader {
+public class ListRecordReader<T> implements SkippableRecordReader {
 
     /**
      * The data source.
@@ -56,7 +56,7 @@ public class ListRecordReader<T> implements RecordReader {
     /**
      * The data source iterator.
      */
-    private Iterator<T> iterator;
+    private ListIterator<T> iterator;
 
     /**
      * Constructs a {@link ListRecordReader}.
@@ -80,10 +80,19 @@ public class ListRecordReader<T> implements RecordReader {
 
     @Override
     public GenericRecord<T> readNextRecord() {
-        Header header = new Header(++currentRecordNumber, getDataSourceName(), new Date());
+        Header header = new Header(++currentRecordNumber, getDataSourceName(), System.currentTimeMillis());
         return new GenericRecord<T>(header, iterator.next());
     }
 
+    @Override
+    public long skip(final long count) {
+        int from = iterator.nextIndex();
+        int to = (int) Math.min(from + count, dataSource.size());
+        iterator = dataSource.listIterator(to);
+        currentRecordNumber += to - from;
+        return to - from;
+    }
+
     @Override
     public Long getTotalRecords() {
         return (long) dataSource.size();
@@ -26,9 +26,9 @@ package org.easybatch.core.reader;
 
 import org.easybatch.core.api.Header;
 import org.easybatch.core.api.RecordReader;
+import org.easybatch.core.api.SkippableRecordReader;
 import org.easybatch.core.record.StringRecord;
 
-import java.util.Date;
 import java.util.Scanner;
 
 /**
@@ -38,7 +38,7 @@ import java.util.Scanner;
  *
  * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
  */
-public class StringRecordReader implements RecordReader {
+public class StringRecordReader implements SkippableRecordReader {
 
     /**
      * The current read record number.
@@ -85,10 +85,21 @@ public class StringRecordReader implements RecordReader {
 
     @Override
     public StringRecord readNextRecord() {
-        Header header = new Header(++currentRecordNumber, getDataSourceName(), new Date());
+        Header header = new Header(++currentRecordNumber, getDataSourceName(), System.currentTimeMillis());
         return new StringRecord(header, scanner.nextLine());
     }
 
+    @Override
+    public long skip(final long count) {
+        long skipped = 0;
+        while (skipped < count && scanner.hasNextLine()) {
+            scanner.nextLine();
+            skipped++;
+        }
+        currentRecordNumber += skipped;
+        return skipped;
+    }
+
     @Override
     public Long getTotalRecords() {
         long totalRecords = 0;
@@ -0,0 +1,117 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.easybatch.core.record;
+
+import org.easybatch.core.api.Header;
+
+/**
+ * A {@link StringRecord} which can be reused for successive records (flyweight mode) to avoid allocating
+ * a record per line of input.
+ * <p/>
+ * Flyweight mode is meant for single-threaded engines where records never escape the pipeline: once the next record
+ * is read, the previous one holds the new header and payload. Components retaining records (record handlers,
+ * processors, listeners, chunk mode, parallel, staged or asynchronous execution, record timeout) must {@link #copy()}
+ * them.
+ * <p/>
+ * When assertions are enabled (the JVM is started with <code>-ea</code>), records are not actually reused:
+ * each recycled record is replaced by a new one and fails with an {@link IllegalStateException} when accessed,
+ * so that records retained by mistake are detected.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class MutableStringRecord extends StringRecord {
+
+    /**
+     * True if recycled records should be replaced and guarded instead of being reused.
+     */
+    protected static final boolean GUARDED;
+
+    static {
+        boolean assertionsEnabled = false;
+        assert assertionsEnabled = true;
+        GUARDED = assertionsEnabled;
+    }
+
+    private boolean recycled;
+
+    public MutableStringRecord(final Header header, final String payload) {
+        super(header, payload);
+    }
+
+    /**
+     * Reuse this record to hold the next record.
+     *
+     * @param header  the header of the next record
+     * @param payload the payload of the next record
+     * @return the record holding the next record: this record, or a new record if assertions are enabled
+     */
+    public MutableStringRecord recycle(final Header header, final String payload) {
+        MutableStringRecord record = this;
+        if (GUARDED) {
+            recycled = true;
+            record = newRecord();
+        }
+        record.header = header;
+        record.payload = payload;
+        return record;
+    }
+
+    /**
+     * Create the record replacing a recycled record when assertions are enabled.
+     *
+     * @return a new empty record
+     */
+    protected MutableStringRecord newRecord() {
+        return new MutableStringRecord(null, null);
+    }
+
+    /**
+     * Copy this record so that it can be retained.
+     *
+     * @return an immutable copy of this record
+     */
+    public StringRecord copy() {
+        return new StringRecord(getHeader(), getPayload());
+    }
+
+    @Override
+    public Header getHeader() {
+        checkNotRecycled();
+        return header;
+    }
+
+    @Override
+    public String getPayload() {
+        checkNotRecycled();
+        return payload;
+    }
+
+    protected void checkNotRecycled() {
+        if (recycled) {
+            throw new IllegalStateException("This record has been recycled to hold the next record: " +
+                    "records must be copied to be retained in flyweight mode");
+        }
+    }
+
+}
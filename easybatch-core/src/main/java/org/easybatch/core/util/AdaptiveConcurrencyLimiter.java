@@ -0,0 +1,297 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.easybatch.core.util;
+
+import java.util.Locale;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A limit on the number of records processed at the same time, adapted to the latency of record processors.
+ * <p/>
+ * Latencies are averaged over windows of samples. The limit grows (by the square root of the limit at most) while the
+ * average latency of the last window stays within 50% of the long term average latency, and shrinks in proportion
+ * to the latency increase beyond that. Processing errors (timeouts of an overloaded service for example) shrink the
+ * limit by 10%. Changes are smoothed and the limit always stays within its minimum and maximum values.
+ * <p/>
+ * The limit starts at its minimum value and grows as long as downstream services keep up, so that an engine neither
+ * leaves services idle nor overloads them.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final int MIN_WINDOW_SIZE = 10;
+
+    private static final int LONG_TERM_WINDOWS = 20;
+
+    private static final double LATENCY_TOLERANCE = 1.5;
+
+    private static final double SMOOTHING = 0.2;
+
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final Lock lock = new ReentrantLock();
+
+    private final Condition belowLimit = lock.newCondition();
+
+    private double estimatedLimit;
+
+    private volatile int limit;
+
+    private int inFlight;
+
+    private int windowSamples;
+
+    private int windowSuccesses;
+
+    private long windowLatencySum;
+
+    private boolean windowFailed;
+
+    private double shortTermLatency;
+
+    private double longTermLatency;
+
+    private long increases;
+
+    private long decreases;
+
+    private String lastDecision = "none";
+
+    /**
+     * Create an adaptive concurrency limiter.
+     *
+     * @param minLimit the minimum (and initial) number of records processed at the same time
+     * @param maxLimit the maximum number of records processed at the same time
+     */
+    public AdaptiveConcurrencyLimiter(final int minLimit, final int maxLimit) {
+        if (minLimit < 1) {
+            throw new IllegalArgumentException("Minimum concurrency must be at least 1");
+        }
+        if (maxLimit < minLimit) {
+            throw new IllegalArgumentException("Maximum concurrency must not be lower than minimum concurrency");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.estimatedLimit = minLimit;
+        this.limit = minLimit;
+    }
+
+    /**
+     * Wait until the number of records being processed is below the limit, and count a new record in flight.
+     *
+     * @throws InterruptedException thrown if the current thread is interrupted while waiting
+     */
+    public void acquire() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (inFlight >= limit) {
+                belowLimit.await();
+            }
+            inFlight++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Count a record out of flight without latency sample (the record has been filtered, rejected or skipped).
+     */
+    public void release() {
+        release(-1, false);
+    }
+
+    /**
+     * Count a record out of flight and update the limit with its processing latency.
+     *
+     * @param latency the time spent by record processors on the record in nanoseconds, negative if not measured
+     * @param failed  true if the record could not be processed
+     */
+    public void release(final long latency, final boolean failed) {
+        lock.lock();
+        try {
+            inFlight--;
+            if (latency >= 0 || failed) {
+                onSample(latency, failed);
+            }
+            belowLimit.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onSample(final long latency, final boolean failed) {
+        windowSamples++;
+        if (failed) {
+            windowFailed = true;
+        } else {
+            windowSuccesses++;
+            windowLatencySum += latency;
+        }
+        if (windowSamples >= Math.max(MIN_WINDOW_SIZE, limit)) {
+            updateLimit();
+            windowSamples = 0;
+            windowSuccesses = 0;
+            windowLatencySum = 0;
+            windowFailed = false;
+        }
+    }
+
+    private void updateLimit() {
+        String reason;
+        if (windowFailed) {
+            estimatedLimit = estimatedLimit * BACKOFF_RATIO;
+            reason = "processing errors";
+        } else if (windowSuccesses > 0) {
+            shortTermLatency = (double) windowLatencySum / windowSuccesses;
+            if (longTermLatency == 0) {
+                longTermLatency = shortTermLatency;
+            } else {
+                longTermLatency += (shortTermLatency - longTermLatency) / LONG_TERM_WINDOWS;
+                // recover faster when the latency goes back to normal after a spike
+                if (longTermLatency > 2 * shortTermLatency) {
+                    longTermLatency *= 0.95;
+                }
+            }
+            double gradient = Math.max(0.5, Math.min(1.0, LATENCY_TOLERANCE * longTermLatency / shortTermLatency));
+            double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+            estimatedLimit = estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+            reason = String.format(Locale.ENGLISH, "latency %s (long term %s)",
+                    LatencyHistogram.format((long) shortTermLatency), LatencyHistogram.format((long) longTermLatency));
+        } else {
+            return;
+        }
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, estimatedLimit));
+        int previousLimit = limit;
+        limit = (int) estimatedLimit;
+        if (limit > previousLimit) {
+            increases++;
+            lastDecision = "increased from " + previousLimit + " to " + limit + ": " + reason;
+        } else if (limit < previousLimit) {
+            decreases++;
+            lastDecision = "decreased from " + previousLimit + " to " + limit + ": " + reason;
+        }
+    }
+
+    /**
+     * Get the current limit on the number of records processed at the same time.
+     *
+     * @return the current concurrency limit
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Get the minimum (and initial) number of records processed at the same time.
+     *
+     * @return the minimum concurrency limit
+     */
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    /**
+     * Get the maximum number of records processed at the same time.
+     *
+     * @return the maximum concurrency limit
+     */
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    /**
+     * Get the number of records being processed at the moment.
+     *
+     * @return the number of records in flight
+     */
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the number of times the limit has been increased.
+     *
+     * @return the number of increases
+     */
+    public long getIncreases() {
+        lock.lock();
+        try {
+            return increases;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the number of times the limit has been decreased.
+     *
+     * @return the number of decreases
+     */
+    public long getDecreases() {
+        lock.lock();
+        try {
+            return decreases;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get a description of the last change of the limit and its reason.
+     *
+     * @return the last decision of this limiter
+     */
+    public String getLastDecision() {
+        lock.lock();
+        try {
+            return lastDecision;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        lock.lock();
+        try {
+            return "limit = " + limit + " [" + minLimit + ", " + maxLimit + "], in flight = " + inFlight +
+                    ", increases = " + increases + ", decreases = " + decreases + ", last decision = " + lastDecision;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+}
@@ -0,0 +1,140 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.core.util;
+
+import java.util.Locale;
+
+/**
+ * Statistics of a record filter observed on a sample of records: the rejection rate of the filter and its
+ * average cost per record. The rank of a filter is its cost per rejected record: filters with the lowest rank
+ * are the most likely to decide the outcome of the filter chain at the lowest cost.
+ * <p/>
+ * Statistics are halved after {@value #MAX_SAMPLES} samples, so that they follow changes in the data.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class FilterStatistics {
+
+    static final int MAX_SAMPLES = 10000;
+
+    private final String name;
+
+    private long sampledRecords;
+
+    private long rejectedRecords;
+
+    private long cost;
+
+    private volatile int position;
+
+    /**
+     * Create the statistics of a record filter.
+     *
+     * @param name     the name of the filter
+     * @param position the position of the filter in the filter chain, starting from 1
+     */
+    public FilterStatistics(final String name, final int position) {
+        this.name = name;
+        this.position = position;
+    }
+
+    /**
+     * Record the evaluation of the filter for a sampled record.
+     *
+     * @param nanos    the time taken by the filter to evaluate the record
+     * @param rejected true if the filter rejected the record
+     */
+    public synchronized void record(final long nanos, final boolean rejected) {
+        if (sampledRecords == MAX_SAMPLES) {
+            sampledRecords /= 2;
+            rejectedRecords /= 2;
+            cost /= 2;
+        }
+        sampledRecords++;
+        cost += nanos;
+        if (rejected) {
+            rejectedRecords++;
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the current position of the filter in the filter chain.
+     *
+     * @return the position of the filter, starting from 1
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    public void setPosition(final int position) {
+        this.position = position;
+    }
+
+    public synchronized long getSampledRecords() {
+        return sampledRecords;
+    }
+
+    public synchronized long getRejectedRecords() {
+        return rejectedRecords;
+    }
+
+    /**
+     * Get the ratio of sampled records rejected by the filter.
+     *
+     * @return the rejection rate, between 0 and 1
+     */
+    public synchronized double getRejectionRate() {
+        return sampledRecords == 0 ? 0 : (double) rejectedRecords / sampledRecords;
+    }
+
+    /**
+     * Get the average time taken by the filter to evaluate a record.
+     *
+     * @return the average cost in nanoseconds
+     */
+    public synchronized double getAverageCost() {
+        return sampledRecords == 0 ? 0 : (double) cost / sampledRecords;
+    }
+
+    /**
+     * Get the average cost of the filter per rejected record.
+     *
+     * @return the rank of the filter, {@link Double#POSITIVE_INFINITY} if the filter has not rejected any record
+     */
+    public synchronized double getRank() {
+        return rejectedRecords == 0 ? Double.POSITIVE_INFINITY : (double) cost / rejectedRecords;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ENGLISH, "#%d %s: %.1f%% rejected, %s per record",
+                position, name, getRejectionRate() * 100, LatencyHistogram.format((long) getAverageCost()));
+    }
+
+}
@@ -0,0 +1,235 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.easybatch.core.util;
+
+import java.io.Serializable;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of latencies (in nanoseconds) recorded by many threads, used to compute percentiles.
+ * <p/>
+ * Values are counted in log-linear buckets: each power of two is split into 16 buckets, so a percentile is reported
+ * with a relative error below 6.25% whatever its magnitude, using a fixed amount of memory. The maximum value is exact.
+ * Values above 2<sup>40</sup>ns (about 18 minutes) are counted in the last bucket.
+ * <p/>
+ * Recording a value is lock-free and does not allocate. Percentiles can be read at any time from another thread,
+ * they reflect the values recorded before each bucket is read.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public final class LatencyHistogram implements Serializable {
+
+    private static final int SUB_BUCKET_BITS = 4;
+
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private static final int MAX_EXPONENT = 40;
+
+    private static final int BUCKETS = SUB_BUCKETS + (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Record a latency.
+     *
+     * @param nanos the latency in nanoseconds, negative values are ignored
+     */
+    public void record(final long nanos) {
+        if (nanos < 0) {
+            return;
+        }
+        buckets.getAndIncrement(bucketIndex(nanos));
+        long currentMax = max.get();
+        while (nanos > currentMax && !max.compareAndSet(currentMax, nanos)) {
+            currentMax = max.get();
+        }
+    }
+
+    /**
+     * Add all values recorded by another histogram to this histogram.
+     *
+     * @param histogram the histogram to add
+     */
+    public void add(final LatencyHistogram histogram) {
+        for (int i = 0; i < BUCKETS; i++) {
+            long count = histogram.buckets.get(i);
+            if (count > 0) {
+                buckets.getAndAdd(i, count);
+            }
+        }
+        long otherMax = histogram.getMax();
+        long currentMax = max.get();
+        while (otherMax > currentMax && !max.compareAndSet(currentMax, otherMax)) {
+            currentMax = max.get();
+        }
+    }
+
+    /**
+     * Get a copy of this histogram which is not updated anymore.
+     *
+     * @return a copy of this histogram
+     */
+    public LatencyHistogram copy() {
+        LatencyHistogram copy = new LatencyHistogram();
+        copy.add(this);
+        return copy;
+    }
+
+    /**
+     * Get the number of recorded values.
+     *
+     * @return the number of recorded values
+     */
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            count += buckets.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * Get the highest recorded value.
+     *
+     * @return the highest recorded value in nanoseconds, 0 if no value has been recorded
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Get the value under which a given percentage of recorded values fall.
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return the value at the given percentile in nanoseconds, 0 if no value has been recorded
+     */
+    public long getPercentile(final double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100");
+        }
+        long[] counts = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            count += counts[i];
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(bucketUpperBound(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    public long getP50() {
+        return getPercentile(50);
+    }
+
+    public long getP99() {
+        return getPercentile(99);
+    }
+
+    public long getP999() {
+        return getPercentile(99.9);
+    }
+
+    /*
+     * Public utility methods to format latencies
+     */
+
+    public String getFormattedP50() {
+        return format(getP50());
+    }
+
+    public String getFormattedP99() {
+        return format(getP99());
+    }
+
+    public String getFormattedP999() {
+        return format(getP999());
+    }
+
+    public String getFormattedMax() {
+        return format(getMax());
+    }
+
+    /**
+     * Format a latency with the most readable unit (ns, us, ms or s).
+     *
+     * @param nanos the latency in nanoseconds
+     * @return the formatted latency
+     */
+    public static String format(final long nanos) {
+        if (nanos < 1000L) {
+            return nanos + "ns";
+        }
+        if (nanos < 1000000L) {
+            return String.format(Locale.ENGLISH, "%.1fus", nanos / 1e3);
+        }
+        if (nanos < 1000000000L) {
+            return String.format(Locale.ENGLISH, "%.1fms", nanos / 1e6);
+        }
+        return String.format(Locale.ENGLISH, "%.1fs", nanos / 1e9);
+    }
+
+    static int bucketIndex(final long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) - SUB_BUCKETS;
+        return SUB_BUCKETS + (exponent - SUB_BUCKET_BITS) * SUB_BUCKETS + subBucket;
+    }
+
+    static long bucketUpperBound(final int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKETS) / SUB_BUCKETS;
+        int subBucket = (index - SUB_BUCKETS) % SUB_BUCKETS;
+        long lowerBound = (long) (SUB_BUCKETS + subBucket) << shift;
+        return lowerBound + (1L << shift) - 1;
+    }
+
+    @Override
+    public String toString() {
+        return "p50=" + getFormattedP50() +
+                ", p99=" + getFormattedP99() +
+                ", p999=" + getFormattedP999() +
+                ", max=" + getFormattedMax();
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.easybatch.core.util;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A token bucket limiting the rate at which permits (records) are acquired, shared by all the threads of an engine
+ * (or by several engines writing to the same system).
+ * <p/>
+ * Tokens are added to the bucket at a fixed rate, up to the burst size: after an idle period, up to burst permits
+ * are granted without waiting, then permits are granted at the configured rate. Permits are granted in the order
+ * they are requested, so the rate stays accurate whatever the number of threads acquiring permits.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class RateLimiter {
+
+    private static final long ONE_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final double permitsPerSecond;
+
+    private final int burst;
+
+    private final double intervalNanos;
+
+    private double storedPermits;
+
+    private long nextFreeTime;
+
+    private boolean started;
+
+    private final AtomicLong acquiredPermits = new AtomicLong();
+
+    private final AtomicLong throttledTime = new AtomicLong();
+
+    private long windowStartTime;
+
+    private long windowStartPermits;
+
+    private double currentRate;
+
+    /**
+     * Create a rate limiter granting permits at a fixed rate, without burst.
+     *
+     * @param permitsPerSecond the number of permits granted per second
+     */
+    public RateLimiter(final double permitsPerSecond) {
+        this(permitsPerSecond, 1);
+    }
+
+    /**
+     * Create a rate limiter granting permits at a fixed rate, allowing bursts after idle periods.
+     *
+     * @param permitsPerSecond the number of permits granted per second
+     * @param burst            the maximum number of permits granted without waiting after an idle period
+     */
+    public RateLimiter(final double permitsPerSecond, final int burst) {
+        if (!(permitsPerSecond > 0) || Double.isInfinite(permitsPerSecond)) {
+            throw new IllegalArgumentException("Rate must be a positive number of permits per second");
+        }
+        if (burst < 1) {
+            throw new IllegalArgumentException("Burst must be at least 1");
+        }
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+        this.intervalNanos = ONE_SECOND / permitsPerSecond;
+    }
+
+    /**
+     * Acquire a permit, waiting until it is granted.
+     *
+     * @throws InterruptedException thrown if the current thread is interrupted while waiting
+     */
+    public void acquire() throws InterruptedException {
+        long waitTime = reserve(System.nanoTime());
+        if (waitTime > 0) {
+            throttledTime.addAndGet(waitTime);
+            TimeUnit.NANOSECONDS.sleep(waitTime);
+        }
+        acquiredPermits.incrementAndGet();
+    }
+
+    /**
+     * Reserve the next permit.
+     *
+     * @param now the current time in nanoseconds
+     * @return the time to wait (in nanoseconds) before the permit is granted
+     */
+    synchronized long reserve(final long now) {
+        if (!started) {
+            started = true;
+            nextFreeTime = now;
+            windowStartTime = now;
+        }
+        if (now > nextFreeTime) {
+            storedPermits = Math.min(burst - 1, storedPermits + (now - nextFreeTime) / intervalNanos);
+            nextFreeTime = now;
+        }
+        long waitTime = nextFreeTime - now;
+        if (storedPermits >= 1) {
+            storedPermits -= 1;
+        } else {
+            nextFreeTime += (long) ((1 - storedPermits) * intervalNanos);
+            storedPermits = 0;
+        }
+        return waitTime;
+    }
+
+    /**
+     * Get the number of permits granted per second over the last completed measurement window.
+     * A new window starts when this method is called at least one second after the previous one.
+     *
+     * @return the number of permits granted per second
+     */
+    public double getCurrentRate() {
+        return getCurrentRate(System.nanoTime());
+    }
+
+    synchronized double getCurrentRate(final long now) {
+        if (!started) {
+            return 0;
+        }
+        long elapsed = now - windowStartTime;
+        if (elapsed >= ONE_SECOND) {
+            long permits = acquiredPermits.get();
+            currentRate = (permits - windowStartPermits) * (double) ONE_SECOND / elapsed;
+            windowStartTime = now;
+            windowStartPermits = permits;
+        }
+        return currentRate;
+    }
+
+    /**
+     * Get the number of permits granted per second by this rate limiter.
+     *
+     * @return the configured rate
+     */
+    public double getRate() {
+        return permitsPerSecond;
+    }
+
+    /**
+     * Get the maximum number of permits granted without waiting after an idle period.
+     *
+     * @return the burst size
+     */
+    public int getBurst() {
+        return burst;
+    }
+
+    /**
+     * Get the number of permits granted so far.
+     *
+     * @return the number of acquired permits
+     */
+    public long getAcquiredPermits() {
+        return acquiredPermits.get();
+    }
+
+    /**
+     * Get the total time threads have waited for permits.
+     *
+     * @return the throttled time in nanoseconds
+     */
+    public long getThrottledTime() {
+        return throttledTime.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ENGLISH, "%.1f/%.1f per second (throttled %s)",
+                getCurrentRate(), permitsPerSecond, LatencyHistogram.format(getThrottledTime()));
+    }
+
+}
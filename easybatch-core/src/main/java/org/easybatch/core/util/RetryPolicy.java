@@ -0,0 +1,161 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.easybatch.core.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A policy telling whether a record processor failing on a record should be retried, and how long to wait before.
+ * <p/>
+ * Retries wait an exponential backoff: the initial backoff, doubled at each attempt up to the maximum backoff.
+ * A random jitter reduces each backoff by up to a fraction of it, so that records failing together
+ * (on a deadlock for example) are not retried together. By default, any exception is retried.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class RetryPolicy {
+
+    private static final double BACKOFF_MULTIPLIER = 2;
+
+    private static final Random RANDOM = new Random();
+
+    private final int maxAttempts;
+
+    private final long initialBackoff;
+
+    private long maxBackoff;
+
+    private double jitter = 0.5;
+
+    private final List<Class<? extends Exception>> retryableExceptions = new ArrayList<Class<? extends Exception>>();
+
+    /**
+     * Create a retry policy.
+     *
+     * @param maxAttempts    the maximum number of attempts to process a record, including the first one
+     * @param initialBackoff the time to wait before the first retry
+     * @param unit           the unit of the initial backoff
+     */
+    public RetryPolicy(final int maxAttempts, final long initialBackoff, final TimeUnit unit) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Max attempts must be at least 1");
+        }
+        if (initialBackoff < 0) {
+            throw new IllegalArgumentException("Backoff must not be negative");
+        }
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = unit.toNanos(initialBackoff);
+        this.maxBackoff = Long.MAX_VALUE;
+    }
+
+    /**
+     * Set the maximum time to wait between two attempts (unbounded by default).
+     *
+     * @param maxBackoff the maximum backoff
+     * @param unit       the unit of the maximum backoff
+     * @return this retry policy
+     */
+    public RetryPolicy maxBackoff(final long maxBackoff, final TimeUnit unit) {
+        if (maxBackoff < 0) {
+            throw new IllegalArgumentException("Max backoff must not be negative");
+        }
+        this.maxBackoff = unit.toNanos(maxBackoff);
+        return this;
+    }
+
+    /**
+     * Set the maximum fraction of the backoff randomly removed from it (0.5 by default).
+     *
+     * @param jitter the jitter, between 0 (no jitter) and 1
+     * @return this retry policy
+     */
+    public RetryPolicy jitter(final double jitter) {
+        if (jitter < 0 || jitter > 1) {
+            throw new IllegalArgumentException("Jitter must be between 0 and 1");
+        }
+        this.jitter = jitter;
+        return this;
+    }
+
+    /**
+     * Only retry processors failing with one of the given exceptions (or their subclasses).
+     *
+     * @param exceptions the retryable exceptions
+     * @return this retry policy
+     */
+    public RetryPolicy retryOn(final Class<? extends Exception>... exceptions) {
+        retryableExceptions.addAll(Arrays.asList(exceptions));
+        return this;
+    }
+
+    /**
+     * Tell whether a processor failing with an exception should be retried.
+     *
+     * @param exception the exception thrown by the processor
+     * @param attempt   the number of the failed attempt (starting at 1)
+     * @return true if the processor should be retried
+     */
+    public boolean shouldRetry(final Exception exception, final int attempt) {
+        if (attempt >= maxAttempts || exception instanceof InterruptedException) {
+            return false;
+        }
+        if (retryableExceptions.isEmpty()) {
+            return true;
+        }
+        for (Class<? extends Exception> retryableException : retryableExceptions) {
+            if (retryableException.isInstance(exception)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the time to wait after a failed attempt, including the jitter.
+     *
+     * @param attempt the number of the failed attempt (starting at 1)
+     * @return the backoff in nanoseconds
+     */
+    public long getBackoff(final int attempt) {
+        double backoff = Math.min(maxBackoff, initialBackoff * Math.pow(BACKOFF_MULTIPLIER, attempt - 1));
+        if (jitter > 0) {
+            backoff -= backoff * jitter * RANDOM.nextDouble();
+        }
+        return (long) backoff;
+    }
+
+    /**
+     * Get the maximum number of attempts to process a record, including the first one.
+     *
+     * @return the maximum number of attempts
+     */
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+}
@@ -0,0 +1,110 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.core.util;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A counter updated by many threads without contention: each thread updates its own stripe (chosen from its id),
+ * and the value of the counter is the sum of all stripes. Stripes are spaced apart so that they do not share
+ * a cache line.
+ * <p/>
+ * Updates are lock-free and {@link #sum()} is wait-free. The sum is exact when no update is in progress,
+ * otherwise it reflects the updates completed before each stripe is read.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public final class StripedCounter implements Serializable {
+
+    /**
+     * Number of longs between two stripes (128 bytes, twice the usual cache line size to defeat adjacent line prefetching).
+     */
+    private static final int PADDING = 16;
+
+    private static final int MAX_STRIPES = 64;
+
+    private final AtomicLongArray cells;
+
+    private final int mask;
+
+    public StripedCounter() {
+        int stripes = 1;
+        int target = Math.min(MAX_STRIPES, Runtime.getRuntime().availableProcessors() * 2);
+        while (stripes < target) {
+            stripes <<= 1;
+        }
+        this.mask = stripes - 1;
+        this.cells = new AtomicLongArray(stripes * PADDING);
+    }
+
+    /**
+     * Increment the counter.
+     */
+    public void increment() {
+        add(1);
+    }
+
+    /**
+     * Decrement the counter.
+     */
+    public void decrement() {
+        add(-1);
+    }
+
+    /**
+     * Add a value to the counter.
+     *
+     * @param delta the value to add
+     */
+    public void add(final long delta) {
+        cells.getAndAdd(stripe(), delta);
+    }
+
+    /**
+     * Get the value of the counter.
+     *
+     * @return the sum of all stripes
+     */
+    public long sum() {
+        long sum = 0;
+        for (int i = 0; i <= mask; i++) {
+            sum += cells.get(i * PADDING);
+        }
+        return sum;
+    }
+
+    private int stripe() {
+        long id = Thread.currentThread().getId();
+        // spread sequential thread ids over stripes
+        int hash = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return ((hash >>> 16) & mask) * PADDING;
+    }
+
+    @Override
+    public String toString() {
+        return String.valueOf(sum());
+    }
+}
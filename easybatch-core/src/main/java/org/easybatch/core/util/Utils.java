@@ -2,11 +2,9 @@ package org.easybatch.core.util;
 
 import org.easybatch.core.api.Report;
 import org.easybatch.core.impl.Engine;
-import org.easybatch.core.jmx.Monitor;
+import org.easybatch.core.jmx.EngineRegistry;
 
-import javax.management.MBeanServer;
 import javax.management.ObjectName;
-import java.lang.management.ManagementFactory;
 import java.util.Enumeration;
 import java.util.logging.Handler;
 import java.util.logging.Level;
@@ -24,8 +22,16 @@ public abstract class Utils {
 
     public static final String DEFAULT_ENGINE_NAME = "engine";
 
+    public static final int DEFAULT_CHUNK_SIZE = 100;
+
+    public static final int DEFAULT_CHECKPOINT_INTERVAL = 1000;
+
+    public static final int DEFAULT_LATENCY_SAMPLING_RATE = 100;
+
     public static final String JMX_MBEAN_NAME = "org.easybatch.core.jmx:name=";
 
+    public static final String JMX_REGISTRY_MBEAN_NAME = "org.easybatch.core.jmx:type=EngineRegistry";
+
     private Utils() {
 
     }
@@ -51,22 +57,30 @@ public abstract class Utils {
         }
     }
 
-    public static void registerJmxMBean(Report report, Engine engine) {
-        MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
-        ObjectName name;
+    /**
+     * Register a JMX MBean monitoring the execution of an engine in the {@link EngineRegistry}.
+     *
+     * @param report the report of the engine
+     * @param engine the engine
+     * @return the unique name under which the MBean has been registered, or null if it could not be registered
+     */
+    public static ObjectName registerJmxMBean(Report report, Engine engine) {
         try {
-            name = new ObjectName(JMX_MBEAN_NAME + engine.toString());
-            if (!mbs.isRegistered(name)) {
-                Monitor monitor = new Monitor(report);
-                mbs.registerMBean(monitor, name);
-                LOGGER.log(Level.INFO, "Easy Batch JMX MBean registered successfully as: {0}", name.getCanonicalName());
-            } else {
-                LOGGER.log(Level.WARNING, "JMX MBean {0} already registered for another engine." +
-                        " If you use multiple engines in parallel and you would like to monitor each of them, make sure they have different names",
-                        name.getCanonicalName());
-            }
+            ObjectName name = EngineRegistry.getInstance().register(report, engine);
+            LOGGER.log(Level.INFO, "Easy Batch JMX MBean registered successfully as: {0}", name.getCanonicalName());
+            return name;
         } catch (Exception e) {
             LOGGER.log(Level.WARNING, "Unable to register Easy Batch JMX MBean.", e);
+            return null;
         }
     }
+
+    /**
+     * Unregister the JMX MBean of an engine from the {@link EngineRegistry}.
+     *
+     * @param name the name under which the MBean has been registered
+     */
+    public static void unregisterJmxMBean(ObjectName name) {
+        EngineRegistry.getInstance().unregister(name);
+    }
 }
@@ -24,16 +24,28 @@
 
 package org.easybatch.core;
 
+import org.easybatch.core.api.HeaderTest;
 import org.easybatch.core.api.ReportTest;
+import org.easybatch.core.checkpoint.FileCheckpointStoreTest;
+import org.easybatch.core.deadletter.DeadLetterSinkTest;
 import org.easybatch.core.dispatcher.*;
 import org.easybatch.core.filter.*;
+import org.easybatch.core.impl.AsyncEventManagerTest;
 import org.easybatch.core.impl.EngineTest;
 import org.easybatch.core.impl.FilterChainTest;
 import org.easybatch.core.impl.ProcessingPipelineTest;
+import org.easybatch.core.impl.ProcessingWatchdogTest;
 import org.easybatch.core.impl.ValidationPipelineTest;
+import org.easybatch.core.jmx.MonitorTest;
+import org.easybatch.core.jmx.ThroughputMeterTest;
 import org.easybatch.core.mapper.ObjectMapperTest;
 import org.easybatch.core.mapper.converter.*;
+import org.easybatch.core.partitioner.ListPartitionerTest;
 import org.easybatch.core.reader.*;
+import org.easybatch.core.util.AdaptiveConcurrencyLimiterTest;
+import org.easybatch.core.util.LatencyHistogramTest;
+import org.easybatch.core.util.RateLimiterTest;
+import org.easybatch.core.util.RetryPolicyTest;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
@@ -71,6 +83,7 @@ import org.junit.runners.Suite;
         EndWithStringRecordFilterTest.class,
         FileExtensionFilterTest.class,
         GrepFilterTest.class,
+        MultiGrepFilterTest.class,
         HeaderRecordFilterTest.class,
         PoisonRecordFilterTest.class,
         RecordNumberBetweenFilterTest.class,
@@ -83,13 +96,28 @@ import org.junit.runners.Suite;
         ContentBasedRecordDispatcherBuilderTest.class,
         RandomRecordDispatcherTest.class,
         RoundRobinRecordDispatcherTest.class,
+        // checkpoint
+        FileCheckpointStoreTest.class,
+
+        DeadLetterSinkTest.class,
+        // partitioner
+        ListPartitionerTest.class,
         // api
         ReportTest.class,
+        HeaderTest.class,
         // impl
         EngineTest.class,
         FilterChainTest.class,
         ValidationPipelineTest.class,
-        ProcessingPipelineTest.class
+        ProcessingPipelineTest.class,
+        ProcessingWatchdogTest.class,
+        AsyncEventManagerTest.class,
+        LatencyHistogramTest.class,
+        RateLimiterTest.class,
+        RetryPolicyTest.class,
+        AdaptiveConcurrencyLimiterTest.class,
+        MonitorTest.class,
+        ThroughputMeterTest.class
 
 })
 public class CoreTestsSuite {
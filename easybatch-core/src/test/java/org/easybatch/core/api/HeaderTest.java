@@ -0,0 +1,43 @@
+package org.easybatch.core.api;
+
+import org.junit.Test;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for {@link Header}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class HeaderTest {
+
+    @Test
+    public void creationDateShouldBeCreatedFromCreationTime() {
+        Header header = new Header(1L, "source", 1000L);
+
+        assertThat(header.getCreationTime()).isEqualTo(1000L);
+        assertThat(header.getCreationDate()).isEqualTo(new Date(1000L));
+        assertThat(header.getCreationDate()).isSameAs(header.getCreationDate());
+    }
+
+    @Test
+    public void recordNumberShouldBeAvailableWithoutBoxing() {
+        Header header = new Header(1000L, "source", 0L);
+
+        assertThat(header.hasNumber()).isTrue();
+        assertThat(header.getRecordNumber()).isEqualTo(1000L);
+        assertThat(header.getNumber()).isEqualTo(1000L);
+    }
+
+    @Test
+    public void whenNumberAndCreationDateAreUndefined_thenTheyShouldBeNull() {
+        Header header = new Header(null, "source", null);
+
+        assertThat(header.hasNumber()).isFalse();
+        assertThat(header.getNumber()).isNull();
+        assertThat(header.getCreationDate()).isNull();
+    }
+
+}
@@ -129,4 +129,58 @@ public class ReportTest {
         assertThat(report.toString()).doesNotContain("Result");
     }
 
+    @Test
+    public void countersShouldBeAccurateWhenUpdatedByMultipleThreads() throws Exception {
+        final Report sharedReport = new Report();
+        Thread[] workers = new Thread[8];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new Thread(new Runnable() {
+                public void run() {
+                    for (int j = 0; j < 10000; j++) {
+                        sharedReport.incrementTotalSuccessRecord();
+                        sharedReport.incrementTotalErrorRecord();
+                    }
+                }
+            });
+            workers[i].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertThat(sharedReport.getSuccessRecordsCount()).isEqualTo(80000);
+        assertThat(sharedReport.getErrorRecordsCount()).isEqualTo(80000);
+    }
+
+    @Test
+    public void snapshotShouldBeACopyOfTheReportCounters() {
+        ReportSnapshot snapshot = report.snapshot();
+        report.incrementTotalSuccessRecord();
+
+        assertThat(snapshot.getSuccessRecordsCount()).isEqualTo(2);
+        assertThat(snapshot.getFilteredRecordsCount()).isEqualTo(2);
+        assertThat(snapshot.getCurrentRecordNumber()).isEqualTo(2);
+        assertThat(snapshot.getTotalRecords()).isEqualTo(10);
+        assertThat(snapshot.getStatus()).isEqualTo(Status.FINISHED);
+    }
+
+    @Test
+    public void snapshotShouldNeverHoldMoreHandledRecordsThanReadRecords() throws Exception {
+        final Report sharedReport = new Report();
+        Thread worker = new Thread(new Runnable() {
+            public void run() {
+                for (long i = 1; i <= 100000; i++) {
+                    sharedReport.setCurrentRecordNumber(i);
+                    sharedReport.incrementTotalSuccessRecord();
+                }
+            }
+        });
+        worker.start();
+        while (worker.isAlive()) {
+            ReportSnapshot snapshot = sharedReport.snapshot();
+            assertThat(snapshot.getHandledRecordsCount()).isLessThanOrEqualTo(snapshot.getCurrentRecordNumber());
+        }
+        worker.join();
+    }
+
 }
@@ -0,0 +1,60 @@
+package org.easybatch.core.checkpoint;
+
+import org.easybatch.core.api.Checkpoint;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for {@link FileCheckpointStore}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class FileCheckpointStoreTest {
+
+    private File file;
+
+    private FileCheckpointStore checkpointStore;
+
+    @Before
+    public void setUp() throws Exception {
+        file = new File(System.getProperty("java.io.tmpdir"), "easybatch-checkpoint-test.properties");
+        file.delete();
+        checkpointStore = new FileCheckpointStore(file);
+    }
+
+    @Test
+    public void whenTheCheckpointFileDoesNotExist_thenLoadShouldReturnNull() throws Exception {
+        assertThat(checkpointStore.load()).isNull();
+    }
+
+    @Test
+    public void savedCheckpointShouldBeLoaded() throws Exception {
+        checkpointStore.save(new Checkpoint(10, 100));
+        assertThat(checkpointStore.load()).isEqualTo(new Checkpoint(10, 100));
+
+        checkpointStore.save(new Checkpoint(20, Checkpoint.NO_POSITION));
+        Checkpoint checkpoint = new FileCheckpointStore(file).load();
+        assertThat(checkpoint.getRecordNumber()).isEqualTo(20);
+        assertThat(checkpoint.hasPosition()).isFalse();
+    }
+
+    @Test
+    public void clearShouldDeleteTheCheckpointFile() throws Exception {
+        checkpointStore.save(new Checkpoint(10, 100));
+        checkpointStore.clear();
+
+        assertThat(file.exists()).isFalse();
+        assertThat(checkpointStore.load()).isNull();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        file.delete();
+    }
+
+}
@@ -0,0 +1,232 @@
+package org.easybatch.core.deadletter;
+
+import org.easybatch.core.api.Header;
+import org.easybatch.core.api.Record;
+import org.easybatch.core.api.RecordMapper;
+import org.easybatch.core.api.RecordProcessor;
+import org.easybatch.core.api.RecordValidator;
+import org.easybatch.core.api.Report;
+import org.easybatch.core.api.ValidationError;
+import org.easybatch.core.reader.StringRecordReader;
+import org.easybatch.core.record.StringRecord;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.easybatch.core.impl.EngineBuilder.aNewEngine;
+
+/**
+ * Test class for {@link DeadLetterSink} and {@link DeadLetterRecordReader}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class DeadLetterSinkTest {
+
+    private File directory;
+
+    private DeadLetterSink sink;
+
+    @Before
+    public void setUp() throws Exception {
+        directory = new File(System.getProperty("java.io.tmpdir"), "easybatch-dead-letters-test");
+        deleteDirectory();
+        sink = new DeadLetterSink(directory);
+        sink.setSyncInterval(10);
+    }
+
+    @Test
+    public void errorRejectedAndIgnoredRecordsShouldBeWrittenAndReplayed() throws Exception {
+        Report report = aNewEngine()
+                .reader(new StringRecordReader("ok\nignore\nbad\nerror\nok"))
+                .mapper(new IgnoringMapper())
+                .validator(new RejectingValidator())
+                .processor(new FailingProcessor())
+                .ignoredRecordHandler(sink.ignoredRecordHandler())
+                .rejectedRecordHandler(sink.rejectedRecordHandler())
+                .errorRecordHandler(sink.errorRecordHandler())
+                .batchProcessEventListener(sink)
+                .build().call();
+
+        assertThat(report.getIgnoredRecordsCount()).isEqualTo(1);
+        assertThat(report.getRejectedRecordsCount()).isEqualTo(1);
+        assertThat(report.getErrorRecordsCount()).isEqualTo(1);
+
+        List<DeadLetter> deadLetters = replay();
+        assertThat(deadLetters).hasSize(3);
+
+        DeadLetter ignored = deadLetters.get(0);
+        assertThat(ignored.getType()).isEqualTo(DeadLetter.Type.IGNORED);
+        assertThat(ignored.getRecordNumber()).isEqualTo(2);
+        assertThat(ignored.getPayload()).isEqualTo("ignore");
+        assertThat(ignored.getCause()).isNull();
+
+        DeadLetter rejected = deadLetters.get(1);
+        assertThat(rejected.getType()).isEqualTo(DeadLetter.Type.REJECTED);
+        assertThat(rejected.getRecordNumber()).isEqualTo(3);
+        assertThat(rejected.getPayload()).isEqualTo("bad");
+        assertThat(rejected.getValidationErrors()).containsExactly("bad record");
+
+        DeadLetter error = deadLetters.get(2);
+        assertThat(error.getType()).isEqualTo(DeadLetter.Type.ERROR);
+        assertThat(error.getRecordNumber()).isEqualTo(4);
+        assertThat(error.getPayload()).isEqualTo("error");
+        assertThat(error.getCause()).isEqualTo("java.lang.Exception: processing error\nCaused by: java.lang.IllegalStateException: root cause");
+    }
+
+    @Test
+    public void deadLettersShouldBeReplayedThroughAnotherEngine() throws Exception {
+        aNewEngine()
+                .reader(new StringRecordReader("a\nerror\nb\nerror"))
+                .processor(new FailingProcessor())
+                .errorRecordHandler(sink.errorRecordHandler())
+                .batchProcessEventListener(sink)
+                .build().call();
+
+        final List<String> replayed = new ArrayList<String>();
+        Report report = aNewEngine()
+                .reader(new DeadLetterRecordReader(directory))
+                .processor(new RecordProcessor<DeadLetterRecord, DeadLetterRecord>() {
+                    @Override
+                    public DeadLetterRecord processRecord(DeadLetterRecord record) {
+                        replayed.add(record.getHeader().getNumber() + ":" + record.getPayload() + ":"
+                                + record.getDeadLetter().getRecordNumber());
+                        return record;
+                    }
+                })
+                .build().call();
+
+        assertThat(report.getTotalRecords()).isEqualTo(2);
+        assertThat(replayed).containsExactly("1:error:2", "2:error:4");
+    }
+
+    @Test
+    public void deadLetterFilesShouldBeRotated() throws Exception {
+        sink.setMaxFileSize(100);
+        for (int i = 1; i <= 10; i++) {
+            sink.errorRecordHandler().handle(new StringRecord(new Header((long) i, "test", 0), "payload of record " + i), new Exception());
+        }
+        sink.close();
+
+        assertThat(DeadLetterRecordReader.listFiles(directory, DeadLetterSink.DEFAULT_PREFIX).size()).isGreaterThan(1);
+        List<DeadLetter> deadLetters = replay();
+        assertThat(deadLetters).hasSize(10);
+        for (int i = 0; i < 10; i++) {
+            assertThat(deadLetters.get(i).getRecordNumber()).isEqualTo(i + 1);
+        }
+
+        // a new sink continues after the last file
+        DeadLetterSink newSink = new DeadLetterSink(directory);
+        newSink.ignoredRecordHandler().handle(new StringRecord(new Header(11L, "test", 0), "payload of record 11"));
+        newSink.close();
+        deadLetters = replay();
+        assertThat(deadLetters).hasSize(11);
+        assertThat(deadLetters.get(10).getType()).isEqualTo(DeadLetter.Type.IGNORED);
+    }
+
+    @Test
+    public void incompleteOrCorruptedDeadLettersShouldBeSkipped() throws Exception {
+        for (int i = 1; i <= 3; i++) {
+            sink.errorRecordHandler().handle(new StringRecord(new Header((long) i, "test", 0), "payload " + i), new Exception());
+        }
+        sink.close();
+        File file = DeadLetterRecordReader.listFiles(directory, DeadLetterSink.DEFAULT_PREFIX).get(0);
+        long length = file.length();
+        long entrySize = (length - 5) / 3; // entries have the same size after the 5 bytes file header
+
+        // truncate the last entry
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        randomAccessFile.setLength(length - 3);
+        randomAccessFile.close();
+        assertThat(replay()).hasSize(2);
+
+        // corrupt the last byte of the second entry
+        randomAccessFile = new RandomAccessFile(file, "rw");
+        long secondEntryEnd = 5 + 2 * entrySize;
+        randomAccessFile.setLength(secondEntryEnd);
+        randomAccessFile.seek(secondEntryEnd - 1);
+        int lastByte = randomAccessFile.read();
+        randomAccessFile.seek(secondEntryEnd - 1);
+        randomAccessFile.write(lastByte ^ 0xFF);
+        randomAccessFile.close();
+        List<DeadLetter> deadLetters = replay();
+        assertThat(deadLetters).hasSize(1);
+        assertThat(deadLetters.get(0).getPayload()).isEqualTo("payload 1");
+    }
+
+    @Test
+    public void flushShouldReturnImmediatelyWhenNoDeadLetterWasAppended() throws Exception {
+        sink.flush();
+        sink.close();
+
+        assertThat(directory.exists()).isFalse();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void appendingToAClosedSinkShouldBeRejected() throws Exception {
+        sink.close();
+        sink.errorRecordHandler().handle(new StringRecord(new Header(1L, "test", 0), "payload"), new Exception());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        sink.close();
+        deleteDirectory();
+    }
+
+    private List<DeadLetter> replay() throws Exception {
+        List<DeadLetter> deadLetters = new ArrayList<DeadLetter>();
+        DeadLetterRecordReader reader = new DeadLetterRecordReader(directory);
+        reader.open();
+        while (reader.hasNextRecord()) {
+            deadLetters.add(reader.readNextRecord().getDeadLetter());
+        }
+        reader.close();
+        return deadLetters;
+    }
+
+    private void deleteDirectory() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    private static class IgnoringMapper implements RecordMapper<Record> {
+        @Override
+        public Record mapRecord(Record record) {
+            return "ignore".equals(record.getPayload()) ? null : record;
+        }
+    }
+
+    private static class RejectingValidator implements RecordValidator<Record> {
+        @Override
+        public Set<ValidationError> validateRecord(Record record) {
+            if ("bad".equals(record.getPayload())) {
+                return Collections.singleton(new ValidationError("bad record"));
+            }
+            return Collections.emptySet();
+        }
+    }
+
+    private static class FailingProcessor implements RecordProcessor<Record, Record> {
+        @Override
+        public Record processRecord(Record record) throws Exception {
+            if ("error".equals(record.getPayload())) {
+                throw new Exception("processing error", new IllegalStateException("root cause"));
+            }
+            return record;
+        }
+    }
+
+}
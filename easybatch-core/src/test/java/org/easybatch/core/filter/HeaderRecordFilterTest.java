@@ -50,18 +50,26 @@ public class HeaderRecordFilterTest {
 
     @Before
     public void setUp() throws Exception {
+        when(record.getHeader().hasNumber()).thenReturn(true);
         headerRecordFilter = new HeaderRecordFilter();
     }
 
     @Test
     public void whenTheRecordNumberIsEqualToOne_ThenItShouldBeFiltered() {
-        when(record.getHeader().getNumber()).thenReturn(1l);
+        when(record.getHeader().getRecordNumber()).thenReturn(1l);
         assertThat(headerRecordFilter.filterRecord(record)).isTrue();
     }
 
     @Test
     public void whenTheRecordNumberIsDifferentFromOne_ThenItShouldNotBeFiltered() {
-        when(record.getHeader().getNumber()).thenReturn(2l);
+        when(record.getHeader().getRecordNumber()).thenReturn(2l);
+        assertThat(headerRecordFilter.filterRecord(record)).isFalse();
+    }
+
+    @Test
+    public void whenTheRecordHasNoNumber_ThenItShouldNotBeFiltered() {
+        when(record.getHeader().hasNumber()).thenReturn(false);
+        when(record.getHeader().getRecordNumber()).thenReturn(Long.MIN_VALUE);
         assertThat(headerRecordFilter.filterRecord(record)).isFalse();
     }
 
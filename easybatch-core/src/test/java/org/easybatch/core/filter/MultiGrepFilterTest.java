@@ -0,0 +1,163 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.core.filter;
+
+import org.easybatch.core.api.Header;
+import org.easybatch.core.record.StringRecord;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for {@link MultiGrepFilter}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class MultiGrepFilterTest {
+
+    private MultiGrepFilter multiGrepFilter;
+
+    /*
+     * Test regular behavior
+     */
+
+    @Test
+    public void whenRecordContainsOneOfThePatterns_ThenItShouldNotBeFiltered() throws Exception {
+        multiGrepFilter = new MultiGrepFilter("he", "she", "his", "hers");
+        assertThat(multiGrepFilter.filterRecord(record("ushers"))).isFalse();
+        assertThat(multiGrepFilter.filterRecord(record("this"))).isFalse();
+        assertThat(multiGrepFilter.filterRecord(record("ahishers"))).isFalse();
+    }
+
+    @Test
+    public void whenRecordDoesNotContainAnyPattern_ThenItShouldBeFiltered() throws Exception {
+        multiGrepFilter = new MultiGrepFilter("he", "she", "his", "hers");
+        assertThat(multiGrepFilter.filterRecord(record("hash"))).isTrue();
+        assertThat(multiGrepFilter.filterRecord(record(""))).isTrue();
+    }
+
+    @Test
+    public void patternsEndingInsideALongerPartialMatchShouldBeFound() throws Exception {
+        multiGrepFilter = new MultiGrepFilter("abcd", "bc");
+        assertThat(multiGrepFilter.filterRecord(record("xabcx"))).isFalse();
+        assertThat(multiGrepFilter.filterRecord(record("xabx"))).isTrue();
+    }
+
+    @Test
+    public void patternLookupShouldBeCaseSensitiveByDefault() throws Exception {
+        multiGrepFilter = new MultiGrepFilter("java", "scala");
+        assertThat(multiGrepFilter.filterRecord(record("JAVA rocks!"))).isTrue();
+    }
+
+    @Test
+    public void nonAsciiPatternsShouldBeFound() throws Exception {
+        multiGrepFilter = new MultiGrepFilter("café", "naïve");
+        assertThat(multiGrepFilter.filterRecord(record("un café noir"))).isFalse();
+        assertThat(multiGrepFilter.filterRecord(record("un cafe noir"))).isTrue();
+    }
+
+    @Test
+    public void resultsShouldBeTheSameAsLookingForEachPatternSeparately() throws Exception {
+        Random random = new Random(42);
+        for (int run = 0; run < 200; run++) {
+            List<String> patterns = new ArrayList<String>();
+            for (int i = 0; i < 1 + random.nextInt(5); i++) {
+                patterns.add(randomString(random, 1 + random.nextInt(4)));
+            }
+            multiGrepFilter = new MultiGrepFilter(patterns, false);
+            for (int i = 0; i < 20; i++) {
+                String payload = randomString(random, random.nextInt(30));
+                boolean found = false;
+                for (String pattern : patterns) {
+                    found |= payload.contains(pattern);
+                }
+                assertThat(multiGrepFilter.filterRecord(record(payload))).as(patterns + " in " + payload).isEqualTo(!found);
+            }
+        }
+    }
+
+    private String randomString(Random random, int length) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            sb.append("abcé".charAt(random.nextInt(4)));
+        }
+        return sb.toString();
+    }
+
+    /*
+     * Test options
+     */
+
+    @Test
+    public void whenCaseIsIgnored_ThenPatternsShouldBeFoundWhateverTheirCase() throws Exception {
+        multiGrepFilter = new MultiGrepFilter(Arrays.asList("Java", "CAFÉ"), false, true, false);
+        assertThat(multiGrepFilter.filterRecord(record("JAVA rocks!"))).isFalse();
+        assertThat(multiGrepFilter.filterRecord(record("un Café"))).isFalse();
+        assertThat(multiGrepFilter.filterRecord(record("c++ .."))).isTrue();
+    }
+
+    @Test
+    public void whenLookingForWholeWords_ThenPatternsInsideWordsShouldNotBeFound() throws Exception {
+        multiGrepFilter = new MultiGrepFilter(Arrays.asList("java", "scat", "cat"), false, false, true);
+        assertThat(multiGrepFilter.filterRecord(record("java"))).isFalse();
+        assertThat(multiGrepFilter.filterRecord(record("I like java, really"))).isFalse();
+        assertThat(multiGrepFilter.filterRecord(record("javascript and my_java"))).isTrue();
+        assertThat(multiGrepFilter.filterRecord(record("a scat."))).isFalse();
+        assertThat(multiGrepFilter.filterRecord(record("xscat"))).isTrue();
+        assertThat(multiGrepFilter.filterRecord(record("xscat cats cat"))).isFalse();
+    }
+
+    /*
+     * Test negate behavior
+     */
+
+    @Test
+    public void whenRecordContainsOneOfThePatternsAndNegateIsSet_ThenItShouldBeFiltered() throws Exception {
+        multiGrepFilter = new MultiGrepFilter(Arrays.asList("password", "secret"), true);
+        assertThat(multiGrepFilter.filterRecord(record("user=foo secret=bar"))).isTrue();
+        assertThat(multiGrepFilter.filterRecord(record("user=foo"))).isFalse();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenNoPatternIsSpecified_ThenTheFilterShouldBeRejected() throws Exception {
+        new MultiGrepFilter(Collections.<String>emptyList(), false);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenAPatternIsEmpty_ThenTheFilterShouldBeRejected() throws Exception {
+        new MultiGrepFilter("foo", "");
+    }
+
+    private StringRecord record(String payload) {
+        return new StringRecord(new Header(1L, "test", 0), payload);
+    }
+
+}
@@ -28,6 +28,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.when;
 
 import org.easybatch.core.api.Record;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Answers;
@@ -47,14 +48,19 @@ public class RecordNumberBetweenFilterTest {
     
     private RecordNumberBetweenFilter recordNumberBetweenFilter;
 
+    @Before
+    public void setUp() throws Exception {
+        when(record.getHeader().hasNumber()).thenReturn(true);
+    }
+
     @Test
     public void whenTheRecordNumberIsInsideRange_ThenItShouldBeFiltered() {
         recordNumberBetweenFilter = new RecordNumberBetweenFilter(1, 2);
 
-        when(record.getHeader().getNumber()).thenReturn(1l);
+        when(record.getHeader().getRecordNumber()).thenReturn(1l);
         assertThat(recordNumberBetweenFilter.filterRecord(record)).isTrue();
         
-        when(record.getHeader().getNumber()).thenReturn(2l);
+        when(record.getHeader().getRecordNumber()).thenReturn(2l);
         assertThat(recordNumberBetweenFilter.filterRecord(record)).isTrue();
     }
 
@@ -62,10 +68,29 @@ public class RecordNumberBetweenFilterTest {
     public void whenTheRecordNumberIsOutsideRange_ThenItShouldNotBeFiltered() {
         recordNumberBetweenFilter = new RecordNumberBetweenFilter(3, 4);
 
-        when(record.getHeader().getNumber()).thenReturn(2l);
+        when(record.getHeader().getRecordNumber()).thenReturn(2l);
+        assertThat(recordNumberBetweenFilter.filterRecord(record)).isFalse();
+
+        when(record.getHeader().getRecordNumber()).thenReturn(5l);
         assertThat(recordNumberBetweenFilter.filterRecord(record)).isFalse();
+    }
+
+    @Test
+    public void recordsInsideRangeShouldBeSkippedUpToTheHigherBound() {
+        recordNumberBetweenFilter = new RecordNumberBetweenFilter(3, 4);
+
+        assertThat(recordNumberBetweenFilter.nextAcceptedRecordNumber(2)).isEqualTo(2);
+        assertThat(recordNumberBetweenFilter.nextAcceptedRecordNumber(3)).isEqualTo(5);
+        assertThat(recordNumberBetweenFilter.nextAcceptedRecordNumber(4)).isEqualTo(5);
+        assertThat(recordNumberBetweenFilter.nextAcceptedRecordNumber(5)).isEqualTo(5);
+    }
+
+    @Test
+    public void whenTheRecordHasNoNumber_ThenItShouldNotBeFiltered() {
+        recordNumberBetweenFilter = new RecordNumberBetweenFilter(Long.MIN_VALUE, 10);
 
-        when(record.getHeader().getNumber()).thenReturn(5l);
+        when(record.getHeader().hasNumber()).thenReturn(false);
+        when(record.getHeader().getRecordNumber()).thenReturn(Long.MIN_VALUE);
         assertThat(recordNumberBetweenFilter.filterRecord(record)).isFalse();
     }
 
@@ -28,6 +28,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.when;
 
 import org.easybatch.core.api.Record;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Answers;
@@ -47,11 +48,16 @@ public class RecordNumberEqualsToFilterTest {
     
     private RecordNumberEqualsToFilter recordNumberEqualsToFilter;
 
+    @Before
+    public void setUp() throws Exception {
+        when(record.getHeader().hasNumber()).thenReturn(true);
+    }
+
     @Test
     public void whenTheRecordNumberIsEqualToExpectedNumber_ThenItShouldBeFiltered() {
         recordNumberEqualsToFilter = new RecordNumberEqualsToFilter(1);
 
-        when(record.getHeader().getNumber()).thenReturn(1l);
+        when(record.getHeader().getRecordNumber()).thenReturn(1l);
         assertThat(recordNumberEqualsToFilter.filterRecord(record)).isTrue();
     }
 
@@ -59,10 +65,10 @@ public class RecordNumberEqualsToFilterTest {
     public void whenTheRecordNumberIsEqualToOneOfTheExpectedNumbers_ThenItShouldBeFiltered() {
         recordNumberEqualsToFilter = new RecordNumberEqualsToFilter(1, 2);
 
-        when(record.getHeader().getNumber()).thenReturn(1l);
+        when(record.getHeader().getRecordNumber()).thenReturn(1l);
         assertThat(recordNumberEqualsToFilter.filterRecord(record)).isTrue();
 
-        when(record.getHeader().getNumber()).thenReturn(2l);
+        when(record.getHeader().getRecordNumber()).thenReturn(2l);
         assertThat(recordNumberEqualsToFilter.filterRecord(record)).isTrue();
     }
 
@@ -72,9 +78,9 @@ public class RecordNumberEqualsToFilterTest {
 
     @Test
     public void whenTheRecordNumberIsEqualToExpectedNumber_ThenItShouldNotBeFiltered() {
-        recordNumberEqualsToFilter = new RecordNumberEqualsToFilter(true, 1);
+        recordNumberEqualsToFilter = new RecordNumberEqualsToFilter(Long.MIN_VALUE);
 
-        when(record.getHeader().getNumber()).thenReturn(1l);
+        when(record.getHeader().getRecordNumber()).thenReturn(1l);
         assertThat(recordNumberEqualsToFilter.filterRecord(record)).isFalse();
     }
 
@@ -82,9 +88,18 @@ public class RecordNumberEqualsToFilterTest {
     public void whenTheRecordNumberIsEqualToOneOfTheExpectedNumbers_ThenItShouldNotBeFiltered() {
         recordNumberEqualsToFilter = new RecordNumberEqualsToFilter(true, 1, 2);
 
-        when(record.getHeader().getNumber()).thenReturn(1l);
+        when(record.getHeader().getRecordNumber()).thenReturn(1l);
         assertThat(recordNumberEqualsToFilter.filterRecord(record)).isFalse();
-        when(record.getHeader().getNumber()).thenReturn(2l);
+        when(record.getHeader().getRecordNumber()).thenReturn(2l);
+        assertThat(recordNumberEqualsToFilter.filterRecord(record)).isFalse();
+    }
+
+    @Test
+    public void whenTheRecordHasNoNumber_ThenItShouldNotBeFiltered() {
+        recordNumberEqualsToFilter = new RecordNumberEqualsToFilter(Long.MIN_VALUE);
+
+        when(record.getHeader().hasNumber()).thenReturn(false);
+        when(record.getHeader().getRecordNumber()).thenReturn(Long.MIN_VALUE);
         assertThat(recordNumberEqualsToFilter.filterRecord(record)).isFalse();
     }
 
@@ -28,6 +28,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.when;
 
 import org.easybatch.core.api.Record;
+import org.easybatch.core.api.RecordNumberFilter;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Answers;
@@ -47,14 +49,19 @@ public class RecordNumberGreaterThanFilterTest {
     
     private RecordNumberGreaterThanFilter recordNumberGreaterThanFilter;
 
+    @Before
+    public void setUp() throws Exception {
+        when(record.getHeader().hasNumber()).thenReturn(true);
+    }
+
     @Test
     public void whenTheRecordNumberIsGreaterThanExpectedNumber_ThenItShouldBeFiltered() {
         recordNumberGreaterThanFilter = new RecordNumberGreaterThanFilter(0);
 
-        when(record.getHeader().getNumber()).thenReturn(1l);
+        when(record.getHeader().getRecordNumber()).thenReturn(1l);
         assertThat(recordNumberGreaterThanFilter.filterRecord(record)).isTrue();
 
-        when(record.getHeader().getNumber()).thenReturn(2l);
+        when(record.getHeader().getRecordNumber()).thenReturn(2l);
         assertThat(recordNumberGreaterThanFilter.filterRecord(record)).isTrue();
     }
 
@@ -62,9 +69,26 @@ public class RecordNumberGreaterThanFilterTest {
     public void whenTheRecordNumberIsLowerThanOrEqualToExpectedNumber_ThenItShouldNotBeFiltered() {
         recordNumberGreaterThanFilter = new RecordNumberGreaterThanFilter(2);
 
-        when(record.getHeader().getNumber()).thenReturn(1l);
+        when(record.getHeader().getRecordNumber()).thenReturn(1l);
+        assertThat(recordNumberGreaterThanFilter.filterRecord(record)).isFalse();
+        when(record.getHeader().getRecordNumber()).thenReturn(2l);
         assertThat(recordNumberGreaterThanFilter.filterRecord(record)).isFalse();
-        when(record.getHeader().getNumber()).thenReturn(2l);
+    }
+
+    @Test
+    public void whenTheRecordNumberIsGreaterThanExpectedNumber_ThenNoMoreRecordsShouldBeAccepted() {
+        recordNumberGreaterThanFilter = new RecordNumberGreaterThanFilter(2);
+
+        assertThat(recordNumberGreaterThanFilter.nextAcceptedRecordNumber(2)).isEqualTo(2);
+        assertThat(recordNumberGreaterThanFilter.nextAcceptedRecordNumber(3)).isEqualTo(RecordNumberFilter.NO_MORE_RECORDS);
+    }
+
+    @Test
+    public void whenTheRecordHasNoNumber_ThenItShouldNotBeFiltered() {
+        recordNumberGreaterThanFilter = new RecordNumberGreaterThanFilter(1);
+
+        when(record.getHeader().hasNumber()).thenReturn(false);
+        when(record.getHeader().getRecordNumber()).thenReturn(Long.MIN_VALUE);
         assertThat(recordNumberGreaterThanFilter.filterRecord(record)).isFalse();
     }
 
@@ -28,6 +28,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.when;
 
 import org.easybatch.core.api.Record;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Answers;
@@ -47,14 +48,19 @@ public class RecordNumberLowerThanFilterTest {
     
     private RecordNumberLowerThanFilter recordNumberLowerThanFilter;
 
+    @Before
+    public void setUp() throws Exception {
+        when(record.getHeader().hasNumber()).thenReturn(true);
+    }
+
     @Test
     public void whenTheRecordNumberIsLowerThanExpectedNumber_ThenItShouldBeFiltered() {
         recordNumberLowerThanFilter = new RecordNumberLowerThanFilter(3);
 
-        when(record.getHeader().getNumber()).thenReturn(1l);
+        when(record.getHeader().getRecordNumber()).thenReturn(1l);
         assertThat(recordNumberLowerThanFilter.filterRecord(record)).isTrue();
 
-        when(record.getHeader().getNumber()).thenReturn(2l);
+        when(record.getHeader().getRecordNumber()).thenReturn(2l);
         assertThat(recordNumberLowerThanFilter.filterRecord(record)).isTrue();
     }
 
@@ -62,10 +68,27 @@ public class RecordNumberLowerThanFilterTest {
     public void whenTheRecordNumberIsGreaterThanOrEqualToExpectedNumber_ThenItShouldNotBeFiltered() {
         recordNumberLowerThanFilter = new RecordNumberLowerThanFilter(1);
 
-        when(record.getHeader().getNumber()).thenReturn(1l);
+        when(record.getHeader().getRecordNumber()).thenReturn(1l);
         assertThat(recordNumberLowerThanFilter.filterRecord(record)).isFalse();
         
-        when(record.getHeader().getNumber()).thenReturn(2l);
+        when(record.getHeader().getRecordNumber()).thenReturn(2l);
+        assertThat(recordNumberLowerThanFilter.filterRecord(record)).isFalse();
+    }
+
+    @Test
+    public void recordsLowerThanExpectedNumberShouldBeSkipped() {
+        recordNumberLowerThanFilter = new RecordNumberLowerThanFilter(3);
+
+        assertThat(recordNumberLowerThanFilter.nextAcceptedRecordNumber(1)).isEqualTo(3);
+        assertThat(recordNumberLowerThanFilter.nextAcceptedRecordNumber(4)).isEqualTo(4);
+    }
+
+    @Test
+    public void whenTheRecordHasNoNumber_ThenItShouldNotBeFiltered() {
+        recordNumberLowerThanFilter = new RecordNumberLowerThanFilter(3);
+
+        when(record.getHeader().hasNumber()).thenReturn(false);
+        when(record.getHeader().getRecordNumber()).thenReturn(Long.MIN_VALUE);
         assertThat(recordNumberLowerThanFilter.filterRecord(record)).isFalse();
     }
 
@@ -0,0 +1,153 @@
+package org.easybatch.core.impl;
+
+import org.easybatch.core.api.EventOverflowPolicy;
+import org.easybatch.core.api.event.step.RecordProcessorEventListener;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for {@link AsyncEventManager}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class AsyncEventManagerTest {
+
+    private LocalEventManager localEventManager;
+
+    private RecordingListener listener;
+
+    @Before
+    public void setUp() throws Exception {
+        localEventManager = new LocalEventManager();
+        listener = new RecordingListener();
+        localEventManager.addRecordProcessorEventListener(listener);
+    }
+
+    @Test
+    public void eventsShouldBeDeliveredInOrderOnAnotherThreadAndFlushedAtBatchEnd() throws Exception {
+        AsyncEventManager eventManager = new AsyncEventManager(localEventManager, 4, EventOverflowPolicy.BLOCK);
+        listener.delayInMillis = 1;
+
+        for (int i = 0; i < 20; i++) {
+            eventManager.fireBeforeProcessingRecord(i);
+        }
+        eventManager.fireAfterBatchEnd();
+
+        assertThat(listener.records).hasSize(20);
+        for (int i = 0; i < 20; i++) {
+            assertThat(listener.records.get(i)).isEqualTo(i);
+        }
+        assertThat(listener.threads).doesNotContain(Thread.currentThread());
+        assertThat(eventManager.getDroppedEvents()).isEqualTo(0);
+    }
+
+    @Test
+    public void whenTheQueueIsFull_thenEventsShouldBeDroppedWithDropPolicy() throws Exception {
+        AsyncEventManager eventManager = new AsyncEventManager(localEventManager, 2, EventOverflowPolicy.DROP);
+        listener.latch = new CountDownLatch(1);
+
+        for (int i = 0; i < 10; i++) {
+            eventManager.fireBeforeProcessingRecord(i);
+        }
+        long dropped = eventManager.getDroppedEvents();
+        listener.latch.countDown();
+        eventManager.fireAfterBatchEnd();
+
+        assertThat(dropped).isGreaterThanOrEqualTo(7);
+        assertThat(listener.records).hasSize((int) (10 - dropped));
+    }
+
+    @Test
+    public void whenTheQueueIsFull_thenSomeEventsShouldBeDeliveredWithSamplePolicy() throws Exception {
+        AsyncEventManager eventManager = new AsyncEventManager(localEventManager, 1, EventOverflowPolicy.SAMPLE, 5);
+        listener.latch = new CountDownLatch(1);
+
+        for (int i = 0; i < 3; i++) {
+            eventManager.fireBeforeProcessingRecord(i);
+        }
+        listener.latch.countDown();
+        for (int i = 3; i < 100; i++) {
+            eventManager.fireBeforeProcessingRecord(i);
+        }
+        long dropped = eventManager.getDroppedEvents();
+        eventManager.fireAfterBatchEnd();
+
+        assertThat(dropped).isGreaterThan(0);
+        assertThat(listener.records).hasSize((int) (100 - dropped));
+    }
+
+    @Test
+    public void eventsWithoutListenersShouldNotBePublished() throws Exception {
+        AsyncEventManager eventManager = new AsyncEventManager(localEventManager, 1, EventOverflowPolicy.DROP);
+        listener.latch = new CountDownLatch(1);
+        eventManager.fireBeforeProcessingRecord(0);
+
+        for (int i = 0; i < 10; i++) {
+            eventManager.fireBeforeRecordRead();
+        }
+        listener.latch.countDown();
+        eventManager.fireAfterBatchEnd();
+
+        assertThat(eventManager.getDroppedEvents()).isEqualTo(0);
+    }
+
+    @Test(timeout = 30000)
+    public void eventsPublishedWhileFlushingShouldNotBeLost() throws Exception {
+        final AsyncEventManager eventManager = new AsyncEventManager(localEventManager, 16, EventOverflowPolicy.BLOCK);
+        final int events = 20000;
+        Thread publisher = new Thread(new Runnable() {
+            public void run() {
+                for (int i = 0; i < events; i++) {
+                    eventManager.fireBeforeProcessingRecord(i);
+                }
+            }
+        });
+
+        publisher.start();
+        while (publisher.isAlive()) {
+            eventManager.fireAfterBatchEnd();
+        }
+        publisher.join();
+        eventManager.fireAfterBatchEnd();
+
+        assertThat(listener.records).hasSize(events);
+    }
+
+    private static class RecordingListener implements RecordProcessorEventListener {
+
+        private final List<Object> records = Collections.synchronizedList(new ArrayList<Object>());
+
+        private final List<Thread> threads = Collections.synchronizedList(new ArrayList<Thread>());
+
+        private volatile CountDownLatch latch;
+
+        private volatile long delayInMillis;
+
+        public void beforeProcessingRecord(Object record) {
+            try {
+                if (latch != null) {
+                    latch.await();
+                }
+                Thread.sleep(delayInMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            records.add(record);
+            threads.add(Thread.currentThread());
+        }
+
+        public void afterProcessingRecord(Object record, Object processingResult) {
+        }
+
+        public void onRecordProcessingException(Object record, Throwable throwable) {
+        }
+    }
+
+}
@@ -3,7 +3,15 @@ package org.easybatch.core.impl;
 import org.easybatch.core.api.*;
 import org.easybatch.core.api.event.batch.BatchProcessEventListener;
 import org.easybatch.core.api.event.step.*;
+import org.easybatch.core.filter.RecordNumberBetweenFilter;
+import org.easybatch.core.filter.RecordNumberGreaterThanFilter;
+import org.easybatch.core.mapper.GenericRecordMapper;
+import org.easybatch.core.reader.ListRecordReader;
+import org.easybatch.core.record.GenericRecord;
 import org.easybatch.core.record.StringRecord;
+import org.easybatch.core.util.FilterStatistics;
+import org.easybatch.core.util.RateLimiter;
+import org.easybatch.core.util.RetryPolicy;
 import org.easybatch.core.util.Utils;
 import org.junit.Before;
 import org.junit.Test;
@@ -17,11 +25,18 @@ import javax.management.MBeanServer;
 import javax.management.MalformedObjectNameException;
 import javax.management.ObjectName;
 import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
 import static org.mockito.Mockito.*;
 
 /**
@@ -258,19 +273,64 @@ public class EngineTest {
 
     @Test
     public void whenEngineNameIsNotSpecified_thenTheJmxMBeanShouldBeRegisteredWithDefaultEngineName() throws MalformedObjectNameException {
-        engine = new EngineBuilder().enableJMX(true).build();
+        ObjectName name = new ObjectName(Utils.JMX_MBEAN_NAME + Utils.DEFAULT_ENGINE_NAME);
+        RegistrationProbe probe = new RegistrationProbe(name);
+        engine = new EngineBuilder()
+                .reader(new ListRecordReader<Integer>(integers(1)))
+                .processor(probe)
+                .enableJMX(true)
+                .build();
         engine.call();
-        MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
-        assertThat(mbs.isRegistered(new ObjectName(Utils.JMX_MBEAN_NAME + Utils.DEFAULT_ENGINE_NAME))).isTrue();
+        assertThat(probe.registered).isTrue();
     }
 
     @Test
     public void whenEngineNameIsSpecified_thenTheJmxMBeanShouldBeRegisteredWithEngineName() throws MalformedObjectNameException {
         String name = "master-engine";
-        engine = new EngineBuilder().enableJMX(true).withName(name).build();
+        RegistrationProbe probe = new RegistrationProbe(new ObjectName(Utils.JMX_MBEAN_NAME + name));
+        engine = new EngineBuilder()
+                .reader(new ListRecordReader<Integer>(integers(1)))
+                .processor(probe)
+                .enableJMX(true)
+                .withName(name)
+                .build();
+        engine.call();
+        assertThat(probe.registered).isTrue();
+    }
+
+    @Test
+    public void whenTheEngineCompletes_thenTheJmxMBeanShouldBeUnregistered() throws MalformedObjectNameException {
+        engine = new EngineBuilder().enableJMX(true).withName("completed-engine").build();
         engine.call();
         MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
-        assertThat(mbs.isRegistered(new ObjectName(Utils.JMX_MBEAN_NAME + name))).isTrue();
+        assertThat(mbs.isRegistered(new ObjectName(Utils.JMX_MBEAN_NAME + "completed-engine"))).isFalse();
+        assertThat(mbs.isRegistered(new ObjectName(Utils.JMX_REGISTRY_MBEAN_NAME))).isTrue();
+    }
+
+    @Test
+    public void whenEnginesWithTheSameNameRunConcurrently_thenEachJmxMBeanShouldHaveAUniqueName() throws MalformedObjectNameException {
+        String name = "partition-engine";
+        RegistrationProbe secondProbe = new RegistrationProbe(new ObjectName(Utils.JMX_MBEAN_NAME + name + ",instance=2"));
+        final Engine secondEngine = new EngineBuilder()
+                .reader(new ListRecordReader<Integer>(integers(1)))
+                .processor(secondProbe)
+                .enableJMX(true)
+                .withName(name)
+                .build();
+        engine = new EngineBuilder()
+                .reader(new ListRecordReader<Integer>(integers(1)))
+                .processor(new RecordProcessor<Object, Object>() {
+                    public Object processRecord(Object record) {
+                        // run the second engine while the first one is still registered
+                        secondEngine.call();
+                        return record;
+                    }
+                })
+                .enableJMX(true)
+                .withName(name)
+                .build();
+        engine.call();
+        assertThat(secondProbe.registered).isTrue();
     }
 
     /*
@@ -398,4 +458,1353 @@ public class EngineTest {
         verify(errorRecordHandler).handle(record1, exception);
     }
 
+    /*
+     * Parallel execution tests
+     */
+
+    @Test
+    public void whenParallelismIsSet_thenAllRecordsShouldBeProcessedByWorkers() {
+        final AtomicLong processed = new AtomicLong();
+        engine = new EngineBuilder()
+                .reader(new ListRecordReader<Integer>(integers(1000)))
+                .mapper(new GenericRecordMapper())
+                .processor(new RecordProcessor<Integer, Integer>() {
+                    public Integer processRecord(Integer record) {
+                        processed.incrementAndGet();
+                        return record;
+                    }
+                })
+                .parallelism(4)
+                .build();
+
+        Report report = engine.call();
+
+        assertThat(processed.get()).isEqualTo(1000);
+        assertThat(report.getSuccessRecordsCount()).isEqualTo(1000);
+        assertThat(report.getErrorRecordsCount()).isEqualTo(0);
+        assertThat(report.getTotalRecords()).isEqualTo(1000);
+        assertThat(report.getStatus()).isEqualTo(Status.FINISHED);
+    }
+
+    @Test
+    public void whenStrictModeIsEnabledInParallelMode_ThenTheEngineShouldAbortOnFirstProcessingException() {
+        engine = new EngineBuilder()
+                .reader(new ListRecordReader<Integer>(integers(1000)))
+                .mapper(new GenericRecordMapper())
+                .processor(new RecordProcessor<Integer, Integer>() {
+                    public Integer processRecord(Integer record) throws Exception {
+                        if (record == 10) {
+                            throw new Exception("error while processing record " + record);
+                        }
+                        return record;
+                    }
+                })
+                .errorRecordHandler(errorRecordHandler)
+                .strictMode(true)
+                .parallelism(4)
+                .build();
+
+        Report report = engine.call();
+
+        assertThat(report.getErrorRecordsCount()).isEqualTo(1);
+        assertThat(report.getSuccessRecordsCount()).isLessThan(1000);
+        assertThat(report.getStatus()).isEqualTo(Status.ABORTED);
+        verify(errorRecordHandler).handle(any(Record.class), any(Exception.class));
+    }
+
+    @Test
+    public void whenOrderIsPreservedInParallelMode_thenTheLastProcessorShouldReceiveRecordsInInputOrder() {
+        final List<Integer> processed = new ArrayList<Integer>();
+        engine = new EngineBuilder()
+                .reader(new ListRecordReader<Integer>(integers(200)))
+                .filter(new RecordFilter() {
+                    public boolean filterRecord(Record record) {
+                        return ((Integer) record.getPayload()) % 7 == 0;
+                    }
+                })
+                .mapper(new GenericRecordMapper())
+                .processor(new RecordProcessor<Integer, Integer>() {
+                    public Integer processRecord(Integer record) throws Exception {
+                        Thread.sleep(record % 3);
+                        return record;
+                    }
+                })
+                .processor(new RecordProcessor<Integer, Integer>() {
+                    public Integer processRecord(Integer record) {
+                        processed.add(record);
+                        return record;
+                    }
+                })
+                .parallelism(4)
+                .preserveOrder(8)
+                .build();
+
+        Report report = engine.call();
+
+        List<Integer> expected = new ArrayList<Integer>();
+        for (Integer integer : integers(200)) {
+            if (integer % 7 != 0) {
+                expected.add(integer);
+            }
+        }
+        assertThat(processed).isEqualTo(expected);
+        assertThat(report.getFilteredRecordsCount()).isEqualTo(28);
+        assertThat(report.getSuccessRecordsCount()).isEqualTo(172);
+        assertThat(report.getStatus()).isEqualTo(Status.FINISHED);
+    }
+
+    @Test
+    public void whenAsyncProcessingIsEnabled_thenAllRecordsShouldBeProcessedWithinTheConcurrencyLimit() {
+        final AtomicLong inFlight = new AtomicLong();
+        final AtomicLong maxInFlight = new AtomicLong();
+        engine = new EngineBuilder()
+                .reader(new ListRecordReader<Integer>(integers(100)))
+                .mapper(new GenericRecordMapper())
+                .processor(new RecordProcessor<Integer, Integer>() {
+                    public Integer processRecord(Integer record) throws Exception {
+                        long current = inFlight.incrementAndGet();
+                        synchronized (maxInFlight) {
+                            maxInFlight.set(Math.max(maxInFlight.get(), current));
+                        }
+                        Thread.sleep(2);
+                        inFlight.decrementAndGet();
+                        return record;
+                    }
+                })
+                .asyncProcessing(10)
+                .build();
+
+        Report report = engine.call();
+
+        assertThat(maxInFlight.get()).isLessThanOrEqualTo(10);
+        assertThat(report.getSuccessRecordsCount()).isEqualTo(100);
+        assertThat(report.getInFlightRecordsCount()).isEqualTo(0);
+        assertThat(report.getStatus()).isEqualTo(Status.FINISHED);
+    }
+
+    @Test
+    public void inParallelMode_whenAFilterThrowsAnUnexpectedException_thenTheEngineShouldAbort() {
+        engine = new EngineBuilder()
+                .reader(new ListRecordReader<Integer>(integers(100)))
+                .filter(new RecordFilter() {
+                    public boolean filterRecord(Record record) {
+                        if (record.getHeader().getNumber() == 10) {
+                            throw new IllegalStateException("unexpected failure on record 10");
+                        }
+                        return false;
+                    }
+                })
+                .parallelism(4)
+                .build();
+
+        Report report = engine.call();
+
+        assertThat(report.getStatus()).isEqualTo(Status.ABORTED);
+    }
+
+    @Test
+    public void inAsyncMode_whenAProcessorThrowsAnError_thenTheEngineShouldAbort() {
+        engine = new EngineBuilder()
+                .reader(new ListRecordReader<Integer>(integers(100)))
+                .processor(new RecordProcessor<Object, Object>() {
+                    public Object processRecord(Object record) {
+                        if (((Record) record).getHeader().getNumber() == 10) {
+                            throw new AssertionError("unexpected error on record 10");
+                        }
+                        return record;
+                    }
+                })
+                .asyncProcessing(4)
+                .build();
+
+        Report report = engine.call();
+
+        assertThat(report.getStatus()).isEqualTo(Status.ABORTED);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenParallelismIsLowerThanOne_thenTheEngineBuilderShouldRejectIt() {
+        new EngineBuilder().parallelism(0);
+    }
+
+    /*
+     * Staged pipeline tests
+     */
+
+    @Test
+    public void whenStagedPipelineIsEnabled_thenRecordsShouldFlowThroughAllStagesInOrder() {
+        final List<Integer> processed = new ArrayList<Integer>();
+        engine = new EngineBuilder()
+                .reader(new ListRecordReader<Integer>(integers(100)))
+                .mapper(new GenericRecordMapper())
+                .validator(new RecordValidator<Integer>() {
+                    public Set<ValidationError> validateRecord(Integer record) {
+                        Set<ValidationError> errors = new HashSet<ValidationError>();
+                        if (record % 10 == 0) {
+                            errors.add(new ValidationError("multiple of 10"));
+                        }
+                        return errors;
+                    }
+                })
+                .processor(new RecordProcessor<Integer, Integer>() {
+                    public Integer processRecord(Integer record) {
+                        return record * 2;
+                    }
+                })
+                .processor(new RecordProcessor<Integer, Integer>() {
+                    public Integer processRecord(Integer record) {
+                        processed.add(record);
+                        return record;
+                    }
+                })
+                .stagedPipeline(4)
+                .build();
+
+        Report report = engine.call();
+
+        assertThat(processed).hasSize(90);
+        assertThat(processed.get(0)).isEqualTo(2);
+        assertThat(processed.get(89)).isEqualTo(198);
+        assertThat(report.getRejectedRecordsCount()).isEqualTo(10);
+        assertThat(report.getSuccessRecordsCount()).isEqualTo(90);
+        assertThat(report.getStatus()).isEqualTo(Status.FINISHED);
+        assertThat(report.getStageQueueDepths()).containsKeys("filter-map", "validate", "processor-1", "processor-2");
+    }
+
+    @Test
+    public void whenStrictModeIsEnabledInStagedPipeline_ThenTheEngineShouldAbortOnFirstProcessingException() {
+        engine = new EngineBuilder()
+                .reader(new ListRecordReader<Integer>(integers(1000)))
+                .mapper(new GenericRecordMapper())
+                .processor(new RecordProcessor<Integer, Integer>() {
+                    public Integer processRecord(Integer record) throws Exception {
+                        if (record == 10) {
+                            throw new Exception("error while processing record " + record);
+                        }
+                        return record;
+                    }
+                })
+                .strictMode(true)
+                .stagedPipeline(4)
+                .build();
+
+        Report report = engine.call();
+
+        assertThat(report.getErrorRecordsCount()).isEqualTo(1);
+        assertThat(report.getSuccessRecordsCount()).isEqualTo(9);
+        assertThat(report.getStatus()).isEqualTo(Status.ABORTED);
+    }
+
+    @Test(timeout = 10000)
+    public void whenAStageFailsWithAnError_thenTheEngineShouldAbortInsteadOfHanging() {
+        engine = new EngineBuilder()
+                .reader(new ListRecordReader<Integer>(integers(1000)))
+                .mapper(new GenericRecordMapper())
+                .processor(new RecordProcessor<Integer, Integer>() {
+                    public Integer processRecord(Integer record) {
+                        if (record == 10) {
+                            throw new AssertionError("error while processing record " + record);
+                        }
+                        return record;
+                    }
+                })
+                .stagedPipeline(4)
+                .build();
+
+        Report report = engine.call();
+
+        assertThat(report.getStatus()).isEqualTo(Status.ABORTED);
+        assertThat(report.getSuccessRecordsCount()).isEqualTo(9);
+    }
+
+    /*
+     * Chunk processing tests
+     */
+
+    @Test
+    public void whenAChunkProcessorIsRegistered_thenRecordsShouldBeProcessedByChunks() {
+        final List<List<Integer>> chunks = new ArrayList<List<Integer>>();
+        engine = new EngineBuilder()
+                .reader(new ListRecordReader<Integer>(integers(5)))
+                .mapper(new GenericRecordMapper())
+                .chunkSize(2)
+                .chunkProcessor(new ChunkProcessor<Integer>() {
+                    public void processChunk(List<Integer> records) {
+                        chunks.add(records);
+                    }
+                })
+                .build();
+
+        Report report = engine.call();
+
+        assertThat(chunks).hasSize(3);
+        assertThat(chunks.get(0)).containsExactly(1, 2);
+        assertThat(chunks.get(1)).containsExactly(3, 4);
+        assertThat(chunks.get(2)).containsExactly(5);
+        assertThat(report.getSuccessRecordsCount()).isEqualTo(5);
+        assertThat(report.getStatus()).isEqualTo(Status.FINISHED);
+    }
+
+    @Test
+    public void whenStrictModeIsEnabled_ThenTheEngineShouldAbortOnFirstChunkProcessingException() {
+        engine = new EngineBuilder()
+                .reader(new ListRecordReader<Integer>(integers(5)))
+                .mapper(new GenericRecordMapper())
+                .chunkSize(2)
+                .chunkProcessor(new ChunkProcessor<Integer>() {
+                    public void processChunk(List<Integer> records) throws Exception {
+                        throw new Exception("error while processing chunk " + records);
+                    }
+                })
+                .strictMode(true)
+                .build();
+
+        Report report = engine.call();
+
+        assertThat(report.getErrorRecordsCount()).isEqualTo(2);
+        assertThat(report.getSuccessRecordsCount()).isEqualTo(0);
+        assertThat(report.getTotalRecords()).isEqualTo(2);
+        assertThat(report.getStatus()).isEqualTo(Status.ABORTED);
+    }
+
+    @Test
+    public void whenTheReaderFails_thenTheRecordsOfTheCurrentChunkShouldNotBeCarriedOverToTheNextExecution() {
+        final AtomicInteger reads = new AtomicInteger();
+        final List<List<Integer>> chunks = new ArrayList<List<Integer>>();
+        engine = new EngineBuilder()
+                .reader(new ListRecordReader<Integer>(integers(5)) {
+                    @Override
+                    public GenericRecord<Integer> readNextRecord() {
+                        if (reads.incrementAndGet() == 3) {
+                            throw new IllegalStateException("error while reading record 3");
+                        }
+                        return super.readNextRecord();
+                    }
+                })
+                .mapper(new GenericRecordMapper())
+                .chunkSize(5)
+                .chunkProcessor(new ChunkProcessor<Integer>() {
+                    public void processChunk(List<Integer> records) {
+                        chunks.add(records);
+                    }
+                })
+                .build();
+
+        Report report = engine.call();
+
+        assertThat(report.getStatus()).isEqualTo(Status.ABORTED);
+        assertThat(chunks).isEmpty();
+
+        report = engine.call();
+
+        assertThat(report.getStatus()).isEqualTo(Status.FINISHED);
+        assertThat(chunks).hasSize(1);
+        assertThat(chunks.get(0)).containsExactly(3, 4, 5);
+    }
+
+    /*
+     * Checkpoint tests
+     */
+
+    @Test
+    public void whenTheEngineIsAborted_thenItShouldRestartAfterTheLastCommittedRecord() {
+        InMemoryCheckpointStore checkpointStore = new InMemoryCheckpointStore();
+        final List<Integer> processed = new ArrayList<Integer>();
+        engine = new EngineBuilder()
+                .reader(new ListRecordReader<Integer>(integers(10)))
+                .mapper(new GenericRecordMapper())
+                .processor(new RecordProcessor<Integer, Integer>() {
+                    public Integer processRecord(Integer record) throws Exception {
+                        if (record == 6) {
+                            throw new Exception("error while processing record " + record);
+                        }
+                        processed.add(record);
+                        return record;
+                    }
+                })
+                .checkpointStore(checkpointStore, 2)
+                .strictMode(true)
+                .build();
+
+        Report report = engine.call();
+
+        assertThat(report.getStatus()).isEqualTo(Status.ABORTED);
+        assertThat(processed).containsExactly(1, 2, 3, 4, 5);
+        assertThat(checkpointStore.checkpoint.getRecordNumber()).isEqualTo(5);
+
+        processed.clear();
+        engine = new EngineBuilder()
+                .reader(new ListRecordReader<Integer>(integers(10)))
+                .mapper(new GenericRecordMapper())
+                .processor(new RecordProcessor<Integer, Integer>() {
+                    public Integer processRecord(Integer record) {
+                        processed.add(record);
+                        return record;
+                    }
+                })
+                .checkpointStore(checkpointStore, 2)
+                .build();
+
+        report = engine.call();
+
+        assertThat(report.getStatus()).isEqualTo(Status.FINISHED);
+        assertThat(report.getTotalRecords()).isEqualTo(5);
+        assertThat(processed).containsExactly(6, 7, 8, 9, 10);
+        assertThat(checkpointStore.checkpoint).isNull();
+    }
+
+    @Test
+    public void whenAnUnexpectedExceptionEscapesTheEngine_thenTheCheckpointShouldBeSaved() {
+        InMemoryCheckpointStore checkpointStore = new InMemoryCheckpointStore();
+        engine = new EngineBuilder()
+                .reader(new ListRecordReader<Integer>(integers(50)))
+                .filter(new RecordFilter() {
+                    public boolean filterRecord(Record record) {
+                        if (record.getHeader().getRecordNumber() == 30) {
+                            throw new IllegalStateException("unexpected failure on record 30");
+                        }
+                        return false;
+                    }
+                })
+                .mapper(new GenericRecordMapper())
+                .checkpointStore(checkpointStore, 5)
+                .build();
+
+        try {
+            engine.call();
+            fail("The unexpected exception should escape the engine");
+        } catch (IllegalStateException e) {
+            assertThat(e).hasMessage("unexpected failure on record 30");
+        }
+
+        assertThat(checkpointStore.checkpoint).isNotNull();
+        assertThat(checkpointStore.checkpoint.getRecordNumber()).isEqualTo(29);
+    }
+
+    @Test
+    public void inChunkMode_recordsShouldBeCommittedOnlyOnceTheirChunkIsProcessed() {
+        InMemoryCheckpointStore checkpointStore = new InMemoryCheckpointStore();
+        engine = new EngineBuilder()
+                .reader(new ListRecordReader<Integer>(integers(10)))
+                .mapper(new GenericRecordMapper())
+                .chunkSize(4)
+                .chunkProcessor(new ChunkProcessor<Integer>() {
+                    public void processChunk(List<Integer> records) throws Exception {
+                        if (records.contains(6)) {
+                            throw new Exception("error while processing chunk " + records);
+                        }
+                    }
+                })
+                .checkpointStore(checkpointStore, 1)
+                .strictMode(true)
+                .build();
+
+        Report report = engine.call();
+
+        assertThat(report.getStatus()).isEqualTo(Status.ABORTED);
+        assertThat(checkpointStore.checkpoint.getRecordNumber()).isEqualTo(4);
+    }
+
+    @Test
+    public void whenRecordsAreProcessedInParallel_thenTheCheckpointShouldNotSkipUnprocessedRecords() {
+        InMemoryCheckpointStore checkpointStore = new InMemoryCheckpointStore();
+        engine = new EngineBuilder()
+                .reader(new ListRecordReader<Integer>(integers(1000)))
+                .mapper(new GenericRecordMapper())
+                .processor(new RecordProcessor<Integer, Integer>() {
+                    public Integer processRecord(Integer record) throws Exception {
+                        if (record == 500) {
+                            throw new Exception("error while processing record " + record);
+                        }
+                        return record;
+                    }
+                })
+                .parallelism(4)
+                .checkpointStore(checkpointStore, 10)
+                .strictMode(true)
+                .build();
+
+        Report report = engine.call();
+
+        assertThat(report.getStatus()).isEqualTo(Status.ABORTED);
+        assertThat(checkpointStore.checkpoint.getRecordNumber()).isLessThan(500);
+    }
+
+    /*
+     * Stop, pause and resume tests
+     */
+
+    @Test
+    public void whenRecordsHaveNoNumber_thenTheCurrentRecordNumberShouldBeTheNumberOfReadRecords() throws Exception {
+        when(header1.getRecordNumber()).thenReturn(Long.MIN_VALUE);
+        when(header2.getRecordNumber()).thenReturn(Long.MIN_VALUE);
+
+        Report report = engine.call();
+
+        assertThat(report.getCurrentRecordNumber()).isEqualTo(2);
+    }
+
+    @Test
+    public void whenTheEngineIsStoppedBeforeItStarts_thenNoRecordShouldBeReadAndTheNextExecutionShouldRun() throws Exception {
+        RecordReader recordReader = spy(new ListRecordReader<Integer>(integers(5)));
+        engine = new EngineBuilder()
+                .reader(recordReader)
+                .mapper(new GenericRecordMapper())
+                .build();
+
+        engine.stop();
+        Report report = engine.call();
+
+        assertThat(report.getStatus()).isEqualTo(Status.STOPPED);
+        verify(recordReader, never()).readNextRecord();
+        verify(recordReader).close();
+
+        report = engine.call();
+
+        assertThat(report.getStatus()).isEqualTo(Status.FINISHED);
+        assertThat(report.getTotalRecords()).isEqualTo(5);
+    }
+
+    @Test
+    public void whenTheEngineIsStopped_thenItShouldCompleteCurrentRecordsAndResumeAfterThemNextTime() throws Exception {
+        InMemoryCheckpointStore checkpointStore = new InMemoryCheckpointStore();
+        final List<Integer> processed = new ArrayList<Integer>();
+        RecordReader recordReader = spy(new ListRecordReader<Integer>(integers(5)));
+        engine = new EngineBuilder()
+                .reader(recordReader)
+                .mapper(new GenericRecordMapper())
+                .processor(new RecordProcessor<Integer, Integer>() {
+                    public Integer processRecord(Integer record) {
+                        if (record == 3) {
+                            engine.stop();
+                        }
+                        processed.add(record);
+                        return record;
+                    }
+                })
+                .checkpointStore(checkpointStore, 1)
+                .build();
+
+        Report report = engine.call();
+
+        assertThat(report.getStatus()).isEqualTo(Status.STOPPED);
+        assertThat(report.getSuccessRecordsCount()).isEqualTo(3);
+        assertThat(processed).containsExactly(1, 2, 3);
+        verify(recordReader).close();
+        assertThat(checkpointStore.checkpoint.getRecordNumber()).isEqualTo(3);
+
+        processed.clear();
+        engine = new EngineBuilder()
+                .reader(new ListRecordReader<Integer>(integers(5)))
+                .mapper(new GenericRecordMapper())
+                .processor(new RecordProcessor<Integer, Integer>() {
+                    public Integer processRecord(Integer record) {
+                        processed.add(record);
+                        return record;
+                    }
+                })
+                .checkpointStore(checkpointStore, 1)
+                .build();
+
+        report = engine.call();
+
+        assertThat(report.getStatus()).isEqualTo(Status.FINISHED);
+        assertThat(processed).containsExactly(4, 5);
+    }
+
+    @Test
+    public void inChunkMode_whenTheEngineIsStopped_thenTheCurrentChunkShouldBeProcessed() {
+        final List<Integer> processed = new ArrayList<Integer>();
+        engine = new EngineBuilder()
+                .reader(new ListRecordReader<Integer>(integers(10)))
+                .mapper(new GenericRecordMapper())
+                .processor(new RecordProcessor<Integer, Integer>() {
+                    public Integer processRecord(Integer record) {
+                        if (record == 6) {
+                            engine.stop();
+                        }
+                        return record;
+                    }
+                })
+                .chunkSize(4)
+                .chunkProcessor(new ChunkProcessor<Integer>() {
+                    public void processChunk(List<Integer> records) {
+                        processed.addAll(records);
+                    }
+                })
+                .build();
+
+        Report report = engine.call();
+
+        assertThat(report.getStatus()).isEqualTo(Status.STOPPED);
+        assertThat(processed).containsExactly(1, 2, 3, 4, 5, 6);
+    }
+
+    @Test
+    public void whenTheEngineIsPaused_thenNoRecordShouldBeReadUntilItIsResumed() throws Exception {
+        final List<Integer> processed = Collections.synchronizedList(new ArrayList<Integer>());
+        engine = new EngineBuilder()
+                .reader(new ListRecordReader<Integer>(integers(5)))
+                .mapper(new GenericRecordMapper())
+                .processor(new RecordProcessor<Integer, Integer>() {
+                    public Integer processRecord(Integer record) {
+                        if (record == 2) {
+                            engine.pause();
+                        }
+                        processed.add(record);
+                        return record;
+                    }
+                })
+                .build();
+        final Report report = engine.getReport();
+
+        Thread resumer = new Thread(new Runnable() {
+            public void run() {
+                while (report.getStatus() != Status.PAUSED) {
+                    Thread.yield();
+                }
+                assertThat(processed).containsExactly(1, 2);
+                engine.resume();
+            }
+        });
+        resumer.start();
+        engine.call();
+        resumer.join();
+
+        assertThat(report.getStatus()).isEqualTo(Status.FINISHED);
+        assertThat(processed).containsExactly(1, 2, 3, 4, 5);
+    }
+
+    @Test
+    public void aPausedEngineShouldBeStoppable() throws Exception {
+        engine = new EngineBuilder()
+                .reader(new ListRecordReader<Integer>(integers(5)))
+                .mapper(new GenericRecordMapper())
+                .processor(new RecordProcessor<Integer, Integer>() {
+                    public Integer processRecord(Integer record) {
+                        if (record == 1) {
+                            engine.pause();
+                        }
+                        return record;
+                    }
+                })
+                .build();
+        final Report report = engine.getReport();
+
+        Thread stopper = new Thread(new Runnable() {
+            public void run() {
+                while (report.getStatus() != Status.PAUSED) {
+                    Thread.yield();
+                }
+                engine.stop();
+            }
+        });
+        stopper.start();
+        engine.call();
+        stopper.join();
+
+        assertThat(report.getStatus()).isEqualTo(Status.STOPPED);
+        assertThat(report.getSuccessRecordsCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void theEngineShouldBeStoppableThroughJmx() throws Exception {
+        final ObjectName name = new ObjectName(Utils.JMX_MBEAN_NAME + "stoppable-engine");
+        engine = new EngineBuilder()
+                .reader(new ListRecordReader<Integer>(integers(10)))
+                .mapper(new GenericRecordMapper())
+                .processor(new RecordProcessor<Integer, Integer>() {
+                    public Integer processRecord(Integer record) throws Exception {
+                        if (record == 2) {
+                            ManagementFactory.getPlatformMBeanServer().invoke(name, "stop", null, null);
+                        }
+                        return record;
+                    }
+                })
+                .enableJMX(true)
+                .withName("stoppable-engine")
+                .build();
+
+        Report report = engine.call();
+
+        assertThat(report.getStatus()).isEqualTo(Status.STOPPED);
+        assertThat(report.getSuccessRecordsCount()).isEqualTo(2);
+    }
+
+    /*
+     * Record timeout tests
+     */
+
+    @Test
+    public void whenARecordExceedsTheTimeout_thenItShouldBeInErrorAndTheNextRecordsShouldBeProcessed() throws Exception {
+        final List<Integer> processed = Collections.synchronizedList(new ArrayList<Integer>());
+        engine = new EngineBuilder()
+                .reader(new ListRecordReader<Integer>(integers(5)))
+                .mapper(new GenericRecordMapper())
+                .processor(new RecordProcessor<Integer, Integer>() {
+                    public Integer processRecord(Integer record) throws Exception {
+                        if (record == 2) {
+                            Thread.sleep(60000);
+                        }
+                        processed.add(record);
+                        return record;
+                    }
+                })
+                .errorRecordHandler(errorRecordHandler)
+                .recordTimeout(100, TimeUnit.MILLISECONDS)
+                .build();
+
+        Report report = engine.call();
+
+        assertThat(report.getStatus()).isEqualTo(Status.FINISHED);
+        assertThat(processed).containsExactly(1, 3, 4, 5);
+        assertThat(report.getSuccessRecordsCount()).isEqualTo(4);
+        assertThat(report.getErrorRecordsCount()).isEqualTo(1);
+        assertThat(report.getSlowRecordsCount()).isEqualTo(1);
+        verify(errorRecordHandler).handle(any(Record.class), isA(RecordProcessingTimeoutException.class));
+    }
+
+    @Test
+    public void withARecordTimeoutAndNoParallelism_thenRecordsShouldBeReadOneAtATime() throws Exception {
+        final AtomicInteger readRecords = new AtomicInteger();
+        final List<Integer> readAheadRecords = Collections.synchronizedList(new ArrayList<Integer>());
+        engine = new EngineBuilder()
+                .reader(new ListRecordReader<Integer>(integers(20)) {
+                    @Override
+                    public GenericRecord<Integer> readNextRecord() {
+                        readRecords.incrementAndGet();
+                        return super.readNextRecord();
+                    }
+                })
+                .mapper(new GenericRecordMapper())
+                .processor(new RecordProcessor<Integer, Integer>() {
+                    public Integer processRecord(Integer record) throws Exception {
+                        Thread.sleep(record == 2 ? 60000 : 5);
+                        if (readRecords.get() != record) {
+                            readAheadRecords.add(record);
+                        }
+                        return record;
+                    }
+                })
+                .recordTimeout(100, TimeUnit.MILLISECONDS)
+                .build();
+
+        Report report = engine.call();
+
+        assertThat(report.getStatus()).isEqualTo(Status.FINISHED);
+        assertThat(report.getSuccessRecordsCount()).isEqualTo(19);
+        assertThat(report.getSlowRecordsCount()).isEqualTo(1);
+        assertThat(readAheadRecords).isEmpty();
+    }
+
+    @Test
+    public void inParallelMode_aWorkerStuckOnARecordShouldBeReplaced() throws Exception {
+        final CountDownLatch unblock = new CountDownLatch(1);
+        final AtomicInteger processed = new AtomicInteger();
+        engine = new EngineBuilder()
+                .reader(new ListRecordReader<Integer>(integers(100)))
+                .mapper(new GenericRecordMapper())
+                .processor(new RecordProcessor<Integer, Integer>() {
+                    public Integer processRecord(Integer record) {
+                        if (record == 1 || record == 2) {
+                            // ignore interruptions, like a thread stuck in a socket read
+                            boolean released = false;
+                            while (!released) {
+                                try {
+                                    released = unblock.await(10, TimeUnit.SECONDS);
+                                } catch (InterruptedException e) {
+                                    // keep waiting
+                                }
+                            }
+                        }
+                        processed.incrementAndGet();
+                        return record;
+                    }
+                })
+                .parallelism(2)
+                .recordTimeout(100, TimeUnit.MILLISECONDS)
+                .build();
+
+        Report report = engine.call();
+        unblock.countDown();
+
+        assertThat(report.getStatus()).isEqualTo(Status.FINISHED);
+        assertThat(report.getSlowRecordsCount()).isEqualTo(2);
+        assertThat(report.getErrorRecordsCount()).isEqualTo(2);
+        assertThat(report.getSuccessRecordsCount()).isEqualTo(98);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenRecordTimeoutIsLowerThanOneMillisecond_thenTheBuilderShouldRejectIt() {
+        new EngineBuilder().recordTimeout(100, TimeUnit.MICROSECONDS);
+    }
+
+    /*
+     * Asynchronous event delivery tests
+     */
+
+    @Test
+    public void whenEventsAreDeliveredAsynchronously_thenAllEventsShouldBeDeliveredWhenTheEngineReturns() {
+        final List<Object> processedRecords = Collections.synchronizedList(new ArrayList<Object>());
+        engine = new EngineBuilder()
+                .reader(new ListRecordReader<Integer>(integers(100)))
+                .mapper(new GenericRecordMapper())
+                .recordProcessorEventListener(new RecordProcessorEventListener() {
+                    public void beforeProcessingRecord(Object record) {
+                    }
+
+                    public void afterProcessingRecord(Object record, Object processingResult) {
+                        processedRecords.add(record);
+                    }
+
+                    public void onRecordProcessingException(Object record, Throwable throwable) {
+                    }
+                })
+                .asyncEventDelivery(10, EventOverflowPolicy.BLOCK)
+                .build();
+
+        Report report = engine.call();
+
+        assertThat(report.getStatus()).isEqualTo(Status.FINISHED);
+        assertThat(processedRecords).isEqualTo(new ArrayList<Object>(integers(100)));
+    }
+
+    /*
+     * Latency sampling tests
+     */
+
+    @Test
+    public void latenciesShouldBeMeasuredForOneRecordOutOfSamplingRate() {
+        engine = new EngineBuilder()
+                .reader(new ListRecordReader<Integer>(integers(100)))
+                .mapper(new GenericRecordMapper())
+                .latencySampling(10)
+                .build();
+
+        Report report = engine.call();
+
+        assertThat(report.getLatencyHistograms().keySet()).containsExactly(Step.values());
+        for (Step step : Step.values()) {
+            assertThat(report.getLatencyHistogram(step).getCount()).isEqualTo(10);
+        }
+    }
+
+    @Test
+    public void theReadLatencyShouldBeSampledByRecordNumberLikeOtherSteps() {
+        engine = new EngineBuilder()
+                .reader(new ListRecordReader<Integer>(integers(100)) {
+                    @Override
+                    public GenericRecord<Integer> readNextRecord() {
+                        GenericRecord<Integer> record = super.readNextRecord();
+                        return new GenericRecord<Integer>(new Header(record.getHeader().getRecordNumber() * 5, "test", 0L), record.getPayload());
+                    }
+                })
+                .mapper(new GenericRecordMapper())
+                .latencySampling(10)
+                .build();
+
+        Report report = engine.call();
+
+        for (Step step : Step.values()) {
+            assertThat(report.getLatencyHistogram(step).getCount()).isEqualTo(50);
+        }
+    }
+
+    @Test
+    public void inAStagedPipeline_theProcessingLatencyShouldBeMeasuredOncePerRecord() {
+        engine = new EngineBuilder()
+                .reader(new ListRecordReader<Integer>(integers(100)))
+                .mapper(new GenericRecordMapper())
+                .processor(new NoOpRecordProcessor())
+                .processor(new NoOpRecordProcessor())
+                .stagedPipeline(10)
+                .latencySampling(1)
+                .build();
+
+        Report report = engine.call();
+
+        assertThat(report.getLatencyHistogram(Step.PROCESS).getCount()).isEqualTo(100);
+    }
+
+    @Test
+    public void whenLatencySamplingIsDisabled_thenNoLatencyShouldBeMeasured() {
+        engine = new EngineBuilder()
+                .reader(new ListRecordReader<Integer>(integers(100)))
+                .latencySampling(0)
+                .build();
+
+        Report report = engine.call();
+
+        assertThat(report.getLatencyHistograms()).isEmpty();
+        assertThat(report.getFormattedLatencies()).isEqualTo("N/A");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenLatencySamplingRateIsNegative_thenTheBuilderShouldRejectIt() {
+        new EngineBuilder().latencySampling(-1);
+    }
+
+    /*
+     * Rate limiting tests
+     */
+
+    @Test
+    public void whenRateLimited_thenRecordsShouldNotBeHandledFasterThanTheRateLimit() {
+        engine = new EngineBuilder()
+                .reader(new ListRecordReader<Integer>(integers(21)))
+                .parallelism(4)
+                .rateLimit(100)
+                .build();
+
+        long startTime = System.nanoTime();
+        Report report = engine.call();
+        long duration = System.nanoTime() - startTime;
+
+        assertThat(report.getSuccessRecordsCount()).isEqualTo(21);
+        assertThat(duration).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(200));
+        assertThat(report.getRateLimiters()).containsOnlyKeys("engine");
+        assertThat(report.getRateLimiters().get("engine").getAcquiredPermits()).isEqualTo(21);
+    }
+
+    @Test
+    public void rateLimitedProcessorsShouldBeThrottledWhateverTheParallelism() {
+        RateLimiter rateLimiter = new RateLimiter(100);
+        engine = new EngineBuilder()
+                .reader(new ListRecordReader<Integer>(integers(21)))
+                .processor(new NoOpRecordProcessor(), rateLimiter)
+                .parallelism(4)
+                .build();
+
+        long startTime = System.nanoTime();
+        Report report = engine.call();
+        long duration = System.nanoTime() - startTime;
+
+        assertThat(report.getSuccessRecordsCount()).isEqualTo(21);
+        assertThat(duration).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(200));
+        assertThat(rateLimiter.getAcquiredPermits()).isEqualTo(21);
+        assertThat(report.getRateLimiters()).containsOnlyKeys("processor NoOpRecordProcessor");
+        assertThat(report.getFormattedRateLimits()).startsWith("processor NoOpRecordProcessor: ");
+    }
+
+    @Test
+    public void whenNotRateLimited_thenNoRateLimitShouldBeReported() {
+        engine = new EngineBuilder()
+                .reader(new ListRecordReader<Integer>(integers(10)))
+                .build();
+
+        Report report = engine.call();
+
+        assertThat(report.getRateLimiters()).isEmpty();
+        assertThat(report.getFormattedRateLimits()).isEqualTo("N/A");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenRateLimitIsNotPositive_thenTheBuilderShouldRejectIt() {
+        new EngineBuilder().rateLimit(-1);
+    }
+
+    /*
+     * Retry tests
+     */
+
+    @Test
+    public void inParallelMode_recordsFailingTransientlyShouldBeRetried() {
+        engine = new EngineBuilder()
+                .reader(new ListRecordReader<Integer>(integers(50)))
+                .processor(new FailingOnFirstAttemptProcessor(), new RetryPolicy(3, 1, TimeUnit.MILLISECONDS))
+                .parallelism(4)
+                .build();
+
+        Report report = engine.call();
+
+        assertThat(report.getSuccessRecordsCount()).isEqualTo(50);
+        assertThat(report.getErrorRecordsCount()).isEqualTo(0);
+        assertThat(report.getRetriesCount()).isEqualTo(50);
+    }
+
+    @Test
+    public void whenRetriesAreExhausted_thenRecordsShouldBeInError() {
+        engine = new EngineBuilder()
+                .reader(new ListRecordReader<Integer>(integers(10)))
+                .processor(new FailingOnFirstAttemptProcessor(), new RetryPolicy(1, 1, TimeUnit.MILLISECONDS))
+                .build();
+
+        Report report = engine.call();
+
+        assertThat(report.getSuccessRecordsCount()).isEqualTo(0);
+        assertThat(report.getErrorRecordsCount()).isEqualTo(10);
+        assertThat(report.getRetriesCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void withAdaptiveConcurrency_recordsWaitingToBeRetriedShouldNotHoldAWorker() {
+        final AtomicLong failingThread = new AtomicLong(-1);
+        final CountDownLatch retried = new CountDownLatch(1);
+        final AtomicInteger recordsProcessedByTheFailingThread = new AtomicInteger();
+        engine = new EngineBuilder()
+                .reader(new ListRecordReader<Integer>(integers(20)))
+                .processor(new RecordProcessor<Record, Record>() {
+                    public Record processRecord(Record record) throws Exception {
+                        long thread = Thread.currentThread().getId();
+                        if (record.getHeader().getNumber() == 1) {
+                            if (failingThread.compareAndSet(-1, thread)) {
+                                throw new Exception("Transient failure on record " + record);
+                            }
+                            retried.countDown();
+                        } else {
+                            if (retried.getCount() > 0 && thread == failingThread.get()) {
+                                recordsProcessedByTheFailingThread.incrementAndGet();
+                            }
+                            Thread.sleep(5);
+                        }
+                        return record;
+                    }
+                }, new RetryPolicy(2, 300, TimeUnit.MILLISECONDS))
+                .parallelism(2)
+                .adaptiveConcurrency(2)
+                .build();
+
+        Report report = engine.call();
+
+        assertThat(report.getSuccessRecordsCount()).isEqualTo(20);
+        assertThat(report.getRetriesCount()).isEqualTo(1);
+        assertThat(report.getConcurrencyLimiter().getInFlight()).isEqualTo(0);
+        assertThat(recordsProcessedByTheFailingThread.get()).isGreaterThan(0);
+    }
+
+    /*
+     * Adaptive concurrency tests
+     */
+
+    @Test
+    public void withAdaptiveConcurrency_recordsShouldBeProcessedWithinTheConcurrencyLimit() {
+        final AtomicInteger concurrency = new AtomicInteger();
+        final AtomicInteger maxConcurrency = new AtomicInteger();
+        engine = new EngineBuilder()
+                .reader(new ListRecordReader<Integer>(integers(200)))
+                .processor(new RecordProcessor<Object, Object>() {
+                    public Object processRecord(Object record) throws Exception {
+                        int current = concurrency.incrementAndGet();
+                        synchronized (maxConcurrency) {
+                            maxConcurrency.set(Math.max(maxConcurrency.get(), current));
+                        }
+                        Thread.sleep(1);
+                        concurrency.decrementAndGet();
+                        return record;
+                    }
+                })
+                .parallelism(8)
+                .adaptiveConcurrency(2)
+                .build();
+
+        Report report = engine.call();
+
+        assertThat(report.getSuccessRecordsCount()).isEqualTo(200);
+        assertThat(report.getConcurrencyLimiter()).isNotNull();
+        assertThat(report.getConcurrencyLimiter().getLimit()).isBetween(2, 8);
+        assertThat(report.getConcurrencyLimiter().getInFlight()).isEqualTo(0);
+        assertThat(maxConcurrency.get()).isLessThanOrEqualTo(8);
+    }
+
+    @Test
+    public void inAsyncMode_adaptiveConcurrencyShouldBeBoundedByTheMaxConcurrency() {
+        engine = new EngineBuilder()
+                .reader(new ListRecordReader<Integer>(integers(100)))
+                .asyncProcessing(4)
+                .adaptiveConcurrency(10)
+                .build();
+
+        Report report = engine.call();
+
+        assertThat(report.getSuccessRecordsCount()).isEqualTo(100);
+        assertThat(report.getConcurrencyLimiter().getMinLimit()).isEqualTo(4);
+        assertThat(report.getConcurrencyLimiter().getMaxLimit()).isEqualTo(4);
+    }
+
+    @Test
+    public void withoutParallelism_adaptiveConcurrencyShouldBeIgnored() {
+        engine = new EngineBuilder()
+                .reader(new ListRecordReader<Integer>(integers(10)))
+                .adaptiveConcurrency(1)
+                .build();
+
+        Report report = engine.call();
+
+        assertThat(report.getSuccessRecordsCount()).isEqualTo(10);
+        assertThat(report.getConcurrencyLimiter()).isNull();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenMinConcurrencyIsLowerThanOne_thenTheBuilderShouldRejectIt() {
+        new EngineBuilder().adaptiveConcurrency(0);
+    }
+
+    /*
+     * Record number filters push down tests
+     */
+
+    @Test
+    public void recordsFilteredByRecordNumberShouldBeSkippedByTheReader() throws Exception {
+        final List<Integer> processed = new ArrayList<Integer>();
+        ListRecordReader<Integer> recordReader = spy(new ListRecordReader<Integer>(integers(10)));
+        engine = new EngineBuilder()
+                .reader(recordReader)
+                .filter(new RecordNumberBetweenFilter(2, 5))
+                .mapper(new GenericRecordMapper())
+                .processor(new RecordProcessor<Integer, Integer>() {
+                    public Integer processRecord(Integer record) {
+                        processed.add(record);
+                        return record;
+                    }
+                })
+                .build();
+
+        Report report = engine.call();
+
+        assertThat(processed).containsExactly(1, 6, 7, 8, 9, 10);
+        verify(recordReader).skip(4);
+        verify(recordReader, times(6)).readNextRecord();
+        assertThat(report.getFilteredRecordsCount()).isEqualTo(4);
+        assertThat(report.getTotalRecords()).isEqualTo(10);
+        assertThat(report.getStatus()).isEqualTo(Status.FINISHED);
+    }
+
+    @Test
+    public void whenRecordNumberFiltersFilterAllRemainingRecords_thenTheReaderShouldNotBeReadFurther() throws Exception {
+        ListRecordReader<Integer> recordReader = spy(new ListRecordReader<Integer>(integers(10)));
+        engine = new EngineBuilder()
+                .reader(recordReader)
+                .filter(new RecordNumberGreaterThanFilter(3))
+                .mapper(new GenericRecordMapper())
+                .build();
+
+        Report report = engine.call();
+
+        verify(recordReader, times(3)).readNextRecord();
+        assertThat(report.getSuccessRecordsCount()).isEqualTo(3);
+        assertThat(report.getTotalRecords()).isEqualTo(3);
+        assertThat(report.getStatus()).isEqualTo(Status.FINISHED);
+    }
+
+    @Test
+    public void withAFilteredRecordHandler_recordNumberFiltersShouldNotBePushedDown() throws Exception {
+        ListRecordReader<Integer> recordReader = spy(new ListRecordReader<Integer>(integers(10)));
+        engine = new EngineBuilder()
+                .reader(recordReader)
+                .filter(new RecordNumberBetweenFilter(2, 5))
+                .filteredRecordHandler(filteredRecordHandler)
+                .mapper(new GenericRecordMapper())
+                .build();
+
+        Report report = engine.call();
+
+        verify(recordReader, never()).skip(anyLong());
+        verify(filteredRecordHandler, times(4)).handle(any(Record.class));
+        assertThat(report.getFilteredRecordsCount()).isEqualTo(4);
+    }
+
+    @Test
+    public void withARecordFilterListener_recordNumberFiltersShouldNotBePushedDown() throws Exception {
+        ListRecordReader<Integer> recordReader = spy(new ListRecordReader<Integer>(integers(10)));
+        engine = new EngineBuilder()
+                .reader(recordReader)
+                .filter(new RecordNumberBetweenFilter(2, 5))
+                .recordFilterEventListener(recordFilterEventListener)
+                .mapper(new GenericRecordMapper())
+                .build();
+
+        Report report = engine.call();
+
+        verify(recordReader, never()).skip(anyLong());
+        verify(recordFilterEventListener, times(10)).beforeFilterRecord(any(Record.class));
+        assertThat(report.getFilteredRecordsCount()).isEqualTo(4);
+    }
+
+    @Test
+    public void subclassesOfRecordNumberFiltersShouldNotBePushedDown() throws Exception {
+        final List<Integer> processed = new ArrayList<Integer>();
+        ListRecordReader<Integer> recordReader = spy(new ListRecordReader<Integer>(integers(10)));
+        engine = new EngineBuilder()
+                .reader(recordReader)
+                .filter(new RecordNumberBetweenFilter(2, 5) {
+                    @Override
+                    public boolean filterRecord(Record record) {
+                        return record.getHeader().getRecordNumber() == lowerBound;
+                    }
+                })
+                .mapper(new GenericRecordMapper())
+                .processor(new RecordProcessor<Integer, Integer>() {
+                    public Integer processRecord(Integer record) {
+                        processed.add(record);
+                        return record;
+                    }
+                })
+                .build();
+
+        engine.call();
+
+        verify(recordReader, never()).skip(anyLong());
+        assertThat(processed).containsExactly(1, 3, 4, 5, 6, 7, 8, 9, 10);
+    }
+
+    @Test
+    public void whenRecordNumbersDoNotMatchTheirPosition_thenRecordsShouldNotBeSkipped() throws Exception {
+        final List<Long> processed = new ArrayList<Long>();
+        ListRecordReader<Integer> recordReader = spy(new ListRecordReader<Integer>(integers(10)) {
+            @Override
+            public GenericRecord<Integer> readNextRecord() {
+                GenericRecord<Integer> record = super.readNextRecord();
+                return new GenericRecord<Integer>(new Header(record.getHeader().getRecordNumber() * 10, "test", 0L), record.getPayload());
+            }
+        });
+        engine = new EngineBuilder()
+                .reader(recordReader)
+                .filter(new RecordNumberBetweenFilter(25, 45))
+                .processor(new RecordProcessor<Record, Record>() {
+                    public Record processRecord(Record record) {
+                        processed.add(record.getHeader().getNumber());
+                        return record;
+                    }
+                })
+                .build();
+
+        Report report = engine.call();
+
+        verify(recordReader, never()).skip(anyLong());
+        assertThat(processed).containsExactly(10L, 20L, 50L, 60L, 70L, 80L, 90L, 100L);
+        assertThat(report.getFilteredRecordsCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void whenTheReaderIsNotRestartable_thenRecordsBeforeTheCheckpointShouldBeSkipped() throws Exception {
+        InMemoryCheckpointStore checkpointStore = new InMemoryCheckpointStore();
+        checkpointStore.save(new Checkpoint(4, Checkpoint.NO_POSITION));
+        final List<Integer> processed = new ArrayList<Integer>();
+        ListRecordReader<Integer> recordReader = spy(new ListRecordReader<Integer>(integers(6)));
+        engine = new EngineBuilder()
+                .reader(recordReader)
+                .mapper(new GenericRecordMapper())
+                .processor(new RecordProcessor<Integer, Integer>() {
+                    public Integer processRecord(Integer record) {
+                        processed.add(record);
+                        return record;
+                    }
+                })
+                .checkpointStore(checkpointStore, 1)
+                .build();
+
+        engine.call();
+
+        verify(recordReader).skip(4);
+        verify(recordReader, times(2)).readNextRecord();
+        assertThat(processed).containsExactly(5, 6);
+    }
+
+    /*
+     * Adaptive filter ordering tests
+     */
+
+    @Test
+    public void withAdaptiveFilterOrdering_filterStatisticsShouldBeReported() {
+        engine = new EngineBuilder()
+                .reader(new ListRecordReader<Integer>(integers(100)))
+                .filter(new RecordFilter() {
+                    public boolean filterRecord(Record record) {
+                        return false;
+                    }
+                })
+                .filter(new EvenNumberFilter())
+                .adaptiveFilterOrdering(1)
+                .mapper(new GenericRecordMapper())
+                .build();
+
+        Report report = engine.call();
+
+        assertThat(report.getFilteredRecordsCount()).isEqualTo(50);
+        assertThat(report.getSuccessRecordsCount()).isEqualTo(50);
+        List<FilterStatistics> filterStatistics = report.getFilterStatistics();
+        assertThat(filterStatistics).hasSize(2);
+        assertThat(filterStatistics.get(1).getName()).isEqualTo("EvenNumberFilter");
+        assertThat(filterStatistics.get(1).getRejectionRate()).isEqualTo(0.5);
+        assertThat(filterStatistics.get(1).getPosition()).isEqualTo(1);
+        assertThat(report.toString()).contains("#1 EvenNumberFilter: 50.0% rejected");
+    }
+
+    @Test
+    public void withoutAdaptiveFilterOrdering_noFilterStatisticsShouldBeReported() {
+        engine = new EngineBuilder()
+                .reader(new ListRecordReader<Integer>(integers(10)))
+                .filter(new RecordNumberBetweenFilter(1, 5))
+                .build();
+
+        Report report = engine.call();
+
+        assertThat(report.getFilterStatistics()).isEmpty();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenFilterSamplingRateIsNotPositive_thenTheBuilderShouldRejectIt() {
+        new EngineBuilder().adaptiveFilterOrdering(0);
+    }
+
+    private static class EvenNumberFilter implements RecordFilter {
+
+        public boolean filterRecord(Record record) {
+            return (Integer) record.getPayload() % 2 == 0;
+        }
+    }
+
+    private static class FailingOnFirstAttemptProcessor implements RecordProcessor<Object, Object> {
+
+        private final Set<Object> failedRecords = Collections.synchronizedSet(new HashSet<Object>());
+
+        public Object processRecord(Object record) throws Exception {
+            if (failedRecords.add(record)) {
+                throw new Exception("Transient failure on record " + record);
+            }
+            return record;
+        }
+    }
+
+    private static class RegistrationProbe implements RecordProcessor<Object, Object> {
+
+        private final ObjectName name;
+
+        private boolean registered;
+
+        RegistrationProbe(ObjectName name) {
+            this.name = name;
+        }
+
+        public Object processRecord(Object record) {
+            registered = ManagementFactory.getPlatformMBeanServer().isRegistered(name);
+            return record;
+        }
+    }
+
+    private static class InMemoryCheckpointStore implements CheckpointStore {
+
+        private Checkpoint checkpoint;
+
+        public Checkpoint load() {
+            return checkpoint;
+        }
+
+        public void save(Checkpoint checkpoint) {
+            this.checkpoint = checkpoint;
+        }
+
+        public void clear() {
+            checkpoint = null;
+        }
+    }
+
+    private List<Integer> integers(int count) {
+        List<Integer> integers = new ArrayList<Integer>();
+        for (int i = 1; i <= count; i++) {
+            integers.add(i);
+        }
+        return integers;
+    }
+
 }
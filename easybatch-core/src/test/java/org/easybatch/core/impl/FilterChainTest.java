@@ -1,8 +1,15 @@
 package org.easybatch.core.impl;
 
 import org.easybatch.core.api.EventManager;
+import org.easybatch.core.api.Header;
 import org.easybatch.core.api.Record;
 import org.easybatch.core.api.RecordFilter;
+import org.easybatch.core.api.RecordNumberFilter;
+import org.easybatch.core.filter.RecordNumberBetweenFilter;
+import org.easybatch.core.filter.RecordNumberGreaterThanFilter;
+import org.easybatch.core.filter.RecordNumberLowerThanFilter;
+import org.easybatch.core.record.StringRecord;
+import org.easybatch.core.util.FilterStatistics;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
@@ -10,6 +17,7 @@ import org.mockito.runners.MockitoJUnitRunner;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.verifyZeroInteractions;
@@ -70,4 +78,89 @@ public class FilterChainTest {
 
         assertThat(filterChain.filterRecord(record)).isTrue();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void theNextAcceptedRecordNumberShouldBeAcceptedByAllRecordNumberFilters() throws Exception {
+
+        filterChain = new FilterChain(Arrays.<RecordFilter>asList(filter1,
+                new RecordNumberLowerThanFilter(3),
+                new RecordNumberBetweenFilter(3, 5),
+                new RecordNumberBetweenFilter(7, 8)), eventManager);
+
+        assertThat(filterChain.hasRecordNumberFilters()).isTrue();
+        assertThat(filterChain.nextAcceptedRecordNumber(1)).isEqualTo(6);
+        assertThat(filterChain.nextAcceptedRecordNumber(7)).isEqualTo(9);
+        verifyZeroInteractions(filter1);
+    }
+
+    @Test
+    public void whenARecordNumberFilterFiltersAllRemainingRecords_thenNoMoreRecordsShouldBeAccepted() throws Exception {
+
+        filterChain = new FilterChain(Arrays.<RecordFilter>asList(
+                new RecordNumberBetweenFilter(1, 2),
+                new RecordNumberGreaterThanFilter(2)), eventManager);
+
+        assertThat(filterChain.nextAcceptedRecordNumber(1)).isEqualTo(RecordNumberFilter.NO_MORE_RECORDS);
+    }
+
+    @Test
+    public void withoutRecordNumberFilters_thenTheChainShouldNotReportRecordNumberFilters() throws Exception {
+
+        filterChain = new FilterChain(Arrays.asList(filter1, filter2), eventManager);
+
+        assertThat(filterChain.hasRecordNumberFilters()).isFalse();
+    }
+
+    @Test
+    public void inAdaptiveMode_filtersRejectingMoreRecordsShouldBeMovedFirst() throws Exception {
+
+        CountingFilter neverRejecting = new CountingFilter(false);
+        CountingFilter alwaysRejecting = new CountingFilter(true);
+        filterChain = new FilterChain(Arrays.<RecordFilter>asList(new NoOpRecordFilter(), neverRejecting, alwaysRejecting), eventManager);
+        filterChain.setAdaptive(2);
+        List<FilterStatistics> statistics = filterChain.resetStatistics();
+
+        assertThat(statistics).hasSize(2);
+        assertThat(statistics.get(0).getPosition()).isEqualTo(1);
+        for (int i = 1; i <= 2 * FilterChain.REORDERING_INTERVAL; i++) {
+            assertThat(filterChain.filterRecord(record(i))).isTrue();
+        }
+        assertThat(statistics.get(0).getSampledRecords()).isEqualTo(FilterChain.REORDERING_INTERVAL);
+        assertThat(statistics.get(0).getRejectionRate()).isEqualTo(0);
+        assertThat(statistics.get(1).getRejectionRate()).isEqualTo(1);
+        assertThat(statistics.get(0).getPosition()).isEqualTo(2);
+        assertThat(statistics.get(1).getPosition()).isEqualTo(1);
+
+        neverRejecting.evaluations = 0;
+        assertThat(filterChain.filterRecord(record(2 * FilterChain.REORDERING_INTERVAL + 1))).isTrue();
+        assertThat(neverRejecting.evaluations).isEqualTo(0);
+    }
+
+    @Test
+    public void whenTheChainIsNotAdaptive_thenNoStatisticsShouldBeCollected() throws Exception {
+
+        filterChain = new FilterChain(Arrays.asList(filter1, filter2), eventManager);
+
+        assertThat(filterChain.resetStatistics()).isEmpty();
+    }
+
+    private Record record(long number) {
+        return new StringRecord(new Header(number, "test", 0), "record " + number);
+    }
+
+    private static class CountingFilter implements RecordFilter {
+
+        private final boolean rejecting;
+
+        private int evaluations;
+
+        CountingFilter(boolean rejecting) {
+            this.rejecting = rejecting;
+        }
+
+        public boolean filterRecord(Record record) {
+            evaluations++;
+            return rejecting;
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package org.easybatch.core.impl;
 
 import org.easybatch.core.api.*;
+import org.easybatch.core.record.GenericRecord;
+import org.easybatch.core.util.RetryPolicy;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InOrder;
@@ -8,10 +10,12 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
 import static java.util.Arrays.asList;
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.Mockito.inOrder;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 /**
  * Test class for {@link ProcessingPipeline}.
@@ -48,6 +52,9 @@ public class ProcessingPipelineTest {
     @Mock
     private ComputationalRecordProcessor computationalRecordProcessor;
 
+    @Mock
+    private ChunkProcessor chunkProcessor;
+
     private ProcessingPipeline processingPipeline;
 
     @Test
@@ -104,4 +111,129 @@ public class ProcessingPipelineTest {
 
         assertThat(processingPipeline.getLastProcessor()).isEqualTo(computationalRecordProcessor);
     }
-}
\ No newline at end of file
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void whenChunkIsFull_thenTheChunkProcessorShouldBeInvoked() throws Exception {
+        processingPipeline = new ProcessingPipeline(asList(recordProcessor), errorRecordHandler, report, eventManager);
+        processingPipeline.setChunkProcessor(chunkProcessor);
+        processingPipeline.setChunkSize(2);
+        when(recordProcessor.processRecord(typedRecord)).thenReturn(processedRecord);
+
+        assertThat(processingPipeline.process(record, typedRecord)).isFalse();
+        verifyZeroInteractions(chunkProcessor);
+
+        assertThat(processingPipeline.process(record, typedRecord)).isFalse();
+
+        InOrder inOrder = inOrder(eventManager, chunkProcessor, report);
+        inOrder.verify(eventManager).fireBeforeProcessingChunk(asList(processedRecord, processedRecord));
+        inOrder.verify(chunkProcessor).processChunk(asList(processedRecord, processedRecord));
+        inOrder.verify(report, times(2)).incrementTotalSuccessRecord();
+        inOrder.verify(eventManager).fireAfterProcessingChunk(asList(processedRecord, processedRecord));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void whenChunkProcessingFails_thenAllRecordsOfTheChunkShouldBeInError() throws Exception {
+        processingPipeline = new ProcessingPipeline(asList(recordProcessor), errorRecordHandler, report, eventManager);
+        processingPipeline.setChunkProcessor(chunkProcessor);
+        processingPipeline.setChunkSize(3);
+        when(recordProcessor.processRecord(typedRecord)).thenReturn(processedRecord);
+        doThrow(exception).when(chunkProcessor).processChunk(anyList());
+
+        processingPipeline.process(record, typedRecord);
+        processingPipeline.process(record, typedRecord);
+        boolean processingError = processingPipeline.flushChunk();
+
+        assertThat(processingError).isTrue();
+        verify(chunkProcessor).processChunk(asList(processedRecord, processedRecord));
+        verify(report, times(2)).incrementTotalErrorRecord();
+        verify(report, never()).incrementTotalSuccessRecord();
+        verify(errorRecordHandler, times(2)).handle(record, exception);
+        verify(eventManager).fireOnChunkProcessingException(asList(processedRecord, processedRecord), exception);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void whenChunkProcessingFails_thenTheRecordThatFilledTheChunkShouldBeLeftToTheEngine() throws Exception {
+        Record firstRecord = new GenericRecord<Object>(new Header(1L, "test", 0L), typedRecord);
+        Record secondRecord = new GenericRecord<Object>(new Header(2L, "test", 0L), typedRecord);
+        CheckpointTracker checkpointTracker = mock(CheckpointTracker.class);
+        processingPipeline = new ProcessingPipeline(asList(recordProcessor), errorRecordHandler, report, eventManager);
+        processingPipeline.setChunkProcessor(chunkProcessor);
+        processingPipeline.setChunkSize(2);
+        processingPipeline.setCheckpointTracker(checkpointTracker);
+        when(recordProcessor.processRecord(typedRecord)).thenReturn(processedRecord);
+        doThrow(exception).when(chunkProcessor).processChunk(anyList());
+
+        processingPipeline.process(firstRecord, typedRecord);
+        boolean processingError = processingPipeline.process(secondRecord, typedRecord);
+
+        // the engine completes the second record itself since its processing is reported in error
+        assertThat(processingError).isTrue();
+        verify(checkpointTracker).recordCompleted(1L, true);
+        verify(checkpointTracker, never()).recordCompleted(eq(2L), anyBoolean());
+    }
+
+    @Test
+    public void whenChunkIsEmpty_thenFlushShouldNotInvokeTheChunkProcessor() throws Exception {
+        processingPipeline = new ProcessingPipeline(asList(recordProcessor), errorRecordHandler, report, eventManager);
+        processingPipeline.setChunkProcessor(chunkProcessor);
+
+        assertThat(processingPipeline.flushChunk()).isFalse();
+        verifyZeroInteractions(chunkProcessor);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void whenAProcessorFailsTransiently_thenItShouldBeRetriedAccordingToItsRetryPolicy() throws Exception {
+        processingPipeline = new ProcessingPipeline(new ArrayList<RecordProcessor>(), errorRecordHandler, report, eventManager);
+        processingPipeline.addProcessor(recordProcessor, new RetryPolicy(3, 0, TimeUnit.MILLISECONDS));
+        when(recordProcessor.processRecord(typedRecord)).thenThrow(exception).thenReturn(processedRecord);
+
+        boolean processingError = processingPipeline.process(record, typedRecord);
+
+        assertThat(processingError).isFalse();
+        verify(recordProcessor, times(2)).processRecord(typedRecord);
+        verify(report).incrementTotalRetries();
+        verify(eventManager).fireAfterProcessingRecord(processedRecord, null);
+        verifyZeroInteractions(errorRecordHandler);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void whenRetriesAreExhausted_thenTheRecordShouldBeInError() throws Exception {
+        processingPipeline = new ProcessingPipeline(new ArrayList<RecordProcessor>(), errorRecordHandler, report, eventManager);
+        processingPipeline.addProcessor(recordProcessor, new RetryPolicy(3, 0, TimeUnit.MILLISECONDS));
+        when(recordProcessor.processRecord(typedRecord)).thenThrow(exception);
+
+        boolean processingError = processingPipeline.process(record, typedRecord);
+
+        assertThat(processingError).isTrue();
+        verify(recordProcessor, times(3)).processRecord(typedRecord);
+        verify(report, times(2)).incrementTotalRetries();
+        verify(report).incrementTotalErrorRecord();
+        verify(errorRecordHandler).handle(record, exception);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void whenRetriesAreDeferred_thenTheRecordShouldBeResumedOnTheFailedProcessor() throws Exception {
+        processingPipeline = new ProcessingPipeline(new ArrayList<RecordProcessor>(), errorRecordHandler, report, eventManager);
+        processingPipeline.addProcessor(recordProcessor, new RetryPolicy(2, 10, TimeUnit.MILLISECONDS).jitter(0));
+        when(recordProcessor.processRecord(typedRecord)).thenThrow(exception).thenReturn(processedRecord);
+        StagedRecord stagedRecord = new StagedRecord(record);
+        stagedRecord.typedRecord = typedRecord;
+
+        assertThat(processingPipeline.processOrDefer(stagedRecord)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(10));
+        assertThat(stagedRecord.failedAttempts).isEqualTo(1);
+        assertThat(processingPipeline.processOrDefer(stagedRecord)).isEqualTo(-1);
+
+        assertThat(stagedRecord.processingError).isFalse();
+        assertThat(stagedRecord.typedRecord).isEqualTo(processedRecord);
+        verify(eventManager).fireBeforeProcessingRecord(typedRecord);
+        verify(eventManager).fireAfterProcessingRecord(processedRecord, null);
+        verify(report).incrementTotalRetries();
+    }
+
+}
@@ -0,0 +1,108 @@
+package org.easybatch.core.impl;
+
+import org.easybatch.core.api.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for {@link ProcessingWatchdog}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ProcessingWatchdogTest {
+
+    private static final long TIMEOUT = 1000;
+
+    @Mock
+    private Record record;
+
+    @Mock
+    private Object typedRecord;
+
+    @Mock
+    private Report report;
+
+    @Mock
+    private ErrorRecordHandler errorRecordHandler;
+
+    @Mock
+    private EventManager eventManager;
+
+    private ProcessingWatchdog watchdog;
+
+    @Before
+    public void setUp() throws Exception {
+        ProcessingPipeline processingPipeline = new ProcessingPipeline(Collections.<RecordProcessor>emptyList(),
+                errorRecordHandler, report, eventManager);
+        watchdog = new ProcessingWatchdog("engine", TIMEOUT, processingPipeline);
+    }
+
+    @Test
+    public void whenARecordExceedsTheTimeout_thenItShouldBeReportedAsASlowErrorRecord() throws Exception {
+        ProcessingWatchdog.Watch watch = watchdog.watch(record, typedRecord);
+
+        watchdog.check(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(2 * TIMEOUT));
+
+        assertThat(watch.isTimedOut()).isTrue();
+        assertThat(watchdog.getWatchedRecords()).isZero();
+        verify(report).incrementTotalSlowRecords();
+        verify(report).incrementTotalErrorRecord();
+        ArgumentCaptor<Throwable> exception = ArgumentCaptor.forClass(Throwable.class);
+        verify(errorRecordHandler).handle(eq(record), exception.capture());
+        RecordProcessingTimeoutException timeoutException = (RecordProcessingTimeoutException) exception.getValue();
+        assertThat(timeoutException.getTimeout()).isEqualTo(TIMEOUT);
+        assertThat(timeoutException.getThreadName()).isEqualTo(Thread.currentThread().getName());
+        // the stack trace is a snapshot of the processing thread
+        assertThat(timeoutException.getStackTrace()).isNotEmpty();
+        assertThat(Thread.currentThread().isInterrupted()).isTrue();
+
+        assertThat(watchdog.release(watch)).isTrue();
+        assertThat(Thread.currentThread().isInterrupted()).isFalse();
+    }
+
+    @Test
+    public void whenARecordIsProcessedWithinTheTimeout_thenItShouldNotBeReported() throws Exception {
+        ProcessingWatchdog.Watch watch = watchdog.watch(record, typedRecord);
+
+        watchdog.check(System.nanoTime());
+        assertThat(watchdog.release(watch)).isFalse();
+        watchdog.check(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(2 * TIMEOUT));
+
+        assertThat(watch.isTimedOut()).isFalse();
+        verify(report, never()).incrementTotalSlowRecords();
+        verify(errorRecordHandler, never()).handle(any(Record.class), any(Throwable.class));
+        assertThat(Thread.currentThread().isInterrupted()).isFalse();
+    }
+
+    @Test
+    public void aTimedOutRecordShouldBeReportedOnlyOnce() throws Exception {
+        ProcessingWatchdog.Watch watch = watchdog.watch(record, typedRecord);
+
+        watchdog.check(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(2 * TIMEOUT));
+        watchdog.check(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(3 * TIMEOUT));
+        watchdog.release(watch);
+
+        verify(report, times(1)).incrementTotalSlowRecords();
+        verify(errorRecordHandler, times(1)).handle(eq(record), any(Throwable.class));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        Thread.interrupted();
+    }
+
+}
@@ -0,0 +1,46 @@
+package org.easybatch.core.jmx;
+
+import org.easybatch.core.api.Report;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for {@link Monitor}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class MonitorTest {
+
+    private Report report;
+
+    @Before
+    public void setUp() throws Exception {
+        report = new Report();
+        report.setTotalRecords(10L);
+        report.setCurrentRecordNumber(4);
+        report.incrementTotalSuccessRecord(4);
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void aMonitorWithoutEngineShouldExposeTheReport() {
+        Monitor monitor = new Monitor(report);
+
+        assertThat(monitor.getCurrentRecordNumber()).isEqualTo(4);
+        assertThat(monitor.getTotalRecords()).isEqualTo("10");
+        assertThat(monitor.getSuccessRecords()).isEqualTo("4 (40.0%)");
+        assertThat(monitor.getThroughputLastSecond()).isEqualTo(0);
+        assertThat(monitor.getEstimatedTimeRemaining()).isEqualTo("N/A");
+        assertThat(monitor.getThroughputMeter()).isNull();
+        monitor.close();
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    @SuppressWarnings("deprecation")
+    public void aMonitorWithoutEngineShouldNotStopIt() {
+        new Monitor(report).stop();
+    }
+
+}
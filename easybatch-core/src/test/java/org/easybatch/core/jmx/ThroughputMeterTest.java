@@ -0,0 +1,85 @@
+package org.easybatch.core.jmx;
+
+import org.easybatch.core.api.Report;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+/**
+ * Test class for {@link ThroughputMeter}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class ThroughputMeterTest {
+
+    private static final long SECOND = 1000000000L;
+
+    private Report report;
+
+    private ThroughputMeter throughputMeter;
+
+    @Before
+    public void setUp() throws Exception {
+        report = new Report();
+        throughputMeter = new ThroughputMeter(report);
+    }
+
+    @Test
+    public void whenNoSampleHasBeenTaken_thenRatesShouldBeZero() {
+        report.incrementTotalSuccessRecord(100);
+
+        assertThat(throughputMeter.getRate(ThroughputMeter.COMPLETED, 1, SECOND)).isEqualTo(0);
+    }
+
+    @Test
+    public void ratesShouldBeComputedOverTheRequestedWindow() {
+        // 100 successful records per second during 20 seconds, then 10 errors per second during 10 seconds
+        for (int second = 0; second < 30; second++) {
+            throughputMeter.sample(second * SECOND);
+            if (second < 20) {
+                report.incrementTotalSuccessRecord(100);
+            } else {
+                report.incrementTotalErrorRecord(10);
+            }
+        }
+        long now = 30 * SECOND;
+
+        assertThat(throughputMeter.getRate(ThroughputMeter.COMPLETED, 1, now)).isEqualTo(10, offset(0.001));
+        assertThat(throughputMeter.getRate(ThroughputMeter.ERROR, 1, now)).isEqualTo(10, offset(0.001));
+        assertThat(throughputMeter.getRate(ThroughputMeter.SUCCESS, 1, now)).isEqualTo(0, offset(0.001));
+        assertThat(throughputMeter.getRate(ThroughputMeter.SUCCESS, 10, now)).isEqualTo(0, offset(0.001));
+        assertThat(throughputMeter.getRate(ThroughputMeter.COMPLETED, 60, now)).isEqualTo(2100 / 30d, offset(0.001));
+    }
+
+    @Test
+    public void onlyTheLastMinuteShouldBeKept() {
+        for (int second = 0; second < 120; second++) {
+            throughputMeter.sample(second * SECOND);
+            report.incrementTotalFilteredRecords(second < 60 ? 1000 : 10);
+        }
+
+        assertThat(throughputMeter.getRate(ThroughputMeter.COMPLETED, 60, 120 * SECOND)).isEqualTo(10, offset(0.001));
+    }
+
+    @Test
+    public void timeRemainingShouldBeEstimatedFromTheRecentThroughput() {
+        report.setTotalRecords(1000L);
+        for (int second = 0; second < 10; second++) {
+            throughputMeter.sample(second * SECOND);
+            report.incrementTotalSuccessRecord(50);
+        }
+
+        assertThat(throughputMeter.getEstimatedTimeRemaining(10 * SECOND)).isEqualTo(10);
+    }
+
+    @Test
+    public void whenTheTotalNumberOfRecordsIsUnknown_thenTimeRemainingShouldNotBeEstimated() {
+        throughputMeter.sample(0);
+        report.incrementTotalSuccessRecord(50);
+
+        assertThat(throughputMeter.getEstimatedTimeRemaining(SECOND)).isEqualTo(-1);
+    }
+
+}
@@ -0,0 +1,62 @@
+package org.easybatch.core.partitioner;
+
+import org.easybatch.core.api.RecordReader;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for {@link ListPartitioner}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class ListPartitionerTest {
+
+    @Test
+    public void theListShouldBeSplitInContiguousPartitions() throws Exception {
+        List<RecordReader> recordReaders = new ListPartitioner<Integer>(Arrays.asList(1, 2, 3, 4, 5, 6, 7)).partition(3);
+
+        assertThat(recordReaders).hasSize(3);
+        assertThat(readAll(recordReaders.get(0))).containsExactly(1, 2);
+        assertThat(readAll(recordReaders.get(1))).containsExactly(3, 4);
+        assertThat(readAll(recordReaders.get(2))).containsExactly(5, 6, 7);
+    }
+
+    @Test
+    public void whenTheListIsSmallerThanTheNumberOfPartitions_thenEachPartitionShouldHoldOneElement() throws Exception {
+        List<RecordReader> recordReaders = new ListPartitioner<Integer>(Arrays.asList(1, 2)).partition(4);
+
+        assertThat(recordReaders).hasSize(2);
+        assertThat(readAll(recordReaders.get(0))).containsExactly(1);
+        assertThat(readAll(recordReaders.get(1))).containsExactly(2);
+    }
+
+    @Test
+    public void anEmptyListShouldGiveASingleEmptyPartition() throws Exception {
+        List<RecordReader> recordReaders = new ListPartitioner<Integer>(Collections.<Integer>emptyList()).partition(4);
+
+        assertThat(recordReaders).hasSize(1);
+        assertThat(readAll(recordReaders.get(0))).isEmpty();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void theNumberOfPartitionsShouldBeStrictlyPositive() throws Exception {
+        new ListPartitioner<Integer>(Arrays.asList(1, 2)).partition(0);
+    }
+
+    private List<Object> readAll(RecordReader recordReader) throws Exception {
+        List<Object> items = new ArrayList<Object>();
+        recordReader.open();
+        while (recordReader.hasNextRecord()) {
+            items.add(recordReader.readNextRecord().getPayload());
+        }
+        recordReader.close();
+        return items;
+    }
+
+}
@@ -30,6 +30,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -93,4 +94,16 @@ public class ListRecordReaderTest {
         assertThat(listRecordReader.getDataSourceName()).isEqualTo(EXPECTED_DATA_SOURCE_NAME);
     }
 
+    @Test
+    public void skippedRecordsShouldBeCountedInRecordNumbers() throws Exception {
+        listRecordReader = new ListRecordReader<String>(Arrays.asList("a", "b", "c"));
+        listRecordReader.open();
+
+        assertThat(listRecordReader.skip(2)).isEqualTo(2);
+        Record<String> record = listRecordReader.readNextRecord();
+        assertThat(record.getHeader().getNumber()).isEqualTo(3l);
+        assertThat(record.getPayload()).isEqualTo("c");
+        assertThat(listRecordReader.skip(2)).isEqualTo(0);
+        assertThat(listRecordReader.hasNextRecord()).isFalse();
+    }
 }
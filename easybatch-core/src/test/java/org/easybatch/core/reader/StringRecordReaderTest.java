@@ -107,4 +107,12 @@ public class StringRecordReaderTest {
         stringRecordReader.open();
     }
 
+    @Test
+    public void skippedRecordsShouldBeCountedInRecordNumbers() throws Exception {
+        assertThat(stringRecordReader.skip(1)).isEqualTo(1);
+        Record record = stringRecordReader.readNextRecord();
+        assertThat(record.getHeader().getNumber()).isEqualTo(2l);
+        assertThat(record.getPayload()).isEqualTo("bar");
+        assertThat(stringRecordReader.skip(2)).isEqualTo(0);
+    }
 }
@@ -0,0 +1,97 @@
+package org.easybatch.core.util;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for {@link AdaptiveConcurrencyLimiter}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class AdaptiveConcurrencyLimiterTest {
+
+    private static final long LATENCY = 1000000;
+
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @Before
+    public void setUp() throws Exception {
+        limiter = new AdaptiveConcurrencyLimiter(2, 50);
+    }
+
+    @Test
+    public void theLimitShouldStartAtTheMinimum() {
+        assertThat(limiter.getLimit()).isEqualTo(2);
+        assertThat(limiter.getLastDecision()).isEqualTo("none");
+    }
+
+    @Test
+    public void whenLatencyIsStable_thenTheLimitShouldGrowUpToTheMaximum() throws Exception {
+        process(2000, LATENCY);
+
+        assertThat(limiter.getLimit()).isEqualTo(50);
+        assertThat(limiter.getIncreases()).isGreaterThan(0);
+        assertThat(limiter.getDecreases()).isEqualTo(0);
+        assertThat(limiter.getLastDecision()).startsWith("increased");
+    }
+
+    @Test
+    public void whenLatencyIncreases_thenTheLimitShouldShrink() throws Exception {
+        process(2000, LATENCY);
+
+        process(100, 10 * LATENCY);
+
+        assertThat(limiter.getLimit()).isLessThan(50);
+        assertThat(limiter.getDecreases()).isGreaterThan(0);
+        assertThat(limiter.getLastDecision()).startsWith("decreased");
+    }
+
+    @Test
+    public void whenRecordsCannotBeProcessed_thenTheLimitShouldShrink() throws Exception {
+        process(2000, LATENCY);
+
+        while (limiter.getLimit() == 50) {
+            limiter.acquire();
+            limiter.release(-1, true);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(45);
+        assertThat(limiter.getLastDecision()).startsWith("decreased from 50 to 45: processing errors");
+    }
+
+    @Test
+    public void theLimitShouldNeverGoBelowTheMinimum() throws Exception {
+        for (int i = 0; i < 1000; i++) {
+            limiter.acquire();
+            limiter.release(-1, true);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    public void recordsReleasedWithoutLatencyShouldNotChangeTheLimit() throws Exception {
+        for (int i = 0; i < 1000; i++) {
+            limiter.acquire();
+            limiter.release();
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(2);
+        assertThat(limiter.getInFlight()).isEqualTo(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenMaximumIsLowerThanMinimum_thenTheLimiterShouldBeRejected() {
+        new AdaptiveConcurrencyLimiter(10, 5);
+    }
+
+    private void process(int records, long latency) throws InterruptedException {
+        for (int i = 0; i < records; i++) {
+            limiter.acquire();
+            limiter.release(latency, false);
+        }
+    }
+
+}
@@ -0,0 +1,94 @@
+package org.easybatch.core.util;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for {@link LatencyHistogram}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class LatencyHistogramTest {
+
+    private LatencyHistogram histogram;
+
+    @Before
+    public void setUp() throws Exception {
+        histogram = new LatencyHistogram();
+    }
+
+    @Test
+    public void whenNoValueIsRecorded_thenPercentilesShouldBeZero() {
+        assertThat(histogram.getCount()).isEqualTo(0);
+        assertThat(histogram.getP50()).isEqualTo(0);
+        assertThat(histogram.getMax()).isEqualTo(0);
+    }
+
+    @Test
+    public void smallValuesShouldBeRecordedExactly() {
+        for (long value = 1; value <= 10; value++) {
+            histogram.record(value);
+        }
+
+        assertThat(histogram.getCount()).isEqualTo(10);
+        assertThat(histogram.getP50()).isEqualTo(5);
+        assertThat(histogram.getP99()).isEqualTo(10);
+        assertThat(histogram.getMax()).isEqualTo(10);
+    }
+
+    @Test
+    public void percentilesShouldBeWithinTheHistogramPrecision() {
+        for (long value = 1; value <= 100000; value++) {
+            histogram.record(value * 1000);
+        }
+
+        assertThat(histogram.getP50()).isBetween(50000000L, (long) (50000000L * 1.0625));
+        assertThat(histogram.getP99()).isBetween(99000000L, (long) (99000000L * 1.0625));
+        assertThat(histogram.getP999()).isBetween(99900000L, 100000000L);
+        assertThat(histogram.getMax()).isEqualTo(100000000L);
+    }
+
+    @Test
+    public void valuesBeyondTheHighestBucketShouldBeCountedInTheLastBucket() {
+        histogram.record(Long.MAX_VALUE);
+
+        assertThat(histogram.getCount()).isEqualTo(1);
+        assertThat(histogram.getP50()).isEqualTo(LatencyHistogram.bucketUpperBound(LatencyHistogram.bucketIndex(Long.MAX_VALUE)));
+        assertThat(histogram.getMax()).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    public void bucketsShouldContainTheirValues() {
+        for (long value = 0; value < 100000; value += 7) {
+            int index = LatencyHistogram.bucketIndex(value);
+            assertThat(LatencyHistogram.bucketUpperBound(index)).isGreaterThanOrEqualTo(value);
+            if (index > 0) {
+                assertThat(LatencyHistogram.bucketUpperBound(index - 1)).isLessThan(value);
+            }
+        }
+    }
+
+    @Test
+    public void addShouldMergeHistograms() {
+        LatencyHistogram other = new LatencyHistogram();
+        histogram.record(10);
+        other.record(20);
+        other.record(30);
+
+        histogram.add(other);
+
+        assertThat(histogram.getCount()).isEqualTo(3);
+        assertThat(histogram.getMax()).isEqualTo(30);
+    }
+
+    @Test
+    public void latenciesShouldBeFormattedWithTheMostReadableUnit() {
+        assertThat(LatencyHistogram.format(850)).isEqualTo("850ns");
+        assertThat(LatencyHistogram.format(12300)).isEqualTo("12.3us");
+        assertThat(LatencyHistogram.format(4500000)).isEqualTo("4.5ms");
+        assertThat(LatencyHistogram.format(2000000000L)).isEqualTo("2.0s");
+    }
+
+}
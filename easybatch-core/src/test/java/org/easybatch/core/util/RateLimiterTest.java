@@ -0,0 +1,72 @@
+package org.easybatch.core.util;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for {@link RateLimiter}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class RateLimiterTest {
+
+    private static final long ONE_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    public void permitsShouldBeGrantedAtTheConfiguredRate() {
+        RateLimiter rateLimiter = new RateLimiter(10);
+
+        assertThat(rateLimiter.reserve(0)).isEqualTo(0);
+        assertThat(rateLimiter.reserve(0)).isEqualTo(ONE_SECOND / 10);
+        assertThat(rateLimiter.reserve(0)).isEqualTo(2 * ONE_SECOND / 10);
+    }
+
+    @Test
+    public void withoutBurst_permitsShouldNotBeStoredWhileIdle() {
+        RateLimiter rateLimiter = new RateLimiter(10);
+        rateLimiter.reserve(0);
+
+        assertThat(rateLimiter.reserve(10 * ONE_SECOND)).isEqualTo(0);
+        assertThat(rateLimiter.reserve(10 * ONE_SECOND)).isEqualTo(ONE_SECOND / 10);
+    }
+
+    @Test
+    public void afterAnIdlePeriod_upToBurstPermitsShouldBeGrantedWithoutWaiting() {
+        RateLimiter rateLimiter = new RateLimiter(10, 5);
+        rateLimiter.reserve(0);
+
+        long now = 10 * ONE_SECOND;
+        for (int i = 0; i < 5; i++) {
+            assertThat(rateLimiter.reserve(now)).isEqualTo(0);
+        }
+        assertThat(rateLimiter.reserve(now)).isEqualTo(ONE_SECOND / 10);
+    }
+
+    @Test
+    public void currentRateShouldBeMeasuredOverTheLastWindow() throws Exception {
+        RateLimiter rateLimiter = new RateLimiter(1000, 1000);
+        for (int i = 0; i < 100; i++) {
+            rateLimiter.acquire();
+        }
+        long now = System.nanoTime() + 2 * ONE_SECOND;
+
+        double currentRate = rateLimiter.getCurrentRate(now);
+
+        assertThat(currentRate).isGreaterThan(0).isLessThanOrEqualTo(50);
+        assertThat(rateLimiter.getAcquiredPermits()).isEqualTo(100);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenRateIsNotPositive_thenTheRateLimiterShouldBeRejected() {
+        new RateLimiter(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenBurstIsLowerThanOne_thenTheRateLimiterShouldBeRejected() {
+        new RateLimiter(10, 0);
+    }
+
+}
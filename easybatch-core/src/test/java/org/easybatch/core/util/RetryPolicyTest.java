@@ -0,0 +1,75 @@
+package org.easybatch.core.util;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.sql.SQLTransientException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for {@link RetryPolicy}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class RetryPolicyTest {
+
+    @Test
+    public void failedAttemptsShouldBeRetriedUpToTheMaximumNumberOfAttempts() {
+        RetryPolicy retryPolicy = new RetryPolicy(3, 10, TimeUnit.MILLISECONDS);
+
+        assertThat(retryPolicy.shouldRetry(new Exception(), 1)).isTrue();
+        assertThat(retryPolicy.shouldRetry(new Exception(), 2)).isTrue();
+        assertThat(retryPolicy.shouldRetry(new Exception(), 3)).isFalse();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void onlyRetryableExceptionsShouldBeRetried() {
+        RetryPolicy retryPolicy = new RetryPolicy(3, 10, TimeUnit.MILLISECONDS).retryOn(SQLException.class);
+
+        assertThat(retryPolicy.shouldRetry(new SQLTransientException(), 1)).isTrue();
+        assertThat(retryPolicy.shouldRetry(new IOException(), 1)).isFalse();
+    }
+
+    @Test
+    public void interruptionsShouldNotBeRetried() {
+        RetryPolicy retryPolicy = new RetryPolicy(3, 10, TimeUnit.MILLISECONDS);
+
+        assertThat(retryPolicy.shouldRetry(new InterruptedException(), 1)).isFalse();
+    }
+
+    @Test
+    public void withoutJitter_theBackoffShouldGrowExponentiallyUpToTheMaximum() {
+        RetryPolicy retryPolicy = new RetryPolicy(10, 10, TimeUnit.MILLISECONDS)
+                .maxBackoff(50, TimeUnit.MILLISECONDS)
+                .jitter(0);
+
+        assertThat(retryPolicy.getBackoff(1)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(10));
+        assertThat(retryPolicy.getBackoff(2)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(20));
+        assertThat(retryPolicy.getBackoff(3)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(40));
+        assertThat(retryPolicy.getBackoff(4)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    @Test
+    public void theJitterShouldReduceTheBackoffByAtMostTheJitterFraction() {
+        RetryPolicy retryPolicy = new RetryPolicy(10, 100, TimeUnit.MILLISECONDS).jitter(0.5);
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(retryPolicy.getBackoff(1)).isBetween(TimeUnit.MILLISECONDS.toNanos(50), TimeUnit.MILLISECONDS.toNanos(100));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenMaxAttemptsIsLowerThanOne_thenThePolicyShouldBeRejected() {
+        new RetryPolicy(0, 10, TimeUnit.MILLISECONDS);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenJitterIsGreaterThanOne_thenThePolicyShouldBeRejected() {
+        new RetryPolicy(3, 10, TimeUnit.MILLISECONDS).jitter(1.5);
+    }
+
+}
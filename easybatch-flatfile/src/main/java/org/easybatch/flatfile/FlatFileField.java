@@ -54,4 +54,9 @@ public class FlatFileField {
         return rawContent;
     }
 
+    void reset(final int index, final String rawContent) {
+        this.index = index;
+        this.rawContent = rawContent;
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,132 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.flatfile;
+
+import org.easybatch.core.api.Partitioner;
+import org.easybatch.core.api.RecordReader;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link Partitioner} that splits a flat file into byte ranges of (almost) equal sizes, aligned to line boundaries.
+ * Each partition is read by a {@link FlatFileRecordReader} which starts reading at the beginning of its range,
+ * without reading the previous partitions.
+ * <p/>
+ * Lines are expected to be terminated by a line feed (optionally preceded by a carriage return) in an encoding
+ * where the line feed is a single byte (UTF-8, ISO-8859-1, US-ASCII, etc).
+ * <p/>
+ * Since the lines before a partition are not read, record numbers in a partition are relative to the start of the partition.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class FlatFilePartitioner implements Partitioner {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * The input file.
+     */
+    private File input;
+
+    /**
+     * The input file encoding name.
+     */
+    private String charsetName;
+
+    /**
+     * Constructs a flat file partitioner.
+     *
+     * @param input the input file
+     */
+    public FlatFilePartitioner(final File input) {
+        this(input, Charset.defaultCharset().name());
+    }
+
+    /**
+     * Constructs a flat file partitioner.
+     *
+     * @param input       the input file
+     * @param charsetName the encoding to use to read the file
+     */
+    public FlatFilePartitioner(final File input, final String charsetName) {
+        this.input = input;
+        this.charsetName = charsetName;
+    }
+
+    @Override
+    public List<RecordReader> partition(final int partitions) throws Exception {
+        if (partitions < 1) {
+            throw new IllegalArgumentException("The number of partitions must be at least 1");
+        }
+        List<RecordReader> recordReaders = new ArrayList<RecordReader>();
+        RandomAccessFile file = new RandomAccessFile(input, "r");
+        try {
+            long length = file.length();
+            long start = 0;
+            for (int i = 1; i <= partitions && start < length; i++) {
+                long end = i == partitions ? length : nextLineStart(file, Math.max(start, length * i / partitions));
+                if (end > start) {
+                    recordReaders.add(new FlatFileRecordReader(input, charsetName, start, end));
+                    start = end;
+                }
+            }
+        } finally {
+            file.close();
+        }
+        if (recordReaders.isEmpty()) {
+            // empty file: a single empty partition
+            recordReaders.add(new FlatFileRecordReader(input, charsetName));
+        }
+        return recordReaders;
+    }
+
+    /**
+     * Find the offset of the first line starting at or after a given offset.
+     */
+    private long nextLineStart(final RandomAccessFile file, final long offset) throws IOException {
+        if (offset == 0) {
+            return 0;
+        }
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long position = offset - 1;
+        file.seek(position);
+        int read;
+        while ((read = file.read(buffer)) > 0) {
+            for (int i = 0; i < read; i++) {
+                if (buffer[i] == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return file.length();
+    }
+
+}
@@ -25,30 +25,89 @@
 package org.easybatch.flatfile;
 
 import org.easybatch.core.api.Header;
-import org.easybatch.core.record.StringRecord;
+import org.easybatch.core.record.MutableStringRecord;
 
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Flat file record containing textual data.
+ * <p/>
+ * In flyweight mode (see {@link MutableStringRecord}), mappers recycle a single flat file record,
+ * as well as its fields when they are added with {@link #addFlatFileField(int, String)}.
  *
  * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
  */
-public class FlatFileRecord extends StringRecord {
+public class FlatFileRecord extends MutableStringRecord {
 
     /**
      * The record fields.
      */
     private List<FlatFileField> flatFileFields;
 
+    /**
+     * Fields of previous records, reused by {@link #addFlatFileField(int, String)} once this record has been recycled.
+     */
+    private List<FlatFileField> recycledFields;
+
     public FlatFileRecord(final Header header, final String payload) {
         super(header, payload);
         flatFileFields = new ArrayList<FlatFileField>();
     }
 
     public List<FlatFileField> getFlatFileFields() {
+        checkNotRecycled();
         return flatFileFields;
     }
 
+    /**
+     * Add a field to this record.
+     *
+     * @param index      the field index in the record
+     * @param rawContent the field raw content
+     */
+    public void addFlatFileField(final int index, final String rawContent) {
+        int position = flatFileFields.size();
+        FlatFileField flatFileField;
+        if (recycledFields != null && position < recycledFields.size()) {
+            flatFileField = recycledFields.get(position);
+            flatFileField.reset(index, rawContent);
+        } else {
+            flatFileField = new FlatFileField(index, rawContent);
+            if (recycledFields != null) {
+                recycledFields.add(flatFileField);
+            }
+        }
+        flatFileFields.add(flatFileField);
+    }
+
+    /**
+     * Copy this record and its fields so that it can be retained.
+     *
+     * @return a copy of this record which is never recycled
+     */
+    @Override
+    public FlatFileRecord copy() {
+        FlatFileRecord copy = new FlatFileRecord(getHeader(), getPayload());
+        for (FlatFileField flatFileField : getFlatFileFields()) {
+            copy.flatFileFields.add(new FlatFileField(flatFileField.getIndex(), flatFileField.getRawContent()));
+        }
+        return copy;
+    }
+
+    @Override
+    public FlatFileRecord recycle(final Header header, final String payload) {
+        FlatFileRecord record = (FlatFileRecord) super.recycle(header, payload);
+        if (record.recycledFields == null) {
+            record.recycledFields = new ArrayList<FlatFileField>(record.flatFileFields);
+        }
+        record.flatFileFields.clear();
+        return record;
+    }
+
+    @Override
+    protected FlatFileRecord newRecord() {
+        return new FlatFileRecord(null, null);
+    }
+
 }
@@ -24,16 +24,22 @@
 
 package org.easybatch.flatfile;
 
+import org.easybatch.core.api.Checkpoint;
 import org.easybatch.core.api.Header;
 import org.easybatch.core.api.RecordReader;
+import org.easybatch.core.api.RestartableRecordReader;
+import org.easybatch.core.api.SkippableRecordReader;
+import org.easybatch.core.record.MutableStringRecord;
 import org.easybatch.core.record.StringRecord;
 
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
-import java.util.Date;
 import java.util.Scanner;
+import java.util.regex.MatchResult;
 
 import static java.lang.String.format;
 
@@ -41,10 +47,29 @@ import static java.lang.String.format;
  * A {@link RecordReader} implementation that read data from a flat file.
  * <p/>
  * This reader produces {@link StringRecord} instances.
+ * <p/>
+ * The position of this reader is the byte offset in the file right after the last read record (including
+ * its line separator), so that a restarted execution seeks directly to the first record to process.
+ * <p/>
+ * Skipped records are not decoded: for single-byte and UTF-8 encodings, the reader only scans the bytes of
+ * skipped lines for line separators.
+ * <p/>
+ * In flyweight mode, the reader reuses a single {@link MutableStringRecord} for all records.
  *
  * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
  */
-public class FlatFileRecordReader implements RecordReader {
+public class FlatFileRecordReader implements RestartableRecordReader, SkippableRecordReader {
+
+    private static final int SKIP_BUFFER_SIZE = 64 * 1024;
+
+    /*
+     * States of the line separator scanner used to skip lines.
+     */
+    private static final int NORMAL = 0;
+    private static final int AFTER_CR = 1;
+    private static final int AFTER_C2 = 2;
+    private static final int AFTER_E2 = 3;
+    private static final int AFTER_E2_80 = 4;
 
     /**
      * The current read record number.
@@ -61,11 +86,48 @@ public class FlatFileRecordReader implements RecordReader {
      */
     private String charsetName;
 
+    /**
+     * The input file encoding.
+     */
+    private Charset charset;
+
+    /**
+     * True if each character is encoded in a single byte in the input file encoding.
+     */
+    private boolean singleByteCharset;
+
+    /**
+     * True if the input file encoding is UTF-8.
+     */
+    private boolean utf8Charset;
+
+    /**
+     * For single-byte encodings compatible with ASCII line feeds and carriage returns, the bytes decoded as
+     * other line separators (next line, line separator or paragraph separator). Null if lines can not be
+     * skipped by scanning bytes in the input file encoding.
+     */
+    private boolean[] otherSeparatorBytes;
+
     /**
      * Scanner to read input file.
      */
     private Scanner scanner;
 
+    /**
+     * The byte offset in the input file right after the last read record.
+     */
+    private long position;
+
+    /**
+     * The byte offset of the first record to read (the start of a partition).
+     */
+    private long startPosition;
+
+    /**
+     * The byte offset after which no record is read (the end of a partition).
+     */
+    private long endPosition = Long.MAX_VALUE;
+
     /**
      * A second scanner used to calculate the number of records in the input file.
      * The main scanner may be used instead but since the {@link Scanner} class does not have a method to rewind it to the
@@ -73,6 +135,21 @@ public class FlatFileRecordReader implements RecordReader {
      */
     private Scanner recordCounterScanner;
 
+    /**
+     * The data source name, computed once when the reader is opened.
+     */
+    private String dataSourceName;
+
+    /**
+     * Flag telling if a single record is reused for all records (flyweight mode).
+     */
+    private boolean flyweight;
+
+    /**
+     * The record reused in flyweight mode.
+     */
+    private MutableStringRecord record;
+
     /**
      * Constructs a flat file record reader.
      *
@@ -93,15 +170,222 @@ public class FlatFileRecordReader implements RecordReader {
     public FlatFileRecordReader(final File input, final String charsetName) throws FileNotFoundException {
         this.input = input;
         this.charsetName = charsetName;
+        this.charset = Charset.forName(charsetName);
+        this.singleByteCharset = charset.newEncoder().maxBytesPerChar() == 1;
+        this.utf8Charset = "UTF-8".equals(charset.name());
+        if (singleByteCharset) {
+            this.otherSeparatorBytes = otherSeparatorBytes(charset);
+        }
+    }
+
+    private static boolean[] otherSeparatorBytes(final Charset charset) {
+        boolean[] separatorBytes = new boolean[256];
+        for (int b = 0; b < 256; b++) {
+            String decoded = charset.decode(ByteBuffer.wrap(new byte[]{(byte) b})).toString();
+            char c = decoded.length() == 1 ? decoded.charAt(0) : 0;
+            if ((b == '\n' || b == '\r') != (c == '\n' || c == '\r')) {
+                return null;
+            }
+            separatorBytes[b] = c == '\u0085' || c == '\u2028' || c == '\u2029';
+        }
+        return separatorBytes;
+    }
 
+    /**
+     * Constructs a flat file record reader for a partition of the input file.
+     *
+     * @param input         the input file
+     * @param charsetName   the encoding to use to read the file
+     * @param startPosition the byte offset of the first line of the partition
+     * @param endPosition   the byte offset of the first line after the partition
+     * @throws FileNotFoundException thrown if the file does not exist
+     */
+    FlatFileRecordReader(final File input, final String charsetName, final long startPosition, final long endPosition) throws FileNotFoundException {
+        this(input, charsetName);
+        this.startPosition = startPosition;
+        this.endPosition = endPosition;
     }
 
     /**
      * {@inheritDoc}
      */
     public StringRecord readNextRecord() {
-        Header header = new Header(++currentRecordNumber, getDataSourceName(), new Date());
-        return new StringRecord(header, scanner.nextLine());
+        Header header = new Header(++currentRecordNumber, dataSourceName, System.currentTimeMillis());
+        String line = scanner.nextLine();
+        // the last match holds the line including its separator
+        MatchResult match = scanner.match();
+        position += encodedLength(match.group());
+        if (!flyweight) {
+            return new StringRecord(header, line);
+        }
+        if (record == null) {
+            record = new MutableStringRecord(header, line);
+        } else {
+            record = record.recycle(header, line);
+        }
+        return record;
+    }
+
+    /**
+     * Reuse a single record for all records instead of allocating a record per line (flyweight mode).
+     * Should only be enabled in single-threaded engines, see {@link MutableStringRecord}.
+     *
+     * @param flyweight true if a single record should be reused for all records
+     */
+    public void setFlyweight(final boolean flyweight) {
+        this.flyweight = flyweight;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void seek(final Checkpoint checkpoint) throws Exception {
+        if (checkpoint.getPosition() > input.length()) {
+            throw new IllegalArgumentException(format("Position %s is beyond the end of file %s",
+                    checkpoint.getPosition(), input.getAbsolutePath()));
+        }
+        scanner.close();
+        scanner = openScanner(checkpoint.getPosition());
+        position = checkpoint.getPosition();
+        currentRecordNumber = checkpoint.getRecordNumber();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long skip(final long count) throws Exception {
+        if (count <= 0) {
+            return 0;
+        }
+        long skipped;
+        if (utf8Charset || otherSeparatorBytes != null) {
+            skipped = scanLines(count);
+            scanner.close();
+            scanner = openScanner(position);
+        } else {
+            skipped = 0;
+            while (skipped < count && hasNextRecord()) {
+                scanner.nextLine();
+                position += encodedLength(scanner.match().group());
+                skipped++;
+            }
+        }
+        currentRecordNumber += skipped;
+        return skipped;
+    }
+
+    /**
+     * Find the end of the next lines by scanning raw bytes from the current position, recognizing the same
+     * line separators as {@link Scanner#nextLine()}. Updates the position to the start of the first line not skipped.
+     */
+    private long scanLines(final long count) throws IOException {
+        FileInputStream inputStream = new FileInputStream(input);
+        try {
+            inputStream.getChannel().position(position);
+            byte[] buffer = new byte[SKIP_BUFFER_SIZE];
+            long skipped = 0;
+            long offset = position;
+            long lineStart = position;
+            int state = NORMAL;
+            int length;
+            scan:
+            while ((state == AFTER_CR || skipped < count && lineStart < endPosition)
+                    && (length = inputStream.read(buffer)) != -1) {
+                for (int i = 0; i < length; i++) {
+                    int b = buffer[i] & 0xFF;
+                    if (state == AFTER_CR) {
+                        state = NORMAL;
+                        if (b == '\n') {
+                            offset++;
+                            lineStart = offset;
+                            continue;
+                        }
+                    }
+                    if (skipped >= count || lineStart >= endPosition) {
+                        break scan;
+                    }
+                    offset++;
+                    boolean lineEnd = false;
+                    if (state == AFTER_C2) {
+                        state = NORMAL;
+                        lineEnd = b == 0x85;
+                    } else if (state == AFTER_E2) {
+                        state = NORMAL;
+                        if (b == 0x80) {
+                            state = AFTER_E2_80;
+                            continue;
+                        }
+                    } else if (state == AFTER_E2_80) {
+                        state = NORMAL;
+                        lineEnd = b == 0xA8 || b == 0xA9;
+                    }
+                    if (!lineEnd) {
+                        // continuation bytes of multi-byte sequences are never line separators or sequence starts
+                        if (b == '\n') {
+                            lineEnd = true;
+                        } else if (b == '\r') {
+                            lineEnd = true;
+                            state = AFTER_CR;
+                        } else if (utf8Charset) {
+                            if (b == 0xC2) {
+                                state = AFTER_C2;
+                            } else if (b == 0xE2) {
+                                state = AFTER_E2;
+                            }
+                        } else {
+                            lineEnd = otherSeparatorBytes[b];
+                        }
+                    }
+                    if (lineEnd) {
+                        skipped++;
+                        lineStart = offset;
+                    }
+                }
+            }
+            // a last line without separator at the end of the file
+            if (lineStart < offset && skipped < count && lineStart < endPosition) {
+                skipped++;
+                lineStart = offset;
+            }
+            position = lineStart;
+            return skipped;
+        } finally {
+            inputStream.close();
+        }
+    }
+
+    /**
+     * Calculate the number of bytes of a text in the input file encoding, without encoding it for common charsets.
+     */
+    private long encodedLength(final String text) {
+        if (singleByteCharset) {
+            return text.length();
+        }
+        if (utf8Charset) {
+            long length = 0;
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c < 0x80) {
+                    length++;
+                } else if (c < 0x800) {
+                    length += 2;
+                } else if (Character.isHighSurrogate(c) && i + 1 < text.length() && Character.isLowSurrogate(text.charAt(i + 1))) {
+                    length += 4;
+                    i++;
+                } else {
+                    length += 3;
+                }
+            }
+            return length;
+        }
+        return text.getBytes(charset).length;
     }
 
     /**
@@ -109,38 +393,63 @@ public class FlatFileRecordReader implements RecordReader {
      */
     public Long getTotalRecords() {
         long totalRecords = 0;
+        boolean partition = isPartition();
+        long counterPosition = startPosition;
+        recordCounterScanner = null;
         try {
-            recordCounterScanner = new Scanner(new FileInputStream(input), charsetName);
-            while (recordCounterScanner.hasNextLine()) {
+            recordCounterScanner = openScanner(startPosition);
+            while (counterPosition < endPosition && recordCounterScanner.hasNextLine()) {
                 totalRecords++;
                 recordCounterScanner.nextLine();
+                if (partition) {
+                    counterPosition += encodedLength(recordCounterScanner.match().group());
+                }
             }
-        } catch (FileNotFoundException e) {
-            throw new RuntimeException(format("File %s not found", input), e);
+        } catch (IOException e) {
+            throw new RuntimeException(format("Unable to read file %s", input), e);
         } finally {
-            recordCounterScanner.close();
+            if (recordCounterScanner != null) {
+                recordCounterScanner.close();
+            }
         }
         return totalRecords;
     }
 
     @Override
     public String getDataSourceName() {
+        if (isPartition()) {
+            return format("%s [%d, %d)", input.getAbsolutePath(), startPosition, endPosition);
+        }
         return input.getAbsolutePath();
     }
 
+    private boolean isPartition() {
+        return startPosition > 0 || endPosition != Long.MAX_VALUE;
+    }
+
+    private Scanner openScanner(final long offset) throws IOException {
+        FileInputStream inputStream = new FileInputStream(input);
+        if (offset > 0) {
+            inputStream.getChannel().position(offset);
+        }
+        return new Scanner(inputStream, charsetName);
+    }
+
     /**
      * {@inheritDoc}
      */
     public void open() throws Exception {
         currentRecordNumber = 0;
-        scanner = new Scanner(new FileInputStream(input), charsetName);
+        position = startPosition;
+        scanner = openScanner(startPosition);
+        dataSourceName = getDataSourceName();
     }
 
     /**
      * {@inheritDoc}
      */
     public boolean hasNextRecord() {
-        return scanner.hasNextLine();
+        return position < endPosition && scanner.hasNextLine();
     }
 
     /**
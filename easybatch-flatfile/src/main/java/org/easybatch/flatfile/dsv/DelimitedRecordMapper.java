@@ -96,6 +96,21 @@ public class DelimitedRecordMapper<T> implements RecordMapper<T> {
      */
     private boolean fieldNamesRetrievedFromHeader;
 
+    /**
+     * Flag telling if the parsed record and the fields contents are reused between records (flyweight mode).
+     */
+    private boolean flyweight;
+
+    /**
+     * The parsed record reused in flyweight mode.
+     */
+    private FlatFileRecord flatFileRecord;
+
+    /**
+     * The fields contents reused in flyweight mode.
+     */
+    private Map<String, String> fieldsContents;
+
     /**
      * private default constructor to initialize the mapper with default parameter values.
      */
@@ -185,7 +200,7 @@ public class DelimitedRecordMapper<T> implements RecordMapper<T> {
     public T mapRecord(final Record record) throws Exception {
 
         FlatFileRecord flatFileRecord = parseRecord(record);
-        Map<String, String> fieldsContents = new HashMap<String, String>();
+        Map<String, String> fieldsContents = newFieldsContents();
         int index = 0;
         for (FlatFileField flatFileField : flatFileRecord.getFlatFileFields()) {
             String fieldName;
@@ -235,30 +250,41 @@ public class DelimitedRecordMapper<T> implements RecordMapper<T> {
             }
         }
 
-        List<FlatFileField> fields = new ArrayList<FlatFileField>();
+        FlatFileRecord flatFileRecord = newFlatFileRecord(record, payload);
         int index = 0;
         for (String token : tokens) {
-            token = trimWhitespaces(token);
-            token = removeQualifier(token);
-            fields.add(new FlatFileField(index++, token));
+            if (fieldsPositions == null || fieldsPositions.contains(index)) {
+                token = trimWhitespaces(token);
+                token = removeQualifier(token);
+                flatFileRecord.addFlatFileField(index, token);
+            }
+            index++;
         }
+        return flatFileRecord;
+    }
 
-        FlatFileRecord flatFileRecord = new FlatFileRecord(record.getHeader(), payload);
-        if (fieldsPositions != null) {
-            filterFields(fields);
+    private FlatFileRecord newFlatFileRecord(final Record record, final String payload) {
+        if (!flyweight) {
+            return new FlatFileRecord(record.getHeader(), payload);
+        }
+        if (flatFileRecord == null) {
+            flatFileRecord = new FlatFileRecord(record.getHeader(), payload);
+        } else {
+            flatFileRecord = flatFileRecord.recycle(record.getHeader(), payload);
         }
-        flatFileRecord.getFlatFileFields().addAll(fields);
         return flatFileRecord;
     }
 
-    private void filterFields(List<FlatFileField> fields) {
-        Iterator<FlatFileField> iterator = fields.iterator();
-        while (iterator.hasNext()) {
-            int index = iterator.next().getIndex();
-            if (!fieldsPositions.contains(index)) {
-                iterator.remove();
-            }
+    private Map<String, String> newFieldsContents() {
+        if (!flyweight) {
+            return new HashMap<String, String>();
+        }
+        if (fieldsContents == null) {
+            fieldsContents = new HashMap<String, String>();
+        } else {
+            fieldsContents.clear();
         }
+        return fieldsContents;
     }
 
     private String trimWhitespaces(final String token) {
@@ -308,6 +334,16 @@ public class DelimitedRecordMapper<T> implements RecordMapper<T> {
         this.qualifier = qualifier;
     }
 
+    /**
+     * Reuse the parsed record and its fields between records instead of allocating them for each record (flyweight mode).
+     * Should only be enabled in single-threaded engines, see {@link org.easybatch.core.record.MutableStringRecord}.
+     *
+     * @param flyweight true if the parsed record and its fields should be reused
+     */
+    public void setFlyweight(final boolean flyweight) {
+        this.flyweight = flyweight;
+    }
+
     /**
      * Register a custom type converter.
      *
@@ -64,6 +64,21 @@ public class FixedLengthRecordMapper<T> implements RecordMapper<T> {
      */
     private int recordExpectedLength;
 
+    /**
+     * Flag telling if the parsed record and the fields contents are reused between records (flyweight mode).
+     */
+    private boolean flyweight;
+
+    /**
+     * The parsed record reused in flyweight mode.
+     */
+    private FlatFileRecord flatFileRecord;
+
+    /**
+     * The fields contents reused in flyweight mode.
+     */
+    private Map<String, String> fieldsContents;
+
     /**
      * Constructs a FixedLengthRecordMapper instance.
      *
@@ -85,7 +100,7 @@ public class FixedLengthRecordMapper<T> implements RecordMapper<T> {
     public T mapRecord(final Record record) throws Exception {
 
         FlatFileRecord flatFileRecord = parseRecord(record);
-        Map<String, String> fieldsContents = new HashMap<String, String>();
+        Map<String, String> fieldsContents = newFieldsContents();
         for (FlatFileField flatFileField : flatFileRecord.getFlatFileFields()) {
             String fieldName = fieldNames[flatFileField.getIndex()];
             String fieldValue = flatFileField.getRawContent();
@@ -103,16 +118,38 @@ public class FixedLengthRecordMapper<T> implements RecordMapper<T> {
             throw new Exception("record length " + recordLength + " not equal to expected length of " + recordExpectedLength);
         }
 
-        FlatFileRecord flatFileRecord = new FlatFileRecord(record.getHeader(), payload);
+        FlatFileRecord flatFileRecord = newFlatFileRecord(record, payload);
         for (int i = 0; i < fieldsLength.length; i++) {
             String token = payload.substring(fieldsOffsets[i], fieldsOffsets[i + 1]);
-            FlatFileField flatFileField = new FlatFileField(i, token);
-            flatFileRecord.getFlatFileFields().add(flatFileField);
+            flatFileRecord.addFlatFileField(i, token);
         }
 
         return flatFileRecord;
     }
 
+    private FlatFileRecord newFlatFileRecord(final Record record, final String payload) {
+        if (!flyweight) {
+            return new FlatFileRecord(record.getHeader(), payload);
+        }
+        if (flatFileRecord == null) {
+            flatFileRecord = new FlatFileRecord(record.getHeader(), payload);
+        } else {
+            flatFileRecord = flatFileRecord.recycle(record.getHeader(), payload);
+        }
+        return flatFileRecord;
+    }
+
+    private Map<String, String> newFieldsContents() {
+        if (!flyweight) {
+            return new HashMap<String, String>();
+        }
+        if (fieldsContents == null) {
+            fieldsContents = new HashMap<String, String>();
+        } else {
+            fieldsContents.clear();
+        }
+        return fieldsContents;
+    }
 
     /**
      * utility method to calculate field offsets used to extract fields from record.
@@ -129,6 +166,16 @@ public class FixedLengthRecordMapper<T> implements RecordMapper<T> {
         return offsets;
     }
 
+    /**
+     * Reuse the parsed record and its fields between records instead of allocating them for each record (flyweight mode).
+     * Should only be enabled in single-threaded engines, see {@link org.easybatch.core.record.MutableStringRecord}.
+     *
+     * @param flyweight true if the parsed record and its fields should be reused
+     */
+    public void setFlyweight(final boolean flyweight) {
+        this.flyweight = flyweight;
+    }
+
     /**
      * Register a custom type converter.
      *
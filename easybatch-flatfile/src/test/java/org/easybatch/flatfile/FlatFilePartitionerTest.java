@@ -0,0 +1,92 @@
+package org.easybatch.flatfile;
+
+import org.easybatch.core.api.RecordReader;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for {@link FlatFilePartitioner}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class FlatFilePartitionerTest {
+
+    private File file;
+
+    private List<String> lines;
+
+    @Before
+    public void setUp() throws Exception {
+        file = File.createTempFile("easybatch-partitioner", ".txt");
+        lines = new ArrayList<String>();
+        FileWriter writer = new FileWriter(file);
+        for (int i = 1; i <= 100; i++) {
+            String line = "line " + i + (i % 7 == 0 ? " with some more characters" : "");
+            lines.add(line);
+            writer.write(line + (i % 2 == 0 ? "\r\n" : "\n"));
+        }
+        writer.close();
+    }
+
+    @Test
+    public void partitionsShouldCoverAllLinesWithoutOverlapping() throws Exception {
+        List<RecordReader> recordReaders = new FlatFilePartitioner(file, "UTF-8").partition(4);
+
+        assertThat(recordReaders).hasSize(4);
+        List<String> readLines = new ArrayList<String>();
+        for (RecordReader recordReader : recordReaders) {
+            List<String> partitionLines = readAll(recordReader);
+            assertThat(partitionLines).isNotEmpty();
+            assertThat((long) partitionLines.size()).isEqualTo(recordReader.getTotalRecords());
+            readLines.addAll(partitionLines);
+        }
+        assertThat(readLines).isEqualTo(lines);
+    }
+
+    @Test
+    public void whenThereAreMorePartitionsThanLines_thenEachLineShouldBeInItsOwnPartition() throws Exception {
+        FileWriter writer = new FileWriter(file);
+        writer.write("foo\nbar\n");
+        writer.close();
+
+        List<RecordReader> recordReaders = new FlatFilePartitioner(file, "UTF-8").partition(8);
+
+        assertThat(recordReaders).hasSize(2);
+        assertThat(readAll(recordReaders.get(0))).containsExactly("foo");
+        assertThat(readAll(recordReaders.get(1))).containsExactly("bar");
+    }
+
+    @Test
+    public void anEmptyFileShouldGiveASingleEmptyPartition() throws Exception {
+        new FileWriter(file).close();
+
+        List<RecordReader> recordReaders = new FlatFilePartitioner(file, "UTF-8").partition(4);
+
+        assertThat(recordReaders).hasSize(1);
+        assertThat(readAll(recordReaders.get(0))).isEmpty();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        file.delete();
+    }
+
+    private List<String> readAll(RecordReader recordReader) throws Exception {
+        List<String> items = new ArrayList<String>();
+        recordReader.open();
+        while (recordReader.hasNextRecord()) {
+            items.add((String) recordReader.readNextRecord().getPayload());
+        }
+        recordReader.close();
+        return items;
+    }
+
+}
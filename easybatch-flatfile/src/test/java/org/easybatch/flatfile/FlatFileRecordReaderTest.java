@@ -1,13 +1,20 @@
 package org.easybatch.flatfile;
 
+import org.easybatch.core.api.Checkpoint;
+import org.easybatch.core.record.MutableStringRecord;
 import org.easybatch.core.record.StringRecord;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -56,6 +63,124 @@ public class FlatFileRecordReaderTest {
         assertThat(flatFileRecordReader.getDataSourceName()).isEqualTo(dataSource.getAbsolutePath());
     }
 
+    @Test
+    public void testPositionAfterReadingRecords() throws Exception {
+        assertThat(flatFileRecordReader.getPosition()).isEqualTo(0);
+        flatFileRecordReader.readNextRecord();
+        assertThat(flatFileRecordReader.getPosition()).isEqualTo("id,user,message\n".length());
+        flatFileRecordReader.readNextRecord();
+        flatFileRecordReader.readNextRecord();
+        assertThat(flatFileRecordReader.getPosition()).isEqualTo(dataSource.length());
+    }
+
+    @Test
+    public void testSeekToCheckpoint() throws Exception {
+        flatFileRecordReader.readNextRecord();
+        flatFileRecordReader.readNextRecord();
+        Checkpoint checkpoint = new Checkpoint(2, flatFileRecordReader.getPosition());
+        flatFileRecordReader.close();
+
+        flatFileRecordReader = new FlatFileRecordReader(dataSource);
+        flatFileRecordReader.open();
+        flatFileRecordReader.seek(checkpoint);
+
+        StringRecord record = flatFileRecordReader.readNextRecord();
+        assertThat(record.getHeader().getNumber()).isEqualTo(3l);
+        assertThat(record.getPayload()).isEqualTo("2,bar,@foo I do confirm :-)");
+        assertThat(flatFileRecordReader.hasNextRecord()).isFalse();
+    }
+
+    @Test
+    public void testSkipRecords() throws Exception {
+        assertThat(flatFileRecordReader.skip(2)).isEqualTo(2);
+        assertThat(flatFileRecordReader.getPosition()).isEqualTo(dataSource.length() - "2,bar,@foo I do confirm :-)".length());
+
+        StringRecord record = flatFileRecordReader.readNextRecord();
+        assertThat(record.getHeader().getNumber()).isEqualTo(3l);
+        assertThat(record.getPayload()).isEqualTo("2,bar,@foo I do confirm :-)");
+        assertThat(flatFileRecordReader.skip(1)).isEqualTo(0);
+        assertThat(flatFileRecordReader.hasNextRecord()).isFalse();
+    }
+
+    @Test
+    public void skippingRecordsShouldBeConsistentWithReadingThemWhateverTheLineSeparatorsAndEncoding() throws Exception {
+        File file = File.createTempFile("easybatch-skip", ".txt");
+        try {
+            StringBuilder content = new StringBuilder("first\r\nsecond\rthird\né\u00e0\r\r\n\nfifth\u0085sixth\u2028seventh\u2029");
+            // in UTF-8, the carriage return of the next line separator ends the first buffer of the skip scan
+            for (int i = content.toString().getBytes("UTF-8").length; i < 64 * 1024 - 1; i++) {
+                content.append('a');
+            }
+            content.append("\r\nlast without separator");
+            for (String charsetName : new String[]{"UTF-8", "ISO-8859-1", "UTF-16"}) {
+                Writer writer = new OutputStreamWriter(new FileOutputStream(file), charsetName);
+                writer.write(content.toString());
+                writer.close();
+                assertSkippingIsConsistentWithReading(file, charsetName);
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    private void assertSkippingIsConsistentWithReading(File file, String charsetName) throws Exception {
+        List<String> lines = new ArrayList<String>();
+        List<Long> positions = new ArrayList<Long>();
+        FlatFileRecordReader reader = new FlatFileRecordReader(file, charsetName);
+        reader.open();
+        positions.add(reader.getPosition());
+        while (reader.hasNextRecord()) {
+            lines.add(reader.readNextRecord().getPayload());
+            positions.add(reader.getPosition());
+        }
+        reader.close();
+
+        for (int count = 0; count <= lines.size() + 1; count++) {
+            reader = new FlatFileRecordReader(file, charsetName);
+            reader.open();
+            long skipped = reader.skip(count);
+            assertThat(skipped).as(charsetName + " skip " + count).isEqualTo(Math.min(count, lines.size()));
+            assertThat(reader.getPosition()).as(charsetName + " position after " + count).isEqualTo(positions.get((int) skipped));
+            List<String> remainingLines = new ArrayList<String>();
+            while (reader.hasNextRecord()) {
+                StringRecord record = reader.readNextRecord();
+                assertThat(record.getHeader().getNumber()).isEqualTo(skipped + remainingLines.size() + 1);
+                remainingLines.add(record.getPayload());
+            }
+            reader.close();
+            assertThat(remainingLines).isEqualTo(lines.subList((int) skipped, lines.size()));
+        }
+    }
+
+    @Test
+    public void testReadNextRecordInFlyweightMode() throws Exception {
+        flatFileRecordReader.setFlyweight(true);
+        StringRecord record = flatFileRecordReader.readNextRecord();
+        assertThat(record.getHeader().getNumber()).isEqualTo(1l);
+        assertThat(record.getPayload()).isEqualTo("id,user,message");
+
+        record = flatFileRecordReader.readNextRecord();
+        assertThat(record.getHeader().getNumber()).isEqualTo(2l);
+        assertThat(record.getPayload()).isEqualTo("1,foo,easy batch rocks! #EasyBatch");
+    }
+
+    @Test
+    public void testCopyOfRecordInFlyweightMode() throws Exception {
+        flatFileRecordReader.setFlyweight(true);
+        StringRecord copy = ((MutableStringRecord) flatFileRecordReader.readNextRecord()).copy();
+        flatFileRecordReader.readNextRecord();
+        assertThat(copy.getHeader().getNumber()).isEqualTo(1l);
+        assertThat(copy.getPayload()).isEqualTo("id,user,message");
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void retainedRecordShouldBeDetectedInFlyweightModeWhenAssertionsAreEnabled() throws Exception {
+        flatFileRecordReader.setFlyweight(true);
+        StringRecord record = flatFileRecordReader.readNextRecord();
+        flatFileRecordReader.readNextRecord();
+        record.getPayload();
+    }
+
     /*
      * Empty file tests
      */
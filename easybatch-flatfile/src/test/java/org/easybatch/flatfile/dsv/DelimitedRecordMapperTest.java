@@ -197,4 +197,44 @@ public class DelimitedRecordMapperTest {
         assertThat(person.isMarried()).isTrue();
     }
 
+    @Test
+    public void testFlyweightMappingReusesParsedRecord() throws Exception {
+        delimitedRecordMapper = new DelimitedRecordMapper<Person>(Person.class, new Integer[]{0, 4});
+        delimitedRecordMapper.setFlyweight(true);
+        delimitedRecordMapper.parseRecord(headerRecord);
+
+        Person foo = (Person) delimitedRecordMapper.mapRecord(record);
+        when(record.getPayload()).thenReturn("bar,foo,40,1980-12-12,false");
+        Person bar = (Person) delimitedRecordMapper.mapRecord(record);
+
+        assertThat(foo.getFirstName()).isEqualTo("foo");
+        assertThat(foo.isMarried()).isTrue();
+        assertThat(bar.getFirstName()).isEqualTo("bar");
+        assertThat(bar.isMarried()).isFalse();
+    }
+
+    @Test
+    public void copyOfRecordInFlyweightModeShouldKeepItsFields() throws Exception {
+        delimitedRecordMapper.setFlyweight(true);
+        FlatFileRecord copy = delimitedRecordMapper.parseRecord(record).copy();
+        when(record.getPayload()).thenReturn("bar,foo,40,1980-12-12,false");
+        delimitedRecordMapper.parseRecord(record);
+
+        List<FlatFileField> fields = copy.getFlatFileFields();
+        assertThat(fields).hasSize(5);
+        assertThat(fields.get(0).getIndex()).isEqualTo(0);
+        assertThat(fields.get(0).getRawContent()).isEqualTo("foo");
+        assertThat(fields.get(4).getRawContent()).isEqualTo("true");
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void retainedRecordShouldBeDetectedInFlyweightModeWhenAssertionsAreEnabled() throws Exception {
+        delimitedRecordMapper.setFlyweight(true);
+        FlatFileRecord flatFileRecord = delimitedRecordMapper.parseRecord(record);
+        FlatFileRecord nextFlatFileRecord = delimitedRecordMapper.parseRecord(record);
+
+        assertThat(nextFlatFileRecord.getFlatFileFields()).hasSize(5);
+        flatFileRecord.getFlatFileFields();
+    }
+
 }
@@ -72,4 +72,19 @@ public class FixedLengthRecordMapperTest {
         assertThat(flatFileRecord.getFlatFileFields().get(2).getRawContent()).isEqualTo("ccc");
     }
 
+    @Test
+    public void testFlyweightMapping() throws Exception {
+        fixedLengthRecordMapper.setFlyweight(true);
+
+        Bean first = (Bean) fixedLengthRecordMapper.mapRecord(record);
+        when(record.getPayload()).thenReturn("ddddeefff");
+        Bean second = (Bean) fixedLengthRecordMapper.mapRecord(record);
+
+        assertThat(first.getField1()).isEqualTo("aaaa");
+        assertThat(first.getField3()).isEqualTo("ccc");
+        assertThat(second.getField1()).isEqualTo("dddd");
+        assertThat(second.getField2()).isEqualTo("ee");
+        assertThat(second.getField3()).isEqualTo("fff");
+    }
+
 }
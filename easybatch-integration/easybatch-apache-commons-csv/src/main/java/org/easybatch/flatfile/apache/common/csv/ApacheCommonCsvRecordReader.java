@@ -29,7 +29,6 @@ import org.apache.commons.csv.CSVRecord;
 import org.easybatch.core.api.Header;
 import org.easybatch.core.api.RecordReader;
 
-import java.util.Date;
 import java.util.Iterator;
 
 /**
@@ -46,6 +45,11 @@ public class ApacheCommonCsvRecordReader implements RecordReader {
 
     private Iterator<CSVRecord> iterator;
 
+    /**
+     * The data source name, computed once when the reader is opened.
+     */
+    private String dataSourceName;
+
     public ApacheCommonCsvRecordReader(CSVParser parser) {
         this.parser = parser;
     }
@@ -53,6 +57,7 @@ public class ApacheCommonCsvRecordReader implements RecordReader {
     @Override
     public void open() throws Exception {
         iterator = parser.iterator();
+        dataSourceName = getDataSourceName();
     }
 
     @Override
@@ -62,7 +67,7 @@ public class ApacheCommonCsvRecordReader implements RecordReader {
 
     @Override
     public ApacheCommonCsvRecord readNextRecord() throws Exception {
-        Header header = new Header(parser.getRecordNumber() + 1, getDataSourceName(), new Date());
+        Header header = new Header(parser.getRecordNumber() + 1, dataSourceName, System.currentTimeMillis());
         return new ApacheCommonCsvRecord(header, iterator.next());
     }
 
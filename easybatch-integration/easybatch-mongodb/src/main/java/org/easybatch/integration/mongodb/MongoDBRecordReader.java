@@ -4,18 +4,18 @@ import com.mongodb.DBCollection;
 import com.mongodb.DBCursor;
 import com.mongodb.DBObject;
 import org.easybatch.core.api.Header;
-import org.easybatch.core.api.RecordReader;
-
-import java.util.Date;
+import org.easybatch.core.api.SkippableRecordReader;
 
 /**
  * Reader that reads documents from a MongoDB collection.
  * <p/>
  * This reader produces {@link MongoDBRecord} instances.
+ * <p/>
+ * Records skipped before iterating the cursor are skipped by the server (unless a limit is set).
  *
  * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
  */
-public class MongoDBRecordReader implements RecordReader {
+public class MongoDBRecordReader implements SkippableRecordReader {
 
     private DBCollection collection;
 
@@ -34,6 +34,16 @@ public class MongoDBRecordReader implements RecordReader {
 
     private long currentRecordNumber;
 
+    /**
+     * True once the cursor has been iterated, after which the cursor can no more skip documents on the server side.
+     */
+    private boolean iterating;
+
+    /**
+     * The data source name, computed once when the reader is opened (it requires a call to the data source).
+     */
+    private String dataSourceName;
+
     public MongoDBRecordReader(DBCollection collection, DBObject query) {
         this.collection = collection;
         this.query = query;
@@ -42,6 +52,7 @@ public class MongoDBRecordReader implements RecordReader {
     @Override
     public void open() throws Exception {
         currentRecordNumber = 0;
+        iterating = false;
         cursor = collection.find(query);
         if (limit) {
             cursor.limit(nbLimit);
@@ -52,19 +63,38 @@ public class MongoDBRecordReader implements RecordReader {
         if (sort) {
             cursor.sort(orderBy);
         }
+        dataSourceName = getDataSourceName();
     }
 
     @Override
     public boolean hasNextRecord() {
+        iterating = true;
         return cursor.hasNext();
     }
 
     @Override
     public MongoDBRecord readNextRecord() throws Exception {
-        Header header = new Header(++currentRecordNumber, getDataSourceName(), new Date());
+        Header header = new Header(++currentRecordNumber, dataSourceName, System.currentTimeMillis());
         return new MongoDBRecord(header, cursor.next());
     }
 
+    @Override
+    public long skip(final long count) {
+        long skipped = 0;
+        if (!iterating && !limit) {
+            int alreadySkipped = skip ? nbSkip : 0;
+            skipped = Math.min(count, Math.max(0, cursor.count() - alreadySkipped));
+            cursor.skip((int) (alreadySkipped + skipped));
+        } else {
+            while (skipped < count && cursor.hasNext()) {
+                cursor.next();
+                skipped++;
+            }
+        }
+        currentRecordNumber += skipped;
+        return skipped;
+    }
+
     @Override
     public Long getTotalRecords() {
         return (long) cursor.count();
@@ -72,6 +102,9 @@ public class MongoDBRecordReader implements RecordReader {
 
     @Override
     public String getDataSourceName() {
+        if (dataSourceName != null) {
+            return dataSourceName;
+        }
         return "MongoDB collection: " + collection.getName();
     }
 
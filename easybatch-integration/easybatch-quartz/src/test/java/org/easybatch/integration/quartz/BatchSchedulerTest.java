@@ -14,6 +14,7 @@ import java.util.Date;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -44,7 +45,7 @@ public class BatchSchedulerTest {
 
         assertThat(batchScheduler.isStarted()).isTrue();
 
-        verify(recordProcessor, times(2)).processRecord(any(StringRecord.class));
+        verify(recordProcessor, timeout(5000).times(2)).processRecord(any(StringRecord.class));
 
     }
 
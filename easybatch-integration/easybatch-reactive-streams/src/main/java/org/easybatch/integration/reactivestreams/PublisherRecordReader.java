@@ -0,0 +1,231 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.integration.reactivestreams;
+
+import org.easybatch.core.api.Header;
+import org.easybatch.core.api.RecordReader;
+import org.easybatch.core.record.GenericRecord;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * A {@link RecordReader} that reads items emitted by a reactive streams {@link Publisher}.
+ * <p/>
+ * Demand is driven by reads: the reader requests at most bufferSize items upfront and requests more
+ * only as records are read by the engine, so a slow engine throttles the publisher instead of buffering its items.
+ * <p/>
+ * This reader produces {@link GenericRecord} instances holding published items.
+ * If the publisher signals an error, the next read fails with this error.
+ *
+ * @param <T> the type of published items
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class PublisherRecordReader<T> implements RecordReader {
+
+    public static final int DEFAULT_BUFFER_SIZE = 128;
+
+    private static final Object COMPLETE = new Object();
+
+    /**
+     * The publisher to read items from.
+     */
+    private Publisher<T> publisher;
+
+    /**
+     * The maximum number of items requested but not read yet.
+     */
+    private int bufferSize;
+
+    /**
+     * Signals received from the publisher (items, errors or completion).
+     */
+    private BlockingQueue<Object> signals;
+
+    /**
+     * The next signal to consume, if already taken from the queue.
+     */
+    private Object nextSignal;
+
+    private volatile Subscription subscription;
+
+    /**
+     * The number of items read since the last request.
+     */
+    private int readSinceLastRequest;
+
+    private boolean terminated;
+
+    private long currentRecordNumber;
+
+    /**
+     * The data source name, computed once when the reader is opened.
+     */
+    private String dataSourceName;
+
+    /**
+     * Constructs a {@link PublisherRecordReader} with a default buffer size of {@value #DEFAULT_BUFFER_SIZE} items.
+     *
+     * @param publisher the publisher to read items from
+     */
+    public PublisherRecordReader(final Publisher<T> publisher) {
+        this(publisher, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructs a {@link PublisherRecordReader}.
+     *
+     * @param publisher  the publisher to read items from
+     * @param bufferSize the maximum number of items requested but not read yet
+     */
+    public PublisherRecordReader(final Publisher<T> publisher, final int bufferSize) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Buffer size must be at least 1");
+        }
+        this.publisher = publisher;
+        this.bufferSize = bufferSize;
+    }
+
+    @Override
+    public void open() throws Exception {
+        currentRecordNumber = 0;
+        readSinceLastRequest = 0;
+        terminated = false;
+        nextSignal = null;
+        signals = new LinkedBlockingQueue<Object>();
+        publisher.subscribe(new BufferingSubscriber());
+        dataSourceName = getDataSourceName();
+    }
+
+    @Override
+    public boolean hasNextRecord() {
+        if (nextSignal == null) {
+            try {
+                nextSignal = signals.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return nextSignal != COMPLETE;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public GenericRecord<T> readNextRecord() throws Exception {
+        if (!hasNextRecord()) {
+            throw new IllegalStateException("The publisher has completed, no more records to read");
+        }
+        Object signal = nextSignal;
+        nextSignal = null;
+        if (signal instanceof ErrorSignal) {
+            terminated = true;
+            throw new Exception("The publisher signaled an error", ((ErrorSignal) signal).error);
+        }
+        requestMoreIfNeeded();
+        Header header = new Header(++currentRecordNumber, dataSourceName, System.currentTimeMillis());
+        return new GenericRecord<T>(header, (T) signal);
+    }
+
+    /**
+     * Replenish demand by batches of half the buffer size to avoid a request per item.
+     */
+    private void requestMoreIfNeeded() {
+        readSinceLastRequest++;
+        if (readSinceLastRequest >= Math.max(1, bufferSize / 2)) {
+            subscription.request(readSinceLastRequest);
+            readSinceLastRequest = 0;
+        }
+    }
+
+    @Override
+    public Long getTotalRecords() {
+        // total record cannot be calculated upfront
+        return null;
+    }
+
+    @Override
+    public String getDataSourceName() {
+        return "Publisher: " + publisher;
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (!terminated && nextSignal != COMPLETE && subscription != null) {
+            subscription.cancel();
+        }
+    }
+
+    private class BufferingSubscriber implements Subscriber<T> {
+
+        @Override
+        public void onSubscribe(final Subscription s) {
+            if (s == null) {
+                throw new NullPointerException("Subscription must not be null");
+            }
+            if (subscription != null) {
+                s.cancel();
+                return;
+            }
+            subscription = s;
+            s.request(bufferSize);
+        }
+
+        @Override
+        public void onNext(final T item) {
+            if (item == null) {
+                throw new NullPointerException("Published item must not be null");
+            }
+            signals.add(item);
+        }
+
+        @Override
+        public void onError(final Throwable throwable) {
+            if (throwable == null) {
+                throw new NullPointerException("Error must not be null");
+            }
+            signals.add(new ErrorSignal(throwable));
+            signals.add(COMPLETE);
+        }
+
+        @Override
+        public void onComplete() {
+            signals.add(COMPLETE);
+        }
+    }
+
+    private static class ErrorSignal {
+
+        private final Throwable error;
+
+        ErrorSignal(final Throwable error) {
+            this.error = error;
+        }
+    }
+
+}
@@ -0,0 +1,265 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.integration.reactivestreams;
+
+import org.easybatch.core.api.RecordProcessor;
+import org.easybatch.core.api.Status;
+import org.easybatch.core.api.event.batch.BatchProcessEventListener;
+import org.easybatch.core.impl.Engine;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * A reactive streams {@link Publisher} of the records processed by an engine.
+ * <p/>
+ * This publisher should be registered as the last processor of the engine and as a batch process event listener
+ * (to signal the end of the batch), and should be given the engine once built:
+ * <pre>
+ * RecordPublisher&lt;Tweet&gt; publisher = new RecordPublisher&lt;Tweet&gt;();
+ * Engine engine = aNewEngine()
+ *         .reader(...)
+ *         .mapper(...)
+ *         .processor(publisher)
+ *         .batchProcessEventListener(publisher)
+ *         .build();
+ * publisher.setEngine(engine);
+ * publisher.subscribe(subscriber);
+ * executorService.submit(engine);
+ * </pre>
+ * Each processed record waits for the subscriber's demand before being emitted, so a slow subscriber
+ * throttles the engine (and hence reading from the data source) instead of records being buffered.
+ * <p/>
+ * At the end of the batch, the subscriber is completed if the execution finished, and receives an error otherwise
+ * (the exception that aborted the execution, if any). Without an engine, the publisher cannot tell a failed execution
+ * from a finished one and always completes the subscriber.
+ * <p/>
+ * This publisher supports a single subscriber and a sequential engine (records must not be processed in parallel).
+ * Once the subscriber cancels its subscription, remaining records are not emitted anymore and the engine is stopped.
+ *
+ * @param <T> the type of published records
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class RecordPublisher<T> implements Publisher<T>, RecordProcessor<T, T>, BatchProcessEventListener {
+
+    private final Object lock = new Object();
+
+    private volatile Engine engine;
+
+    private Subscriber<? super T> subscriber;
+
+    private long demand;
+
+    private boolean cancelled;
+
+    /**
+     * True once the subscriber has received a terminal signal.
+     */
+    private boolean terminated;
+
+    /**
+     * An error to signal to the subscriber from the engine thread (signals must not be concurrent, rule 1.3).
+     */
+    private Throwable pendingError;
+
+    /**
+     * The last batch exception, the cause of the abort if the execution does not finish.
+     */
+    private Throwable lastException;
+
+    /**
+     * Register the engine publishing records, so that the publisher can tell if the execution finished
+     * and stop the engine when the subscriber cancels its subscription.
+     *
+     * @param engine the engine publishing records
+     */
+    public void setEngine(final Engine engine) {
+        this.engine = engine;
+        boolean stop;
+        synchronized (lock) {
+            stop = cancelled || pendingError != null;
+        }
+        if (stop) {
+            stopEngine();
+        }
+    }
+
+    @Override
+    public void subscribe(final Subscriber<? super T> s) {
+        if (s == null) {
+            throw new NullPointerException("Subscriber must not be null");
+        }
+        synchronized (lock) {
+            if (subscriber != null) {
+                s.onSubscribe(new RecordSubscription(null));
+                s.onError(new IllegalStateException("This publisher supports only one subscriber"));
+                return;
+            }
+            subscriber = s;
+        }
+        s.onSubscribe(new RecordSubscription(s));
+        synchronized (lock) {
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Emit the record to the subscriber, waiting for a subscriber and its demand if needed.
+     *
+     * @param record the record to emit
+     * @return the record itself
+     * @throws InterruptedException if the engine thread is interrupted while waiting for demand
+     */
+    @Override
+    public T processRecord(final T record) throws InterruptedException {
+        Subscriber<? super T> s;
+        Throwable error;
+        synchronized (lock) {
+            while (!cancelled && pendingError == null && (subscriber == null || demand == 0)) {
+                lock.wait();
+            }
+            if (terminated || cancelled && pendingError == null) {
+                return record;
+            }
+            error = pendingError;
+            if (error != null) {
+                terminated = true;
+            } else {
+                demand--;
+            }
+            s = subscriber;
+        }
+        if (error != null) {
+            s.onError(error);
+        } else {
+            s.onNext(record);
+        }
+        return record;
+    }
+
+    @Override
+    public void beforeBatchStart() {
+        synchronized (lock) {
+            lastException = null;
+        }
+    }
+
+    @Override
+    public void afterBatchEnd() {
+        Subscriber<? super T> s;
+        Throwable error;
+        synchronized (lock) {
+            if (subscriber == null || terminated || cancelled && pendingError == null) {
+                return;
+            }
+            error = pendingError != null ? pendingError : getExecutionError();
+            terminated = true;
+            s = subscriber;
+        }
+        if (error != null) {
+            s.onError(error);
+        } else {
+            s.onComplete();
+        }
+    }
+
+    /**
+     * Get the error to signal at the end of the batch, null if the execution finished.
+     */
+    private Throwable getExecutionError() {
+        if (engine == null) {
+            return null;
+        }
+        Status status = engine.getReport().getStatus();
+        if (Status.ABORTED.equals(status)) {
+            return lastException != null ? lastException : new IllegalStateException("The engine execution was aborted");
+        }
+        if (!Status.FINISHED.equals(status)) {
+            return new IllegalStateException("The engine execution ended before the end of the data source (status: " + status + ")");
+        }
+        return null;
+    }
+
+    /**
+     * Keep the last exception (a batch exception or a record processing exception) as the abort cause,
+     * it is only signaled if the execution does not finish.
+     */
+    @Override
+    public void onException(final Throwable throwable) {
+        synchronized (lock) {
+            lastException = throwable;
+        }
+    }
+
+    private void stopEngine() {
+        Engine currentEngine = engine;
+        if (currentEngine != null) {
+            currentEngine.stop();
+        }
+    }
+
+    private class RecordSubscription implements Subscription {
+
+        private final Subscriber<? super T> owner;
+
+        RecordSubscription(final Subscriber<? super T> owner) {
+            this.owner = owner;
+        }
+
+        @Override
+        public void request(final long n) {
+            if (owner == null) {
+                return;
+            }
+            synchronized (lock) {
+                if (n <= 0) {
+                    // signaled by the engine thread, which may be emitting a record at the moment
+                    if (pendingError == null) {
+                        pendingError = new IllegalArgumentException("Requested items must be positive (rule 3.9)");
+                    }
+                } else {
+                    demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+                }
+                lock.notifyAll();
+            }
+            if (n <= 0) {
+                stopEngine();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (owner == null) {
+                return;
+            }
+            synchronized (lock) {
+                cancelled = true;
+                lock.notifyAll();
+            }
+            stopEngine();
+        }
+    }
+
+}
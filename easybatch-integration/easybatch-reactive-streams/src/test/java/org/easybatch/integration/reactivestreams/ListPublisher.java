@@ -0,0 +1,80 @@
+package org.easybatch.integration.reactivestreams;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.List;
+
+/**
+ * A synchronous publisher of list items used in tests, keeping track of outstanding demand.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+class ListPublisher<T> implements Publisher<T> {
+
+    private final List<T> items;
+
+    private final Throwable error;
+
+    private long maxOutstandingDemand;
+
+    private boolean cancelled;
+
+    ListPublisher(final List<T> items) {
+        this(items, null);
+    }
+
+    ListPublisher(final List<T> items, final Throwable error) {
+        this.items = items;
+        this.error = error;
+    }
+
+    @Override
+    public void subscribe(final Subscriber<? super T> subscriber) {
+        subscriber.onSubscribe(new Subscription() {
+
+            private int next;
+
+            private long demand;
+
+            private boolean emitting;
+
+            @Override
+            public void request(long n) {
+                demand += n;
+                maxOutstandingDemand = Math.max(maxOutstandingDemand, demand);
+                if (emitting) {
+                    return;
+                }
+                emitting = true;
+                while (demand > 0 && next < items.size() && !cancelled) {
+                    demand--;
+                    subscriber.onNext(items.get(next++));
+                }
+                emitting = false;
+                if (next == items.size() && !cancelled) {
+                    next++;
+                    if (error != null) {
+                        subscriber.onError(error);
+                    } else {
+                        subscriber.onComplete();
+                    }
+                }
+            }
+
+            @Override
+            public void cancel() {
+                cancelled = true;
+            }
+        });
+    }
+
+    long getMaxOutstandingDemand() {
+        return maxOutstandingDemand;
+    }
+
+    boolean isCancelled() {
+        return cancelled;
+    }
+}
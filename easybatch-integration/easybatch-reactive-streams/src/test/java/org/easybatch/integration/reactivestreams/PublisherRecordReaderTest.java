@@ -0,0 +1,65 @@
+package org.easybatch.integration.reactivestreams;
+
+import org.easybatch.core.record.GenericRecord;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for {@link PublisherRecordReader}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class PublisherRecordReaderTest {
+
+    @Test
+    public void allPublishedItemsShouldBeReadWithBoundedDemand() throws Exception {
+        List<Integer> items = new ArrayList<Integer>();
+        for (int i = 1; i <= 100; i++) {
+            items.add(i);
+        }
+        ListPublisher<Integer> publisher = new ListPublisher<Integer>(items);
+        PublisherRecordReader<Integer> recordReader = new PublisherRecordReader<Integer>(publisher, 10);
+        recordReader.open();
+
+        List<Integer> readItems = new ArrayList<Integer>();
+        while (recordReader.hasNextRecord()) {
+            GenericRecord<Integer> record = recordReader.readNextRecord();
+            assertThat(record.getHeader().getNumber()).isEqualTo(readItems.size() + 1);
+            readItems.add(record.getPayload());
+        }
+        recordReader.close();
+
+        assertThat(readItems).isEqualTo(items);
+        assertThat(publisher.getMaxOutstandingDemand()).isLessThanOrEqualTo(10);
+        assertThat(publisher.isCancelled()).isFalse();
+    }
+
+    @Test(expected = Exception.class)
+    public void whenThePublisherSignalsAnError_thenReadingShouldFail() throws Exception {
+        ListPublisher<String> publisher = new ListPublisher<String>(asList("foo"), new IllegalStateException("boom"));
+        PublisherRecordReader<String> recordReader = new PublisherRecordReader<String>(publisher);
+        recordReader.open();
+
+        assertThat(recordReader.readNextRecord().getPayload()).isEqualTo("foo");
+        assertThat(recordReader.hasNextRecord()).isTrue();
+        recordReader.readNextRecord();
+    }
+
+    @Test
+    public void whenTheReaderIsClosedBeforeCompletion_thenTheSubscriptionShouldBeCancelled() throws Exception {
+        ListPublisher<String> publisher = new ListPublisher<String>(asList("foo", "bar"));
+        PublisherRecordReader<String> recordReader = new PublisherRecordReader<String>(publisher, 1);
+        recordReader.open();
+
+        recordReader.readNextRecord();
+        recordReader.close();
+
+        assertThat(publisher.isCancelled()).isTrue();
+    }
+
+}
@@ -0,0 +1,232 @@
+package org.easybatch.integration.reactivestreams;
+
+import org.easybatch.core.api.RecordProcessor;
+import org.easybatch.core.api.Report;
+import org.easybatch.core.api.Status;
+import org.easybatch.core.impl.Engine;
+import org.easybatch.core.mapper.GenericRecordMapper;
+import org.easybatch.core.reader.ListRecordReader;
+import org.junit.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.easybatch.core.impl.EngineBuilder.aNewEngine;
+
+/**
+ * Test class for {@link RecordPublisher}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class RecordPublisherTest {
+
+    @Test
+    public void allProcessedRecordsShouldBePublishedAccordingToDemand() throws Exception {
+        RecordPublisher<Integer> publisher = new RecordPublisher<Integer>();
+        final List<Integer> received = new ArrayList<Integer>();
+        final CountDownLatch completed = new CountDownLatch(1);
+        publisher.subscribe(new Subscriber<Integer>() {
+            private Subscription subscription;
+
+            public void onSubscribe(Subscription s) {
+                subscription = s;
+                subscription.request(1);
+            }
+
+            public void onNext(Integer item) {
+                received.add(item);
+                subscription.request(1);
+            }
+
+            public void onError(Throwable throwable) {
+            }
+
+            public void onComplete() {
+                completed.countDown();
+            }
+        });
+
+        Report report = newEngine(integers(50), publisher).call();
+
+        assertThat(completed.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(received).isEqualTo(integers(50));
+        assertThat(report.getStatus()).isEqualTo(Status.FINISHED);
+    }
+
+    @Test
+    public void aSlowSubscriberShouldThrottleReading() throws Exception {
+        RecordPublisher<Integer> publisher = new RecordPublisher<Integer>();
+        final AtomicInteger received = new AtomicInteger();
+        final CountDownLatch twoReceived = new CountDownLatch(2);
+        final Subscription[] subscription = new Subscription[1];
+        publisher.subscribe(new Subscriber<Integer>() {
+            public void onSubscribe(Subscription s) {
+                subscription[0] = s;
+                s.request(2);
+            }
+
+            public void onNext(Integer item) {
+                received.incrementAndGet();
+                twoReceived.countDown();
+            }
+
+            public void onError(Throwable throwable) {
+            }
+
+            public void onComplete() {
+            }
+        });
+
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        Engine engine = newEngine(integers(1000), publisher);
+        publisher.setEngine(engine);
+        Future<Report> report = executorService.submit(engine);
+        assertThat(twoReceived.await(1, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(100);
+
+        assertThat(received.get()).isEqualTo(2);
+        assertThat(report.isDone()).isFalse();
+
+        subscription[0].cancel();
+        assertThat(report.get(1, TimeUnit.SECONDS).getStatus()).isEqualTo(Status.STOPPED);
+        assertThat(report.get().getCurrentRecordNumber()).isLessThan(1000);
+        assertThat(received.get()).isEqualTo(2);
+        executorService.shutdown();
+    }
+
+    @Test
+    public void whenTheExecutionIsAborted_thenTheSubscriberShouldReceiveTheCause() throws Exception {
+        RecordPublisher<Integer> publisher = new RecordPublisher<Integer>();
+        RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+        publisher.subscribe(subscriber);
+        final Exception failure = new Exception("processing failure on record 3");
+        Engine engine = aNewEngine()
+                .reader(new ListRecordReader<Integer>(integers(10)))
+                .mapper(new GenericRecordMapper())
+                .processor(new RecordProcessor<Integer, Integer>() {
+                    public Integer processRecord(Integer record) throws Exception {
+                        if (record == 3) {
+                            throw failure;
+                        }
+                        return record;
+                    }
+                })
+                .processor(publisher)
+                .batchProcessEventListener(publisher)
+                .strictMode(true)
+                .build();
+        publisher.setEngine(engine);
+
+        Report report = engine.call();
+
+        assertThat(report.getStatus()).isEqualTo(Status.ABORTED);
+        assertThat(subscriber.received).containsExactly(1, 2);
+        assertThat(subscriber.completed).isFalse();
+        assertThat(subscriber.error).isSameAs(failure);
+    }
+
+    @Test
+    public void whenRecordErrorsDoNotAbortTheExecution_thenTheSubscriberShouldBeCompleted() throws Exception {
+        RecordPublisher<Integer> publisher = new RecordPublisher<Integer>();
+        RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+        publisher.subscribe(subscriber);
+        Engine engine = aNewEngine()
+                .reader(new ListRecordReader<Integer>(integers(5)))
+                .mapper(new GenericRecordMapper())
+                .processor(new RecordProcessor<Integer, Integer>() {
+                    public Integer processRecord(Integer record) throws Exception {
+                        if (record == 3) {
+                            throw new Exception("processing failure on record 3");
+                        }
+                        return record;
+                    }
+                })
+                .processor(publisher)
+                .batchProcessEventListener(publisher)
+                .build();
+        publisher.setEngine(engine);
+
+        engine.call();
+
+        assertThat(subscriber.received).containsExactly(1, 2, 4, 5);
+        assertThat(subscriber.completed).isTrue();
+        assertThat(subscriber.error).isNull();
+    }
+
+    @Test
+    public void whenTheRequestIsNotPositive_thenTheErrorShouldBeSignaledByTheEngineThread() throws Exception {
+        RecordPublisher<Integer> publisher = new RecordPublisher<Integer>();
+        RecordingSubscriber subscriber = new RecordingSubscriber(0);
+        publisher.subscribe(subscriber);
+        Engine engine = newEngine(integers(10), publisher);
+        publisher.setEngine(engine);
+
+        Report report = engine.call();
+
+        assertThat(subscriber.error).isInstanceOf(IllegalArgumentException.class);
+        assertThat(subscriber.errorThread).isSameAs(Thread.currentThread());
+        assertThat(subscriber.received).isEmpty();
+        assertThat(report.getStatus()).isEqualTo(Status.STOPPED);
+    }
+
+    private static class RecordingSubscriber implements Subscriber<Integer> {
+
+        private final long initialRequest;
+
+        private final List<Integer> received = new ArrayList<Integer>();
+
+        private volatile boolean completed;
+
+        private volatile Throwable error;
+
+        private volatile Thread errorThread;
+
+        RecordingSubscriber(long initialRequest) {
+            this.initialRequest = initialRequest;
+        }
+
+        public void onSubscribe(Subscription s) {
+            s.request(initialRequest);
+        }
+
+        public void onNext(Integer item) {
+            received.add(item);
+        }
+
+        public void onError(Throwable throwable) {
+            error = throwable;
+            errorThread = Thread.currentThread();
+        }
+
+        public void onComplete() {
+            completed = true;
+        }
+    }
+
+    private Engine newEngine(List<Integer> integers, RecordPublisher<Integer> publisher) {
+        return aNewEngine()
+                .reader(new ListRecordReader<Integer>(integers))
+                .mapper(new GenericRecordMapper())
+                .processor(publisher)
+                .batchProcessEventListener(publisher)
+                .build();
+    }
+
+    private List<Integer> integers(int count) {
+        List<Integer> integers = new ArrayList<Integer>();
+        for (int i = 1; i <= count; i++) {
+            integers.add(i);
+        }
+        return integers;
+    }
+
+}
@@ -0,0 +1,159 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.jdbc;
+
+import org.easybatch.core.api.Checkpoint;
+import org.easybatch.core.api.CheckpointStore;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * A {@link CheckpointStore} implementation that persists checkpoints in a database table using jdbc API.
+ * <p/>
+ * The table holds one row per job and is expected to be created beforehand with the following structure:
+ * <pre>
+ * create table easybatch_checkpoint (
+ *   job_name varchar(255) not null primary key,
+ *   record_number bigint not null,
+ *   position bigint not null
+ * )
+ * </pre>
+ * If the connection is not in auto-commit mode, the transaction is committed after each update,
+ * so a dedicated connection should be used.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class JdbcCheckpointStore implements CheckpointStore {
+
+    /**
+     * The default checkpoint table name.
+     */
+    public static final String DEFAULT_TABLE_NAME = "easybatch_checkpoint";
+
+    /**
+     * The database connection to use.
+     */
+    private Connection connection;
+
+    /**
+     * The name of the job whose checkpoint is stored.
+     */
+    private String jobName;
+
+    private String selectQuery;
+
+    private String updateQuery;
+
+    private String insertQuery;
+
+    private String deleteQuery;
+
+    /**
+     * Create a JdbcCheckpointStore instance using the default checkpoint table.
+     *
+     * @param connection the connection to use
+     * @param jobName    the name of the job whose checkpoint is stored
+     */
+    public JdbcCheckpointStore(final Connection connection, final String jobName) {
+        this(connection, jobName, DEFAULT_TABLE_NAME);
+    }
+
+    /**
+     * Create a JdbcCheckpointStore instance.
+     *
+     * @param connection the connection to use
+     * @param jobName    the name of the job whose checkpoint is stored
+     * @param tableName  the checkpoint table name
+     */
+    public JdbcCheckpointStore(final Connection connection, final String jobName, final String tableName) {
+        this.connection = connection;
+        this.jobName = jobName;
+        this.selectQuery = "select record_number, position from " + tableName + " where job_name = ?";
+        this.updateQuery = "update " + tableName + " set record_number = ?, position = ? where job_name = ?";
+        this.insertQuery = "insert into " + tableName + " (record_number, position, job_name) values (?, ?, ?)";
+        this.deleteQuery = "delete from " + tableName + " where job_name = ?";
+    }
+
+    @Override
+    public Checkpoint load() throws Exception {
+        PreparedStatement statement = connection.prepareStatement(selectQuery);
+        try {
+            statement.setString(1, jobName);
+            ResultSet resultSet = statement.executeQuery();
+            try {
+                if (!resultSet.next()) {
+                    return null;
+                }
+                return new Checkpoint(resultSet.getLong(1), resultSet.getLong(2));
+            } finally {
+                resultSet.close();
+            }
+        } finally {
+            statement.close();
+        }
+    }
+
+    @Override
+    public void save(final Checkpoint checkpoint) throws Exception {
+        if (executeUpdate(updateQuery, checkpoint) == 0) {
+            executeUpdate(insertQuery, checkpoint);
+        }
+        commit();
+    }
+
+    @Override
+    public void clear() throws Exception {
+        PreparedStatement statement = connection.prepareStatement(deleteQuery);
+        try {
+            statement.setString(1, jobName);
+            statement.executeUpdate();
+        } finally {
+            statement.close();
+        }
+        commit();
+    }
+
+    private int executeUpdate(final String query, final Checkpoint checkpoint) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(query);
+        try {
+            statement.setLong(1, checkpoint.getRecordNumber());
+            statement.setLong(2, checkpoint.getPosition());
+            statement.setString(3, jobName);
+            return statement.executeUpdate();
+        } finally {
+            statement.close();
+        }
+    }
+
+    private void commit() throws SQLException {
+        if (!connection.getAutoCommit()) {
+            connection.commit();
+        }
+    }
+
+}
@@ -0,0 +1,131 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.jdbc;
+
+import org.easybatch.core.api.Partitioner;
+import org.easybatch.core.api.RecordReader;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.lang.String.format;
+
+/**
+ * A {@link Partitioner} that splits the result of a jdbc query into ranges of a numeric id column.
+ * <p/>
+ * The minimum and maximum ids are first queried, then the [min, max] interval is split into ranges of equal width.
+ * Each partition is read by a {@link JdbcRecordReader} with a query restricting the original query to the partition's
+ * id range. Each reader gets its own connection from the data source when it is opened, so partitioning does not hold
+ * any connection and partitions waiting for a worker do not pin connections of the pool.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class JdbcPartitioner implements Partitioner {
+
+    /**
+     * The data source to get connections from.
+     */
+    private DataSource dataSource;
+
+    /**
+     * The jdbc query to partition.
+     */
+    private String query;
+
+    /**
+     * The numeric column used to partition the query result.
+     */
+    private String idColumn;
+
+    /**
+     * Create a JdbcPartitioner instance.
+     *
+     * @param dataSource the data source to get connections from (one connection per open partition)
+     * @param query      the jdbc query to partition
+     * @param idColumn   the numeric column of the query result used to partition it
+     */
+    public JdbcPartitioner(final DataSource dataSource, final String query, final String idColumn) {
+        this.dataSource = dataSource;
+        this.query = query;
+        this.idColumn = idColumn;
+    }
+
+    @Override
+    public List<RecordReader> partition(final int partitions) throws Exception {
+        if (partitions < 1) {
+            throw new IllegalArgumentException("The number of partitions must be at least 1");
+        }
+        List<RecordReader> recordReaders = new ArrayList<RecordReader>();
+        long[] bounds = queryIdBounds();
+        if (bounds == null) {
+            // empty result: a single empty partition
+            recordReaders.add(new JdbcRecordReader(dataSource, query));
+            return recordReaders;
+        }
+        long min = bounds[0];
+        long max = bounds[1];
+        long count = Math.min(partitions, max - min + 1);
+        for (long i = 0; i < count; i++) {
+            long from = min + (long) ((double) (max - min + 1) * i / count);
+            long to = min + (long) ((double) (max - min + 1) * (i + 1) / count);
+            String condition = i == count - 1 ?
+                    format("%s >= %d and %s <= %d", idColumn, from, idColumn, max) :
+                    format("%s >= %d and %s < %d", idColumn, from, idColumn, to);
+            String partitionQuery = format("select * from (%s) partitioned where %s", query, condition);
+            recordReaders.add(new JdbcRecordReader(dataSource, partitionQuery));
+        }
+        return recordReaders;
+    }
+
+    private long[] queryIdBounds() throws Exception {
+        Connection connection = dataSource.getConnection();
+        try {
+            Statement statement = connection.createStatement();
+            try {
+                ResultSet resultSet = statement.executeQuery(
+                        format("select min(%s), max(%s) from (%s) partitioned", idColumn, idColumn, query));
+                try {
+                    resultSet.next();
+                    long min = resultSet.getLong(1);
+                    if (resultSet.wasNull()) {
+                        return null;
+                    }
+                    return new long[]{min, resultSet.getLong(2)};
+                } finally {
+                    resultSet.close();
+                }
+            } finally {
+                statement.close();
+            }
+        } finally {
+            connection.close();
+        }
+    }
+
+}
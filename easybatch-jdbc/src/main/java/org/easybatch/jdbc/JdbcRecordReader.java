@@ -26,12 +26,13 @@ package org.easybatch.jdbc;
 
 import org.easybatch.core.api.Header;
 import org.easybatch.core.api.RecordReader;
+import org.easybatch.core.api.SkippableRecordReader;
 
+import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.util.Date;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -39,10 +40,12 @@ import java.util.logging.Logger;
  * A {@link org.easybatch.core.api.RecordReader} that reads records from a database using jdbc API.
  * <p/>
  * This reader produces {@link JdbcRecord} instances.
+ * <p/>
+ * Skipped records are only stepped over in the result set, no record is created for them.
  *
  * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
  */
-public class JdbcRecordReader implements RecordReader {
+public class JdbcRecordReader implements SkippableRecordReader {
 
     /**
      * The logger to use.
@@ -54,6 +57,11 @@ public class JdbcRecordReader implements RecordReader {
      */
     private Connection connection;
 
+    /**
+     * The data source to get the connection from when the reader is opened, if no connection was given.
+     */
+    private DataSource dataSource;
+
     /**
      * The statement to use to read data.
      */
@@ -92,6 +100,11 @@ public class JdbcRecordReader implements RecordReader {
      */
     private long currentRecordNumber;
 
+    /**
+     * The data source name, computed once when the reader is opened (it requires a call to the data source).
+     */
+    private String dataSourceName;
+
     /**
      * Create a JdbcRecordReader instance.
      *
@@ -103,20 +116,57 @@ public class JdbcRecordReader implements RecordReader {
         this.query = query;
     }
 
+    /**
+     * Create a JdbcRecordReader instance that gets its connection from a data source when it is opened.
+     * The connection is released when the reader is closed.
+     *
+     * @param dataSource the data source to get the connection from
+     * @param query      the jdbc query to use to fetch data
+     */
+    public JdbcRecordReader(final DataSource dataSource, final String query) {
+        this.dataSource = dataSource;
+        this.query = query;
+    }
+
     @Override
     public void open() throws Exception {
         currentRecordNumber = 0;
-        statement = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
-        if (maxRowsEnabled) {
-            statement.setMaxRows(maxRows);
+        if (dataSource != null) {
+            connection = dataSource.getConnection();
         }
-        if (fetchSizeEnabled) {
-            statement.setFetchSize(fetchSize);
+        try {
+            statement = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            if (maxRowsEnabled) {
+                statement.setMaxRows(maxRows);
+            }
+            if (fetchSizeEnabled) {
+                statement.setFetchSize(fetchSize);
+            }
+            if (queryTimeoutEnabled) {
+                statement.setQueryTimeout(queryTimeout);
+            }
+            resultSet = statement.executeQuery(query);
+        } catch (SQLException e) {
+            if (dataSource != null) {
+                // a reader that failed to open is not closed by the engine: release the connection taken from the pool
+                releaseConnection();
+            }
+            throw e;
         }
-        if (queryTimeoutEnabled) {
-            statement.setQueryTimeout(queryTimeout);
+        dataSourceName = getDataSourceName();
+    }
+
+    private void releaseConnection() {
+        try {
+            if (statement != null) {
+                statement.close();
+            }
+            connection.close();
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Unable to release the database connection", e);
         }
-        resultSet = statement.executeQuery(query);
+        statement = null;
+        connection = null;
     }
 
     @Override
@@ -131,10 +181,20 @@ public class JdbcRecordReader implements RecordReader {
 
     @Override
     public JdbcRecord readNextRecord() {
-        Header header = new Header(++currentRecordNumber, getDataSourceName(), new Date());
+        Header header = new Header(++currentRecordNumber, dataSourceName, System.currentTimeMillis());
         return new JdbcRecord(header, resultSet);
     }
 
+    @Override
+    public long skip(final long count) throws SQLException {
+        long skipped = 0;
+        while (skipped < count && resultSet.next()) {
+            skipped++;
+        }
+        currentRecordNumber += skipped;
+        return skipped;
+    }
+
     @Override
     public Long getTotalRecords() {
         return null;
@@ -142,6 +202,12 @@ public class JdbcRecordReader implements RecordReader {
 
     @Override
     public String getDataSourceName() {
+        if (dataSourceName != null) {
+            return dataSourceName;
+        }
+        if (connection == null) {
+            return "Query string: " + query;
+        }
         try {
             return "Connection URL: " + connection.getMetaData().getURL() + " | " +
                     "Query string: " + query;
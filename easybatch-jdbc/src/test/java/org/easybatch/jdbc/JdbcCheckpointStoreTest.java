@@ -0,0 +1,78 @@
+package org.easybatch.jdbc;
+
+import org.easybatch.core.api.Checkpoint;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for {@link JdbcCheckpointStore}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class JdbcCheckpointStoreTest {
+
+    private static final String DATABASE_URL = "jdbc:hsqldb:mem:checkpoint";
+
+    private Connection connection;
+
+    private JdbcCheckpointStore checkpointStore;
+
+    @Before
+    public void setUp() throws Exception {
+        connection = DriverManager.getConnection(DATABASE_URL, "sa", "pwd");
+        Statement statement = connection.createStatement();
+        statement.executeUpdate("CREATE TABLE easybatch_checkpoint (\n" +
+                "  job_name varchar(255) NOT NULL PRIMARY KEY,\n" +
+                "  record_number bigint NOT NULL,\n" +
+                "  position bigint NOT NULL\n" +
+                ");");
+        statement.close();
+        checkpointStore = new JdbcCheckpointStore(connection, "job");
+    }
+
+    @Test
+    public void whenNoCheckpointHasBeenSaved_thenLoadShouldReturnNull() throws Exception {
+        assertThat(checkpointStore.load()).isNull();
+    }
+
+    @Test
+    public void savedCheckpointShouldBeLoaded() throws Exception {
+        checkpointStore.save(new Checkpoint(10, 100));
+        assertThat(checkpointStore.load()).isEqualTo(new Checkpoint(10, 100));
+
+        checkpointStore.save(new Checkpoint(20, 200));
+        assertThat(checkpointStore.load()).isEqualTo(new Checkpoint(20, 200));
+    }
+
+    @Test
+    public void checkpointsShouldBeStoredPerJob() throws Exception {
+        checkpointStore.save(new Checkpoint(10, 100));
+        JdbcCheckpointStore otherCheckpointStore = new JdbcCheckpointStore(connection, "other-job");
+
+        assertThat(otherCheckpointStore.load()).isNull();
+    }
+
+    @Test
+    public void clearedCheckpointShouldNotBeLoaded() throws Exception {
+        checkpointStore.save(new Checkpoint(10, 100));
+        checkpointStore.clear();
+
+        assertThat(checkpointStore.load()).isNull();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        Statement statement = connection.createStatement();
+        statement.executeUpdate("DROP TABLE easybatch_checkpoint");
+        statement.close();
+        connection.close();
+    }
+
+}
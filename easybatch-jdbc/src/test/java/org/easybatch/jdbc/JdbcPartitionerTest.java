@@ -0,0 +1,118 @@
+package org.easybatch.jdbc;
+
+import org.easybatch.core.api.RecordReader;
+import org.hsqldb.jdbc.JDBCDataSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for {@link JdbcPartitioner}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class JdbcPartitionerTest {
+
+    private JDBCDataSource dataSource;
+
+    @Before
+    public void setUp() throws Exception {
+        dataSource = new JDBCDataSource();
+        dataSource.setUrl("jdbc:hsqldb:mem:partitioner");
+        dataSource.setUser("sa");
+        dataSource.setPassword("pwd");
+        Connection connection = dataSource.getConnection();
+        Statement statement = connection.createStatement();
+        statement.executeUpdate("CREATE TABLE person (id integer NOT NULL PRIMARY KEY, name varchar(32) NOT NULL);");
+        for (int i = 1; i <= 10; i++) {
+            statement.executeUpdate("INSERT INTO person VALUES (" + i * 3 + ",'person" + i + "');");
+        }
+        statement.close();
+        connection.close();
+    }
+
+    @Test
+    public void partitionsShouldCoverAllRowsWithoutOverlapping() throws Exception {
+        List<RecordReader> recordReaders = new JdbcPartitioner(dataSource, "select id, name from person", "id").partition(3);
+
+        assertThat(recordReaders).hasSize(3);
+        List<Integer> ids = new ArrayList<Integer>();
+        for (RecordReader recordReader : recordReaders) {
+            List<Integer> partitionIds = readIds(recordReader);
+            assertThat(partitionIds).isNotEmpty();
+            ids.addAll(partitionIds);
+        }
+        assertThat(ids).containsExactly(3, 6, 9, 12, 15, 18, 21, 24, 27, 30);
+    }
+
+    @Test
+    public void anEmptyResultShouldGiveASingleEmptyPartition() throws Exception {
+        List<RecordReader> recordReaders = new JdbcPartitioner(dataSource, "select id, name from person where id < 0", "id").partition(3);
+
+        assertThat(recordReaders).hasSize(1);
+        assertThat(readIds(recordReaders.get(0))).isEmpty();
+    }
+
+    @Test
+    public void partitionsShouldGetTheirConnectionWhenOpened() throws Exception {
+        DataSource spiedDataSource = spy(dataSource);
+        List<RecordReader> recordReaders = new JdbcPartitioner(spiedDataSource, "select id, name from person", "id").partition(3);
+
+        // only the connection used to query the id bounds, which is released right away
+        verify(spiedDataSource, times(1)).getConnection();
+
+        readIds(recordReaders.get(0));
+
+        verify(spiedDataSource, times(2)).getConnection();
+    }
+
+    @Test
+    public void whenThePartitionQueryFails_thenTheConnectionShouldBeReleased() throws Exception {
+        Connection connection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        DataSource mockedDataSource = mock(DataSource.class);
+        when(mockedDataSource.getConnection()).thenReturn(connection);
+        when(connection.createStatement(anyInt(), anyInt())).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenThrow(new SQLException("unknown column"));
+        JdbcRecordReader recordReader = new JdbcRecordReader(mockedDataSource, "select foo from person");
+
+        try {
+            recordReader.open();
+            fail("The reader should not be opened");
+        } catch (SQLException e) {
+            verify(statement).close();
+            verify(connection).close();
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        Connection connection = dataSource.getConnection();
+        Statement statement = connection.createStatement();
+        statement.executeUpdate("DROP TABLE person");
+        statement.close();
+        connection.close();
+    }
+
+    private List<Integer> readIds(RecordReader recordReader) throws Exception {
+        List<Integer> ids = new ArrayList<Integer>();
+        recordReader.open();
+        while (recordReader.hasNextRecord()) {
+            ids.add(((JdbcRecord) recordReader.readNextRecord()).getPayload().getInt("id"));
+        }
+        recordReader.close();
+        return ids;
+    }
+
+}
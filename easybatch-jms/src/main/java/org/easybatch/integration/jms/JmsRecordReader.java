@@ -28,7 +28,6 @@ import org.easybatch.core.api.Header;
 import org.easybatch.core.api.RecordReader;
 
 import javax.jms.*;
-import java.util.Date;
 
 /**
  * A record reader that reads records from a JMS queue.
@@ -55,6 +54,11 @@ public class JmsRecordReader implements RecordReader {
 
     private boolean stop;
 
+    /**
+     * The data source name, computed once when the reader is opened (it requires a call to the data source).
+     */
+    private String dataSourceName;
+
     /**
      * Create a Jms queue record reader.
      *
@@ -72,6 +76,7 @@ public class JmsRecordReader implements RecordReader {
         queueSession = queueConnection.createQueueSession(false, Session.AUTO_ACKNOWLEDGE);
         queueReceiver = queueSession.createReceiver(queue);
         queueConnection.start();
+        dataSourceName = getDataSourceName();
     }
 
     @Override
@@ -84,7 +89,7 @@ public class JmsRecordReader implements RecordReader {
         Message message = queueReceiver.receive();
         String type = message.getStringProperty("type");
         stop = message instanceof JmsPoisonMessage || (type != null && type.equals("poison"));
-        Header header = new Header(++currentRecordNumber, getDataSourceName(), new Date());
+        Header header = new Header(++currentRecordNumber, dataSourceName, System.currentTimeMillis());
         return new JmsRecord(header, message);
     }
 
@@ -96,6 +101,9 @@ public class JmsRecordReader implements RecordReader {
 
     @Override
     public String getDataSourceName() {
+        if (dataSourceName != null) {
+            return dataSourceName;
+        }
         try {
             return "JMS queue: " + queue.getQueueName();
         } catch (JMSException e) {
@@ -7,7 +7,6 @@ import org.easybatch.core.record.GenericRecord;
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.TypedQuery;
-import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
 
@@ -38,6 +37,11 @@ public class JpaRecordReader<T> implements RecordReader {
 
     private long currentRecordNumber;
 
+    /**
+     * The data source name, computed once when the reader is opened.
+     */
+    private String dataSourceName;
+
     public JpaRecordReader(EntityManagerFactory entityManagerFactory, String query, Class<T> type) {
         this.entityManager = entityManagerFactory.createEntityManager();
         this.query = query;
@@ -53,6 +57,7 @@ public class JpaRecordReader<T> implements RecordReader {
         }
         records = typedQuery.getResultList();
         iterator = records.iterator();
+        dataSourceName = getDataSourceName();
     }
 
     @Override
@@ -62,7 +67,7 @@ public class JpaRecordReader<T> implements RecordReader {
 
     @Override
     public GenericRecord<T> readNextRecord() throws Exception {
-        Header header = new Header(++currentRecordNumber, getDataSourceName(), new Date());
+        Header header = new Header(++currentRecordNumber, dataSourceName, System.currentTimeMillis());
         return new GenericRecord<T>(header, iterator.next());
     }
 
@@ -0,0 +1,131 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.tools.partitioning;
+
+import org.easybatch.core.api.Partitioner;
+import org.easybatch.core.api.RecordReader;
+import org.easybatch.core.api.Report;
+import org.easybatch.tools.reporting.DefaultReportMerger;
+import org.easybatch.tools.reporting.ReportMerger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Process a data source split by a {@link Partitioner}: each partition is processed by its own engine,
+ * engines run in parallel on an executor service and their reports are merged with a {@link ReportMerger}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class PartitionedExecution implements Callable<Report> {
+
+    private static final Logger LOGGER = Logger.getLogger(PartitionedExecution.class.getName());
+
+    private Partitioner partitioner;
+
+    private int partitions;
+
+    private EngineFactory engineFactory;
+
+    private ExecutorService executorService;
+
+    private ReportMerger reportMerger = new DefaultReportMerger();
+
+    /**
+     * Create a partitioned execution running engines on a dedicated thread pool of one thread per partition.
+     *
+     * @param partitioner   the partitioner of the data source
+     * @param partitions    the number of partitions
+     * @param engineFactory the factory of engines processing partitions
+     */
+    public PartitionedExecution(final Partitioner partitioner, final int partitions, final EngineFactory engineFactory) {
+        this(partitioner, partitions, engineFactory, null);
+    }
+
+    /**
+     * Create a partitioned execution running engines on a shared executor service.
+     * The executor service is not shut down at the end of the execution.
+     *
+     * @param partitioner     the partitioner of the data source
+     * @param partitions      the number of partitions
+     * @param engineFactory   the factory of engines processing partitions
+     * @param executorService the executor service to run engines on
+     */
+    public PartitionedExecution(final Partitioner partitioner, final int partitions, final EngineFactory engineFactory,
+                                final ExecutorService executorService) {
+        if (partitions < 1) {
+            throw new IllegalArgumentException("The number of partitions must be at least 1");
+        }
+        this.partitioner = partitioner;
+        this.partitions = partitions;
+        this.engineFactory = engineFactory;
+        this.executorService = executorService;
+    }
+
+    /**
+     * Process all partitions and wait for their completion.
+     *
+     * @return the merged report of all partitions
+     * @throws Exception thrown if the data source cannot be partitioned or if an engine fails unexpectedly
+     */
+    @Override
+    public Report call() throws Exception {
+        List<RecordReader> recordReaders = partitioner.partition(partitions);
+        LOGGER.log(Level.INFO, "Processing {0} partition(s)", recordReaders.size());
+        ExecutorService engineExecutor = executorService != null ?
+                executorService : Executors.newFixedThreadPool(recordReaders.size());
+        try {
+            List<Future<Report>> futures = new ArrayList<Future<Report>>();
+            for (int i = 0; i < recordReaders.size(); i++) {
+                futures.add(engineExecutor.submit(engineFactory.createEngine(i, recordReaders.get(i))));
+            }
+            Report[] reports = new Report[futures.size()];
+            for (int i = 0; i < reports.length; i++) {
+                reports[i] = futures.get(i).get();
+            }
+            return reportMerger.mergerReports(reports);
+        } finally {
+            if (executorService == null) {
+                engineExecutor.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Set the report merger used to merge partitions reports.
+     *
+     * @param reportMerger the report merger to use, {@link DefaultReportMerger} by default
+     */
+    public void setReportMerger(final ReportMerger reportMerger) {
+        this.reportMerger = reportMerger;
+    }
+
+}
@@ -26,6 +26,7 @@ package org.easybatch.tools.reporting;
 
 import org.easybatch.core.api.Report;
 import org.easybatch.core.api.Status;
+import org.easybatch.core.api.Step;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -42,11 +43,15 @@ import java.util.List;
  * <li>The total rejected records is the sum of total rejected records</li>
  * <li>The total error records is the sum of total error records</li>
  * <li>The total success records is the sum of total success records</li>
+ * <li>The total retries is the sum of total retries</li>
+ * <li>The total slow records is the sum of total slow records</li>
  * <li>The final processing times map is the merge of processing times maps</li>
+ * <li>The latency histogram of each step is the merge of latency histograms of the step</li>
  * <li>The final batch result is a list of all batch results</li>
  * <li>The final data source name is the concatenation (one per line) of data sources names</li>
- * <li>The final status is {@link org.easybatch.core.api.Status#FINISHED} (if all partials are finished)
- * or {@link org.easybatch.core.api.Status#ABORTED} (if one of partials is aborted).</li>
+ * <li>The final status is {@link org.easybatch.core.api.Status#FINISHED} (if all partials are finished),
+ * {@link org.easybatch.core.api.Status#ABORTED} (if one of partials is aborted)
+ * or {@link org.easybatch.core.api.Status#STOPPED} (if one of partials is stopped and none is aborted).</li>
  * </ul>
  *
  * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
@@ -78,26 +83,23 @@ public class DefaultReportMerger implements ReportMerger {
             startTimes.add(report.getStartTime());
             endTimes.add(report.getEndTime());
             totalRecords += report.getTotalRecords();
-            for (int i = 0; i < report.getFilteredRecordsCount(); i++) {
-                finalReport.incrementTotalFilteredRecords();
-            }
-            for (int i = 0; i < report.getIgnoredRecordsCount(); i++) {
-                finalReport.incrementTotalIgnoredRecord();
-            }
-            for (int i = 0; i < report.getRejectedRecordsCount(); i++) {
-                finalReport.incrementTotalRejectedRecord();
-            }
-            for (int i = 0; i < report.getErrorRecordsCount(); i++) {
-                finalReport.incrementTotalErrorRecord();
-            }
-            for (int i = 0; i < report.getSuccessRecordsCount(); i++) {
-                finalReport.incrementTotalSuccessRecord();
+            finalReport.incrementTotalFilteredRecords(report.getFilteredRecordsCount());
+            finalReport.incrementTotalIgnoredRecord(report.getIgnoredRecordsCount());
+            finalReport.incrementTotalRejectedRecord(report.getRejectedRecordsCount());
+            finalReport.incrementTotalErrorRecord(report.getErrorRecordsCount());
+            finalReport.incrementTotalSuccessRecord(report.getSuccessRecordsCount());
+            finalReport.incrementTotalRetries(report.getRetriesCount());
+            finalReport.incrementTotalSlowRecords(report.getSlowRecordsCount());
+            for (Step step : Step.values()) {
+                finalReport.getLatencyHistogram(step).add(report.getLatencyHistogram(step));
             }
             if (report.getBatchResult() != null) {
                 results.add(report.getBatchResult());
             }
             if (Status.ABORTED.equals(report.getStatus())) {
                 finalReport.setStatus(Status.ABORTED);
+            } else if (Status.STOPPED.equals(report.getStatus()) && !Status.ABORTED.equals(finalReport.getStatus())) {
+                finalReport.setStatus(Status.STOPPED);
             }
             datasources.add(report.getDataSource());
         }
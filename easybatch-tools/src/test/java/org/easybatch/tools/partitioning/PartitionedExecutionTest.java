@@ -0,0 +1,64 @@
+package org.easybatch.tools.partitioning;
+
+import org.easybatch.core.api.RecordProcessor;
+import org.easybatch.core.api.RecordReader;
+import org.easybatch.core.api.Report;
+import org.easybatch.core.api.Status;
+import org.easybatch.core.impl.Engine;
+import org.easybatch.core.mapper.GenericRecordMapper;
+import org.easybatch.core.partitioner.ListPartitioner;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.easybatch.core.impl.EngineBuilder.aNewEngine;
+
+/**
+ * Test class for {@link PartitionedExecution}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class PartitionedExecutionTest {
+
+    @Test
+    public void allPartitionsShouldBeProcessedAndTheirReportsMerged() throws Exception {
+        final List<Integer> processed = Collections.synchronizedList(new ArrayList<Integer>());
+        List<Integer> integers = new ArrayList<Integer>();
+        for (int i = 1; i <= 100; i++) {
+            integers.add(i);
+        }
+
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        PartitionedExecution partitionedExecution = new PartitionedExecution(new ListPartitioner<Integer>(integers), 4,
+                new EngineFactory() {
+                    public Engine createEngine(int partition, RecordReader recordReader) {
+                        return aNewEngine()
+                                .withName("partition-" + partition)
+                                .reader(recordReader)
+                                .mapper(new GenericRecordMapper())
+                                .processor(new RecordProcessor<Integer, Integer>() {
+                                    public Integer processRecord(Integer record) {
+                                        processed.add(record);
+                                        return record;
+                                    }
+                                })
+                                .build();
+                    }
+                }, executorService);
+
+        Report report = partitionedExecution.call();
+        executorService.shutdown();
+
+        assertThat(report.getStatus()).isEqualTo(Status.FINISHED);
+        assertThat(report.getTotalRecords()).isEqualTo(100);
+        assertThat(report.getSuccessRecordsCount()).isEqualTo(100);
+        Collections.sort(processed);
+        assertThat(processed).isEqualTo(integers);
+    }
+
+}
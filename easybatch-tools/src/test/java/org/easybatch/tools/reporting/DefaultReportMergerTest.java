@@ -26,6 +26,7 @@ package org.easybatch.tools.reporting;
 
 import org.easybatch.core.api.Report;
 import org.easybatch.core.api.Status;
+import org.easybatch.core.api.Step;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -62,6 +63,9 @@ public class DefaultReportMergerTest {
         report1.setBatchResult("result1");
         report1.setDataSource("datasource1");
         report1.setStatus(Status.ABORTED);
+        report1.recordLatency(Step.PROCESS, 1000);
+        report1.incrementTotalRetries();
+        report1.incrementTotalSlowRecords();
 
         Report report2 = new Report();
         long startTime2 = 2l;
@@ -77,6 +81,8 @@ public class DefaultReportMergerTest {
         report2.setBatchResult("result2");
         report2.setDataSource("datasource2");
         report2.setStatus(Status.ABORTED);
+        report2.recordLatency(Step.PROCESS, 3000);
+        report2.incrementTotalRetries(2);
 
         Report finalReport = reportMerger.mergerReports(report1, report2);
 
@@ -86,8 +92,12 @@ public class DefaultReportMergerTest {
         assertEquals(2, finalReport.getRejectedRecordsCount());// sum of rejected records
         assertEquals(2, finalReport.getErrorRecordsCount());// sum of error records
         assertEquals(2, finalReport.getSuccessRecordsCount());// sum of success records
+        assertEquals(3, finalReport.getRetriesCount());// sum of retries
+        assertEquals(1, finalReport.getSlowRecordsCount());// sum of slow records
         assertEquals(1, finalReport.getStartTime());// min of start times
         assertEquals(11, finalReport.getEndTime());// max of end times
+        assertEquals(2, finalReport.getLatencyHistogram(Step.PROCESS).getCount());// merge of latency histograms
+        assertEquals(3000, finalReport.getLatencyHistogram(Step.PROCESS).getMax());
 
         //batch results
         List<Object> results = (List<Object>) finalReport.getBatchResult();
@@ -101,4 +111,23 @@ public class DefaultReportMergerTest {
         assertEquals(Status.ABORTED, finalReport.getStatus());
 
     }
+
+    @Test
+    public void whenOnePartialReportIsStopped_thenTheFinalReportShouldBeStopped() throws Exception {
+        Report report1 = new Report();
+        report1.setTotalRecords(5l);
+        report1.setStatus(Status.FINISHED);
+
+        Report report2 = new Report();
+        report2.setTotalRecords(3l);
+        report2.setStatus(Status.STOPPED);
+
+        assertEquals(Status.STOPPED, reportMerger.mergerReports(report1, report2).getStatus());
+
+        Report report3 = new Report();
+        report3.setTotalRecords(1l);
+        report3.setStatus(Status.ABORTED);
+
+        assertEquals(Status.ABORTED, reportMerger.mergerReports(report1, report2, report3).getStatus());
+    }
 }
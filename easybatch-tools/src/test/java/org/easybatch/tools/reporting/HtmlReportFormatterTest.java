@@ -26,6 +26,7 @@ package org.easybatch.tools.reporting;
 
 import org.easybatch.core.api.Report;
 import org.easybatch.core.api.Status;
+import org.easybatch.core.api.Step;
 import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Test;
@@ -91,4 +92,21 @@ public class HtmlReportFormatterTest {
         assertThat(result).isEqualTo(expectedResult);
     }
 
+    @Test
+    public void whenLatenciesAreRecorded_thenTheyShouldBeRendered() {
+        report.recordLatency(Step.READ, 1500);
+        report.recordLatency(Step.PROCESS, 2500000);
+
+        String result = reportFormatter.formatReport(report);
+
+        assertThat(result).contains("<td>read</td>").contains("<td>process</td>").contains("2.5ms").doesNotContain("<td>map</td>");
+    }
+
+    @Test
+    public void whenNoLatencyIsRecorded_thenTheLatencyTableShouldNotBeRendered() {
+        String result = reportFormatter.formatReport(report);
+
+        assertThat(result).doesNotContain("latencies");
+    }
+
 }
@@ -32,7 +32,6 @@ import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.events.EndDocument;
 import javax.xml.stream.events.XMLEvent;
 import java.io.InputStream;
-import java.util.Date;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -102,7 +101,7 @@ public class XmlRecordReader implements RecordReader {
         }
         //append root element end tag
         stringBuilder.append(xmlEventReader.nextEvent().toString());
-        Header header = new Header(++currentRecordNumber, getDataSourceName(), new Date());
+        Header header = new Header(++currentRecordNumber, getDataSourceName(), System.currentTimeMillis());
         return new XmlRecord(header, stringBuilder.toString());
     }
 